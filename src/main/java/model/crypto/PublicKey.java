@@ -12,6 +12,15 @@ public abstract class PublicKey {
     this.bytes = bytes.clone();
   }
 
+  /**
+   * Returns the encoded representation of this public key.
+   *
+   * @return encoded bytes of this public key.
+   */
+  public byte[] getBytes() {
+    return bytes.clone();
+  }
+
   /**
    * Implements signature verification.
    *
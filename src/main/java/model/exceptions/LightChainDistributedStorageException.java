@@ -3,4 +3,12 @@ package model.exceptions;
 /**
  * Represents a runtime exception happens on distributed storage layer of LightChain.
  */
-public class LightChainDistributedStorageException extends Exception{}
+public class LightChainDistributedStorageException extends Exception {
+  public LightChainDistributedStorageException() {
+    super();
+  }
+
+  public LightChainDistributedStorageException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
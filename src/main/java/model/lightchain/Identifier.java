@@ -78,4 +78,15 @@ public class Identifier implements Serializable {
     int result = Arrays.compare(this.value, other.value);
     return Integer.compare(result, 0);
   }
+
+  /**
+   * Checks whether this identifier falls within the given bounds, in the order of comparedTo.
+   *
+   * @param from lower bound (inclusive), or null for no lower bound.
+   * @param to   upper bound (exclusive), or null for no upper bound.
+   * @return true if this identifier is within the bounds, false otherwise.
+   */
+  public boolean isWithin(Identifier from, Identifier to) {
+    return (from == null || this.comparedTo(from) >= 0) && (to == null || this.comparedTo(to) < 0);
+  }
 }
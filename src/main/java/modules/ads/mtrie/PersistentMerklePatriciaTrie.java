@@ -0,0 +1,273 @@
+package modules.ads.mtrie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import crypto.Sha3256Hasher;
+import model.crypto.Sha3256Hash;
+import model.lightchain.Identifier;
+import modules.ads.MembershipProof;
+import modules.ads.merkletree.MerklePath;
+import modules.ads.merkletree.MerkleProof;
+
+/**
+ * Implementation of an immutable, path-compressed binary Merkle Patricia trie that maps identifiers to the hash of
+ * their values. Updating a key returns a new trie that shares every untouched subtree with the original one, so only
+ * the nodes on the path of the updated key are created and rehashed. This makes it cheap to keep a trie per version
+ * of a key-value set, e.g., per snapshot of the protocol state.
+ *
+ * <p>A leaf hashes its key along with its value hash, and an inner node hashes its left and right children, so a
+ * membership proof is the list of sibling hashes from the leaf up to the root, as for the Merkle tree.
+ */
+public final class PersistentMerklePatriciaTrie {
+  /**
+   * The empty trie.
+   */
+  public static final PersistentMerklePatriciaTrie EMPTY = new PersistentMerklePatriciaTrie(null, 0);
+  private static final Sha3256Hasher hasher = new Sha3256Hasher();
+  private static final Sha3256Hash EMPTY_ROOT = new Sha3256Hash(new byte[Sha3256Hash.Size]);
+  private static final byte LEAF_MARKER = 0;
+
+  private final Node root;
+  private final int size;
+
+  private PersistentMerklePatriciaTrie(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a trie in which the given key maps to the given value hash, and every other key maps to the same value
+   * hash as in this trie. This trie is left unchanged.
+   *
+   * @param key       the key to put.
+   * @param valueHash hash of the value of the key.
+   * @return the updated trie.
+   * @throws IllegalArgumentException if the key or the value hash is null.
+   */
+  public PersistentMerklePatriciaTrie put(Identifier key, Sha3256Hash valueHash) throws IllegalArgumentException {
+    if (key == null || valueHash == null) {
+      throw new IllegalArgumentException("key and value hash cannot be null");
+    }
+    byte[] keyBytes = key.getBytes();
+    Leaf leaf = new Leaf(keyBytes, valueHash);
+    if (this.root == null) {
+      return new PersistentMerklePatriciaTrie(leaf, 1);
+    }
+
+    Leaf closest = this.root.closest(keyBytes);
+    int critBit = firstDifferingBit(keyBytes, closest.key);
+    if (critBit < 0) {
+      if (closest.valueHash.equals(valueHash)) {
+        return this;
+      }
+      return new PersistentMerklePatriciaTrie(replace(this.root, leaf), this.size);
+    }
+    return new PersistentMerklePatriciaTrie(insert(this.root, leaf, critBit), this.size + 1);
+  }
+
+  /**
+   * Returns the value hash of the given key.
+   *
+   * @param key the key to look up.
+   * @return the value hash of the key, or null if the key is not in the trie.
+   */
+  public Sha3256Hash get(Identifier key) {
+    if (this.root == null) {
+      return null;
+    }
+    byte[] keyBytes = key.getBytes();
+    Leaf closest = this.root.closest(keyBytes);
+    return Arrays.equals(closest.key, keyBytes) ? closest.valueHash : null;
+  }
+
+  /**
+   * Root hash of the trie, which commits to every key and value hash in it.
+   *
+   * @return the root hash of the trie, or an all-zero hash if the trie is empty.
+   */
+  public Sha3256Hash root() {
+    return this.root == null ? EMPTY_ROOT : this.root.hash;
+  }
+
+  /**
+   * Returns a membership proof of the given key against the root of this trie.
+   *
+   * @param key the key to prove.
+   * @return membership proof of the key, or null if the key is not in the trie.
+   */
+  public MembershipProof proof(Identifier key) {
+    if (this.root == null) {
+      return null;
+    }
+    byte[] keyBytes = key.getBytes();
+    ArrayList<Sha3256Hash> path = new ArrayList<>();
+    ArrayList<Boolean> isLeftNode = new ArrayList<>();
+    Node current = this.root;
+    while (current instanceof Branch) {
+      Branch branch = (Branch) current;
+      boolean left = !bitAt(keyBytes, branch.bit);
+      path.add(left ? branch.right.hash : branch.left.hash);
+      isLeftNode.add(left);
+      current = left ? branch.left : branch.right;
+    }
+    if (!Arrays.equals(((Leaf) current).key, keyBytes)) {
+      return null;
+    }
+    Collections.reverse(path);
+    Collections.reverse(isLeftNode);
+    return new MerkleProof(this.root.hash, new MerklePath(path, isLeftNode));
+  }
+
+  /**
+   * Number of keys in the trie.
+   *
+   * @return number of keys in the trie.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Verifies that the given key maps to the given value hash in the trie committed by the root of the proof.
+   *
+   * @param key       the key to verify.
+   * @param valueHash the claimed value hash of the key.
+   * @param proof     membership proof of the key.
+   * @return true if the proof is valid for the key and value hash against its root, false otherwise.
+   */
+  public static boolean verify(Identifier key, Sha3256Hash valueHash, MembershipProof proof) {
+    MerklePath merklePath = proof.getMerklePath();
+    ArrayList<Sha3256Hash> path = merklePath.getPath();
+    ArrayList<Boolean> isLeftNode = merklePath.getIsLeftNode();
+    if (path.size() != isLeftNode.size()) {
+      return false;
+    }
+    Sha3256Hash current = leafHash(key.getBytes(), valueHash);
+    for (int i = 0; i < path.size(); i++) {
+      if (isLeftNode.get(i)) {
+        current = hasher.computeHash(current, path.get(i));
+      } else {
+        current = hasher.computeHash(path.get(i), current);
+      }
+    }
+    return current.equals(proof.getRoot());
+  }
+
+  /**
+   * Inserts a new leaf whose key first differs from the keys of the trie at the given bit.
+   */
+  private static Node insert(Node node, Leaf leaf, int critBit) {
+    if (node instanceof Branch && ((Branch) node).bit < critBit) {
+      Branch branch = (Branch) node;
+      if (bitAt(leaf.key, branch.bit)) {
+        return new Branch(branch.bit, branch.left, insert(branch.right, leaf, critBit));
+      }
+      return new Branch(branch.bit, insert(branch.left, leaf, critBit), branch.right);
+    }
+    return bitAt(leaf.key, critBit) ? new Branch(critBit, node, leaf) : new Branch(critBit, leaf, node);
+  }
+
+  /**
+   * Replaces the leaf that has the same key as the given leaf.
+   */
+  private static Node replace(Node node, Leaf leaf) {
+    if (node instanceof Leaf) {
+      return leaf;
+    }
+    Branch branch = (Branch) node;
+    if (bitAt(leaf.key, branch.bit)) {
+      return new Branch(branch.bit, branch.left, replace(branch.right, leaf));
+    }
+    return new Branch(branch.bit, replace(branch.left, leaf), branch.right);
+  }
+
+  private static boolean bitAt(byte[] key, int bit) {
+    return ((key[bit >>> 3] >>> (7 - (bit & 7))) & 1) == 1;
+  }
+
+  /**
+   * Index of the first bit at which the given keys differ, from the most significant bit of the first byte.
+   *
+   * @return index of the first differing bit, or -1 if the keys are equal.
+   */
+  private static int firstDifferingBit(byte[] a, byte[] b) {
+    int index = Arrays.mismatch(a, b);
+    if (index < 0) {
+      return -1;
+    }
+    return index * 8 + Integer.numberOfLeadingZeros((a[index] ^ b[index]) & 0xFF) - 24;
+  }
+
+  /**
+   * Hashes a leaf. The leaf encoding is prefixed by a marker byte, so that it never has the length of an inner node
+   * encoding, and a leaf cannot be passed off as an inner node or vice versa.
+   */
+  private static Sha3256Hash leafHash(byte[] key, Sha3256Hash valueHash) {
+    byte[] valueBytes = valueHash.getBytes();
+    byte[] encoded = new byte[1 + key.length + valueBytes.length];
+    encoded[0] = LEAF_MARKER;
+    System.arraycopy(key, 0, encoded, 1, key.length);
+    System.arraycopy(valueBytes, 0, encoded, 1 + key.length, valueBytes.length);
+    return hasher.computeHash(encoded);
+  }
+
+  /**
+   * A node of the trie; nodes are never modified once created.
+   */
+  private abstract static class Node {
+    final Sha3256Hash hash;
+
+    Node(Sha3256Hash hash) {
+      this.hash = hash;
+    }
+
+    /**
+     * Descends by the bits of the given key down to a leaf, which is the only leaf that may hold the key.
+     */
+    abstract Leaf closest(byte[] key);
+  }
+
+  private static final class Leaf extends Node {
+    final byte[] key;
+    final Sha3256Hash valueHash;
+
+    Leaf(byte[] key, Sha3256Hash valueHash) {
+      super(leafHash(key, valueHash));
+      this.key = key;
+      this.valueHash = valueHash;
+    }
+
+    @Override
+    Leaf closest(byte[] key) {
+      return this;
+    }
+  }
+
+  private static final class Branch extends Node {
+    /**
+     * Index of the first bit at which the keys of the left and right subtrees differ.
+     */
+    final int bit;
+    final Node left;
+    final Node right;
+
+    Branch(int bit, Node left, Node right) {
+      super(hasher.computeHash(left.hash, right.hash));
+      this.bit = bit;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Leaf closest(byte[] key) {
+      Node current = this;
+      while (current instanceof Branch) {
+        Branch branch = (Branch) current;
+        current = bitAt(key, branch.bit) ? branch.right : branch.left;
+      }
+      return (Leaf) current;
+    }
+  }
+}
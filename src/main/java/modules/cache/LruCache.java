@@ -0,0 +1,222 @@
+package modules.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Implements a thread-safe least-recently-used cache that is bounded by the total weight of its entries. By default
+ * every entry weighs one, i.e., the cache is bounded by its number of entries. A cache weighed by the estimated size
+ * in bytes of its entries can be governed by a {@link MemoryBudget}.
+ *
+ * @param <K> type of keys.
+ * @param <V> type of cached values.
+ */
+public class LruCache<K, V> implements MemoryConsumer {
+  private final LinkedHashMap<K, V> entries;
+  private final ToLongFunction<V> weigher;
+
+  /**
+   * Whether the weight of an entry is its estimated size in bytes, rather than one per entry.
+   */
+  private final boolean weighedInBytes;
+  private final long capacity;
+  private long weight;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+
+  /**
+   * Creates a cache bounded by its number of entries.
+   *
+   * @param capacity maximum number of entries kept in the cache.
+   */
+  public LruCache(long capacity) {
+    this(capacity, v -> 1, false);
+  }
+
+  /**
+   * Creates a cache bounded by the total weight of its entries.
+   *
+   * @param capacity maximum total weight of entries kept in the cache.
+   * @param weigher  computes the weight of a value, e.g., its estimated size in bytes.
+   * @throws IllegalArgumentException if capacity is not positive.
+   */
+  public LruCache(long capacity, ToLongFunction<V> weigher) throws IllegalArgumentException {
+    this(capacity, weigher, true);
+  }
+
+  private LruCache(long capacity, ToLongFunction<V> weigher, boolean weighedInBytes) throws IllegalArgumentException {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("cache capacity must be positive: " + capacity);
+    }
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.weigher = weigher;
+    this.weighedInBytes = weighedInBytes;
+    this.capacity = capacity;
+    this.weight = 0;
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+  }
+
+  /**
+   * Returns the cached value of the given key, and marks it as the most recently used entry.
+   *
+   * @param key key of the entry.
+   * @return the cached value, or null if the key is not cached.
+   */
+  public synchronized V get(K key) {
+    V value = this.entries.get(key);
+    if (value == null) {
+      this.misses.incrementAndGet();
+    } else {
+      this.hits.incrementAndGet();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the cached value of the given key without counting a hit or a miss, e.g., for a lookup made on behalf of
+   * another entry. A cached value is still marked as the most recently used entry.
+   *
+   * @param key key of the entry.
+   * @return the cached value, or null if the key is not cached.
+   */
+  public synchronized V peek(K key) {
+    return this.entries.get(key);
+  }
+
+  /**
+   * Caches the given value as the most recently used entry, and evicts the least recently used entries until the
+   * cache is back within its capacity. A value heavier than the whole capacity is not cached.
+   *
+   * @param key   key of the entry.
+   * @param value value of the entry.
+   */
+  public synchronized void put(K key, V value) {
+    long valueWeight = this.weigher.applyAsLong(value);
+    V old = this.entries.remove(key);
+    if (old != null) {
+      this.weight -= this.weigher.applyAsLong(old);
+    }
+    if (valueWeight > this.capacity) {
+      return;
+    }
+    this.entries.put(key, value);
+    this.weight += valueWeight;
+    this.shrinkTo(this.capacity);
+  }
+
+  /**
+   * Removes the given key from the cache.
+   *
+   * @param key key of the entry.
+   * @return the removed value, or null if the key was not cached.
+   */
+  public synchronized V remove(K key) {
+    V old = this.entries.remove(key);
+    if (old != null) {
+      this.weight -= this.weigher.applyAsLong(old);
+    }
+    return old;
+  }
+
+  /**
+   * Evicts the least recently used entries until the total weight of the cache is at most the given weight.
+   *
+   * @param target the total weight to shrink the cache to.
+   * @return the total weight evicted.
+   */
+  @Override
+  public synchronized long shrinkTo(long target) {
+    long evicted = 0;
+    Iterator<Map.Entry<K, V>> iterator = this.entries.entrySet().iterator();
+    while (this.weight > target && iterator.hasNext()) {
+      long w = this.weigher.applyAsLong(iterator.next().getValue());
+      iterator.remove();
+      this.weight -= w;
+      evicted += w;
+    }
+    return evicted;
+  }
+
+  /**
+   * Removes every entry of the cache.
+   */
+  public synchronized void clear() {
+    this.entries.clear();
+    this.weight = 0;
+  }
+
+  /**
+   * Number of entries currently cached.
+   *
+   * @return number of entries currently cached.
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * Total weight of entries currently cached.
+   *
+   * @return total weight of entries currently cached.
+   */
+  public synchronized long weight() {
+    return this.weight;
+  }
+
+  /**
+   * Total weight of entries currently cached, which is their estimated size in bytes if the weigher estimates it.
+   *
+   * @return total weight of entries currently cached.
+   */
+  @Override
+  public long estimatedBytes() {
+    return this.weight();
+  }
+
+  /**
+   * Whether the cache is weighed by the estimated size in bytes of its entries, i.e., created with a weigher, rather
+   * than by its number of entries.
+   *
+   * @return true if the weight of the cache is its estimated size in bytes, false otherwise.
+   */
+  public boolean isWeighedInBytes() {
+    return this.weighedInBytes;
+  }
+
+  public long capacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Number of lookups that found their key in the cache.
+   *
+   * @return number of cache hits so far.
+   */
+  public long hits() {
+    return this.hits.get();
+  }
+
+  /**
+   * Number of lookups that did not find their key in the cache.
+   *
+   * @return number of cache misses so far.
+   */
+  public long misses() {
+    return this.misses.get();
+  }
+
+  /**
+   * Fraction of lookups that found their key in the cache.
+   *
+   * @return hit rate of the cache, or zero if there has been no lookup yet.
+   */
+  public double hitRate() {
+    long h = this.hits.get();
+    long total = h + this.misses.get();
+    return total == 0 ? 0 : (double) h / total;
+  }
+}
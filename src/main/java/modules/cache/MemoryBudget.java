@@ -0,0 +1,253 @@
+package modules.cache;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import metrics.Collector;
+
+/**
+ * Implements a memory budget shared by the caches and in-memory stores of a node. Consumers register with the budget
+ * under a name, and whenever their estimated footprints together exceed the budget, every consumer is shrunk by the
+ * same fraction of its footprint, until the total is back at a low watermark below the budget. Shrinking below the
+ * budget, rather than to it, leaves headroom for a burst before the next eviction.
+ *
+ * <p>The budget is enforced by {@link #rebalance()}, which is either called by the node, e.g., after a burst of
+ * writes, or periodically by the background thread started with {@link #start(long)}.
+ */
+public class MemoryBudget {
+  /**
+   * Default fraction of the maximum heap size given to the budget.
+   */
+  public static final double DEFAULT_HEAP_FRACTION = 0.25;
+
+  /**
+   * Fraction of the budget that the total footprint is shrunk to once it exceeds the budget.
+   */
+  public static final double LOW_WATERMARK = 0.9;
+
+  /**
+   * Default subsystem the metrics of the budget are reported under.
+   */
+  public static final String DEFAULT_SUBSYSTEM = "budget";
+  private static final Pattern NAME_PATTERN = Pattern.compile("[a-z][a-z0-9_]*");
+  private static final String NAMESPACE_MEMORY = "memory";
+
+  private final long budgetBytes;
+  private final Collector collector;
+  private final String subsystem;
+  private final ConcurrentHashMap<String, MemoryConsumer> consumers;
+  private final ConcurrentHashMap<String, Gauge> consumerGauges;
+  private final Gauge usedBytesGauge;
+  private final Counter evictedBytesCounter;
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Constructor of MemoryBudget with the default fraction of the maximum heap size, and metrics disabled.
+   */
+  public MemoryBudget() {
+    this((long) (Runtime.getRuntime().maxMemory() * DEFAULT_HEAP_FRACTION), null, DEFAULT_SUBSYSTEM);
+  }
+
+  /**
+   * Constructor of MemoryBudget.
+   *
+   * @param budgetBytes maximum estimated size in bytes of all consumers together.
+   * @param collector   metrics collector to report the budget, the footprint of every consumer and the evicted bytes
+   *                    on, or null to disable metrics.
+   * @param subsystem   subsystem the metrics are reported under, distinct for every budget reporting on the same
+   *                    collector.
+   * @throws IllegalArgumentException if the budget is not positive, or the metrics of the subsystem are already
+   *                                  registered.
+   */
+  public MemoryBudget(long budgetBytes, Collector collector, String subsystem) throws IllegalArgumentException {
+    if (budgetBytes <= 0) {
+      throw new IllegalArgumentException("memory budget must be positive, got: " + budgetBytes);
+    }
+    this.budgetBytes = budgetBytes;
+    this.collector = collector;
+    this.subsystem = subsystem;
+    this.consumers = new ConcurrentHashMap<>();
+    this.consumerGauges = new ConcurrentHashMap<>();
+
+    if (collector != null) {
+      Gauge budgetGauge = collector.gauge().register("budget_bytes",
+          NAMESPACE_MEMORY, subsystem, "Maximum estimated size in bytes of all memory consumers");
+      budgetGauge.set(budgetBytes);
+      this.usedBytesGauge = collector.gauge().register("used_bytes",
+          NAMESPACE_MEMORY, subsystem, "Estimated size in bytes of all memory consumers");
+      this.evictedBytesCounter = collector.counter().register("evicted_bytes",
+          NAMESPACE_MEMORY, subsystem, "Estimated bytes evicted from memory consumers under pressure");
+    } else {
+      this.usedBytesGauge = null;
+      this.evictedBytesCounter = null;
+    }
+  }
+
+  /**
+   * Registers a consumer with the budget. Its footprint is reported on the metrics as {@code <name>_bytes}.
+   *
+   * @param name     unique name of the consumer, made of lowercase letters, digits and underscores.
+   * @param consumer the consumer to govern, whose footprint is estimated in bytes.
+   * @throws IllegalArgumentException if the name is invalid or already registered, or the consumer is a cache
+   *                                  bounded by its number of entries, whose weight is not a size in bytes.
+   */
+  public synchronized void register(String name, MemoryConsumer consumer) throws IllegalArgumentException {
+    if (!NAME_PATTERN.matcher(name).matches()) {
+      throw new IllegalArgumentException("invalid memory consumer name: " + name);
+    }
+    if (consumer instanceof LruCache && !((LruCache<?, ?>) consumer).isWeighedInBytes()) {
+      throw new IllegalArgumentException("memory consumer is not weighed in bytes: " + name);
+    }
+    if (this.consumers.containsKey(name)) {
+      throw new IllegalArgumentException("memory consumer already registered: " + name);
+    }
+    this.consumers.put(name, consumer);
+    if (this.collector != null && !this.consumerGauges.containsKey(name)) {
+      // gauges cannot be unregistered from the collector, so a name registered again reuses its gauge.
+      this.consumerGauges.put(name, this.collector.gauge().register(name + "_bytes",
+          NAMESPACE_MEMORY, this.subsystem, "Estimated size in bytes of the " + name + " memory consumer"));
+    }
+  }
+
+  /**
+   * Unregisters a consumer, which is no longer shrunk by the budget.
+   *
+   * @param name name of the consumer.
+   * @return true if the consumer was registered, false otherwise.
+   */
+  public synchronized boolean unregister(String name) {
+    if (this.consumers.remove(name) == null) {
+      return false;
+    }
+    Gauge gauge = this.consumerGauges.get(name);
+    if (gauge != null) {
+      gauge.set(0);
+    }
+    return true;
+  }
+
+  /**
+   * Enforces the budget: if the consumers together exceed it, each of them is shrunk to the same fraction of its
+   * footprint, so that the total falls to the low watermark. The share left over by consumers that evict less than
+   * asked, e.g., stores whose entries are retained by a policy of their own, is then taken from the others, again in
+   * proportion to their footprint.
+   *
+   * @return the estimated bytes evicted.
+   */
+  public synchronized long rebalance() {
+    long used = this.usedBytes();
+    long evicted = 0;
+    long target = (long) (this.budgetBytes * LOW_WATERMARK);
+    if (used > this.budgetBytes) {
+      double fraction = (double) target / used;
+      ArrayList<MemoryConsumer> flexible = new ArrayList<>();
+      for (MemoryConsumer consumer : this.consumers.values()) {
+        long share = (long) (consumer.estimatedBytes() * fraction);
+        evicted += consumer.shrinkTo(share);
+        if (consumer.estimatedBytes() <= share) {
+          flexible.add(consumer);
+        }
+      }
+
+      long excess = this.usedBytes() - target;
+      long flexibleBytes = 0;
+      for (MemoryConsumer consumer : flexible) {
+        flexibleBytes += consumer.estimatedBytes();
+      }
+      if (excess > 0 && flexibleBytes > 0) {
+        double remaining = Math.max(0, 1 - (double) excess / flexibleBytes);
+        for (MemoryConsumer consumer : flexible) {
+          evicted += consumer.shrinkTo((long) (consumer.estimatedBytes() * remaining));
+        }
+      }
+    }
+    this.updateMetrics(evicted);
+    return evicted;
+  }
+
+  /**
+   * Starts a background thread that rebalances the budget at a fixed interval.
+   *
+   * @param intervalMs interval between two rebalances in milliseconds.
+   * @throws IllegalArgumentException if the interval is not positive.
+   * @throws IllegalStateException    if the background thread is already started.
+   */
+  public synchronized void start(long intervalMs) throws IllegalArgumentException, IllegalStateException {
+    if (intervalMs <= 0) {
+      throw new IllegalArgumentException("rebalance interval must be positive, got: " + intervalMs);
+    }
+    if (this.scheduler != null) {
+      throw new IllegalStateException("memory budget is already started");
+    }
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "memory-budget");
+      t.setDaemon(true);
+      return t;
+    });
+    this.scheduler.scheduleWithFixedDelay(this::rebalance, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the background thread, if started.
+   */
+  public synchronized void stop() {
+    if (this.scheduler != null) {
+      this.scheduler.shutdown();
+      this.scheduler = null;
+    }
+  }
+
+  /**
+   * Maximum estimated size in bytes of all consumers together.
+   *
+   * @return the budget in bytes.
+   */
+  public long budgetBytes() {
+    return this.budgetBytes;
+  }
+
+  /**
+   * Estimated size in bytes of all consumers together.
+   *
+   * @return the estimated footprint of all consumers in bytes.
+   */
+  public long usedBytes() {
+    long used = 0;
+    for (MemoryConsumer consumer : this.consumers.values()) {
+      used += consumer.estimatedBytes();
+    }
+    return used;
+  }
+
+  /**
+   * Estimated size in bytes of a registered consumer.
+   *
+   * @param name name of the consumer.
+   * @return the estimated footprint of the consumer in bytes, or zero if it is not registered.
+   */
+  public long usedBytes(String name) {
+    MemoryConsumer consumer = this.consumers.get(name);
+    return consumer == null ? 0 : consumer.estimatedBytes();
+  }
+
+  private void updateMetrics(long evicted) {
+    if (this.collector == null) {
+      return;
+    }
+    long used = 0;
+    for (Map.Entry<String, MemoryConsumer> entry : this.consumers.entrySet()) {
+      long bytes = entry.getValue().estimatedBytes();
+      this.consumerGauges.get(entry.getKey()).set(bytes);
+      used += bytes;
+    }
+    this.usedBytesGauge.set(used);
+    this.evictedBytesCounter.inc(evicted);
+  }
+}
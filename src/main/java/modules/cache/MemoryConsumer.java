@@ -0,0 +1,22 @@
+package modules.cache;
+
+/**
+ * Represents an in-memory store, e.g., a cache, whose estimated heap footprint is governed by a {@link MemoryBudget}.
+ */
+public interface MemoryConsumer {
+  /**
+   * Estimated heap footprint of the entries currently held.
+   *
+   * @return estimated size of the held entries in bytes.
+   */
+  long estimatedBytes();
+
+  /**
+   * Evicts entries until the estimated footprint is at most the given size. A consumer that cannot evict, or cannot
+   * evict that much, evicts what it can.
+   *
+   * @param targetBytes the estimated size in bytes to shrink to.
+   * @return the estimated bytes evicted.
+   */
+  long shrinkTo(long targetBytes);
+}
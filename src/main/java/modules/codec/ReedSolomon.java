@@ -0,0 +1,260 @@
+package modules.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implements a systematic Reed-Solomon erasure code over GF(2^8). A payload is split into k data shards, and m parity
+ * shards are computed from them, so that the payload can be rebuilt from any k of the k + m shards. Storing the
+ * shards on distinct nodes tolerates the loss of any m nodes, at a storage cost of (k + m) / k times the payload
+ * rather than m + 1 times for full replication.
+ *
+ * <p>The encoding matrix is the k x k identity on top of an m x k Cauchy matrix, every square sub-matrix of which is
+ * invertible, so that any k rows of the encoding matrix form an invertible matrix.
+ */
+public class ReedSolomon {
+  /**
+   * Maximum total number of shards, i.e., the number of distinct elements of GF(2^8).
+   */
+  public static final int MAX_SHARDS = 256;
+
+  /**
+   * Size in bytes of the length of the payload, which prefixes the payload before it is split.
+   */
+  private static final int LENGTH_BYTES = 4;
+
+  /**
+   * Primitive polynomial x^8 + x^4 + x^3 + x^2 + 1 of the field.
+   */
+  private static final int POLYNOMIAL = 0x11d;
+  private static final int[] EXP = new int[2 * 255];
+  private static final int[] LOG = new int[256];
+
+  /**
+   * Products of every pair of field elements, so that the inner loops of encoding and decoding are a table lookup.
+   */
+  private static final byte[][] MUL = new byte[256][256];
+
+  static {
+    int x = 1;
+    for (int i = 0; i < 255; i++) {
+      EXP[i] = x;
+      EXP[i + 255] = x;
+      LOG[x] = i;
+      x <<= 1;
+      if (x >= 256) {
+        x ^= POLYNOMIAL;
+      }
+    }
+    for (int a = 0; a < 256; a++) {
+      for (int b = 0; b < 256; b++) {
+        MUL[a][b] = (byte) multiply(a, b);
+      }
+    }
+  }
+
+  private final int dataShards;
+  private final int parityShards;
+
+  /**
+   * Encoding matrix, whose rows compute the shards from the data shards.
+   */
+  private final int[][] matrix;
+
+  /**
+   * Creates a Reed-Solomon code.
+   *
+   * @param dataShards   number of data shards, i.e., the number of shards needed to rebuild a payload.
+   * @param parityShards number of parity shards, i.e., the number of shards that can be lost.
+   * @throws IllegalArgumentException if the numbers of shards are not positive or add up to more than MAX_SHARDS.
+   */
+  public ReedSolomon(int dataShards, int parityShards) throws IllegalArgumentException {
+    if (dataShards <= 0 || parityShards <= 0) {
+      throw new IllegalArgumentException("numbers of data and parity shards must be positive, got: " + dataShards
+          + " and " + parityShards);
+    }
+    if (dataShards + parityShards > MAX_SHARDS) {
+      throw new IllegalArgumentException("total number of shards must be at most " + MAX_SHARDS + ", got: "
+          + (dataShards + parityShards));
+    }
+    this.dataShards = dataShards;
+    this.parityShards = parityShards;
+    this.matrix = new int[dataShards + parityShards][dataShards];
+    for (int i = 0; i < dataShards; i++) {
+      this.matrix[i][i] = 1;
+    }
+    for (int i = 0; i < parityShards; i++) {
+      for (int j = 0; j < dataShards; j++) {
+        // Cauchy matrix 1 / (x_i + y_j), with x_i = k + i and y_j = j distinct, so that x_i + y_j is never zero.
+        this.matrix[dataShards + i][j] = inverse((dataShards + i) ^ j);
+      }
+    }
+  }
+
+  public int dataShards() {
+    return this.dataShards;
+  }
+
+  public int parityShards() {
+    return this.parityShards;
+  }
+
+  public int totalShards() {
+    return this.dataShards + this.parityShards;
+  }
+
+  /**
+   * Splits the payload into data shards of equal size, and computes the parity shards from them.
+   *
+   * @param payload the payload to encode.
+   * @return the data shards followed by the parity shards, all of the same size.
+   */
+  public byte[][] encode(byte[] payload) {
+    int shardSize = (LENGTH_BYTES + payload.length + this.dataShards - 1) / this.dataShards;
+    byte[] padded = ByteBuffer.allocate(shardSize * this.dataShards)
+        .putInt(payload.length)
+        .put(payload)
+        .array();
+
+    byte[][] shards = new byte[this.totalShards()][shardSize];
+    for (int i = 0; i < this.dataShards; i++) {
+      System.arraycopy(padded, i * shardSize, shards[i], 0, shardSize);
+    }
+    for (int i = 0; i < this.parityShards; i++) {
+      combine(this.matrix[this.dataShards + i], shards, shards[this.dataShards + i]);
+    }
+    return shards;
+  }
+
+  /**
+   * Rebuilds the payload from any data shards of its shards. Missing data shards are computed from the first
+   * available shards, and no work is done if all data shards are available.
+   *
+   * @param shards the shards of the payload at their index, with null for the missing ones.
+   * @return the payload.
+   * @throws IllegalArgumentException if fewer shards than data shards are available, or the shards are inconsistent.
+   */
+  public byte[] decode(byte[][] shards) throws IllegalArgumentException {
+    if (shards.length != this.totalShards()) {
+      throw new IllegalArgumentException("expected " + this.totalShards() + " shards, got: " + shards.length);
+    }
+    int[] available = new int[this.dataShards];
+    int count = 0;
+    int shardSize = -1;
+    for (int i = 0; i < shards.length && count < this.dataShards; i++) {
+      if (shards[i] == null) {
+        continue;
+      }
+      if (shardSize != -1 && shards[i].length != shardSize) {
+        throw new IllegalArgumentException("shards are not of the same size");
+      }
+      shardSize = shards[i].length;
+      available[count++] = i;
+    }
+    if (count < this.dataShards) {
+      throw new IllegalArgumentException("can not rebuild payload from " + count + " shards, needs "
+          + this.dataShards);
+    }
+
+    byte[][] data = new byte[this.dataShards][];
+    boolean missing = false;
+    for (int i = 0; i < this.dataShards; i++) {
+      data[i] = shards[i];
+      missing |= shards[i] == null;
+    }
+    if (missing) {
+      // the rows of the available shards map the data shards to them, so their inverse maps them back.
+      int[][] rows = new int[this.dataShards][];
+      byte[][] inputs = new byte[this.dataShards][];
+      for (int i = 0; i < this.dataShards; i++) {
+        rows[i] = this.matrix[available[i]];
+        inputs[i] = shards[available[i]];
+      }
+      int[][] decoding = invert(rows);
+      for (int i = 0; i < this.dataShards; i++) {
+        if (data[i] == null) {
+          data[i] = new byte[shardSize];
+          combine(decoding[i], inputs, data[i]);
+        }
+      }
+    }
+
+    ByteBuffer padded = ByteBuffer.allocate(shardSize * this.dataShards);
+    for (byte[] shard : data) {
+      padded.put(shard);
+    }
+    padded.flip();
+    int length = padded.getInt();
+    if (length < 0 || length > padded.remaining()) {
+      throw new IllegalArgumentException("shards encode an invalid payload length: " + length);
+    }
+    byte[] payload = new byte[length];
+    padded.get(payload);
+    return payload;
+  }
+
+  /**
+   * Writes the linear combination of the first inputs with the given coefficients into the output.
+   */
+  private static void combine(int[] coefficients, byte[][] inputs, byte[] output) {
+    for (int j = 0; j < coefficients.length; j++) {
+      byte[] products = MUL[coefficients[j]];
+      byte[] input = inputs[j];
+      for (int b = 0; b < output.length; b++) {
+        output[b] ^= products[input[b] & 0xff];
+      }
+    }
+  }
+
+  /**
+   * Inverts a square matrix over the field by Gauss-Jordan elimination.
+   */
+  private static int[][] invert(int[][] matrix) throws IllegalArgumentException {
+    int n = matrix.length;
+    int[][] work = new int[n][2 * n];
+    for (int i = 0; i < n; i++) {
+      System.arraycopy(matrix[i], 0, work[i], 0, n);
+      work[i][n + i] = 1;
+    }
+    for (int col = 0; col < n; col++) {
+      int pivot = col;
+      while (pivot < n && work[pivot][col] == 0) {
+        pivot++;
+      }
+      if (pivot == n) {
+        throw new IllegalArgumentException("matrix is singular");
+      }
+      int[] swap = work[col];
+      work[col] = work[pivot];
+      work[pivot] = swap;
+
+      int scale = inverse(work[col][col]);
+      for (int j = 0; j < 2 * n; j++) {
+        work[col][j] = multiply(work[col][j], scale);
+      }
+      for (int row = 0; row < n; row++) {
+        int factor = work[row][col];
+        if (row != col && factor != 0) {
+          for (int j = 0; j < 2 * n; j++) {
+            work[row][j] ^= multiply(factor, work[col][j]);
+          }
+        }
+      }
+    }
+    int[][] inverse = new int[n][n];
+    for (int i = 0; i < n; i++) {
+      System.arraycopy(work[i], n, inverse[i], 0, n);
+    }
+    return inverse;
+  }
+
+  private static int multiply(int a, int b) {
+    if (a == 0 || b == 0) {
+      return 0;
+    }
+    return EXP[LOG[a] + LOG[b]];
+  }
+
+  private static int inverse(int a) {
+    return EXP[255 - LOG[a]];
+  }
+}
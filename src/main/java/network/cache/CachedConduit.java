@@ -0,0 +1,247 @@
+package network.cache;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.Entity;
+import model.exceptions.LightChainDistributedStorageException;
+import model.exceptions.LightChainNetworkingException;
+import model.lightchain.Identifier;
+import modules.cache.LruCache;
+import network.Conduit;
+
+/**
+ * Decorates a conduit with a read-through cache of the entities it gets from the Distributed Hash Table (DHT), so
+ * that repeated gets of the same identifier, e.g., of a hot block, do not each take a network round trip.
+ *
+ * <p>Found entities are cached with least-recently-used eviction; entities are immutable under their identifier, so
+ * they never go stale. Identifiers that are not found are cached as negative entries for a short time only, as the
+ * entity may be put on the DHT later on. Concurrent gets of the same identifier that miss the cache are merged into
+ * a single in-flight get on the decorated conduit, whose result is shared by all of them.
+ */
+public class CachedConduit implements Conduit {
+  /**
+   * Default maximum number of cached entities.
+   */
+  public static final long DEFAULT_CAPACITY = 4096;
+
+  /**
+   * Default maximum number of cached identifiers that are not found.
+   */
+  public static final long DEFAULT_NEGATIVE_CAPACITY = 4096;
+
+  /**
+   * Default time in milliseconds that an identifier that is not found is answered from the cache.
+   */
+  public static final long DEFAULT_NEGATIVE_TTL_MILLIS = 1000;
+
+  private final Conduit backing;
+  private final LruCache<Identifier, Entity> positive;
+
+  /**
+   * Identifiers that are not found, keyed to the System.nanoTime() at which their negative entry expires.
+   */
+  private final LruCache<Identifier, Long> negative;
+  private final long negativeTtlNanos;
+
+  /**
+   * Gets on the decorated conduit that are in flight, keyed by their identifier.
+   */
+  private final ConcurrentHashMap<Identifier, CompletableFuture<Entity>> inFlight;
+  private final AtomicLong hits;
+  private final AtomicLong negativeHits;
+  private final AtomicLong misses;
+  private final AtomicLong merged;
+
+  /**
+   * Constructor of CachedConduit with the default capacities and negative time to live.
+   *
+   * @param backing the conduit to decorate.
+   */
+  public CachedConduit(Conduit backing) {
+    this(backing, DEFAULT_CAPACITY, DEFAULT_NEGATIVE_CAPACITY, DEFAULT_NEGATIVE_TTL_MILLIS);
+  }
+
+  /**
+   * Constructor of CachedConduit.
+   *
+   * @param backing           the conduit to decorate.
+   * @param capacity          maximum number of cached entities.
+   * @param negativeCapacity  maximum number of cached identifiers that are not found.
+   * @param negativeTtlMillis time in milliseconds that an identifier that is not found is answered from the cache,
+   *                          zero disables negative caching.
+   * @throws IllegalArgumentException if a capacity is not positive, or the time to live is negative.
+   */
+  public CachedConduit(Conduit backing, long capacity, long negativeCapacity, long negativeTtlMillis)
+      throws IllegalArgumentException {
+    if (negativeTtlMillis < 0) {
+      throw new IllegalArgumentException("negative time to live must not be negative: " + negativeTtlMillis);
+    }
+    this.backing = backing;
+    this.positive = new LruCache<>(capacity);
+    this.negative = new LruCache<>(negativeCapacity);
+    this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+    this.inFlight = new ConcurrentHashMap<>();
+    this.hits = new AtomicLong();
+    this.negativeHits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.merged = new AtomicLong();
+  }
+
+  /**
+   * Sends the Entity through the decorated conduit.
+   *
+   * @param e      the Entity to be sent over the network.
+   * @param target Identifier of the receiver.
+   * @throws LightChainNetworkingException any unhappy path taken on sending the Entity.
+   */
+  @Override
+  public void unicast(Entity e, Identifier target) throws LightChainNetworkingException {
+    this.backing.unicast(e, target);
+  }
+
+  /**
+   * Stores given Entity through the decorated conduit, and caches it, dropping its negative entry if any.
+   *
+   * @param e the Entity to be stored over the network.
+   * @throws LightChainDistributedStorageException any unhappy path taken on storing the Entity.
+   */
+  @Override
+  public void put(Entity e) throws LightChainDistributedStorageException {
+    this.backing.put(e);
+    Identifier identifier = e.id();
+    this.negative.remove(identifier);
+    this.positive.put(identifier, e);
+  }
+
+  /**
+   * Retrieves the entity corresponding to the given identifier, from the cache if it is cached or known to be
+   * missing, otherwise from the decorated conduit, joining the get in flight for the same identifier if any.
+   *
+   * @param identifier identifier of the entity to be retrieved.
+   * @return the retrieved entity or null if it does not exist.
+   * @throws LightChainDistributedStorageException any unhappy path taken on retrieving the Entity, including the one
+   *                                               of a merged get.
+   */
+  @Override
+  public Entity get(Identifier identifier) throws LightChainDistributedStorageException {
+    Entity entity = this.positive.get(identifier);
+    if (entity != null) {
+      this.hits.incrementAndGet();
+      return entity;
+    }
+    if (this.isKnownMissing(identifier)) {
+      this.negativeHits.incrementAndGet();
+      return null;
+    }
+
+    CompletableFuture<Entity> mine = new CompletableFuture<>();
+    CompletableFuture<Entity> existing = this.inFlight.putIfAbsent(identifier, mine);
+    if (existing != null) {
+      this.merged.incrementAndGet();
+      return await(existing);
+    }
+
+    try {
+      // the previous get of this identifier may have completed between the cache lookup and taking over.
+      entity = this.positive.get(identifier);
+      if (entity == null) {
+        this.misses.incrementAndGet();
+        entity = this.backing.get(identifier);
+        if (entity != null) {
+          this.positive.put(identifier, entity);
+        } else if (this.negativeTtlNanos > 0) {
+          this.negative.put(identifier, System.nanoTime() + this.negativeTtlNanos);
+        }
+      }
+      mine.complete(entity);
+      return entity;
+    } catch (LightChainDistributedStorageException | RuntimeException ex) {
+      mine.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      this.inFlight.remove(identifier, mine);
+    }
+  }
+
+  /**
+   * Retrieves all entities stored on the channel through the decorated conduit; scans do not go through the cache,
+   * so that they do not evict the hot entities.
+   *
+   * @return list of all entities stored on this channel from underlying DHT.
+   * @throws LightChainDistributedStorageException any unhappy path taken on retrieving the Entities.
+   */
+  @Override
+  public ArrayList<Entity> allEntities() throws LightChainDistributedStorageException {
+    return this.backing.allEntities();
+  }
+
+  /**
+   * Number of gets served by a cached entity.
+   *
+   * @return number of positive cache hits so far.
+   */
+  public long hits() {
+    return this.hits.get();
+  }
+
+  /**
+   * Number of gets served by a negative entry, i.e., answered as missing without going to the network.
+   *
+   * @return number of negative cache hits so far.
+   */
+  public long negativeHits() {
+    return this.negativeHits.get();
+  }
+
+  /**
+   * Number of gets that went to the decorated conduit.
+   *
+   * @return number of cache misses so far.
+   */
+  public long misses() {
+    return this.misses.get();
+  }
+
+  /**
+   * Number of gets that joined a get in flight for the same identifier instead of going to the decorated conduit.
+   *
+   * @return number of merged gets so far.
+   */
+  public long merged() {
+    return this.merged.get();
+  }
+
+  /**
+   * Checks whether the identifier has an unexpired negative entry, dropping the entry if it is expired.
+   */
+  private boolean isKnownMissing(Identifier identifier) {
+    Long expiry = this.negative.get(identifier);
+    if (expiry == null) {
+      return false;
+    }
+    if (System.nanoTime() - expiry < 0) {
+      return true;
+    }
+    this.negative.remove(identifier);
+    return false;
+  }
+
+  /**
+   * Waits for the result of a get in flight.
+   */
+  private static Entity await(CompletableFuture<Entity> inFlight) throws LightChainDistributedStorageException {
+    try {
+      return inFlight.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new LightChainDistributedStorageException("interrupted while waiting for a merged get", ex);
+    } catch (ExecutionException ex) {
+      throw new LightChainDistributedStorageException("merged get failed", ex.getCause());
+    }
+  }
+}
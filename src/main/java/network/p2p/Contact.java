@@ -0,0 +1,52 @@
+package network.p2p;
+
+import model.lightchain.Identifier;
+
+/**
+ * Represents a node known to the routing table, i.e., its identifier along with its networking address. Contacts are
+ * equal if their identifiers are, as a node may change its address.
+ */
+public class Contact {
+  private final Identifier identifier;
+  private final String address;
+
+  /**
+   * Constructor.
+   *
+   * @param identifier identifier of the node.
+   * @param address    networking address of the node, e.g., localhost:8080.
+   */
+  public Contact(Identifier identifier, String address) {
+    this.identifier = identifier;
+    this.address = address;
+  }
+
+  public Identifier getIdentifier() {
+    return this.identifier;
+  }
+
+  public String getAddress() {
+    return this.address;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return this.identifier.equals(((Contact) o).identifier);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.identifier.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return this.identifier + "@" + this.address;
+  }
+}
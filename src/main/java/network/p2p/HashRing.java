@@ -0,0 +1,123 @@
+package network.p2p;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+
+import crypto.Sha3256Hasher;
+import model.lightchain.Identifier;
+
+/**
+ * Implements a consistent hashing ring of nodes. Every node is placed on the ring at several pseudo-random positions,
+ * i.e., its virtual nodes, and an identifier is assigned to the first distinct nodes met walking the ring clockwise
+ * from the position of the identifier. Adding or removing a node only moves the identifiers next to its virtual
+ * nodes, and virtual nodes spread the identifiers evenly among the nodes.
+ *
+ * <p>A ring is immutable; a new ring is built as the set of nodes changes.
+ */
+public class HashRing {
+  /**
+   * Default number of positions of each node on the ring.
+   */
+  public static final int DEFAULT_VIRTUAL_NODES = 64;
+  private static final Sha3256Hasher hasher = new Sha3256Hasher();
+
+  /**
+   * Nodes keyed by the positions of their virtual nodes.
+   */
+  private final TreeMap<Long, Identifier> ring;
+  private final Set<Identifier> nodes;
+
+  /**
+   * Creates a ring with the default number of virtual nodes.
+   *
+   * @param nodes the nodes of the ring.
+   */
+  public HashRing(Collection<Identifier> nodes) {
+    this(nodes, DEFAULT_VIRTUAL_NODES);
+  }
+
+  /**
+   * Creates a ring.
+   *
+   * @param nodes        the nodes of the ring.
+   * @param virtualNodes number of positions of each node on the ring.
+   * @throws IllegalArgumentException if the number of virtual nodes is not positive.
+   */
+  public HashRing(Collection<Identifier> nodes, int virtualNodes) throws IllegalArgumentException {
+    if (virtualNodes <= 0) {
+      throw new IllegalArgumentException("number of virtual nodes must be positive, got: " + virtualNodes);
+    }
+    this.ring = new TreeMap<>();
+    this.nodes = Collections.unmodifiableSet(new HashSet<>(nodes));
+    for (Identifier node : this.nodes) {
+      for (int i = 0; i < virtualNodes; i++) {
+        byte[] index = ByteBuffer.allocate(4).putInt(i).array();
+        this.ring.put(position(hasher.computeHash(node.getBytes(), index).getBytes()), node);
+      }
+    }
+  }
+
+  /**
+   * Returns the nodes responsible for the given identifier, i.e., the first distinct nodes met walking the ring
+   * clockwise from the position of the identifier. The first node is the primary one, and the others hold replicas.
+   *
+   * @param identifier the identifier to locate, e.g., of an entity.
+   * @param replicas   number of nodes to return.
+   * @return the responsible nodes in the order they are met, fewer than replicas if the ring has fewer nodes.
+   */
+  public ArrayList<Identifier> responsible(Identifier identifier, int replicas) {
+    int count = Math.min(replicas, this.nodes.size());
+    ArrayList<Identifier> responsible = new ArrayList<>(Math.max(count, 0));
+    if (count <= 0) {
+      return responsible;
+    }
+    long position = position(identifier.getBytes());
+    // walks from the position to the end of the ring, and then wraps around to its start.
+    if (!collect(this.ring.tailMap(position, true).values(), responsible, count)) {
+      collect(this.ring.headMap(position, false).values(), responsible, count);
+    }
+    return responsible;
+  }
+
+  /**
+   * The nodes of the ring.
+   *
+   * @return the nodes of the ring.
+   */
+  public Set<Identifier> nodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Position of an identifier on the ring, taken from its first bytes, which are uniformly distributed as identifiers
+   * are hashes.
+   */
+  private static long position(byte[] bytes) {
+    return ByteBuffer.wrap(bytes, 0, 8).getLong();
+  }
+
+  /**
+   * Adds the nodes met along a stretch of the ring that are not yet responsible.
+   *
+   * @param stretch     nodes of the virtual nodes along the stretch, in ring order.
+   * @param responsible the responsible nodes so far.
+   * @param count       number of responsible nodes to find.
+   * @return true if enough responsible nodes are found, false otherwise.
+   */
+  private static boolean collect(Collection<Identifier> stretch, ArrayList<Identifier> responsible, int count) {
+    for (Identifier node : stretch) {
+      if (!responsible.contains(node)) {
+        responsible.add(node);
+        if (responsible.size() == count) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
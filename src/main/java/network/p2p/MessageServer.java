@@ -39,15 +39,35 @@ public class MessageServer {
   private final Server server;
   private final HashMap<String, Engine> engineChannelTable;
 
+  /**
+   * Local store of the distributed hash table, served to other nodes through the Storage service.
+   */
+  private final StorageService storage;
+
   /**
    * Create a MessageServer using ServerBuilder as a base.
    *
    * @param port the TCP port of the target server.
    */
   public MessageServer(int port) {
-    server = ServerBuilder.forPort(port)
+    this(port, null);
+  }
+
+  /**
+   * Create a MessageServer using ServerBuilder as a base, which also serves the routing protocol.
+   *
+   * @param port    the TCP port of the target server.
+   * @param routing the routing service of this node, or null to not serve the routing protocol.
+   */
+  public MessageServer(int port, RoutingService routing) {
+    this.storage = new StorageService();
+    ServerBuilder<?> builder = ServerBuilder.forPort(port)
         .addService(new MessengerImpl())
-        .build();
+        .addService(this.storage);
+    if (routing != null) {
+      builder.addService(routing);
+    }
+    server = builder.build();
 
     this.engineChannelTable = new HashMap<>();
   }
@@ -66,6 +86,16 @@ public class MessageServer {
     this.engineChannelTable.put(channel, engine);
   }
 
+  /**
+   * Returns the local store of the distributed hash table on this node.
+   *
+   * @return the local store of this node.
+   */
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "the local store is intentionally shared")
+  public StorageService getStorage() {
+    return this.storage;
+  }
+
   /**
    * Returns the port number on which this server is listening.
    *
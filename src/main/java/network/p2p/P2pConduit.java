@@ -2,9 +2,12 @@ package network.p2p;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import model.Entity;
+import model.exceptions.CodecException;
 import model.exceptions.LightChainDistributedStorageException;
 import model.exceptions.LightChainNetworkingException;
 import model.lightchain.Identifier;
@@ -39,14 +42,19 @@ public class P2pConduit implements network.Conduit {
   }
 
   /**
-   * Stores given Entity on the underlying Distributed Hash Table (DHT) of nodes.
+   * Stores given Entity on the underlying Distributed Hash Table (DHT) of nodes, i.e., on the nodes responsible for
+   * its identifier on the channel of this conduit.
    *
    * @param e the Entity to be stored over the network.
    * @throws LightChainDistributedStorageException any unhappy path taken on storing the Entity.
    */
   @Override
   public void put(Entity e) throws LightChainDistributedStorageException {
-
+    try {
+      network.put(e, this.channel);
+    } catch (IOException | InterruptedException | CodecException ex) {
+      throw new LightChainDistributedStorageException("could not store entity: " + e.id(), ex);
+    }
   }
 
   /**
@@ -59,11 +67,50 @@ public class P2pConduit implements network.Conduit {
    */
   @Override
   public Entity get(Identifier identifier) throws LightChainDistributedStorageException {
-    return null;
+    ArrayList<Identifier> identifiers = new ArrayList<>();
+    identifiers.add(identifier);
+    ArrayList<Entity> entities = this.get(identifiers);
+    return entities.isEmpty() ? null : entities.get(0);
+  }
+
+  /**
+   * Retrieves the entities corresponding to the given identifiers from the underlying Distributed Hash Table (DHT)
+   * of nodes, batching the identifiers of each node into a single stream.
+   *
+   * @param identifiers identifiers of the entities to be retrieved.
+   * @return the retrieved entities in the order of their identifiers, leaving out the ones that do not exist.
+   * @throws LightChainDistributedStorageException any unhappy path taken on retrieving the entities.
+   */
+  public ArrayList<Entity> get(Collection<Identifier> identifiers) throws LightChainDistributedStorageException {
+    HashMap<Identifier, Entity> found;
+    try {
+      found = network.get(identifiers, this.channel);
+    } catch (InterruptedException | CodecException ex) {
+      throw new LightChainDistributedStorageException("could not retrieve entities", ex);
+    }
+    ArrayList<Entity> entities = new ArrayList<>();
+    for (Identifier identifier : identifiers) {
+      Entity entity = found.get(identifier);
+      if (entity != null) {
+        entities.add(entity);
+      }
+    }
+    return entities;
   }
 
+  /**
+   * Retrieves all entities stored on the channel of this conduit from the underlying Distributed Hash Table (DHT) of
+   * nodes.
+   *
+   * @return all entities stored on the channel, each of them once.
+   * @throws LightChainDistributedStorageException any unhappy path taken on retrieving the entities.
+   */
   @Override
   public ArrayList<Entity> allEntities() throws LightChainDistributedStorageException {
-    return null;
+    try {
+      return network.allEntities(this.channel);
+    } catch (IOException | InterruptedException | CodecException ex) {
+      throw new LightChainDistributedStorageException("could not retrieve all entities", ex);
+    }
   }
 }
@@ -1,21 +1,74 @@
 package network.p2p;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import model.Entity;
+import model.codec.EncodedEntity;
+import model.exceptions.CodecException;
 import model.lightchain.Identifier;
+import modules.codec.JsonEncoder;
+import modules.codec.ReedSolomon;
 import network.Conduit;
 import protocol.Engine;
 
 /**
  * Implements a grpc-based networking layer.
+ *
+ * <p>The nodes of the network also form a distributed hash table: every node keeps a local store, and an entity is
+ * stored on the nodes responsible for its identifier on a consistent hashing ring of the known nodes, i.e., the ones
+ * of the id to address map along with this node. The first responsible node is the primary one, and the next ones
+ * hold replicas of the entity.
+ *
+ * <p>With erasure coding enabled, an entity whose encoding is at least the erasure threshold is not replicated;
+ * instead, it is split into the data and parity shards of a Reed-Solomon code, and the i-th shard is stored on the
+ * i-th node responsible for the entity, under the identifier of the entity on the i-th shard channel of its channel.
+ * In place of the entity, its replicas hold a placement record that marks it as erasure coded, so that getting the
+ * entity goes straight to its shards once the record is found. The entity is rebuilt from any data shards of its
+ * shards, fetched from their nodes in parallel.
+ *
+ * <p>Nodes also discover each other through a Kademlia routing table, so that a node does not need to know every
+ * other node up front: it bootstraps from a few known nodes, and resolves the address of any other node by an
+ * iterative lookup that takes O(log n) requests. Nodes of the id to address map are resolved directly. The
+ * distributed hash table places entities on the nodes of the id to address map only, as placement must be the same
+ * on every node.
  */
 public class P2pNetwork implements network.Network {
+  /**
+   * Default number of nodes an entity is stored on.
+   */
+  public static final int DEFAULT_REPLICATION = 3;
+
+  /**
+   * Number of nodes queried in parallel in each step of a lookup, i.e., alpha of Kademlia.
+   */
+  public static final int LOOKUP_PARALLELISM = 3;
+
+  /**
+   * Type of the placement record of an erasure coded entity; entity types are class names, which never contain a
+   * dash, so the record is never taken for an entity.
+   */
+  private static final String SHARDED_TYPE = "erasure-coded";
   private final MessageServer server;
   /**
    * Identifier of the lightchain node itself.
@@ -27,15 +80,114 @@ public class P2pNetwork implements network.Network {
   private ConcurrentMap<Identifier, String> idToAddressMap;
 
   /**
-   * Creates P2P network for lightchain node.
+   * Number of nodes an entity is stored on.
+   */
+  private final int replication;
+
+  /**
+   * Consistent hashing ring of the known nodes, rebuilt once the set of known nodes changes.
+   */
+  private volatile HashRing ring;
+  private final JsonEncoder encoder;
+
+  /**
+   * Erasure code of large entities, or null if all entities are replicated.
+   */
+  private final ReedSolomon erasure;
+
+  /**
+   * Minimum size in bytes of an encoded entity to be erasure coded rather than replicated.
+   */
+  private final int erasureThreshold;
+
+  /**
+   * Stores and fetches the shards of erasure coded entities, and queries the nodes of a lookup, in parallel.
+   */
+  private final ExecutorService workers;
+
+  /**
+   * Kademlia routing table of this node.
+   */
+  private final RoutingTable routing;
+
+  /**
+   * Total number of requests sent by the lookups of this node.
+   */
+  private final AtomicLong lookupRequests;
+
+  /**
+   * Refreshes the idle buckets of the routing table, or null if not started.
+   */
+  private ScheduledExecutorService refresher;
+
+  /**
+   * Creates P2P network for lightchain node with the default replication.
    *
    * @param myId identifier of lightchain node.
    * @param port port number of lightchain node.
    */
   public P2pNetwork(Identifier myId, int port) {
-    this.server = new MessageServer(port);
+    this(myId, port, DEFAULT_REPLICATION);
+  }
+
+  /**
+   * Creates P2P network for lightchain node.
+   *
+   * @param myId        identifier of lightchain node.
+   * @param port        port number of lightchain node.
+   * @param replication number of nodes an entity is stored on.
+   * @throws IllegalArgumentException if the replication is not positive.
+   */
+  public P2pNetwork(Identifier myId, int port, int replication) throws IllegalArgumentException {
+    this(myId, port, replication, null, 0);
+  }
+
+  /**
+   * Creates P2P network for lightchain node that erasure codes large entities.
+   *
+   * @param myId             identifier of lightchain node.
+   * @param port             port number of lightchain node.
+   * @param replication      number of nodes an entity that is not erasure coded is stored on.
+   * @param erasure          erasure code of large entities, or null to replicate all entities.
+   * @param erasureThreshold minimum size in bytes of an encoded entity to be erasure coded.
+   * @throws IllegalArgumentException if the replication is not positive.
+   */
+  public P2pNetwork(Identifier myId, int port, int replication, ReedSolomon erasure, int erasureThreshold)
+      throws IllegalArgumentException {
+    this(myId, port, replication, erasure, erasureThreshold, RoutingTable.DEFAULT_BUCKET_SIZE);
+  }
+
+  /**
+   * Creates P2P network for lightchain node that erasure codes large entities, with a routing table of the given
+   * bucket size.
+   *
+   * @param myId             identifier of lightchain node.
+   * @param port             port number of lightchain node.
+   * @param replication      number of nodes an entity that is not erasure coded is stored on.
+   * @param erasure          erasure code of large entities, or null to replicate all entities.
+   * @param erasureThreshold minimum size in bytes of an encoded entity to be erasure coded.
+   * @param bucketSize       number of contacts per bucket of the routing table, i.e., k of Kademlia.
+   * @throws IllegalArgumentException if the replication or the bucket size is not positive.
+   */
+  public P2pNetwork(Identifier myId, int port, int replication, ReedSolomon erasure, int erasureThreshold,
+                    int bucketSize) throws IllegalArgumentException {
+    if (replication <= 0) {
+      throw new IllegalArgumentException("replication must be positive, got: " + replication);
+    }
+    this.routing = new RoutingTable(myId, bucketSize);
+    this.lookupRequests = new AtomicLong();
+    this.server = new MessageServer(port, new RoutingService(myId, this.routing, this::learn));
     this.idToAddressMap = new ConcurrentHashMap<>();
     this.myId = myId;
+    this.replication = replication;
+    this.encoder = new JsonEncoder();
+    this.erasure = erasure;
+    this.erasureThreshold = erasureThreshold;
+    this.workers = Executors.newCachedThreadPool(r -> {
+      Thread t = new Thread(r, "p2p-workers");
+      t.setDaemon(true);
+      return t;
+    });
   }
 
   /**
@@ -45,7 +197,14 @@ public class P2pNetwork implements network.Network {
     this.server.start();
   }
 
+  /**
+   * Stops the MessageServer, along with the refreshing of the routing table if started.
+   *
+   * @throws InterruptedException if interrupted while stopping the server.
+   */
   public void stop() throws InterruptedException {
+    this.stopRefresh();
+    this.workers.shutdownNow();
     this.server.stop();
   }
 
@@ -92,7 +251,8 @@ public class P2pNetwork implements network.Network {
   }
 
   /**
-   * Sends the provided entity to the target P2pNetwork on a specific channel by building a gRPC ManagedServer.
+   * Sends the provided entity to the target P2pNetwork on a specific channel by building a gRPC ManagedServer. A
+   * target that is neither in the id to address map nor in the routing table is looked up first.
    *
    * @param e       the entity to be sent.
    * @param target  identifier of target node.
@@ -104,11 +264,11 @@ public class P2pNetwork implements network.Network {
   public void sendUnicast(Entity e, Identifier target, String channel) throws InterruptedException,
           IOException, IllegalArgumentException {
 
-    String targetAddress = this.idToAddressMap.get(target);
-    if (targetAddress == null) {
+    Contact contact = this.resolve(target);
+    if (contact == null) {
       throw new IllegalArgumentException("target identifier does not exist: " + target.toString());
     }
-    ManagedChannel managedChannel = ManagedChannelBuilder.forTarget(targetAddress).usePlaintext().build();
+    ManagedChannel managedChannel = ManagedChannelBuilder.forTarget(contact.getAddress()).usePlaintext().build();
     try {
       MessageClient client = new MessageClient(managedChannel);
       client.deliver(e, target, channel);
@@ -121,4 +281,646 @@ public class P2pNetwork implements network.Network {
   public ConcurrentMap<Identifier, String> getIdToAddressMap() {
     return this.idToAddressMap;
   }
-}
\ No newline at end of file
+
+  /**
+   * Stores the entity on the nodes responsible for it on the given channel. A node that cannot be reached is skipped,
+   * as long as the entity is stored on at least one of the responsible nodes, or, if the entity is erasure coded, as
+   * long as enough of its shards are stored to rebuild it and its placement record is stored on at least one of the
+   * responsible nodes.
+   *
+   * @param e       the entity to be stored.
+   * @param channel the network channel on which this entity is stored.
+   * @throws IOException          if the entity cannot be stored on any of its responsible nodes.
+   * @throws InterruptedException if interrupted while storing the entity.
+   * @throws CodecException       if the entity cannot be encoded.
+   */
+  public void put(Entity e, String channel) throws IOException, InterruptedException, CodecException {
+    Identifier identifier = e.id();
+    EncodedEntity encoded = this.encoder.encode(e);
+    if (this.erasure != null && encoded.getBytes().length >= this.erasureThreshold) {
+      // the shards are stored before the placement record, so that a node that finds the record finds the shards.
+      this.putShards(identifier, encoded, channel);
+      this.replicate(identifier, new EncodedEntity(new byte[0], SHARDED_TYPE), channel);
+      return;
+    }
+    this.replicate(identifier, encoded, channel);
+  }
+
+  /**
+   * Fetches the entities of the given identifiers on the given channel. The identifiers are batched by their primary
+   * node, and each batch is fetched over a single stream; the identifiers that a node does not return, e.g., as it
+   * cannot be reached, are batched again by their next replica. An identifier whose placement record is returned is
+   * not looked up on further replicas, and is rebuilt from its shards right away. With erasure coding enabled, the
+   * identifiers that no replica returns are rebuilt from their shards as well.
+   *
+   * @param identifiers identifiers of the entities.
+   * @param channel     the network channel on which the entities are stored.
+   * @return the found entities keyed by their identifier; missing entities are left out.
+   * @throws InterruptedException if interrupted while fetching the entities.
+   * @throws CodecException       if a fetched entity cannot be decoded.
+   */
+  public HashMap<Identifier, Entity> get(Collection<Identifier> identifiers, String channel)
+      throws InterruptedException, CodecException {
+    HashRing current = this.ring();
+    HashMap<Identifier, ArrayList<Identifier>> responsible = new HashMap<>();
+    for (Identifier identifier : identifiers) {
+      responsible.put(identifier, current.responsible(identifier, this.replication));
+    }
+
+    HashMap<Identifier, EncodedEntity> found = new HashMap<>();
+    LinkedHashSet<Identifier> sharded = new LinkedHashSet<>();
+    LinkedHashSet<Identifier> remaining = new LinkedHashSet<>(identifiers);
+    for (int replica = 0; replica < this.replication && !remaining.isEmpty(); replica++) {
+      HashMap<Identifier, ArrayList<Identifier>> batches = new HashMap<>();
+      for (Identifier identifier : remaining) {
+        ArrayList<Identifier> nodes = responsible.get(identifier);
+        if (replica < nodes.size()) {
+          batches.computeIfAbsent(nodes.get(replica), n -> new ArrayList<>()).add(identifier);
+        }
+      }
+      for (Map.Entry<Identifier, ArrayList<Identifier>> batch : batches.entrySet()) {
+        try {
+          Map<Identifier, EncodedEntity> fetched = this.fetchFrom(batch.getKey(), channel, batch.getValue());
+          for (Map.Entry<Identifier, EncodedEntity> entry : fetched.entrySet()) {
+            if (SHARDED_TYPE.equals(entry.getValue().getType())) {
+              sharded.add(entry.getKey());
+            } else {
+              found.put(entry.getKey(), entry.getValue());
+            }
+          }
+        } catch (IOException | IllegalArgumentException ex) {
+          // the batch is fetched from the next replicas instead.
+        }
+      }
+      remaining.removeAll(found.keySet());
+      remaining.removeAll(sharded);
+    }
+    if (this.erasure != null) {
+      sharded.addAll(remaining);
+      if (!sharded.isEmpty()) {
+        found.putAll(this.getShards(sharded, channel, current));
+      }
+    }
+
+    HashMap<Identifier, Entity> entities = new HashMap<>();
+    for (Map.Entry<Identifier, EncodedEntity> entry : found.entrySet()) {
+      entities.put(entry.getKey(), this.encoder.decode(entry.getValue()));
+    }
+    return entities;
+  }
+
+  /**
+   * Fetches every entity stored on the given channel, from the local stores of all known nodes. With erasure coding
+   * enabled, the erasure coded entities are rebuilt from the shards of all known nodes. A node that cannot be reached
+   * is skipped, so that its entities are only found on their other responsible nodes.
+   *
+   * @param channel the network channel on which the entities are stored.
+   * @return the stored entities, each of them once.
+   * @throws IOException          if none of the other known nodes can be reached.
+   * @throws InterruptedException if interrupted while fetching the entities.
+   * @throws CodecException       if a fetched entity cannot be decoded.
+   */
+  public ArrayList<Entity> allEntities(String channel) throws IOException, InterruptedException, CodecException {
+    HashMap<Identifier, EncodedEntity> found = new HashMap<>();
+    HashMap<Identifier, Exception> unreachable = new HashMap<>();
+    Collection<Identifier> nodes = this.ring().nodes();
+    for (Identifier node : nodes) {
+      for (Map.Entry<Identifier, EncodedEntity> entry : this.allFrom(node, channel, unreachable).entrySet()) {
+        if (!SHARDED_TYPE.equals(entry.getValue().getType())) {
+          found.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    if (nodes.size() > 1 && unreachable.size() == nodes.size() - 1) {
+      IOException failure = new IOException("could not reach any other node for all entities of: " + channel);
+      for (Exception ex : unreachable.values()) {
+        failure.addSuppressed(ex);
+      }
+      throw failure;
+    }
+    if (this.erasure != null) {
+      int total = this.erasure.totalShards();
+      HashMap<Identifier, EncodedEntity[]> shards = new HashMap<>();
+      for (int i = 0; i < total; i++) {
+        String shardChannel = shardChannel(channel, i);
+        for (Identifier node : nodes) {
+          for (Map.Entry<Identifier, EncodedEntity> entry : this.allFrom(node, shardChannel, unreachable).entrySet()) {
+            shards.computeIfAbsent(entry.getKey(), id -> new EncodedEntity[total])[i] = entry.getValue();
+          }
+        }
+      }
+      for (Map.Entry<Identifier, EncodedEntity[]> entry : shards.entrySet()) {
+        EncodedEntity rebuilt = this.rebuild(entry.getValue());
+        if (rebuilt != null) {
+          found.putIfAbsent(entry.getKey(), rebuilt);
+        }
+      }
+    }
+
+    ArrayList<Entity> entities = new ArrayList<>(found.size());
+    for (EncodedEntity encoded : found.values()) {
+      entities.add(this.encoder.decode(encoded));
+    }
+    return entities;
+  }
+
+  /**
+   * Number of nodes an entity is stored on.
+   *
+   * @return the replication of the distributed hash table.
+   */
+  public int getReplication() {
+    return this.replication;
+  }
+
+  /**
+   * Local store of the distributed hash table on this node.
+   *
+   * @return the local store of this node.
+   */
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "the local store is intentionally shared")
+  public StorageService getStorage() {
+    return this.server.getStorage();
+  }
+
+  /**
+   * Joins the network through the given known nodes: they are added to the routing table, and this node looks up its
+   * own identifier and refreshes all of its buckets, which fills the routing table and announces this node to the
+   * nodes it queries.
+   *
+   * @param seeds known nodes of the network.
+   * @throws IOException          if none of the known nodes can be reached.
+   * @throws InterruptedException if interrupted while looking up.
+   */
+  public void bootstrap(Collection<Contact> seeds) throws IOException, InterruptedException {
+    for (Contact seed : seeds) {
+      this.routing.update(seed);
+    }
+    if (this.lookup(this.myId).isEmpty() && !seeds.isEmpty()) {
+      throw new IOException("could not reach any of the bootstrap nodes");
+    }
+    this.refresh(0);
+  }
+
+  /**
+   * Looks up the nodes closest to the target by XOR distance. Each step queries, in parallel, the closest nodes that
+   * are not queried yet for the contacts they know closest to the target, until the closest nodes found are all
+   * queried. As every step at least halves the distance to the target, a lookup takes O(log n) steps. Nodes that do
+   * not reply are dropped from the routing table.
+   *
+   * @param target the identifier to look up.
+   * @return up to bucket size responsive nodes, from the closest one to the target.
+   * @throws InterruptedException if interrupted while looking up.
+   */
+  public ArrayList<Contact> lookup(Identifier target) throws InterruptedException {
+    this.routing.touch(target);
+    int k = this.routing.getBucketSize();
+    Comparator<Identifier> byDistance = RoutingTable.byDistanceTo(target);
+    TreeMap<Identifier, Contact> shortlist = new TreeMap<>(byDistance);
+    for (Contact contact : this.routing.closest(target, k)) {
+      shortlist.put(contact.getIdentifier(), contact);
+    }
+    HashSet<Identifier> queried = new HashSet<>();
+    ArrayList<Contact> responsive = new ArrayList<>();
+    Contact self = this.self();
+
+    while (true) {
+      ArrayList<Contact> step = new ArrayList<>(LOOKUP_PARALLELISM);
+      int rank = 0;
+      for (Contact contact : shortlist.values()) {
+        if (rank++ >= k || step.size() == LOOKUP_PARALLELISM) {
+          break;
+        }
+        if (queried.add(contact.getIdentifier())) {
+          step.add(contact);
+        }
+      }
+      if (step.isEmpty()) {
+        break;
+      }
+
+      ArrayList<Future<ArrayList<Contact>>> replies = new ArrayList<>(step.size());
+      for (Contact contact : step) {
+        this.lookupRequests.incrementAndGet();
+        replies.add(this.workers.submit(() -> this.findNodeOn(contact, self, target)));
+      }
+      for (int i = 0; i < step.size(); i++) {
+        Contact contact = step.get(i);
+        try {
+          ArrayList<Contact> closest = replies.get(i).get();
+          responsive.add(contact);
+          this.learn(contact);
+          for (Contact found : closest) {
+            if (!found.getIdentifier().equals(this.myId)) {
+              shortlist.putIfAbsent(found.getIdentifier(), found);
+            }
+          }
+        } catch (ExecutionException ex) {
+          shortlist.remove(contact.getIdentifier());
+          this.routing.remove(contact.getIdentifier());
+        }
+      }
+    }
+
+    responsive.sort((x, y) -> byDistance.compare(x.getIdentifier(), y.getIdentifier()));
+    return new ArrayList<>(responsive.subList(0, Math.min(k, responsive.size())));
+  }
+
+  /**
+   * Resolves the contact of a node, from the id to address map or the routing table if it is known, and by a lookup
+   * otherwise.
+   *
+   * @param node identifier of the node.
+   * @return the contact of the node, or null if it cannot be found.
+   * @throws InterruptedException if interrupted while looking up.
+   */
+  public Contact resolve(Identifier node) throws InterruptedException {
+    Contact contact = this.known(node);
+    if (contact != null) {
+      return contact;
+    }
+    ArrayList<Contact> closest = this.lookup(node);
+    if (!closest.isEmpty() && closest.get(0).getIdentifier().equals(node)) {
+      return closest.get(0);
+    }
+    return null;
+  }
+
+  /**
+   * Refreshes the buckets of the routing table that are idle for the given time, by looking up a random identifier
+   * in each of them, so that the routing table keeps up with the nodes that join and leave.
+   *
+   * @param idleMillis time in milliseconds a bucket must be idle to be refreshed.
+   * @throws InterruptedException if interrupted while looking up.
+   */
+  public void refresh(long idleMillis) throws InterruptedException {
+    for (Identifier target : this.routing.refreshTargets(TimeUnit.MILLISECONDS.toNanos(idleMillis))) {
+      this.lookup(target);
+    }
+  }
+
+  /**
+   * Starts refreshing the idle buckets of the routing table on a background thread.
+   *
+   * @param intervalMs time in milliseconds between refreshes, which is also the time a bucket must be idle to be
+   *                   refreshed.
+   * @throws IllegalArgumentException if the interval is not positive.
+   * @throws IllegalStateException    if refreshing is already started.
+   */
+  public synchronized void startRefresh(long intervalMs) throws IllegalArgumentException, IllegalStateException {
+    if (intervalMs <= 0) {
+      throw new IllegalArgumentException("refresh interval must be positive, got: " + intervalMs);
+    }
+    if (this.refresher != null) {
+      throw new IllegalStateException("routing table refresh is already started");
+    }
+    this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "p2p-refresh");
+      t.setDaemon(true);
+      return t;
+    });
+    this.refresher.scheduleWithFixedDelay(() -> {
+      try {
+        this.refresh(intervalMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops refreshing the routing table, if started.
+   */
+  public synchronized void stopRefresh() {
+    if (this.refresher != null) {
+      this.refresher.shutdownNow();
+      this.refresher = null;
+    }
+  }
+
+  /**
+   * Kademlia routing table of this node.
+   *
+   * @return the routing table of this node.
+   */
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "the routing table is intentionally shared")
+  public RoutingTable getRoutingTable() {
+    return this.routing;
+  }
+
+  /**
+   * Total number of requests sent by the lookups of this node.
+   *
+   * @return number of lookup requests so far.
+   */
+  public long getLookupRequests() {
+    return this.lookupRequests.get();
+  }
+
+  /**
+   * Consistent hashing ring of this node and the nodes of the id to address map, rebuilt if either changed since the
+   * last call.
+   *
+   * @return the current ring.
+   */
+  private HashRing ring() {
+    HashSet<Identifier> nodes = new HashSet<>(this.idToAddressMap.keySet());
+    nodes.add(this.myId);
+    HashRing current = this.ring;
+    if (current == null || !current.nodes().equals(nodes)) {
+      current = new HashRing(nodes);
+      this.ring = current;
+    }
+    return current;
+  }
+
+  private void storeOn(Identifier node, String channel, Map<Identifier, EncodedEntity> batch)
+      throws IOException, InterruptedException, IllegalArgumentException {
+    if (node.equals(this.myId)) {
+      for (Map.Entry<Identifier, EncodedEntity> entry : batch.entrySet()) {
+        this.server.getStorage().store(channel, entry.getKey(), entry.getValue());
+      }
+      return;
+    }
+    ManagedChannel managedChannel = this.channelTo(node);
+    try {
+      new StorageClient(managedChannel).put(this.myId, channel, batch);
+    } finally {
+      managedChannel.shutdownNow();
+    }
+  }
+
+  private Map<Identifier, EncodedEntity> fetchFrom(Identifier node, String channel, ArrayList<Identifier> batch)
+      throws IOException, InterruptedException, IllegalArgumentException {
+    if (node.equals(this.myId)) {
+      HashMap<Identifier, EncodedEntity> found = new HashMap<>();
+      for (Identifier identifier : batch) {
+        EncodedEntity entity = this.server.getStorage().fetch(channel, identifier);
+        if (entity != null) {
+          found.put(identifier, entity);
+        }
+      }
+      return found;
+    }
+    ManagedChannel managedChannel = this.channelTo(node);
+    try {
+      return new StorageClient(managedChannel).get(channel, batch);
+    } finally {
+      managedChannel.shutdownNow();
+    }
+  }
+
+  /**
+   * Stores the encoded entity on its responsible nodes, skipping the nodes that cannot be reached.
+   *
+   * @throws IOException if the entity cannot be stored on any of its responsible nodes.
+   */
+  private void replicate(Identifier identifier, EncodedEntity encoded, String channel)
+      throws IOException, InterruptedException {
+    Map<Identifier, EncodedEntity> batch = Collections.singletonMap(identifier, encoded);
+    Exception failure = null;
+    int stored = 0;
+    for (Identifier node : this.ring().responsible(identifier, this.replication)) {
+      try {
+        this.storeOn(node, channel, batch);
+        stored++;
+      } catch (IOException | IllegalArgumentException ex) {
+        failure = ex;
+      }
+    }
+    if (stored == 0) {
+      throw new IOException("could not store entity on any of its responsible nodes: " + identifier, failure);
+    }
+  }
+
+  /**
+   * Channel on which the i-th shards of the erasure coded entities of the given channel are stored.
+   */
+  private static String shardChannel(String channel, int index) {
+    return channel + "/shard-" + index;
+  }
+
+  /**
+   * Erasure codes the entity, and stores each of its shards on a distinct responsible node in parallel; nodes hold
+   * more than one shard only if there are fewer nodes than shards.
+   */
+  private void putShards(Identifier identifier, EncodedEntity encoded, String channel)
+      throws IOException, InterruptedException {
+    byte[][] shards = this.erasure.encode(encoded.getBytes());
+    ArrayList<Identifier> nodes = this.ring().responsible(identifier, shards.length);
+    ArrayList<Future<?>> stores = new ArrayList<>(shards.length);
+    for (int i = 0; i < shards.length; i++) {
+      Identifier node = nodes.get(i % nodes.size());
+      String shardChannel = shardChannel(channel, i);
+      Map<Identifier, EncodedEntity> batch = Collections.singletonMap(identifier,
+          new EncodedEntity(shards[i], encoded.getType()));
+      stores.add(this.workers.submit(() -> {
+        this.storeOn(node, shardChannel, batch);
+        return null;
+      }));
+    }
+
+    Exception failure = null;
+    int stored = 0;
+    for (Future<?> store : stores) {
+      try {
+        store.get();
+        stored++;
+      } catch (ExecutionException ex) {
+        failure = ex;
+      }
+    }
+    if (stored < this.erasure.dataShards()) {
+      throw new IOException("could not store enough shards of entity to rebuild it: " + identifier, failure);
+    }
+  }
+
+  /**
+   * Rebuilds the erasure coded entities of the given identifiers from their shards. The data shards are fetched
+   * first, and the parity shards only for the entities that miss some of their data shards. Shards are batched by
+   * their node and index, and all batches of a round are fetched in parallel.
+   *
+   * @return the rebuilt entities keyed by their identifier; entities with too few shards are left out.
+   */
+  private HashMap<Identifier, EncodedEntity> getShards(Collection<Identifier> identifiers, String channel,
+                                                       HashRing current) throws InterruptedException {
+    int total = this.erasure.totalShards();
+    HashMap<Identifier, ArrayList<Identifier>> responsible = new HashMap<>();
+    HashMap<Identifier, EncodedEntity[]> shards = new HashMap<>();
+    for (Identifier identifier : identifiers) {
+      responsible.put(identifier, current.responsible(identifier, total));
+      shards.put(identifier, new EncodedEntity[total]);
+    }
+
+    HashMap<Identifier, EncodedEntity> rebuilt = new HashMap<>();
+    int[][] rounds = {{0, this.erasure.dataShards()}, {this.erasure.dataShards(), total}};
+    for (int[] round : rounds) {
+      ArrayList<Identifier> remaining = new ArrayList<>();
+      for (Identifier identifier : identifiers) {
+        if (!rebuilt.containsKey(identifier) && !responsible.get(identifier).isEmpty()) {
+          remaining.add(identifier);
+        }
+      }
+      if (remaining.isEmpty()) {
+        break;
+      }
+
+      ArrayList<Future<Map<Identifier, EncodedEntity>>> fetches = new ArrayList<>();
+      ArrayList<Integer> indices = new ArrayList<>();
+      for (int i = round[0]; i < round[1]; i++) {
+        HashMap<Identifier, ArrayList<Identifier>> batches = new HashMap<>();
+        for (Identifier identifier : remaining) {
+          ArrayList<Identifier> nodes = responsible.get(identifier);
+          batches.computeIfAbsent(nodes.get(i % nodes.size()), n -> new ArrayList<>()).add(identifier);
+        }
+        String shardChannel = shardChannel(channel, i);
+        for (Map.Entry<Identifier, ArrayList<Identifier>> batch : batches.entrySet()) {
+          fetches.add(this.workers.submit(() -> this.fetchFrom(batch.getKey(), shardChannel, batch.getValue())));
+          indices.add(i);
+        }
+      }
+      for (int f = 0; f < fetches.size(); f++) {
+        try {
+          for (Map.Entry<Identifier, EncodedEntity> entry : fetches.get(f).get().entrySet()) {
+            shards.get(entry.getKey())[indices.get(f)] = entry.getValue();
+          }
+        } catch (ExecutionException ex) {
+          // the shards of the batch are made up for by the shards held by the other nodes.
+        }
+      }
+
+      for (Identifier identifier : remaining) {
+        EncodedEntity entity = this.rebuild(shards.get(identifier));
+        if (entity != null) {
+          rebuilt.put(identifier, entity);
+        }
+      }
+    }
+    return rebuilt;
+  }
+
+  /**
+   * Rebuilds an erasure coded entity from its shards.
+   *
+   * @return the encoded entity, or null if there are too few shards to rebuild it.
+   */
+  private EncodedEntity rebuild(EncodedEntity[] shards) {
+    byte[][] bytes = new byte[shards.length][];
+    String type = null;
+    int count = 0;
+    for (int i = 0; i < shards.length; i++) {
+      if (shards[i] != null) {
+        bytes[i] = shards[i].getBytes();
+        type = shards[i].getType();
+        count++;
+      }
+    }
+    if (count < this.erasure.dataShards()) {
+      return null;
+    }
+    return new EncodedEntity(this.erasure.decode(bytes), type);
+  }
+
+  private Map<Identifier, EncodedEntity> allFrom(Identifier node, String channel)
+      throws IOException, InterruptedException, IllegalArgumentException {
+    if (node.equals(this.myId)) {
+      HashMap<Identifier, EncodedEntity> found = new HashMap<>();
+      for (Identifier identifier : this.server.getStorage().identifiers(channel)) {
+        found.put(identifier, this.server.getStorage().fetch(channel, identifier));
+      }
+      return found;
+    }
+    ManagedChannel managedChannel = this.channelTo(node);
+    try {
+      return new StorageClient(managedChannel).all(channel);
+    } finally {
+      managedChannel.shutdownNow();
+    }
+  }
+
+  /**
+   * Fetches every entity stored on the given channel of a node, unless the node is already known to be unreachable.
+   * A node that cannot be reached is recorded as unreachable along with the failure, and nothing is fetched from it.
+   */
+  private Map<Identifier, EncodedEntity> allFrom(Identifier node, String channel,
+                                                 Map<Identifier, Exception> unreachable) throws InterruptedException {
+    if (unreachable.containsKey(node)) {
+      return Collections.emptyMap();
+    }
+    try {
+      return this.allFrom(node, channel);
+    } catch (IOException | IllegalArgumentException ex) {
+      unreachable.put(node, ex);
+      return Collections.emptyMap();
+    }
+  }
+
+  /**
+   * Contact of this node, as announced to the nodes it sends routing requests to.
+   */
+  private Contact self() {
+    return new Contact(this.myId, this.getAddress());
+  }
+
+  /**
+   * Contact of a node from the id to address map or the routing table.
+   *
+   * @return the contact of the node, or null if it is not known.
+   */
+  private Contact known(Identifier node) {
+    String address = this.idToAddressMap.get(node);
+    if (address != null) {
+      return new Contact(node, address);
+    }
+    return this.routing.get(node);
+  }
+
+  /**
+   * Updates the routing table with a node that is seen. If the bucket of the node is full, its least recently seen
+   * contact is pinged in the background, and replaced by the node only if it does not reply.
+   */
+  private void learn(Contact contact) {
+    if (contact.getIdentifier().equals(this.myId) || contact.getAddress().isEmpty()) {
+      return;
+    }
+    Contact stale = this.routing.update(contact);
+    if (stale == null || this.workers.isShutdown()) {
+      return;
+    }
+    this.workers.submit(() -> {
+      if (!this.ping(stale)) {
+        this.routing.remove(stale.getIdentifier());
+        this.routing.update(contact);
+      }
+      return null;
+    });
+  }
+
+  private boolean ping(Contact contact) {
+    ManagedChannel managedChannel = ManagedChannelBuilder.forTarget(contact.getAddress()).usePlaintext().build();
+    try {
+      return new RoutingClient(managedChannel).ping(this.self()).equals(contact.getIdentifier());
+    } catch (IOException e) {
+      return false;
+    } finally {
+      managedChannel.shutdownNow();
+    }
+  }
+
+  private ArrayList<Contact> findNodeOn(Contact contact, Contact self, Identifier target) throws IOException {
+    ManagedChannel managedChannel = ManagedChannelBuilder.forTarget(contact.getAddress()).usePlaintext().build();
+    try {
+      return new RoutingClient(managedChannel).findNode(self, target);
+    } finally {
+      managedChannel.shutdownNow();
+    }
+  }
+
+  private ManagedChannel channelTo(Identifier node) throws IllegalArgumentException {
+    Contact contact = this.known(node);
+    if (contact == null) {
+      throw new IllegalArgumentException("target identifier does not exist: " + node.toString());
+    }
+    return ManagedChannelBuilder.forTarget(contact.getAddress()).usePlaintext().build();
+  }
+}
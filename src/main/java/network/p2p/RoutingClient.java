@@ -0,0 +1,80 @@
+package network.p2p;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import com.google.protobuf.ByteString;
+import io.grpc.Channel;
+import io.grpc.StatusRuntimeException;
+import model.lightchain.Identifier;
+import network.p2p.proto.ContactMessage;
+import network.p2p.proto.FindNodeReply;
+import network.p2p.proto.FindNodeRequest;
+import network.p2p.proto.PingRequest;
+import network.p2p.proto.RoutingGrpc;
+
+/**
+ * Client side of the gRPC Routing service, which asks a remote node for the contacts closest to a target, or pings it.
+ */
+public class RoutingClient {
+  /**
+   * Maximum time to wait for the remote node to reply; an unresponsive node is dropped from the routing table, so
+   * the timeout is kept short.
+   */
+  private static final long TIMEOUT_SECONDS = 5;
+  private final RoutingGrpc.RoutingBlockingStub blockingStub;
+
+  /**
+   * Constructor.
+   *
+   * @param channel the gRPC channel to the remote node.
+   */
+  public RoutingClient(Channel channel) {
+    this.blockingStub = RoutingGrpc.newBlockingStub(channel);
+  }
+
+  /**
+   * Asks the remote node for the contacts of its routing table closest to the target.
+   *
+   * @param origin contact of this node.
+   * @param target the identifier that is looked up.
+   * @return the closest contacts known to the remote node, from the closest one to the target.
+   * @throws IOException if the remote node does not reply in time.
+   */
+  public ArrayList<Contact> findNode(Contact origin, Identifier target) throws IOException {
+    FindNodeReply reply;
+    try {
+      reply = this.blockingStub.withDeadlineAfter(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+          .findNode(FindNodeRequest.newBuilder()
+              .setOrigin(RoutingService.toMessage(origin))
+              .setTarget(ByteString.copyFrom(target.getBytes()))
+              .build());
+    } catch (StatusRuntimeException e) {
+      throw new IOException("find node failed", e);
+    }
+    ArrayList<Contact> closest = new ArrayList<>(reply.getClosestCount());
+    for (ContactMessage contact : reply.getClosestList()) {
+      closest.add(RoutingService.fromMessage(contact));
+    }
+    return closest;
+  }
+
+  /**
+   * Pings the remote node.
+   *
+   * @param origin contact of this node.
+   * @return identifier of the remote node.
+   * @throws IOException if the remote node does not reply in time.
+   */
+  public Identifier ping(Contact origin) throws IOException {
+    try {
+      return new Identifier(this.blockingStub.withDeadlineAfter(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+          .ping(PingRequest.newBuilder().setOrigin(RoutingService.toMessage(origin)).build())
+          .getIdentifier()
+          .toByteArray());
+    } catch (StatusRuntimeException e) {
+      throw new IOException("ping failed", e);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package network.p2p;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import com.google.protobuf.ByteString;
+import io.grpc.stub.StreamObserver;
+import model.lightchain.Identifier;
+import network.p2p.proto.ContactMessage;
+import network.p2p.proto.FindNodeReply;
+import network.p2p.proto.FindNodeRequest;
+import network.p2p.proto.PingReply;
+import network.p2p.proto.PingRequest;
+import network.p2p.proto.RoutingGrpc;
+
+/**
+ * Implements the server side of the Kademlia routing protocol: other nodes ask this node for the contacts of its
+ * routing table that are closest to a target, and ping it to check that it is still online. Every request carries
+ * the contact of its origin, so that nodes learn about each other by routing alone.
+ */
+public class RoutingService extends RoutingGrpc.RoutingImplBase {
+  private final Identifier self;
+  private final RoutingTable table;
+
+  /**
+   * Called with the origin of every request, e.g., to update the routing table with it.
+   */
+  private final Consumer<Contact> onSeen;
+
+  /**
+   * Constructor.
+   *
+   * @param self   identifier of this node.
+   * @param table  routing table of this node.
+   * @param onSeen called with the origin of every request.
+   */
+  public RoutingService(Identifier self, RoutingTable table, Consumer<Contact> onSeen) {
+    this.self = self;
+    this.table = table;
+    this.onSeen = onSeen;
+  }
+
+  /**
+   * Returns the contacts of this node closest to the target.
+   *
+   * @param origin contact of the requesting node.
+   * @param target the identifier that is looked up.
+   * @return up to bucket size contacts, from the closest one to the target.
+   */
+  public ArrayList<Contact> findNode(Contact origin, Identifier target) {
+    this.onSeen.accept(origin);
+    return this.table.closest(target, this.table.getBucketSize());
+  }
+
+  /**
+   * Acknowledges that this node is online.
+   *
+   * @param origin contact of the requesting node.
+   * @return identifier of this node.
+   */
+  public Identifier ping(Contact origin) {
+    this.onSeen.accept(origin);
+    return this.self;
+  }
+
+  /**
+   * Replies with the contacts of this node closest to the requested target.
+   *
+   * @param request          the origin and the target of the lookup.
+   * @param responseObserver receives the closest contacts.
+   */
+  @Override
+  public void findNode(FindNodeRequest request, StreamObserver<FindNodeReply> responseObserver) {
+    FindNodeReply.Builder reply = FindNodeReply.newBuilder();
+    for (Contact contact : findNode(fromMessage(request.getOrigin()),
+        new Identifier(request.getTarget().toByteArray()))) {
+      reply.addClosest(toMessage(contact));
+    }
+    responseObserver.onNext(reply.build());
+    responseObserver.onCompleted();
+  }
+
+  /**
+   * Replies with the identifier of this node.
+   *
+   * @param request          the origin of the ping.
+   * @param responseObserver receives the identifier of this node.
+   */
+  @Override
+  public void ping(PingRequest request, StreamObserver<PingReply> responseObserver) {
+    Identifier identifier = ping(fromMessage(request.getOrigin()));
+    responseObserver.onNext(PingReply.newBuilder().setIdentifier(ByteString.copyFrom(identifier.getBytes())).build());
+    responseObserver.onCompleted();
+  }
+
+  static ContactMessage toMessage(Contact contact) {
+    return ContactMessage.newBuilder()
+        .setIdentifier(ByteString.copyFrom(contact.getIdentifier().getBytes()))
+        .setAddress(contact.getAddress())
+        .build();
+  }
+
+  static Contact fromMessage(ContactMessage message) {
+    return new Contact(new Identifier(message.getIdentifier().toByteArray()), message.getAddress());
+  }
+}
@@ -0,0 +1,254 @@
+package network.p2p;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+import model.lightchain.Identifier;
+
+/**
+ * Implements a Kademlia routing table of k-buckets. The distance between two identifiers is their bitwise XOR read as
+ * an unsigned number, and the i-th bucket holds up to k contacts whose distance to this node is within [2^i,
+ * 2^(i+1)). Each bucket covers half the distance of the one above it, so a node keeps at most k contacts per halving
+ * of the network, i.e., O(k log n) contacts, while knowing its closest neighbors best.
+ *
+ * <p>Contacts of a bucket are ordered from least to most recently seen. Once a bucket is full, a newly seen node is
+ * only added if the least recently seen contact of the bucket turns out to be unresponsive, as long-lived nodes are
+ * likely to stay online.
+ */
+public class RoutingTable {
+  /**
+   * Default number of contacts per bucket, i.e., k.
+   */
+  public static final int DEFAULT_BUCKET_SIZE = 20;
+
+  /**
+   * Number of buckets, i.e., the number of bits of an identifier.
+   */
+  public static final int BUCKETS = Identifier.Size * 8;
+  private static final Random random = new SecureRandom();
+
+  private final Identifier self;
+  private final int bucketSize;
+
+  /**
+   * Contacts of each bucket keyed by their identifier, from least to most recently seen.
+   */
+  private final ArrayList<LinkedHashMap<Identifier, Contact>> buckets;
+
+  /**
+   * System.nanoTime() at which each bucket was last looked up or updated.
+   */
+  private final long[] touched;
+
+  /**
+   * Creates an empty routing table.
+   *
+   * @param self       identifier of this node.
+   * @param bucketSize number of contacts per bucket, i.e., k.
+   * @throws IllegalArgumentException if the bucket size is not positive.
+   */
+  public RoutingTable(Identifier self, int bucketSize) throws IllegalArgumentException {
+    if (bucketSize <= 0) {
+      throw new IllegalArgumentException("bucket size must be positive, got: " + bucketSize);
+    }
+    this.self = self;
+    this.bucketSize = bucketSize;
+    this.buckets = new ArrayList<>(BUCKETS);
+    for (int i = 0; i < BUCKETS; i++) {
+      this.buckets.add(new LinkedHashMap<>());
+    }
+    this.touched = new long[BUCKETS];
+    long now = System.nanoTime();
+    for (int i = 0; i < BUCKETS; i++) {
+      this.touched[i] = now;
+    }
+  }
+
+  /**
+   * Index of the bucket of the given identifier, i.e., the position of the highest bit in which it differs from this
+   * node.
+   *
+   * @param self  identifier of this node.
+   * @param other the other identifier.
+   * @return index of the bucket, or -1 if the identifiers are equal.
+   */
+  public static int bucketIndex(Identifier self, Identifier other) {
+    byte[] a = self.getBytes();
+    byte[] b = other.getBytes();
+    for (int i = 0; i < a.length; i++) {
+      int xor = (a[i] ^ b[i]) & 0xff;
+      if (xor != 0) {
+        return (a.length - i) * 8 - (Integer.numberOfLeadingZeros(xor) - 24) - 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Orders identifiers by their XOR distance to the target, from the closest one.
+   *
+   * @param target the identifier to measure distances to.
+   * @return comparator of identifiers by their distance to the target.
+   */
+  public static Comparator<Identifier> byDistanceTo(Identifier target) {
+    byte[] t = target.getBytes();
+    return (x, y) -> {
+      byte[] a = x.getBytes();
+      byte[] b = y.getBytes();
+      for (int i = 0; i < t.length; i++) {
+        int da = (a[i] ^ t[i]) & 0xff;
+        int db = (b[i] ^ t[i]) & 0xff;
+        if (da != db) {
+          return Integer.compare(da, db);
+        }
+      }
+      return 0;
+    };
+  }
+
+  /**
+   * Marks the contact as the most recently seen one of its bucket, adding it if its bucket has room.
+   *
+   * @param contact the contact that is seen, e.g., as it sent a request or replied to one.
+   * @return null if the contact is in the table, otherwise the least recently seen contact of its full bucket, which
+   *     is to be pinged and replaced by the new contact if it is unresponsive.
+   */
+  public synchronized Contact update(Contact contact) {
+    int index = bucketIndex(this.self, contact.getIdentifier());
+    if (index < 0) {
+      return null;
+    }
+    LinkedHashMap<Identifier, Contact> bucket = this.buckets.get(index);
+    this.touched[index] = System.nanoTime();
+    if (bucket.remove(contact.getIdentifier()) != null || bucket.size() < this.bucketSize) {
+      bucket.put(contact.getIdentifier(), contact);
+      return null;
+    }
+    return bucket.values().iterator().next();
+  }
+
+  /**
+   * Removes a contact, e.g., once it is unresponsive.
+   *
+   * @param identifier identifier of the contact.
+   * @return true if the contact was in the table, false otherwise.
+   */
+  public synchronized boolean remove(Identifier identifier) {
+    int index = bucketIndex(this.self, identifier);
+    return index >= 0 && this.buckets.get(index).remove(identifier) != null;
+  }
+
+  /**
+   * Returns the contact of the given identifier.
+   *
+   * @param identifier identifier of the contact.
+   * @return the contact, or null if it is not in the table.
+   */
+  public synchronized Contact get(Identifier identifier) {
+    int index = bucketIndex(this.self, identifier);
+    return index < 0 ? null : this.buckets.get(index).get(identifier);
+  }
+
+  /**
+   * Returns the contacts closest to the target by XOR distance.
+   *
+   * @param target the identifier to look up.
+   * @param count  maximum number of contacts to return.
+   * @return up to count contacts, from the closest one to the target.
+   */
+  public synchronized ArrayList<Contact> closest(Identifier target, int count) {
+    ArrayList<Contact> contacts = new ArrayList<>();
+    for (LinkedHashMap<Identifier, Contact> bucket : this.buckets) {
+      contacts.addAll(bucket.values());
+    }
+    Comparator<Identifier> byDistance = byDistanceTo(target);
+    contacts.sort((x, y) -> byDistance.compare(x.getIdentifier(), y.getIdentifier()));
+    return new ArrayList<>(contacts.subList(0, Math.min(count, contacts.size())));
+  }
+
+  /**
+   * Marks the bucket of the target as looked up, so that it is not refreshed soon.
+   *
+   * @param target the identifier that is looked up.
+   */
+  public synchronized void touch(Identifier target) {
+    int index = bucketIndex(this.self, target);
+    if (index >= 0) {
+      this.touched[index] = System.nanoTime();
+    }
+  }
+
+  /**
+   * Returns a random identifier in each bucket that is not looked up or updated for the given time, starting from the
+   * bucket of the closest contact, as the buckets below it are empty as long as the network is not that dense.
+   * Looking the identifiers up refreshes the buckets with the nodes that joined since.
+   *
+   * @param idleNanos time in nanoseconds a bucket must be idle to be refreshed.
+   * @return identifiers to look up, one per idle bucket.
+   */
+  public synchronized ArrayList<Identifier> refreshTargets(long idleNanos) {
+    ArrayList<Identifier> targets = new ArrayList<>();
+    long now = System.nanoTime();
+    int lowest = 0;
+    while (lowest < BUCKETS && this.buckets.get(lowest).isEmpty()) {
+      lowest++;
+    }
+    for (int i = lowest; i < BUCKETS; i++) {
+      if (now - this.touched[i] >= idleNanos) {
+        targets.add(randomIn(i));
+      }
+    }
+    return targets;
+  }
+
+  /**
+   * Number of contacts of the table.
+   *
+   * @return number of contacts of the table.
+   */
+  public synchronized int size() {
+    int size = 0;
+    for (LinkedHashMap<Identifier, Contact> bucket : this.buckets) {
+      size += bucket.size();
+    }
+    return size;
+  }
+
+  /**
+   * Contacts of the table, from the closest bucket.
+   *
+   * @return contacts of the table.
+   */
+  public synchronized ArrayList<Contact> contacts() {
+    ArrayList<Contact> contacts = new ArrayList<>();
+    for (LinkedHashMap<Identifier, Contact> bucket : this.buckets) {
+      contacts.addAll(bucket.values());
+    }
+    return contacts;
+  }
+
+  public int getBucketSize() {
+    return this.bucketSize;
+  }
+
+  /**
+   * Random identifier in the given bucket, i.e., that shares the bits of this node above the index, differs at the
+   * index, and has random bits below it.
+   */
+  private Identifier randomIn(int index) {
+    byte[] bytes = this.self.getBytes();
+    byte[] noise = new byte[bytes.length];
+    random.nextBytes(noise);
+    int bytePosition = bytes.length - 1 - index / 8;
+    int bit = index % 8;
+    for (int i = bytePosition + 1; i < bytes.length; i++) {
+      bytes[i] ^= noise[i];
+    }
+    int lowerMask = (1 << bit) - 1;
+    bytes[bytePosition] = (byte) ((bytes[bytePosition] ^ (1 << bit)) ^ (noise[bytePosition] & lowerMask));
+    return new Identifier(bytes);
+  }
+}
@@ -0,0 +1,178 @@
+package network.p2p;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
+import io.grpc.Channel;
+import io.grpc.stub.StreamObserver;
+import model.codec.EncodedEntity;
+import model.lightchain.Identifier;
+import network.p2p.proto.AllRequest;
+import network.p2p.proto.GetReply;
+import network.p2p.proto.GetRequest;
+import network.p2p.proto.PutMessage;
+import network.p2p.proto.StorageGrpc;
+
+/**
+ * Client side of the gRPC Storage service, which puts entities to and gets entities from the local store of a remote
+ * node. Every call streams a whole batch of entities or identifiers over a single stream, and blocks until the remote
+ * node completes the stream.
+ */
+public class StorageClient {
+  /**
+   * Maximum time to wait for the remote node to complete a stream.
+   */
+  private static final long TIMEOUT_SECONDS = 60;
+  private final StorageGrpc.StorageStub asyncStub;
+
+  /**
+   * Constructor.
+   *
+   * @param channel the gRPC channel to the remote node.
+   */
+  public StorageClient(Channel channel) {
+    this.asyncStub = StorageGrpc.newStub(channel);
+  }
+
+  /**
+   * Streams a batch of encoded entities to the remote node, which stores them on its local store.
+   *
+   * @param origin   identifier of this node.
+   * @param channel  the channel the entities are put on.
+   * @param entities the encoded entities keyed by their identifier.
+   * @throws IOException          if the remote node fails the stream, or does not complete it in time.
+   * @throws InterruptedException if interrupted while waiting for the remote node.
+   */
+  public void put(Identifier origin, String channel, Map<Identifier, EncodedEntity> entities)
+      throws IOException, InterruptedException {
+    CountDownLatch finishLatch = new CountDownLatch(1);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    StreamObserver<PutMessage> requestObserver = this.asyncStub.put(new StreamObserver<Empty>() {
+      @Override
+      public void onNext(Empty value) {
+
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        error.set(t);
+        finishLatch.countDown();
+      }
+
+      @Override
+      public void onCompleted() {
+        finishLatch.countDown();
+      }
+    });
+
+    try {
+      for (Map.Entry<Identifier, EncodedEntity> entry : entities.entrySet()) {
+        requestObserver.onNext(PutMessage.newBuilder()
+            .setOriginId(ByteString.copyFrom(origin.getBytes()))
+            .setChannel(channel)
+            .setIdentifier(ByteString.copyFrom(entry.getKey().getBytes()))
+            .setPayload(ByteString.copyFrom(entry.getValue().getBytes()))
+            .setType(entry.getValue().getType())
+            .build());
+      }
+    } catch (RuntimeException e) {
+      requestObserver.onError(e);
+      throw e;
+    }
+    requestObserver.onCompleted();
+    await(finishLatch, error, "put");
+  }
+
+  /**
+   * Streams a batch of identifiers to the remote node, which replies with the entities it stores for them.
+   *
+   * @param channel     the channel the entities are put on.
+   * @param identifiers identifiers of the entities.
+   * @return the encoded entities found on the remote node keyed by their identifier.
+   * @throws IOException          if the remote node fails the stream, or does not complete it in time.
+   * @throws InterruptedException if interrupted while waiting for the remote node.
+   */
+  public HashMap<Identifier, EncodedEntity> get(String channel, Collection<Identifier> identifiers)
+      throws IOException, InterruptedException {
+    CountDownLatch finishLatch = new CountDownLatch(1);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    ConcurrentHashMap<Identifier, EncodedEntity> found = new ConcurrentHashMap<>();
+    StreamObserver<GetRequest> requestObserver = this.asyncStub.get(replyObserver(found, finishLatch, error));
+
+    try {
+      for (Identifier identifier : identifiers) {
+        requestObserver.onNext(GetRequest.newBuilder()
+            .setChannel(channel)
+            .setIdentifier(ByteString.copyFrom(identifier.getBytes()))
+            .build());
+      }
+    } catch (RuntimeException e) {
+      requestObserver.onError(e);
+      throw e;
+    }
+    requestObserver.onCompleted();
+    await(finishLatch, error, "get");
+    return new HashMap<>(found);
+  }
+
+  /**
+   * Fetches every entity the remote node stores on the given channel.
+   *
+   * @param channel the channel the entities are put on.
+   * @return the encoded entities of the remote node keyed by their identifier.
+   * @throws IOException          if the remote node fails the stream, or does not complete it in time.
+   * @throws InterruptedException if interrupted while waiting for the remote node.
+   */
+  public HashMap<Identifier, EncodedEntity> all(String channel) throws IOException, InterruptedException {
+    CountDownLatch finishLatch = new CountDownLatch(1);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    ConcurrentHashMap<Identifier, EncodedEntity> found = new ConcurrentHashMap<>();
+    this.asyncStub.all(AllRequest.newBuilder().setChannel(channel).build(),
+        replyObserver(found, finishLatch, error));
+    await(finishLatch, error, "all");
+    return new HashMap<>(found);
+  }
+
+  private static StreamObserver<GetReply> replyObserver(Map<Identifier, EncodedEntity> found,
+                                                        CountDownLatch finishLatch,
+                                                        AtomicReference<Throwable> error) {
+    return new StreamObserver<GetReply>() {
+      @Override
+      public void onNext(GetReply reply) {
+        if (reply.getFound()) {
+          found.put(new Identifier(reply.getIdentifier().toByteArray()),
+              new EncodedEntity(reply.getPayload().toByteArray(), reply.getType()));
+        }
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        error.set(t);
+        finishLatch.countDown();
+      }
+
+      @Override
+      public void onCompleted() {
+        finishLatch.countDown();
+      }
+    };
+  }
+
+  private static void await(CountDownLatch finishLatch, AtomicReference<Throwable> error, String call)
+      throws IOException, InterruptedException {
+    if (!finishLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      throw new IOException(call + " can not finish within " + TIMEOUT_SECONDS + " seconds");
+    }
+    if (error.get() != null) {
+      throw new IOException(call + " failed", error.get());
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package network.p2p;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
+import io.grpc.stub.StreamObserver;
+import model.codec.EncodedEntity;
+import model.lightchain.Identifier;
+import network.p2p.proto.AllRequest;
+import network.p2p.proto.GetReply;
+import network.p2p.proto.GetRequest;
+import network.p2p.proto.PutMessage;
+import network.p2p.proto.StorageGrpc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implements the server side of the distributed hash table: the local store of a node, which holds the entities the
+ * node is responsible for, and the gRPC Storage service that other nodes put entities to and get entities from.
+ * Entities are stored per channel in their encoded form, and are only decoded by the node that gets them.
+ */
+public class StorageService extends StorageGrpc.StorageImplBase {
+  private static final Logger logger = LoggerFactory.getLogger(StorageService.class);
+
+  /**
+   * Encoded entities keyed by their identifier, per channel.
+   */
+  private final ConcurrentHashMap<String, ConcurrentHashMap<Identifier, EncodedEntity>> store;
+
+  /**
+   * Creates an empty local store.
+   */
+  public StorageService() {
+    this.store = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Stores an encoded entity on the local store.
+   *
+   * @param channel    the channel the entity is put on.
+   * @param identifier identifier of the entity.
+   * @param entity     the encoded entity.
+   * @return true if the entity is new to the channel, false if it is already stored.
+   */
+  public boolean store(String channel, Identifier identifier, EncodedEntity entity) {
+    return this.store.computeIfAbsent(channel, c -> new ConcurrentHashMap<>()).putIfAbsent(identifier, entity) == null;
+  }
+
+  /**
+   * Fetches an encoded entity from the local store.
+   *
+   * @param channel    the channel the entity is put on.
+   * @param identifier identifier of the entity.
+   * @return the encoded entity, or null if it is not stored on the channel.
+   */
+  public EncodedEntity fetch(String channel, Identifier identifier) {
+    Map<Identifier, EncodedEntity> entities = this.store.get(channel);
+    return entities == null ? null : entities.get(identifier);
+  }
+
+  /**
+   * Identifiers of the entities stored on the given channel.
+   *
+   * @param channel the channel the entities are put on.
+   * @return identifiers of the locally stored entities of the channel.
+   */
+  public ArrayList<Identifier> identifiers(String channel) {
+    Map<Identifier, EncodedEntity> entities = this.store.get(channel);
+    return entities == null ? new ArrayList<>() : new ArrayList<>(entities.keySet());
+  }
+
+  /**
+   * Stores the streamed entities on the local store, and acknowledges once the stream is completed.
+   *
+   * @param responseObserver receives the acknowledgement.
+   * @return StreamObserver for the client to stream the entities to.
+   */
+  @Override
+  public StreamObserver<PutMessage> put(StreamObserver<Empty> responseObserver) {
+    return new StreamObserver<PutMessage>() {
+      @Override
+      public void onNext(PutMessage message) {
+        store(message.getChannel(), new Identifier(message.getIdentifier().toByteArray()),
+            new EncodedEntity(message.getPayload().toByteArray(), message.getType()));
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        logger.error("encountered error in put", t);
+      }
+
+      @Override
+      public void onCompleted() {
+        responseObserver.onNext(Empty.newBuilder().build());
+        responseObserver.onCompleted();
+      }
+    };
+  }
+
+  /**
+   * Replies to every streamed request with the requested entity, in the order of the requests, or with a reply that
+   * is not found if the entity is not stored on the requested channel.
+   *
+   * @param responseObserver receives the replies.
+   * @return StreamObserver for the client to stream the requests to.
+   */
+  @Override
+  public StreamObserver<GetRequest> get(StreamObserver<GetReply> responseObserver) {
+    return new StreamObserver<GetRequest>() {
+      @Override
+      public void onNext(GetRequest request) {
+        Identifier identifier = new Identifier(request.getIdentifier().toByteArray());
+        responseObserver.onNext(reply(identifier, fetch(request.getChannel(), identifier)));
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        logger.error("encountered error in get", t);
+      }
+
+      @Override
+      public void onCompleted() {
+        responseObserver.onCompleted();
+      }
+    };
+  }
+
+  /**
+   * Streams every entity stored on the requested channel.
+   *
+   * @param request          the requested channel.
+   * @param responseObserver receives the entities.
+   */
+  @Override
+  public void all(AllRequest request, StreamObserver<GetReply> responseObserver) {
+    Map<Identifier, EncodedEntity> entities = this.store.get(request.getChannel());
+    if (entities != null) {
+      for (Map.Entry<Identifier, EncodedEntity> entry : entities.entrySet()) {
+        responseObserver.onNext(reply(entry.getKey(), entry.getValue()));
+      }
+    }
+    responseObserver.onCompleted();
+  }
+
+  private static GetReply reply(Identifier identifier, EncodedEntity entity) {
+    GetReply.Builder reply = GetReply.newBuilder().setIdentifier(ByteString.copyFrom(identifier.getBytes()));
+    if (entity == null) {
+      return reply.setFound(false).build();
+    }
+    return reply.setFound(true)
+        .setPayload(ByteString.copyFrom(entity.getBytes()))
+        .setType(entity.getType())
+        .build();
+  }
+}
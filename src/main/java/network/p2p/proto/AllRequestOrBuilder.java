@@ -0,0 +1,21 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: storage.proto
+
+package network.p2p.proto;
+
+public interface AllRequestOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:network.p2p.proto.AllRequest)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <code>string Channel = 1;</code>
+   * @return The channel.
+   */
+  java.lang.String getChannel();
+  /**
+   * <code>string Channel = 1;</code>
+   * @return The bytes for channel.
+   */
+  com.google.protobuf.ByteString
+      getChannelBytes();
+}
@@ -0,0 +1,27 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: routing.proto
+
+package network.p2p.proto;
+
+public interface ContactMessageOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:network.p2p.proto.ContactMessage)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <code>bytes Identifier = 1;</code>
+   * @return The identifier.
+   */
+  com.google.protobuf.ByteString getIdentifier();
+
+  /**
+   * <code>string Address = 2;</code>
+   * @return The address.
+   */
+  java.lang.String getAddress();
+  /**
+   * <code>string Address = 2;</code>
+   * @return The bytes for address.
+   */
+  com.google.protobuf.ByteString
+      getAddressBytes();
+}
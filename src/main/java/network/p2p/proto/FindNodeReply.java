@@ -0,0 +1,770 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: routing.proto
+
+package network.p2p.proto;
+
+/**
+ * Protobuf type {@code network.p2p.proto.FindNodeReply}
+ */
+public final class FindNodeReply extends
+    com.google.protobuf.GeneratedMessageV3 implements
+    // @@protoc_insertion_point(message_implements:network.p2p.proto.FindNodeReply)
+    FindNodeReplyOrBuilder {
+private static final long serialVersionUID = 0L;
+  // Use FindNodeReply.newBuilder() to construct.
+  private FindNodeReply(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+    super(builder);
+  }
+  private FindNodeReply() {
+    closest_ = java.util.Collections.emptyList();
+  }
+
+  @java.lang.Override
+  @SuppressWarnings({"unused"})
+  protected java.lang.Object newInstance(
+      UnusedPrivateParameter unused) {
+    return new FindNodeReply();
+  }
+
+  @java.lang.Override
+  public final com.google.protobuf.UnknownFieldSet
+  getUnknownFields() {
+    return this.unknownFields;
+  }
+  private FindNodeReply(
+      com.google.protobuf.CodedInputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    this();
+    if (extensionRegistry == null) {
+      throw new java.lang.NullPointerException();
+    }
+    int mutable_bitField0_ = 0;
+    com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+        com.google.protobuf.UnknownFieldSet.newBuilder();
+    try {
+      boolean done = false;
+      while (!done) {
+        int tag = input.readTag();
+        switch (tag) {
+          case 0:
+            done = true;
+            break;
+          case 10: {
+            if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+              closest_ = new java.util.ArrayList<network.p2p.proto.ContactMessage>();
+              mutable_bitField0_ |= 0x00000001;
+            }
+            closest_.add(
+                input.readMessage(network.p2p.proto.ContactMessage.parser(), extensionRegistry));
+            break;
+          }
+          default: {
+            if (!parseUnknownField(
+                input, unknownFields, extensionRegistry, tag)) {
+              done = true;
+            }
+            break;
+          }
+        }
+      }
+    } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+      throw e.setUnfinishedMessage(this);
+    } catch (java.io.IOException e) {
+      throw new com.google.protobuf.InvalidProtocolBufferException(
+          e).setUnfinishedMessage(this);
+    } finally {
+      if (((mutable_bitField0_ & 0x00000001) != 0)) {
+        closest_ = java.util.Collections.unmodifiableList(closest_);
+      }
+      this.unknownFields = unknownFields.build();
+      makeExtensionsImmutable();
+    }
+  }
+  public static final com.google.protobuf.Descriptors.Descriptor
+      getDescriptor() {
+    return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_FindNodeReply_descriptor;
+  }
+
+  @java.lang.Override
+  protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internalGetFieldAccessorTable() {
+    return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_FindNodeReply_fieldAccessorTable
+        .ensureFieldAccessorsInitialized(
+            network.p2p.proto.FindNodeReply.class, network.p2p.proto.FindNodeReply.Builder.class);
+  }
+
+  public static final int CLOSEST_FIELD_NUMBER = 1;
+  private java.util.List<network.p2p.proto.ContactMessage> closest_;
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  @java.lang.Override
+  public java.util.List<network.p2p.proto.ContactMessage> getClosestList() {
+    return closest_;
+  }
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  @java.lang.Override
+  public java.util.List<? extends network.p2p.proto.ContactMessageOrBuilder> 
+      getClosestOrBuilderList() {
+    return closest_;
+  }
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  @java.lang.Override
+  public int getClosestCount() {
+    return closest_.size();
+  }
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  @java.lang.Override
+  public network.p2p.proto.ContactMessage getClosest(int index) {
+    return closest_.get(index);
+  }
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  @java.lang.Override
+  public network.p2p.proto.ContactMessageOrBuilder getClosestOrBuilder(
+      int index) {
+    return closest_.get(index);
+  }
+
+  private byte memoizedIsInitialized = -1;
+  @java.lang.Override
+  public final boolean isInitialized() {
+    byte isInitialized = memoizedIsInitialized;
+    if (isInitialized == 1) return true;
+    if (isInitialized == 0) return false;
+
+    memoizedIsInitialized = 1;
+    return true;
+  }
+
+  @java.lang.Override
+  public void writeTo(com.google.protobuf.CodedOutputStream output)
+                      throws java.io.IOException {
+    for (int i = 0; i < closest_.size(); i++) {
+      output.writeMessage(1, closest_.get(i));
+    }
+    unknownFields.writeTo(output);
+  }
+
+  @java.lang.Override
+  public int getSerializedSize() {
+    int size = memoizedSize;
+    if (size != -1) return size;
+
+    size = 0;
+    for (int i = 0; i < closest_.size(); i++) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeMessageSize(1, closest_.get(i));
+    }
+    size += unknownFields.getSerializedSize();
+    memoizedSize = size;
+    return size;
+  }
+
+  @java.lang.Override
+  public boolean equals(final java.lang.Object obj) {
+    if (obj == this) {
+     return true;
+    }
+    if (!(obj instanceof network.p2p.proto.FindNodeReply)) {
+      return super.equals(obj);
+    }
+    network.p2p.proto.FindNodeReply other = (network.p2p.proto.FindNodeReply) obj;
+
+    if (!getClosestList()
+        .equals(other.getClosestList())) return false;
+    if (!unknownFields.equals(other.unknownFields)) return false;
+    return true;
+  }
+
+  @java.lang.Override
+  public int hashCode() {
+    if (memoizedHashCode != 0) {
+      return memoizedHashCode;
+    }
+    int hash = 41;
+    hash = (19 * hash) + getDescriptor().hashCode();
+    if (getClosestCount() > 0) {
+      hash = (37 * hash) + CLOSEST_FIELD_NUMBER;
+      hash = (53 * hash) + getClosestList().hashCode();
+    }
+    hash = (29 * hash) + unknownFields.hashCode();
+    memoizedHashCode = hash;
+    return hash;
+  }
+
+  public static network.p2p.proto.FindNodeReply parseFrom(
+      java.nio.ByteBuffer data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(
+      java.nio.ByteBuffer data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(
+      com.google.protobuf.ByteString data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(
+      com.google.protobuf.ByteString data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(byte[] data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(
+      byte[] data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(java.io.InputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(
+      java.io.InputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input, extensionRegistry);
+  }
+  public static network.p2p.proto.FindNodeReply parseDelimitedFrom(java.io.InputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseDelimitedWithIOException(PARSER, input);
+  }
+  public static network.p2p.proto.FindNodeReply parseDelimitedFrom(
+      java.io.InputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(
+      com.google.protobuf.CodedInputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input);
+  }
+  public static network.p2p.proto.FindNodeReply parseFrom(
+      com.google.protobuf.CodedInputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input, extensionRegistry);
+  }
+
+  @java.lang.Override
+  public Builder newBuilderForType() { return newBuilder(); }
+  public static Builder newBuilder() {
+    return DEFAULT_INSTANCE.toBuilder();
+  }
+  public static Builder newBuilder(network.p2p.proto.FindNodeReply prototype) {
+    return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+  }
+  @java.lang.Override
+  public Builder toBuilder() {
+    return this == DEFAULT_INSTANCE
+        ? new Builder() : new Builder().mergeFrom(this);
+  }
+
+  @java.lang.Override
+  protected Builder newBuilderForType(
+      com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+    Builder builder = new Builder(parent);
+    return builder;
+  }
+  /**
+   * Protobuf type {@code network.p2p.proto.FindNodeReply}
+   */
+  public static final class Builder extends
+      com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+      // @@protoc_insertion_point(builder_implements:network.p2p.proto.FindNodeReply)
+      network.p2p.proto.FindNodeReplyOrBuilder {
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_FindNodeReply_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_FindNodeReply_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              network.p2p.proto.FindNodeReply.class, network.p2p.proto.FindNodeReply.Builder.class);
+    }
+
+    // Construct using network.p2p.proto.FindNodeReply.newBuilder()
+    private Builder() {
+      maybeForceBuilderInitialization();
+    }
+
+    private Builder(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      super(parent);
+      maybeForceBuilderInitialization();
+    }
+    private void maybeForceBuilderInitialization() {
+      if (com.google.protobuf.GeneratedMessageV3
+              .alwaysUseFieldBuilders) {
+        getClosestFieldBuilder();
+      }
+    }
+    @java.lang.Override
+    public Builder clear() {
+      super.clear();
+      if (closestBuilder_ == null) {
+        closest_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000001);
+      } else {
+        closestBuilder_.clear();
+      }
+      return this;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Descriptors.Descriptor
+        getDescriptorForType() {
+      return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_FindNodeReply_descriptor;
+    }
+
+    @java.lang.Override
+    public network.p2p.proto.FindNodeReply getDefaultInstanceForType() {
+      return network.p2p.proto.FindNodeReply.getDefaultInstance();
+    }
+
+    @java.lang.Override
+    public network.p2p.proto.FindNodeReply build() {
+      network.p2p.proto.FindNodeReply result = buildPartial();
+      if (!result.isInitialized()) {
+        throw newUninitializedMessageException(result);
+      }
+      return result;
+    }
+
+    @java.lang.Override
+    public network.p2p.proto.FindNodeReply buildPartial() {
+      network.p2p.proto.FindNodeReply result = new network.p2p.proto.FindNodeReply(this);
+      int from_bitField0_ = bitField0_;
+      if (closestBuilder_ == null) {
+        if (((bitField0_ & 0x00000001) != 0)) {
+          closest_ = java.util.Collections.unmodifiableList(closest_);
+          bitField0_ = (bitField0_ & ~0x00000001);
+        }
+        result.closest_ = closest_;
+      } else {
+        result.closest_ = closestBuilder_.build();
+      }
+      onBuilt();
+      return result;
+    }
+
+    @java.lang.Override
+    public Builder clone() {
+      return super.clone();
+    }
+    @java.lang.Override
+    public Builder setField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        java.lang.Object value) {
+      return super.setField(field, value);
+    }
+    @java.lang.Override
+    public Builder clearField(
+        com.google.protobuf.Descriptors.FieldDescriptor field) {
+      return super.clearField(field);
+    }
+    @java.lang.Override
+    public Builder clearOneof(
+        com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+      return super.clearOneof(oneof);
+    }
+    @java.lang.Override
+    public Builder setRepeatedField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        int index, java.lang.Object value) {
+      return super.setRepeatedField(field, index, value);
+    }
+    @java.lang.Override
+    public Builder addRepeatedField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        java.lang.Object value) {
+      return super.addRepeatedField(field, value);
+    }
+    @java.lang.Override
+    public Builder mergeFrom(com.google.protobuf.Message other) {
+      if (other instanceof network.p2p.proto.FindNodeReply) {
+        return mergeFrom((network.p2p.proto.FindNodeReply)other);
+      } else {
+        super.mergeFrom(other);
+        return this;
+      }
+    }
+
+    public Builder mergeFrom(network.p2p.proto.FindNodeReply other) {
+      if (other == network.p2p.proto.FindNodeReply.getDefaultInstance()) return this;
+      if (closestBuilder_ == null) {
+        if (!other.closest_.isEmpty()) {
+          if (closest_.isEmpty()) {
+            closest_ = other.closest_;
+            bitField0_ = (bitField0_ & ~0x00000001);
+          } else {
+            ensureClosestIsMutable();
+            closest_.addAll(other.closest_);
+          }
+          onChanged();
+        }
+      } else {
+        if (!other.closest_.isEmpty()) {
+          if (closestBuilder_.isEmpty()) {
+            closestBuilder_.dispose();
+            closestBuilder_ = null;
+            closest_ = other.closest_;
+            bitField0_ = (bitField0_ & ~0x00000001);
+            closestBuilder_ = 
+              com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                 getClosestFieldBuilder() : null;
+          } else {
+            closestBuilder_.addAllMessages(other.closest_);
+          }
+        }
+      }
+      this.mergeUnknownFields(other.unknownFields);
+      onChanged();
+      return this;
+    }
+
+    @java.lang.Override
+    public final boolean isInitialized() {
+      return true;
+    }
+
+    @java.lang.Override
+    public Builder mergeFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      network.p2p.proto.FindNodeReply parsedMessage = null;
+      try {
+        parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        parsedMessage = (network.p2p.proto.FindNodeReply) e.getUnfinishedMessage();
+        throw e.unwrapIOException();
+      } finally {
+        if (parsedMessage != null) {
+          mergeFrom(parsedMessage);
+        }
+      }
+      return this;
+    }
+    private int bitField0_;
+
+    private java.util.List<network.p2p.proto.ContactMessage> closest_ =
+      java.util.Collections.emptyList();
+    private void ensureClosestIsMutable() {
+      if (!((bitField0_ & 0x00000001) != 0)) {
+        closest_ = new java.util.ArrayList<network.p2p.proto.ContactMessage>(closest_);
+        bitField0_ |= 0x00000001;
+       }
+    }
+
+    private com.google.protobuf.RepeatedFieldBuilderV3<
+        network.p2p.proto.ContactMessage, network.p2p.proto.ContactMessage.Builder, network.p2p.proto.ContactMessageOrBuilder> closestBuilder_;
+
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public java.util.List<network.p2p.proto.ContactMessage> getClosestList() {
+      if (closestBuilder_ == null) {
+        return java.util.Collections.unmodifiableList(closest_);
+      } else {
+        return closestBuilder_.getMessageList();
+      }
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public int getClosestCount() {
+      if (closestBuilder_ == null) {
+        return closest_.size();
+      } else {
+        return closestBuilder_.getCount();
+      }
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public network.p2p.proto.ContactMessage getClosest(int index) {
+      if (closestBuilder_ == null) {
+        return closest_.get(index);
+      } else {
+        return closestBuilder_.getMessage(index);
+      }
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder setClosest(
+        int index, network.p2p.proto.ContactMessage value) {
+      if (closestBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureClosestIsMutable();
+        closest_.set(index, value);
+        onChanged();
+      } else {
+        closestBuilder_.setMessage(index, value);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder setClosest(
+        int index, network.p2p.proto.ContactMessage.Builder builderForValue) {
+      if (closestBuilder_ == null) {
+        ensureClosestIsMutable();
+        closest_.set(index, builderForValue.build());
+        onChanged();
+      } else {
+        closestBuilder_.setMessage(index, builderForValue.build());
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder addClosest(network.p2p.proto.ContactMessage value) {
+      if (closestBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureClosestIsMutable();
+        closest_.add(value);
+        onChanged();
+      } else {
+        closestBuilder_.addMessage(value);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder addClosest(
+        int index, network.p2p.proto.ContactMessage value) {
+      if (closestBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureClosestIsMutable();
+        closest_.add(index, value);
+        onChanged();
+      } else {
+        closestBuilder_.addMessage(index, value);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder addClosest(
+        network.p2p.proto.ContactMessage.Builder builderForValue) {
+      if (closestBuilder_ == null) {
+        ensureClosestIsMutable();
+        closest_.add(builderForValue.build());
+        onChanged();
+      } else {
+        closestBuilder_.addMessage(builderForValue.build());
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder addClosest(
+        int index, network.p2p.proto.ContactMessage.Builder builderForValue) {
+      if (closestBuilder_ == null) {
+        ensureClosestIsMutable();
+        closest_.add(index, builderForValue.build());
+        onChanged();
+      } else {
+        closestBuilder_.addMessage(index, builderForValue.build());
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder addAllClosest(
+        java.lang.Iterable<? extends network.p2p.proto.ContactMessage> values) {
+      if (closestBuilder_ == null) {
+        ensureClosestIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, closest_);
+        onChanged();
+      } else {
+        closestBuilder_.addAllMessages(values);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder clearClosest() {
+      if (closestBuilder_ == null) {
+        closest_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+      } else {
+        closestBuilder_.clear();
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public Builder removeClosest(int index) {
+      if (closestBuilder_ == null) {
+        ensureClosestIsMutable();
+        closest_.remove(index);
+        onChanged();
+      } else {
+        closestBuilder_.remove(index);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public network.p2p.proto.ContactMessage.Builder getClosestBuilder(
+        int index) {
+      return getClosestFieldBuilder().getBuilder(index);
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public network.p2p.proto.ContactMessageOrBuilder getClosestOrBuilder(
+        int index) {
+      if (closestBuilder_ == null) {
+        return closest_.get(index);  } else {
+        return closestBuilder_.getMessageOrBuilder(index);
+      }
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public java.util.List<? extends network.p2p.proto.ContactMessageOrBuilder> 
+         getClosestOrBuilderList() {
+      if (closestBuilder_ != null) {
+        return closestBuilder_.getMessageOrBuilderList();
+      } else {
+        return java.util.Collections.unmodifiableList(closest_);
+      }
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public network.p2p.proto.ContactMessage.Builder addClosestBuilder() {
+      return getClosestFieldBuilder().addBuilder(
+          network.p2p.proto.ContactMessage.getDefaultInstance());
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public network.p2p.proto.ContactMessage.Builder addClosestBuilder(
+        int index) {
+      return getClosestFieldBuilder().addBuilder(
+          index, network.p2p.proto.ContactMessage.getDefaultInstance());
+    }
+    /**
+     * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+     */
+    public java.util.List<network.p2p.proto.ContactMessage.Builder> 
+         getClosestBuilderList() {
+      return getClosestFieldBuilder().getBuilderList();
+    }
+    private com.google.protobuf.RepeatedFieldBuilderV3<
+        network.p2p.proto.ContactMessage, network.p2p.proto.ContactMessage.Builder, network.p2p.proto.ContactMessageOrBuilder> 
+        getClosestFieldBuilder() {
+      if (closestBuilder_ == null) {
+        closestBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+            network.p2p.proto.ContactMessage, network.p2p.proto.ContactMessage.Builder, network.p2p.proto.ContactMessageOrBuilder>(
+                closest_,
+                ((bitField0_ & 0x00000001) != 0),
+                getParentForChildren(),
+                isClean());
+        closest_ = null;
+      }
+      return closestBuilder_;
+    }
+    @java.lang.Override
+    public final Builder setUnknownFields(
+        final com.google.protobuf.UnknownFieldSet unknownFields) {
+      return super.setUnknownFields(unknownFields);
+    }
+
+    @java.lang.Override
+    public final Builder mergeUnknownFields(
+        final com.google.protobuf.UnknownFieldSet unknownFields) {
+      return super.mergeUnknownFields(unknownFields);
+    }
+
+
+    // @@protoc_insertion_point(builder_scope:network.p2p.proto.FindNodeReply)
+  }
+
+  // @@protoc_insertion_point(class_scope:network.p2p.proto.FindNodeReply)
+  private static final network.p2p.proto.FindNodeReply DEFAULT_INSTANCE;
+  static {
+    DEFAULT_INSTANCE = new network.p2p.proto.FindNodeReply();
+  }
+
+  public static network.p2p.proto.FindNodeReply getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  private static final com.google.protobuf.Parser<FindNodeReply>
+      PARSER = new com.google.protobuf.AbstractParser<FindNodeReply>() {
+    @java.lang.Override
+    public FindNodeReply parsePartialFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return new FindNodeReply(input, extensionRegistry);
+    }
+  };
+
+  public static com.google.protobuf.Parser<FindNodeReply> parser() {
+    return PARSER;
+  }
+
+  @java.lang.Override
+  public com.google.protobuf.Parser<FindNodeReply> getParserForType() {
+    return PARSER;
+  }
+
+  @java.lang.Override
+  public network.p2p.proto.FindNodeReply getDefaultInstanceForType() {
+    return DEFAULT_INSTANCE;
+  }
+
+}
+
@@ -0,0 +1,33 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: routing.proto
+
+package network.p2p.proto;
+
+public interface FindNodeReplyOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:network.p2p.proto.FindNodeReply)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  java.util.List<network.p2p.proto.ContactMessage> 
+      getClosestList();
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  network.p2p.proto.ContactMessage getClosest(int index);
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  int getClosestCount();
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  java.util.List<? extends network.p2p.proto.ContactMessageOrBuilder> 
+      getClosestOrBuilderList();
+  /**
+   * <code>repeated .network.p2p.proto.ContactMessage Closest = 1;</code>
+   */
+  network.p2p.proto.ContactMessageOrBuilder getClosestOrBuilder(
+      int index);
+}
@@ -0,0 +1,30 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: routing.proto
+
+package network.p2p.proto;
+
+public interface FindNodeRequestOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:network.p2p.proto.FindNodeRequest)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   * @return Whether the origin field is set.
+   */
+  boolean hasOrigin();
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   * @return The origin.
+   */
+  network.p2p.proto.ContactMessage getOrigin();
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   */
+  network.p2p.proto.ContactMessageOrBuilder getOriginOrBuilder();
+
+  /**
+   * <code>bytes Target = 2;</code>
+   * @return The target.
+   */
+  com.google.protobuf.ByteString getTarget();
+}
@@ -0,0 +1,15 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: routing.proto
+
+package network.p2p.proto;
+
+public interface PingReplyOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:network.p2p.proto.PingReply)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <code>bytes Identifier = 1;</code>
+   * @return The identifier.
+   */
+  com.google.protobuf.ByteString getIdentifier();
+}
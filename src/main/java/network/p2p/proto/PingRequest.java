@@ -0,0 +1,607 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: routing.proto
+
+package network.p2p.proto;
+
+/**
+ * Protobuf type {@code network.p2p.proto.PingRequest}
+ */
+public final class PingRequest extends
+    com.google.protobuf.GeneratedMessageV3 implements
+    // @@protoc_insertion_point(message_implements:network.p2p.proto.PingRequest)
+    PingRequestOrBuilder {
+private static final long serialVersionUID = 0L;
+  // Use PingRequest.newBuilder() to construct.
+  private PingRequest(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+    super(builder);
+  }
+  private PingRequest() {
+  }
+
+  @java.lang.Override
+  @SuppressWarnings({"unused"})
+  protected java.lang.Object newInstance(
+      UnusedPrivateParameter unused) {
+    return new PingRequest();
+  }
+
+  @java.lang.Override
+  public final com.google.protobuf.UnknownFieldSet
+  getUnknownFields() {
+    return this.unknownFields;
+  }
+  private PingRequest(
+      com.google.protobuf.CodedInputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    this();
+    if (extensionRegistry == null) {
+      throw new java.lang.NullPointerException();
+    }
+    com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+        com.google.protobuf.UnknownFieldSet.newBuilder();
+    try {
+      boolean done = false;
+      while (!done) {
+        int tag = input.readTag();
+        switch (tag) {
+          case 0:
+            done = true;
+            break;
+          case 10: {
+            network.p2p.proto.ContactMessage.Builder subBuilder = null;
+            if (origin_ != null) {
+              subBuilder = origin_.toBuilder();
+            }
+            origin_ = input.readMessage(network.p2p.proto.ContactMessage.parser(), extensionRegistry);
+            if (subBuilder != null) {
+              subBuilder.mergeFrom(origin_);
+              origin_ = subBuilder.buildPartial();
+            }
+
+            break;
+          }
+          default: {
+            if (!parseUnknownField(
+                input, unknownFields, extensionRegistry, tag)) {
+              done = true;
+            }
+            break;
+          }
+        }
+      }
+    } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+      throw e.setUnfinishedMessage(this);
+    } catch (java.io.IOException e) {
+      throw new com.google.protobuf.InvalidProtocolBufferException(
+          e).setUnfinishedMessage(this);
+    } finally {
+      this.unknownFields = unknownFields.build();
+      makeExtensionsImmutable();
+    }
+  }
+  public static final com.google.protobuf.Descriptors.Descriptor
+      getDescriptor() {
+    return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_PingRequest_descriptor;
+  }
+
+  @java.lang.Override
+  protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internalGetFieldAccessorTable() {
+    return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_PingRequest_fieldAccessorTable
+        .ensureFieldAccessorsInitialized(
+            network.p2p.proto.PingRequest.class, network.p2p.proto.PingRequest.Builder.class);
+  }
+
+  public static final int ORIGIN_FIELD_NUMBER = 1;
+  private network.p2p.proto.ContactMessage origin_;
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   * @return Whether the origin field is set.
+   */
+  @java.lang.Override
+  public boolean hasOrigin() {
+    return origin_ != null;
+  }
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   * @return The origin.
+   */
+  @java.lang.Override
+  public network.p2p.proto.ContactMessage getOrigin() {
+    return origin_ == null ? network.p2p.proto.ContactMessage.getDefaultInstance() : origin_;
+  }
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   */
+  @java.lang.Override
+  public network.p2p.proto.ContactMessageOrBuilder getOriginOrBuilder() {
+    return getOrigin();
+  }
+
+  private byte memoizedIsInitialized = -1;
+  @java.lang.Override
+  public final boolean isInitialized() {
+    byte isInitialized = memoizedIsInitialized;
+    if (isInitialized == 1) return true;
+    if (isInitialized == 0) return false;
+
+    memoizedIsInitialized = 1;
+    return true;
+  }
+
+  @java.lang.Override
+  public void writeTo(com.google.protobuf.CodedOutputStream output)
+                      throws java.io.IOException {
+    if (origin_ != null) {
+      output.writeMessage(1, getOrigin());
+    }
+    unknownFields.writeTo(output);
+  }
+
+  @java.lang.Override
+  public int getSerializedSize() {
+    int size = memoizedSize;
+    if (size != -1) return size;
+
+    size = 0;
+    if (origin_ != null) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeMessageSize(1, getOrigin());
+    }
+    size += unknownFields.getSerializedSize();
+    memoizedSize = size;
+    return size;
+  }
+
+  @java.lang.Override
+  public boolean equals(final java.lang.Object obj) {
+    if (obj == this) {
+     return true;
+    }
+    if (!(obj instanceof network.p2p.proto.PingRequest)) {
+      return super.equals(obj);
+    }
+    network.p2p.proto.PingRequest other = (network.p2p.proto.PingRequest) obj;
+
+    if (hasOrigin() != other.hasOrigin()) return false;
+    if (hasOrigin()) {
+      if (!getOrigin()
+          .equals(other.getOrigin())) return false;
+    }
+    if (!unknownFields.equals(other.unknownFields)) return false;
+    return true;
+  }
+
+  @java.lang.Override
+  public int hashCode() {
+    if (memoizedHashCode != 0) {
+      return memoizedHashCode;
+    }
+    int hash = 41;
+    hash = (19 * hash) + getDescriptor().hashCode();
+    if (hasOrigin()) {
+      hash = (37 * hash) + ORIGIN_FIELD_NUMBER;
+      hash = (53 * hash) + getOrigin().hashCode();
+    }
+    hash = (29 * hash) + unknownFields.hashCode();
+    memoizedHashCode = hash;
+    return hash;
+  }
+
+  public static network.p2p.proto.PingRequest parseFrom(
+      java.nio.ByteBuffer data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(
+      java.nio.ByteBuffer data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(
+      com.google.protobuf.ByteString data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(
+      com.google.protobuf.ByteString data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(byte[] data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(
+      byte[] data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(java.io.InputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(
+      java.io.InputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input, extensionRegistry);
+  }
+  public static network.p2p.proto.PingRequest parseDelimitedFrom(java.io.InputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseDelimitedWithIOException(PARSER, input);
+  }
+  public static network.p2p.proto.PingRequest parseDelimitedFrom(
+      java.io.InputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(
+      com.google.protobuf.CodedInputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input);
+  }
+  public static network.p2p.proto.PingRequest parseFrom(
+      com.google.protobuf.CodedInputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input, extensionRegistry);
+  }
+
+  @java.lang.Override
+  public Builder newBuilderForType() { return newBuilder(); }
+  public static Builder newBuilder() {
+    return DEFAULT_INSTANCE.toBuilder();
+  }
+  public static Builder newBuilder(network.p2p.proto.PingRequest prototype) {
+    return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+  }
+  @java.lang.Override
+  public Builder toBuilder() {
+    return this == DEFAULT_INSTANCE
+        ? new Builder() : new Builder().mergeFrom(this);
+  }
+
+  @java.lang.Override
+  protected Builder newBuilderForType(
+      com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+    Builder builder = new Builder(parent);
+    return builder;
+  }
+  /**
+   * Protobuf type {@code network.p2p.proto.PingRequest}
+   */
+  public static final class Builder extends
+      com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+      // @@protoc_insertion_point(builder_implements:network.p2p.proto.PingRequest)
+      network.p2p.proto.PingRequestOrBuilder {
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_PingRequest_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_PingRequest_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              network.p2p.proto.PingRequest.class, network.p2p.proto.PingRequest.Builder.class);
+    }
+
+    // Construct using network.p2p.proto.PingRequest.newBuilder()
+    private Builder() {
+      maybeForceBuilderInitialization();
+    }
+
+    private Builder(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      super(parent);
+      maybeForceBuilderInitialization();
+    }
+    private void maybeForceBuilderInitialization() {
+      if (com.google.protobuf.GeneratedMessageV3
+              .alwaysUseFieldBuilders) {
+      }
+    }
+    @java.lang.Override
+    public Builder clear() {
+      super.clear();
+      if (originBuilder_ == null) {
+        origin_ = null;
+      } else {
+        origin_ = null;
+        originBuilder_ = null;
+      }
+      return this;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Descriptors.Descriptor
+        getDescriptorForType() {
+      return network.p2p.proto.RoutingOuterClass.internal_static_network_p2p_proto_PingRequest_descriptor;
+    }
+
+    @java.lang.Override
+    public network.p2p.proto.PingRequest getDefaultInstanceForType() {
+      return network.p2p.proto.PingRequest.getDefaultInstance();
+    }
+
+    @java.lang.Override
+    public network.p2p.proto.PingRequest build() {
+      network.p2p.proto.PingRequest result = buildPartial();
+      if (!result.isInitialized()) {
+        throw newUninitializedMessageException(result);
+      }
+      return result;
+    }
+
+    @java.lang.Override
+    public network.p2p.proto.PingRequest buildPartial() {
+      network.p2p.proto.PingRequest result = new network.p2p.proto.PingRequest(this);
+      if (originBuilder_ == null) {
+        result.origin_ = origin_;
+      } else {
+        result.origin_ = originBuilder_.build();
+      }
+      onBuilt();
+      return result;
+    }
+
+    @java.lang.Override
+    public Builder clone() {
+      return super.clone();
+    }
+    @java.lang.Override
+    public Builder setField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        java.lang.Object value) {
+      return super.setField(field, value);
+    }
+    @java.lang.Override
+    public Builder clearField(
+        com.google.protobuf.Descriptors.FieldDescriptor field) {
+      return super.clearField(field);
+    }
+    @java.lang.Override
+    public Builder clearOneof(
+        com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+      return super.clearOneof(oneof);
+    }
+    @java.lang.Override
+    public Builder setRepeatedField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        int index, java.lang.Object value) {
+      return super.setRepeatedField(field, index, value);
+    }
+    @java.lang.Override
+    public Builder addRepeatedField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        java.lang.Object value) {
+      return super.addRepeatedField(field, value);
+    }
+    @java.lang.Override
+    public Builder mergeFrom(com.google.protobuf.Message other) {
+      if (other instanceof network.p2p.proto.PingRequest) {
+        return mergeFrom((network.p2p.proto.PingRequest)other);
+      } else {
+        super.mergeFrom(other);
+        return this;
+      }
+    }
+
+    public Builder mergeFrom(network.p2p.proto.PingRequest other) {
+      if (other == network.p2p.proto.PingRequest.getDefaultInstance()) return this;
+      if (other.hasOrigin()) {
+        mergeOrigin(other.getOrigin());
+      }
+      this.mergeUnknownFields(other.unknownFields);
+      onChanged();
+      return this;
+    }
+
+    @java.lang.Override
+    public final boolean isInitialized() {
+      return true;
+    }
+
+    @java.lang.Override
+    public Builder mergeFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      network.p2p.proto.PingRequest parsedMessage = null;
+      try {
+        parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        parsedMessage = (network.p2p.proto.PingRequest) e.getUnfinishedMessage();
+        throw e.unwrapIOException();
+      } finally {
+        if (parsedMessage != null) {
+          mergeFrom(parsedMessage);
+        }
+      }
+      return this;
+    }
+
+    private network.p2p.proto.ContactMessage origin_;
+    private com.google.protobuf.SingleFieldBuilderV3<
+        network.p2p.proto.ContactMessage, network.p2p.proto.ContactMessage.Builder, network.p2p.proto.ContactMessageOrBuilder> originBuilder_;
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     * @return Whether the origin field is set.
+     */
+    public boolean hasOrigin() {
+      return originBuilder_ != null || origin_ != null;
+    }
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     * @return The origin.
+     */
+    public network.p2p.proto.ContactMessage getOrigin() {
+      if (originBuilder_ == null) {
+        return origin_ == null ? network.p2p.proto.ContactMessage.getDefaultInstance() : origin_;
+      } else {
+        return originBuilder_.getMessage();
+      }
+    }
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     */
+    public Builder setOrigin(network.p2p.proto.ContactMessage value) {
+      if (originBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        origin_ = value;
+        onChanged();
+      } else {
+        originBuilder_.setMessage(value);
+      }
+
+      return this;
+    }
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     */
+    public Builder setOrigin(
+        network.p2p.proto.ContactMessage.Builder builderForValue) {
+      if (originBuilder_ == null) {
+        origin_ = builderForValue.build();
+        onChanged();
+      } else {
+        originBuilder_.setMessage(builderForValue.build());
+      }
+
+      return this;
+    }
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     */
+    public Builder mergeOrigin(network.p2p.proto.ContactMessage value) {
+      if (originBuilder_ == null) {
+        if (origin_ != null) {
+          origin_ =
+            network.p2p.proto.ContactMessage.newBuilder(origin_).mergeFrom(value).buildPartial();
+        } else {
+          origin_ = value;
+        }
+        onChanged();
+      } else {
+        originBuilder_.mergeFrom(value);
+      }
+
+      return this;
+    }
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     */
+    public Builder clearOrigin() {
+      if (originBuilder_ == null) {
+        origin_ = null;
+        onChanged();
+      } else {
+        origin_ = null;
+        originBuilder_ = null;
+      }
+
+      return this;
+    }
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     */
+    public network.p2p.proto.ContactMessage.Builder getOriginBuilder() {
+      
+      onChanged();
+      return getOriginFieldBuilder().getBuilder();
+    }
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     */
+    public network.p2p.proto.ContactMessageOrBuilder getOriginOrBuilder() {
+      if (originBuilder_ != null) {
+        return originBuilder_.getMessageOrBuilder();
+      } else {
+        return origin_ == null ?
+            network.p2p.proto.ContactMessage.getDefaultInstance() : origin_;
+      }
+    }
+    /**
+     * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+     */
+    private com.google.protobuf.SingleFieldBuilderV3<
+        network.p2p.proto.ContactMessage, network.p2p.proto.ContactMessage.Builder, network.p2p.proto.ContactMessageOrBuilder> 
+        getOriginFieldBuilder() {
+      if (originBuilder_ == null) {
+        originBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+            network.p2p.proto.ContactMessage, network.p2p.proto.ContactMessage.Builder, network.p2p.proto.ContactMessageOrBuilder>(
+                getOrigin(),
+                getParentForChildren(),
+                isClean());
+        origin_ = null;
+      }
+      return originBuilder_;
+    }
+    @java.lang.Override
+    public final Builder setUnknownFields(
+        final com.google.protobuf.UnknownFieldSet unknownFields) {
+      return super.setUnknownFields(unknownFields);
+    }
+
+    @java.lang.Override
+    public final Builder mergeUnknownFields(
+        final com.google.protobuf.UnknownFieldSet unknownFields) {
+      return super.mergeUnknownFields(unknownFields);
+    }
+
+
+    // @@protoc_insertion_point(builder_scope:network.p2p.proto.PingRequest)
+  }
+
+  // @@protoc_insertion_point(class_scope:network.p2p.proto.PingRequest)
+  private static final network.p2p.proto.PingRequest DEFAULT_INSTANCE;
+  static {
+    DEFAULT_INSTANCE = new network.p2p.proto.PingRequest();
+  }
+
+  public static network.p2p.proto.PingRequest getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  private static final com.google.protobuf.Parser<PingRequest>
+      PARSER = new com.google.protobuf.AbstractParser<PingRequest>() {
+    @java.lang.Override
+    public PingRequest parsePartialFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return new PingRequest(input, extensionRegistry);
+    }
+  };
+
+  public static com.google.protobuf.Parser<PingRequest> parser() {
+    return PARSER;
+  }
+
+  @java.lang.Override
+  public com.google.protobuf.Parser<PingRequest> getParserForType() {
+    return PARSER;
+  }
+
+  @java.lang.Override
+  public network.p2p.proto.PingRequest getDefaultInstanceForType() {
+    return DEFAULT_INSTANCE;
+  }
+
+}
+
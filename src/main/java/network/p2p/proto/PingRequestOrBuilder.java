@@ -0,0 +1,24 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: routing.proto
+
+package network.p2p.proto;
+
+public interface PingRequestOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:network.p2p.proto.PingRequest)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   * @return Whether the origin field is set.
+   */
+  boolean hasOrigin();
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   * @return The origin.
+   */
+  network.p2p.proto.ContactMessage getOrigin();
+  /**
+   * <code>.network.p2p.proto.ContactMessage Origin = 1;</code>
+   */
+  network.p2p.proto.ContactMessageOrBuilder getOriginOrBuilder();
+}
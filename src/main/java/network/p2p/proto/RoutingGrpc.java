@@ -0,0 +1,350 @@
+package network.p2p.proto;
+
+import static io.grpc.MethodDescriptor.generateFullMethodName;
+
+/**
+ */
+@javax.annotation.Generated(
+    value = "by gRPC proto compiler (version 1.45.1)",
+    comments = "Source: routing.proto")
+@io.grpc.stub.annotations.GrpcGenerated
+public final class RoutingGrpc {
+
+  private RoutingGrpc() {}
+
+  public static final String SERVICE_NAME = "network.p2p.proto.Routing";
+
+  // Static method descriptors that strictly reflect the proto.
+  private static volatile io.grpc.MethodDescriptor<network.p2p.proto.FindNodeRequest,
+      network.p2p.proto.FindNodeReply> getFindNodeMethod;
+
+  @io.grpc.stub.annotations.RpcMethod(
+      fullMethodName = SERVICE_NAME + '/' + "FindNode",
+      requestType = network.p2p.proto.FindNodeRequest.class,
+      responseType = network.p2p.proto.FindNodeReply.class,
+      methodType = io.grpc.MethodDescriptor.MethodType.UNARY)
+  public static io.grpc.MethodDescriptor<network.p2p.proto.FindNodeRequest,
+      network.p2p.proto.FindNodeReply> getFindNodeMethod() {
+    io.grpc.MethodDescriptor<network.p2p.proto.FindNodeRequest, network.p2p.proto.FindNodeReply> getFindNodeMethod;
+    if ((getFindNodeMethod = RoutingGrpc.getFindNodeMethod) == null) {
+      synchronized (RoutingGrpc.class) {
+        if ((getFindNodeMethod = RoutingGrpc.getFindNodeMethod) == null) {
+          RoutingGrpc.getFindNodeMethod = getFindNodeMethod =
+              io.grpc.MethodDescriptor.<network.p2p.proto.FindNodeRequest, network.p2p.proto.FindNodeReply>newBuilder()
+              .setType(io.grpc.MethodDescriptor.MethodType.UNARY)
+              .setFullMethodName(generateFullMethodName(SERVICE_NAME, "FindNode"))
+              .setSampledToLocalTracing(true)
+              .setRequestMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  network.p2p.proto.FindNodeRequest.getDefaultInstance()))
+              .setResponseMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  network.p2p.proto.FindNodeReply.getDefaultInstance()))
+              .setSchemaDescriptor(new RoutingMethodDescriptorSupplier("FindNode"))
+              .build();
+        }
+      }
+    }
+    return getFindNodeMethod;
+  }
+
+  private static volatile io.grpc.MethodDescriptor<network.p2p.proto.PingRequest,
+      network.p2p.proto.PingReply> getPingMethod;
+
+  @io.grpc.stub.annotations.RpcMethod(
+      fullMethodName = SERVICE_NAME + '/' + "Ping",
+      requestType = network.p2p.proto.PingRequest.class,
+      responseType = network.p2p.proto.PingReply.class,
+      methodType = io.grpc.MethodDescriptor.MethodType.UNARY)
+  public static io.grpc.MethodDescriptor<network.p2p.proto.PingRequest,
+      network.p2p.proto.PingReply> getPingMethod() {
+    io.grpc.MethodDescriptor<network.p2p.proto.PingRequest, network.p2p.proto.PingReply> getPingMethod;
+    if ((getPingMethod = RoutingGrpc.getPingMethod) == null) {
+      synchronized (RoutingGrpc.class) {
+        if ((getPingMethod = RoutingGrpc.getPingMethod) == null) {
+          RoutingGrpc.getPingMethod = getPingMethod =
+              io.grpc.MethodDescriptor.<network.p2p.proto.PingRequest, network.p2p.proto.PingReply>newBuilder()
+              .setType(io.grpc.MethodDescriptor.MethodType.UNARY)
+              .setFullMethodName(generateFullMethodName(SERVICE_NAME, "Ping"))
+              .setSampledToLocalTracing(true)
+              .setRequestMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  network.p2p.proto.PingRequest.getDefaultInstance()))
+              .setResponseMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  network.p2p.proto.PingReply.getDefaultInstance()))
+              .setSchemaDescriptor(new RoutingMethodDescriptorSupplier("Ping"))
+              .build();
+        }
+      }
+    }
+    return getPingMethod;
+  }
+
+  /**
+   * Creates a new async stub that supports all call types for the service
+   */
+  public static RoutingStub newStub(io.grpc.Channel channel) {
+    io.grpc.stub.AbstractStub.StubFactory<RoutingStub> factory =
+      new io.grpc.stub.AbstractStub.StubFactory<RoutingStub>() {
+        @java.lang.Override
+        public RoutingStub newStub(io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+          return new RoutingStub(channel, callOptions);
+        }
+      };
+    return RoutingStub.newStub(factory, channel);
+  }
+
+  /**
+   * Creates a new blocking-style stub that supports unary and streaming output calls on the service
+   */
+  public static RoutingBlockingStub newBlockingStub(
+      io.grpc.Channel channel) {
+    io.grpc.stub.AbstractStub.StubFactory<RoutingBlockingStub> factory =
+      new io.grpc.stub.AbstractStub.StubFactory<RoutingBlockingStub>() {
+        @java.lang.Override
+        public RoutingBlockingStub newStub(io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+          return new RoutingBlockingStub(channel, callOptions);
+        }
+      };
+    return RoutingBlockingStub.newStub(factory, channel);
+  }
+
+  /**
+   * Creates a new ListenableFuture-style stub that supports unary calls on the service
+   */
+  public static RoutingFutureStub newFutureStub(
+      io.grpc.Channel channel) {
+    io.grpc.stub.AbstractStub.StubFactory<RoutingFutureStub> factory =
+      new io.grpc.stub.AbstractStub.StubFactory<RoutingFutureStub>() {
+        @java.lang.Override
+        public RoutingFutureStub newStub(io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+          return new RoutingFutureStub(channel, callOptions);
+        }
+      };
+    return RoutingFutureStub.newStub(factory, channel);
+  }
+
+  /**
+   */
+  public static abstract class RoutingImplBase implements io.grpc.BindableService {
+
+    /**
+     */
+    public void findNode(network.p2p.proto.FindNodeRequest request,
+        io.grpc.stub.StreamObserver<network.p2p.proto.FindNodeReply> responseObserver) {
+      io.grpc.stub.ServerCalls.asyncUnimplementedUnaryCall(getFindNodeMethod(), responseObserver);
+    }
+
+    /**
+     */
+    public void ping(network.p2p.proto.PingRequest request,
+        io.grpc.stub.StreamObserver<network.p2p.proto.PingReply> responseObserver) {
+      io.grpc.stub.ServerCalls.asyncUnimplementedUnaryCall(getPingMethod(), responseObserver);
+    }
+
+    @java.lang.Override public final io.grpc.ServerServiceDefinition bindService() {
+      return io.grpc.ServerServiceDefinition.builder(getServiceDescriptor())
+          .addMethod(
+            getFindNodeMethod(),
+            io.grpc.stub.ServerCalls.asyncUnaryCall(
+              new MethodHandlers<
+                network.p2p.proto.FindNodeRequest,
+                network.p2p.proto.FindNodeReply>(
+                  this, METHODID_FIND_NODE)))
+          .addMethod(
+            getPingMethod(),
+            io.grpc.stub.ServerCalls.asyncUnaryCall(
+              new MethodHandlers<
+                network.p2p.proto.PingRequest,
+                network.p2p.proto.PingReply>(
+                  this, METHODID_PING)))
+          .build();
+    }
+  }
+
+  /**
+   */
+  public static final class RoutingStub extends io.grpc.stub.AbstractAsyncStub<RoutingStub> {
+    private RoutingStub(
+        io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+      super(channel, callOptions);
+    }
+
+    @java.lang.Override
+    protected RoutingStub build(
+        io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+      return new RoutingStub(channel, callOptions);
+    }
+
+    /**
+     */
+    public void findNode(network.p2p.proto.FindNodeRequest request,
+        io.grpc.stub.StreamObserver<network.p2p.proto.FindNodeReply> responseObserver) {
+      io.grpc.stub.ClientCalls.asyncUnaryCall(
+          getChannel().newCall(getFindNodeMethod(), getCallOptions()), request, responseObserver);
+    }
+
+    /**
+     */
+    public void ping(network.p2p.proto.PingRequest request,
+        io.grpc.stub.StreamObserver<network.p2p.proto.PingReply> responseObserver) {
+      io.grpc.stub.ClientCalls.asyncUnaryCall(
+          getChannel().newCall(getPingMethod(), getCallOptions()), request, responseObserver);
+    }
+  }
+
+  /**
+   */
+  public static final class RoutingBlockingStub extends io.grpc.stub.AbstractBlockingStub<RoutingBlockingStub> {
+    private RoutingBlockingStub(
+        io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+      super(channel, callOptions);
+    }
+
+    @java.lang.Override
+    protected RoutingBlockingStub build(
+        io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+      return new RoutingBlockingStub(channel, callOptions);
+    }
+
+    /**
+     */
+    public network.p2p.proto.FindNodeReply findNode(network.p2p.proto.FindNodeRequest request) {
+      return io.grpc.stub.ClientCalls.blockingUnaryCall(
+          getChannel(), getFindNodeMethod(), getCallOptions(), request);
+    }
+
+    /**
+     */
+    public network.p2p.proto.PingReply ping(network.p2p.proto.PingRequest request) {
+      return io.grpc.stub.ClientCalls.blockingUnaryCall(
+          getChannel(), getPingMethod(), getCallOptions(), request);
+    }
+  }
+
+  /**
+   */
+  public static final class RoutingFutureStub extends io.grpc.stub.AbstractFutureStub<RoutingFutureStub> {
+    private RoutingFutureStub(
+        io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+      super(channel, callOptions);
+    }
+
+    @java.lang.Override
+    protected RoutingFutureStub build(
+        io.grpc.Channel channel, io.grpc.CallOptions callOptions) {
+      return new RoutingFutureStub(channel, callOptions);
+    }
+
+    /**
+     */
+    public com.google.common.util.concurrent.ListenableFuture<network.p2p.proto.FindNodeReply> findNode(
+        network.p2p.proto.FindNodeRequest request) {
+      return io.grpc.stub.ClientCalls.futureUnaryCall(
+          getChannel().newCall(getFindNodeMethod(), getCallOptions()), request);
+    }
+
+    /**
+     */
+    public com.google.common.util.concurrent.ListenableFuture<network.p2p.proto.PingReply> ping(
+        network.p2p.proto.PingRequest request) {
+      return io.grpc.stub.ClientCalls.futureUnaryCall(
+          getChannel().newCall(getPingMethod(), getCallOptions()), request);
+    }
+  }
+
+  private static final int METHODID_FIND_NODE = 0;
+  private static final int METHODID_PING = 1;
+
+  private static final class MethodHandlers<Req, Resp> implements
+      io.grpc.stub.ServerCalls.UnaryMethod<Req, Resp>,
+      io.grpc.stub.ServerCalls.ServerStreamingMethod<Req, Resp>,
+      io.grpc.stub.ServerCalls.ClientStreamingMethod<Req, Resp>,
+      io.grpc.stub.ServerCalls.BidiStreamingMethod<Req, Resp> {
+    private final RoutingImplBase serviceImpl;
+    private final int methodId;
+
+    MethodHandlers(RoutingImplBase serviceImpl, int methodId) {
+      this.serviceImpl = serviceImpl;
+      this.methodId = methodId;
+    }
+
+    @java.lang.Override
+    @java.lang.SuppressWarnings("unchecked")
+    public void invoke(Req request, io.grpc.stub.StreamObserver<Resp> responseObserver) {
+      switch (methodId) {
+        case METHODID_FIND_NODE:
+          serviceImpl.findNode((network.p2p.proto.FindNodeRequest) request,
+              (io.grpc.stub.StreamObserver<network.p2p.proto.FindNodeReply>) responseObserver);
+          break;
+        case METHODID_PING:
+          serviceImpl.ping((network.p2p.proto.PingRequest) request,
+              (io.grpc.stub.StreamObserver<network.p2p.proto.PingReply>) responseObserver);
+          break;
+        default:
+          throw new AssertionError();
+      }
+    }
+
+    @java.lang.Override
+    @java.lang.SuppressWarnings("unchecked")
+    public io.grpc.stub.StreamObserver<Req> invoke(
+        io.grpc.stub.StreamObserver<Resp> responseObserver) {
+      switch (methodId) {
+        default:
+          throw new AssertionError();
+      }
+    }
+  }
+
+  private static abstract class RoutingBaseDescriptorSupplier
+      implements io.grpc.protobuf.ProtoFileDescriptorSupplier, io.grpc.protobuf.ProtoServiceDescriptorSupplier {
+    RoutingBaseDescriptorSupplier() {}
+
+    @java.lang.Override
+    public com.google.protobuf.Descriptors.FileDescriptor getFileDescriptor() {
+      return network.p2p.proto.RoutingOuterClass.getDescriptor();
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Descriptors.ServiceDescriptor getServiceDescriptor() {
+      return getFileDescriptor().findServiceByName("Routing");
+    }
+  }
+
+  private static final class RoutingFileDescriptorSupplier
+      extends RoutingBaseDescriptorSupplier {
+    RoutingFileDescriptorSupplier() {}
+  }
+
+  private static final class RoutingMethodDescriptorSupplier
+      extends RoutingBaseDescriptorSupplier
+      implements io.grpc.protobuf.ProtoMethodDescriptorSupplier {
+    private final String methodName;
+
+    RoutingMethodDescriptorSupplier(String methodName) {
+      this.methodName = methodName;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Descriptors.MethodDescriptor getMethodDescriptor() {
+      return getServiceDescriptor().findMethodByName(methodName);
+    }
+  }
+
+  private static volatile io.grpc.ServiceDescriptor serviceDescriptor;
+
+  public static io.grpc.ServiceDescriptor getServiceDescriptor() {
+    io.grpc.ServiceDescriptor result = serviceDescriptor;
+    if (result == null) {
+      synchronized (RoutingGrpc.class) {
+        result = serviceDescriptor;
+        if (result == null) {
+          serviceDescriptor = result = io.grpc.ServiceDescriptor.newBuilder(SERVICE_NAME)
+              .setSchemaDescriptor(new RoutingFileDescriptorSupplier())
+              .addMethod(getFindNodeMethod())
+              .addMethod(getPingMethod())
+              .build();
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,103 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: routing.proto
+
+package network.p2p.proto;
+
+public final class RoutingOuterClass {
+  private RoutingOuterClass() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistryLite registry) {
+  }
+
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistry registry) {
+    registerAllExtensions(
+        (com.google.protobuf.ExtensionRegistryLite) registry);
+  }
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_network_p2p_proto_ContactMessage_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_network_p2p_proto_ContactMessage_fieldAccessorTable;
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_network_p2p_proto_FindNodeRequest_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_network_p2p_proto_FindNodeRequest_fieldAccessorTable;
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_network_p2p_proto_FindNodeReply_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_network_p2p_proto_FindNodeReply_fieldAccessorTable;
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_network_p2p_proto_PingRequest_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_network_p2p_proto_PingRequest_fieldAccessorTable;
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_network_p2p_proto_PingReply_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_network_p2p_proto_PingReply_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\rrouting.proto\022\021network.p2p.proto\"5\n\016Co" +
+      "ntactMessage\022\022\n\nIdentifier\030\001 \001(\014\022\017\n\007Addr" +
+      "ess\030\002 \001(\t\"T\n\017FindNodeRequest\0221\n\006Origin\030\001" +
+      " \001(\0132!.network.p2p.proto.ContactMessage\022" +
+      "\016\n\006Target\030\002 \001(\014\"C\n\rFindNodeReply\0222\n\007Clos" +
+      "est\030\001 \003(\0132!.network.p2p.proto.ContactMes" +
+      "sage\"@\n\013PingRequest\0221\n\006Origin\030\001 \001(\0132!.ne" +
+      "twork.p2p.proto.ContactMessage\"\037\n\tPingRe" +
+      "ply\022\022\n\nIdentifier\030\001 \001(\0142\245\001\n\007Routing\022R\n\010F" +
+      "indNode\022\".network.p2p.proto.FindNodeRequ" +
+      "est\032 .network.p2p.proto.FindNodeReply\"\000\022" +
+      "F\n\004Ping\022\036.network.p2p.proto.PingRequest\032" +
+      "\034.network.p2p.proto.PingReply\"\000B\002P\001b\006pro" +
+      "to3"
+    };
+    descriptor = com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+        });
+    internal_static_network_p2p_proto_ContactMessage_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_network_p2p_proto_ContactMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_network_p2p_proto_ContactMessage_descriptor,
+        new java.lang.String[] { "Identifier", "Address", });
+    internal_static_network_p2p_proto_FindNodeRequest_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_network_p2p_proto_FindNodeRequest_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_network_p2p_proto_FindNodeRequest_descriptor,
+        new java.lang.String[] { "Origin", "Target", });
+    internal_static_network_p2p_proto_FindNodeReply_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_network_p2p_proto_FindNodeReply_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_network_p2p_proto_FindNodeReply_descriptor,
+        new java.lang.String[] { "Closest", });
+    internal_static_network_p2p_proto_PingRequest_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_network_p2p_proto_PingRequest_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_network_p2p_proto_PingRequest_descriptor,
+        new java.lang.String[] { "Origin", });
+    internal_static_network_p2p_proto_PingReply_descriptor =
+      getDescriptor().getMessageTypes().get(4);
+    internal_static_network_p2p_proto_PingReply_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_network_p2p_proto_PingReply_descriptor,
+        new java.lang.String[] { "Identifier", });
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
+}
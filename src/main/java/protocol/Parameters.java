@@ -29,4 +29,10 @@ public class Parameters {
    * as to validate a transaction or block.
    */
   public static final int MINIMUM_STAKE = 10;
+  /**
+   * Maximum number of heights the reference block of a transaction may lag behind the last finalized block. Older
+   * transactions are rejected by their reference height, so that seen entities only need to be remembered for as
+   * many heights.
+   */
+  public static final int REFERENCE_BLOCK_WINDOW = 128;
 }
\ No newline at end of file
@@ -119,8 +119,15 @@ public class IngestEngine implements Engine {
         Transaction tx = ((Transaction) e); // skims off the non-transaction attributes (e.g., certificates).
         Signature[] certificates = ((ValidatedTransaction) e).getCertificates();
 
-        // performs validator assignment.
         Snapshot snapshot = this.state.atBlockId(tx.getReferenceBlockId());
+        Snapshot last = this.state.last();
+        if (last != null && (snapshot == null || last.getReferenceBlockHeight() - snapshot.getReferenceBlockHeight()
+                > Parameters.REFERENCE_BLOCK_WINDOW)) {
+          // reference block is unknown or behind the reference block window, so it may have been seen and forgotten.
+          return;
+        }
+
+        // performs validator assignment.
         Assignment assignment = this.assigner.assign(tx.id(), snapshot, Parameters.VALIDATOR_THRESHOLD);
 
         int signatures = 0;
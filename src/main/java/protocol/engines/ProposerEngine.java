@@ -114,9 +114,11 @@ public class ProposerEngine implements NewBlockSubscriber, Engine {
         while (pendingTransactions.size() < Parameters.MIN_VALIDATED_TRANSACTIONS_NUM) {
         }
 
+        // takes a single copy of the pending transactions rather than one per selected transaction.
+        ArrayList<Transaction> pending = pendingTransactions.all();
         ValidatedTransaction[] transactions = new ValidatedTransaction[Parameters.MIN_VALIDATED_TRANSACTIONS_NUM];
         for (int i = 0; i < Parameters.MIN_VALIDATED_TRANSACTIONS_NUM; i++) {
-          Transaction tx = pendingTransactions.all().get(i);
+          Transaction tx = pending.get(i);
           transactions[i] = ((ValidatedTransaction) tx);
           pendingTransactions.remove(tx.id());
         }
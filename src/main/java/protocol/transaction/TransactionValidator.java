@@ -4,6 +4,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import model.lightchain.Account;
 import model.lightchain.Identifier;
 import model.lightchain.Transaction;
+import protocol.Parameters;
 import state.Snapshot;
 import state.State;
 
@@ -31,8 +32,9 @@ public class TransactionValidator implements InfTransactionValidator {
    *
    * @param transaction the transaction under validation.
    * @return true if all transaction fields have a valid value, and false otherwise. A transaction is valid if the
-   * reference block id is a valid and finalized block, the sender and receiver both refer to valid accounts at the
-   * snapshot of the reference block id, and the amount value is non-negative.
+   * reference block id is a valid and finalized block within the reference block window of the last finalized block,
+   * the sender and receiver both refer to valid accounts at the snapshot of the reference block id, and the amount
+   * value is non-negative.
    */
   @Override
   public boolean isCorrect(Transaction transaction) {
@@ -43,6 +45,13 @@ public class TransactionValidator implements InfTransactionValidator {
       return false;
     }
 
+    Snapshot last = state.last();
+    if (last != null
+        && last.getReferenceBlockHeight() - snapshot.getReferenceBlockHeight() > Parameters.REFERENCE_BLOCK_WINDOW) {
+      // Reference block is too old, seen entities are not remembered that far back.
+      return false;
+    }
+
     Account sender = snapshot.getAccount(transaction.getSender());
     if (sender == null) {
       // Sender account does not exist.
@@ -63,7 +72,9 @@ public class TransactionValidator implements InfTransactionValidator {
    *
    * @param transaction the transaction under validation.
    * @return true if reference block id of this transaction has a strictly higher height than the height of the
-   * last block id in the sender account, and false otherwise.
+   * last block id in the sender account, and false otherwise. If the snapshot of the last block id has been pruned
+   * from the state, the transaction is sound only if its reference block is the finalized block at its height and is
+   * within the reference window of the last finalized block.
    */
   @Override
   public boolean isSound(Transaction transaction) {
@@ -74,6 +85,16 @@ public class TransactionValidator implements InfTransactionValidator {
     Account sender = snapshot.getAccount(transaction.getSender());
     Identifier lastBlockId = sender.getLastBlockId();
     Snapshot lastBlockSnapshot = state.atBlockId(lastBlockId);
+    if (lastBlockSnapshot == null) {
+      // snapshot of the sender's last block has been pruned, which only happens to snapshots below the window of
+      // recent heights, and the retention policy keeps more recent heights than the reference window. Hence, the
+      // transaction is sound if its reference block is the one indexed at its height, within the reference window.
+      Snapshot indexed = state.atHeight(referenceBlockHeight);
+      long tipHeight = state.last().getReferenceBlockHeight();
+      return indexed != null
+          && indexed.getReferenceBlockId().equals(referenceBlockId)
+          && tipHeight - referenceBlockHeight <= Parameters.REFERENCE_BLOCK_WINDOW;
+    }
     long lastBlockHeight = lastBlockSnapshot.getReferenceBlockHeight();
     return referenceBlockHeight > lastBlockHeight;
   }
@@ -0,0 +1,79 @@
+package state;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+import model.lightchain.Identifier;
+
+/**
+ * Represents the set of accounts changed by a finalized block, i.e., the accounts of the snapshot of the block that
+ * differ from the ones of the snapshot of its parent block. A change set without parent covers every account of its
+ * snapshot, e.g., the change set of the genesis block.
+ */
+public class ChangeSet {
+  private final Identifier blockId;
+  private final long height;
+  private final Identifier parentBlockId;
+  private final LinkedHashSet<Identifier> accounts;
+
+  /**
+   * Constructor of ChangeSet.
+   *
+   * @param blockId       identifier of the block that changed the accounts.
+   * @param height        height of the block that changed the accounts.
+   * @param parentBlockId identifier of the parent block, or null if the change set covers every account.
+   * @param accounts      identifiers of the changed accounts.
+   */
+  public ChangeSet(Identifier blockId, long height, Identifier parentBlockId, Collection<Identifier> accounts) {
+    this.blockId = blockId;
+    this.height = height;
+    this.parentBlockId = parentBlockId;
+    this.accounts = new LinkedHashSet<>(accounts);
+  }
+
+  public Identifier getBlockId() {
+    return blockId;
+  }
+
+  public long getHeight() {
+    return height;
+  }
+
+  /**
+   * The identifier of the parent block that the accounts changed from.
+   *
+   * @return identifier of the parent block, or null if the change set covers every account of its snapshot.
+   */
+  public Identifier getParentBlockId() {
+    return parentBlockId;
+  }
+
+  /**
+   * Identifiers of the changed accounts.
+   *
+   * @return identifiers of the changed accounts.
+   */
+  public ArrayList<Identifier> getAccounts() {
+    return new ArrayList<>(accounts);
+  }
+
+  /**
+   * Checks whether an account is changed in this change set.
+   *
+   * @param identifier identifier of the account.
+   * @return true if the account is changed, false otherwise.
+   */
+  public boolean contains(Identifier identifier) {
+    return accounts.contains(identifier);
+  }
+
+  /**
+   * Number of changed accounts.
+   *
+   * @return number of changed accounts.
+   */
+  public int size() {
+    return accounts.size();
+  }
+}
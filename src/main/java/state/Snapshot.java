@@ -2,8 +2,10 @@ package state;
 
 import java.util.ArrayList;
 
+import model.crypto.Sha3256Hash;
 import model.lightchain.Account;
 import model.lightchain.Identifier;
+import modules.ads.MembershipProof;
 
 /**
  * Snapshot represents the status of the protocol state at a given finalized reference block.
@@ -38,4 +40,30 @@ public interface Snapshot {
    * @return the list of accounts in this snapshot.
    */
   ArrayList<Account> all();
+
+  /**
+   * Root of the authenticated account set of this snapshot, which commits to every account in it. Two snapshots with
+   * the same accounts have the same root.
+   *
+   * @return root hash of the accounts of this snapshot.
+   */
+  Sha3256Hash root();
+
+  /**
+   * Proves membership of an account in this snapshot against the root of this snapshot. This allows an account to be
+   * checked without the full account set.
+   *
+   * @param identifier identifier of an account of interest.
+   * @return membership proof of the account, or null if such an account does not exist.
+   */
+  MembershipProof proof(Identifier identifier);
+
+  /**
+   * The accounts of this snapshot changed by its reference block, i.e., the accounts that may differ from the ones of
+   * the snapshot of the parent block.
+   *
+   * @return change set of the reference block of this snapshot, which covers every account if this snapshot is not
+   * derived from the snapshot of its parent block.
+   */
+  ChangeSet changeSet();
 }
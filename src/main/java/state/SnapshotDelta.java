@@ -0,0 +1,177 @@
+package state;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import model.lightchain.Account;
+import model.lightchain.Identifier;
+import state.table.TableSnapshot;
+
+/**
+ * Represents the accounts changed between two snapshots of the same chain, i.e., the accounts of the later snapshot
+ * that may differ from the ones of the earlier snapshot. A delta is built from the change sets of the blocks in
+ * between, so it costs in the number of changes rather than in the number of accounts.
+ *
+ * <p>Iterating a delta streams the changed accounts as of the later snapshot one at a time, without building them all
+ * up front.
+ */
+public class SnapshotDelta implements Iterable<Account> {
+  private final Identifier fromBlockId;
+  private final long fromHeight;
+  private final Identifier toBlockId;
+  private final long toHeight;
+  private final ArrayList<Identifier> changed;
+
+  /**
+   * Resolves a changed account to its value as of the later snapshot.
+   */
+  private final Function<Identifier, Account> source;
+
+  /**
+   * Constructor of SnapshotDelta.
+   *
+   * @param fromBlockId identifier of the block of the earlier snapshot.
+   * @param fromHeight  height of the block of the earlier snapshot.
+   * @param toBlockId   identifier of the block of the later snapshot.
+   * @param toHeight    height of the block of the later snapshot.
+   * @param changed     identifiers of the changed accounts.
+   * @param source      resolves a changed account to its value as of the later snapshot.
+   */
+  public SnapshotDelta(Identifier fromBlockId, long fromHeight, Identifier toBlockId, long toHeight,
+                       List<Identifier> changed, Function<Identifier, Account> source) {
+    this.fromBlockId = fromBlockId;
+    this.fromHeight = fromHeight;
+    this.toBlockId = toBlockId;
+    this.toHeight = toHeight;
+    this.changed = new ArrayList<>(changed);
+    this.source = source;
+  }
+
+  /**
+   * Builds the delta between two snapshots from the change sets of the blocks in between. The earlier snapshot itself
+   * is not needed, so it may as well be pruned or only be held by the requester.
+   *
+   * @param fromBlockId identifier of the block of the earlier snapshot.
+   * @param fromHeight  height of the block of the earlier snapshot.
+   * @param to          the later snapshot.
+   * @param changeSets  change sets of the blocks above the earlier snapshot up to the later one, ordered by height.
+   * @return the delta between the two snapshots.
+   * @throws IllegalArgumentException if the change sets do not chain the earlier snapshot to the later one.
+   */
+  public static SnapshotDelta between(Identifier fromBlockId, long fromHeight, Snapshot to,
+                                      List<ChangeSet> changeSets) throws IllegalArgumentException {
+    long toHeight = to.getReferenceBlockHeight();
+    if (fromHeight > toHeight) {
+      throw new IllegalArgumentException("snapshot at height " + fromHeight + " is above snapshot at height "
+          + toHeight);
+    }
+    if (changeSets.size() != toHeight - fromHeight) {
+      throw new IllegalArgumentException("missing change sets between heights " + fromHeight + " and " + toHeight);
+    }
+
+    LinkedHashSet<Identifier> changed = new LinkedHashSet<>();
+    Identifier previous = fromBlockId;
+    for (ChangeSet changeSet : changeSets) {
+      if (changeSet.getParentBlockId() != null && !changeSet.getParentBlockId().equals(previous)) {
+        throw new IllegalArgumentException("change set of block " + changeSet.getBlockId() + " does not extend block "
+            + previous);
+      }
+      changed.addAll(changeSet.getAccounts());
+      previous = changeSet.getBlockId();
+    }
+    if (!previous.equals(to.getReferenceBlockId())) {
+      throw new IllegalArgumentException("snapshots are not on the same chain: " + fromBlockId + ", "
+          + to.getReferenceBlockId());
+    }
+    return new SnapshotDelta(fromBlockId, fromHeight, to.getReferenceBlockId(), toHeight,
+        new ArrayList<>(changed), to::getAccount);
+  }
+
+  public Identifier getFromBlockId() {
+    return fromBlockId;
+  }
+
+  public long getFromHeight() {
+    return fromHeight;
+  }
+
+  public Identifier getToBlockId() {
+    return toBlockId;
+  }
+
+  public long getToHeight() {
+    return toHeight;
+  }
+
+  /**
+   * Identifiers of the changed accounts.
+   *
+   * @return identifiers of the changed accounts.
+   */
+  public ArrayList<Identifier> getChangedAccounts() {
+    return new ArrayList<>(changed);
+  }
+
+  /**
+   * Number of changed accounts.
+   *
+   * @return number of changed accounts.
+   */
+  public int size() {
+    return changed.size();
+  }
+
+  /**
+   * Iterates over the changed accounts as of the later snapshot, resolving each account only when it is reached.
+   *
+   * @return iterator over the changed accounts.
+   */
+  @Override
+  public Iterator<Account> iterator() {
+    Iterator<Identifier> ids = changed.iterator();
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return ids.hasNext();
+      }
+
+      @Override
+      public Account next() {
+        return source.apply(ids.next());
+      }
+    };
+  }
+
+  /**
+   * Streams the changed accounts as of the later snapshot.
+   *
+   * @return stream of the changed accounts.
+   */
+  public Stream<Account> stream() {
+    return StreamSupport.stream(this.spliterator(), false);
+  }
+
+  /**
+   * Applies this delta on the earlier snapshot, which results in a snapshot with the same accounts as the later one.
+   *
+   * @param base the earlier snapshot of this delta.
+   * @return a new, unsealed snapshot at the later block of this delta.
+   * @throws IllegalArgumentException if the base is not the earlier snapshot of this delta.
+   */
+  public TableSnapshot applyTo(TableSnapshot base) throws IllegalArgumentException {
+    if (!base.getReferenceBlockId().equals(fromBlockId)) {
+      throw new IllegalArgumentException("delta does not apply on block " + base.getReferenceBlockId()
+          + ", it applies on block " + fromBlockId);
+    }
+    TableSnapshot snapshot = new TableSnapshot(toBlockId, toHeight, base);
+    for (Account account : this) {
+      snapshot.addAccount(account.getIdentifier(), account);
+    }
+    return snapshot;
+  }
+}
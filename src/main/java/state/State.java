@@ -1,5 +1,7 @@
 package state;
 
+import java.util.ArrayList;
+
 import model.lightchain.Block;
 import model.lightchain.Identifier;
 
@@ -33,6 +35,36 @@ public interface State {
    */
   Snapshot last();
 
+  /**
+   * Fetches snapshot at the given height of the finalized chain.
+   *
+   * @param height height of the reference block of the snapshot.
+   * @return the snapshot at the given height, or null if such snapshot does not exist.
+   */
+  Snapshot atHeight(long height);
+
+  /**
+   * Fetches the snapshots whose reference block heights fall within the given range.
+   *
+   * @param from lowest height of the range (inclusive).
+   * @param to   highest height of the range (inclusive).
+   * @return list of snapshots within the range ordered by their reference block height, or an empty list if no
+   * snapshot falls within the range.
+   */
+  ArrayList<Snapshot> range(long from, long to);
+
+  /**
+   * Fetches the accounts changed between two snapshots of the finalized chain, based on the change sets recorded for
+   * the blocks in between, so that the cost is in the number of changes rather than the number of accounts.
+   *
+   * @param fromBlockId identifier of the block of the earlier snapshot.
+   * @param toBlockId   identifier of the block of the later snapshot.
+   * @return the accounts changed from the earlier snapshot to the later one.
+   * @throws IllegalArgumentException if the later snapshot or the change sets in between are not available, or the
+   *                                  snapshots are not on the same chain.
+   */
+  SnapshotDelta delta(Identifier fromBlockId, Identifier toBlockId) throws IllegalArgumentException;
+
   /**
    * Executes the block by creating a new snapshot, applying all transactions on it, and then storing that snapshot
    * in the state and updating the last.
@@ -0,0 +1,67 @@
+package state.columnar;
+
+import model.crypto.PublicKey;
+import model.crypto.ecdsa.EcdsaPublicKey;
+import model.lightchain.Account;
+import model.lightchain.Identifier;
+
+/**
+ * Represents an account view over a row of a columnar snapshot. The public key of the account is only decoded once it
+ * is asked for, since decoding a key is far more expensive than reading the rest of the row. The view is a copy of the
+ * row, so changing its balance does not change the snapshot.
+ */
+class ColumnarAccount extends Account {
+  private final PublicKeyTable keys;
+  private final int keyRef;
+  private PublicKey publicKey;
+
+  /**
+   * Constructor of a ColumnarAccount.
+   *
+   * @param identifier  unique identifier of the account.
+   * @param keys        table holding the encoded public key of the account.
+   * @param keyRef      reference of the public key of the account in the table.
+   * @param lastBlockId identifier of the last block id that changed this account.
+   * @param balance     balance of the account.
+   * @param stake       stake of the account.
+   */
+  ColumnarAccount(Identifier identifier, PublicKeyTable keys, int keyRef, Identifier lastBlockId, double balance,
+                  int stake) {
+    super(identifier, null, lastBlockId, stake);
+    this.keys = keys;
+    this.keyRef = keyRef;
+    this.setBalance(balance);
+  }
+
+  /**
+   * Table holding the encoded public key of this account.
+   *
+   * @return table holding the encoded public key of this account.
+   */
+  PublicKeyTable keys() {
+    return this.keys;
+  }
+
+  /**
+   * Reference of the public key of this account in its table.
+   *
+   * @return reference of the public key of this account.
+   */
+  int keyRef() {
+    return this.keyRef;
+  }
+
+  /**
+   * Returns the public key of the account, decoding it on first access.
+   *
+   * @return public key of the account, or null if the account has no public key.
+   * @throws IllegalStateException if the encoded public key is invalid.
+   */
+  @Override
+  public synchronized PublicKey getPublicKey() throws IllegalStateException {
+    if (this.publicKey == null && this.keyRef != PublicKeyTable.NO_KEY) {
+      this.publicKey = new EcdsaPublicKey(this.keys.get(this.keyRef));
+    }
+    return this.publicKey;
+  }
+}
@@ -0,0 +1,428 @@
+package state.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+import model.crypto.PublicKey;
+import model.crypto.Sha3256Hash;
+import model.lightchain.Account;
+import model.lightchain.Identifier;
+import modules.ads.MembershipProof;
+import modules.ads.mtrie.PersistentMerklePatriciaTrie;
+import state.ChangeSet;
+import state.Snapshot;
+import state.table.SnapshotEncoder;
+
+/**
+ * Implements a snapshot that keeps its accounts in off-heap columns rather than as account objects: identifier bytes,
+ * balance, stake, a reference to the last block id, and a reference to the encoded public key in a public key table
+ * that is shared among snapshots. Accounts are located by an off-heap open-addressing index on their identifier, and
+ * account objects are only created as views when they are asked for.
+ *
+ * <p>Like the table snapshot, a columnar snapshot is filled and then sealed when it is added to the state; reads never
+ * take a lock. The capacity of a snapshot is fixed when it is created.
+ */
+public class ColumnarSnapshot implements Snapshot {
+  private static final SnapshotEncoder encoder = new SnapshotEncoder();
+  private static final int EMPTY_SLOT = 0;
+
+  private final Identifier rootBlockId;
+  private final long rootBlockHeight;
+  private final int capacity;
+  private final PublicKeyTable keys;
+
+  private final ByteBuffer ids;
+  private final DoubleBuffer balances;
+  private final IntBuffer stakes;
+  private final IntBuffer lastBlocks;
+  private final IntBuffer keyRefs;
+
+  /**
+   * Open-addressing index from the identifier of an account to its row plus one; zero marks an empty slot.
+   */
+  private final IntBuffer index;
+
+  /**
+   * Distinct last block ids of the accounts, referred to by the last block column. There are far fewer distinct last
+   * block ids than accounts, so they are kept on heap.
+   */
+  private final ArrayList<Identifier> blockIds;
+  private final HashMap<Identifier, Integer> blockRefs;
+
+  private int size;
+  private volatile boolean sealed;
+
+  /**
+   * Trie of the accounts as of the parent snapshot, or of the accounts of this snapshot once its root is computed
+   * after sealing.
+   */
+  private volatile PersistentMerklePatriciaTrie trie;
+  private volatile boolean trieComputed;
+
+  /**
+   * Rows that are not yet reflected in the trie.
+   */
+  private final BitSet dirty;
+
+  /**
+   * Identifier of the block of the parent snapshot, or null if this snapshot is not derived from a parent.
+   */
+  private final Identifier parentBlockId;
+
+  /**
+   * Rows changed since the parent snapshot.
+   */
+  private final BitSet changed;
+
+  /**
+   * Constructor of an empty ColumnarSnapshot.
+   *
+   * @param rootBlockId     root block id representing this snapshot.
+   * @param rootBlockHeight root block height of this snapshot.
+   * @param capacity        maximum number of accounts of this snapshot.
+   * @param keys            table of public keys, which is meant to be shared among the snapshots of a state.
+   * @throws IllegalArgumentException if capacity is not positive.
+   */
+  public ColumnarSnapshot(Identifier rootBlockId, long rootBlockHeight, int capacity, PublicKeyTable keys)
+      throws IllegalArgumentException {
+    this(rootBlockId, rootBlockHeight, capacity, keys, null);
+  }
+
+  private ColumnarSnapshot(Identifier rootBlockId, long rootBlockHeight, int capacity, PublicKeyTable keys,
+                           Identifier parentBlockId) throws IllegalArgumentException {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("snapshot capacity must be positive: " + capacity);
+    }
+    this.rootBlockId = rootBlockId;
+    this.rootBlockHeight = rootBlockHeight;
+    this.capacity = capacity;
+    this.keys = keys;
+    this.ids = ByteBuffer.allocateDirect(capacity * Identifier.Size);
+    this.balances = ByteBuffer.allocateDirect(capacity * Double.BYTES).asDoubleBuffer();
+    this.stakes = ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+    this.lastBlocks = ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+    this.keyRefs = ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+    this.index = ByteBuffer.allocateDirect(slotsFor(capacity) * Integer.BYTES).asIntBuffer();
+    this.blockIds = new ArrayList<>();
+    this.blockRefs = new HashMap<>();
+    this.size = 0;
+    this.sealed = false;
+    this.trie = PersistentMerklePatriciaTrie.EMPTY;
+    this.trieComputed = false;
+    this.dirty = new BitSet();
+    this.parentBlockId = parentBlockId;
+    this.changed = new BitSet();
+  }
+
+  /**
+   * Constructor of a ColumnarSnapshot that starts with the accounts of a parent snapshot, e.g., the snapshot of the
+   * parent block. The columns of the parent are copied in bulk, and the public key table of the parent is shared.
+   * Like a table snapshot, this snapshot starts from the trie of its parent, which a sealed parent computes only once,
+   * so only the accounts added afterwards are rehashed for the root of this snapshot.
+   *
+   * @param rootBlockId     root block id representing this snapshot.
+   * @param rootBlockHeight root block height of this snapshot.
+   * @param parent          the snapshot this snapshot is derived from.
+   * @param newAccounts     number of accounts this snapshot may hold on top of the ones of its parent.
+   */
+  public ColumnarSnapshot(Identifier rootBlockId, long rootBlockHeight, ColumnarSnapshot parent, int newAccounts) {
+    this(rootBlockId, rootBlockHeight, parent.size + Math.max(newAccounts, 1), parent.keys, parent.rootBlockId);
+    copy(parent.ids, this.ids, parent.size * Identifier.Size);
+    for (int row = 0; row < parent.size; row++) {
+      this.balances.put(row, parent.balances.get(row));
+      this.stakes.put(row, parent.stakes.get(row));
+      this.lastBlocks.put(row, parent.lastBlocks.get(row));
+      this.keyRefs.put(row, parent.keyRefs.get(row));
+      this.insertIndex(row);
+    }
+    this.blockIds.addAll(parent.blockIds);
+    this.blockRefs.putAll(parent.blockRefs);
+    this.size = parent.size;
+    this.trie = parent.trie();
+  }
+
+  @Override
+  public Identifier getReferenceBlockId() {
+    return this.rootBlockId;
+  }
+
+  @Override
+  public long getReferenceBlockHeight() {
+    return this.rootBlockHeight;
+  }
+
+  /**
+   * Fetches account corresponding to an identifier at the given snapshot. The account is a view created on each call,
+   * whose public key is decoded only when asked for.
+   *
+   * @param identifier identifier of an account of interest.
+   * @return account corresponding to the given identifier at this snapshot, or null if such an account
+   * does not exist.
+   */
+  @Override
+  public Account getAccount(Identifier identifier) {
+    int row = this.find(identifier.getBytes());
+    return row < 0 ? null : this.view(row);
+  }
+
+  /**
+   * The list of accounts in this snapshot. This creates a view per account, so callers interested in a few accounts
+   * should rather use getAccount.
+   *
+   * @return the list of accounts in this snapshot.
+   */
+  @Override
+  public ArrayList<Account> all() {
+    ArrayList<Account> accounts = new ArrayList<>(this.size);
+    for (int row = 0; row < this.size; row++) {
+      accounts.add(this.view(row));
+    }
+    return accounts;
+  }
+
+  /**
+   * Root of the authenticated account set of this snapshot. The trie behind the root is kept on heap, so it is only
+   * computed once the root or a proof is asked for.
+   *
+   * @return root hash of the accounts of this snapshot.
+   */
+  @Override
+  public Sha3256Hash root() {
+    return this.trie().root();
+  }
+
+  @Override
+  public MembershipProof proof(Identifier identifier) {
+    return this.trie().proof(identifier);
+  }
+
+  @Override
+  public ChangeSet changeSet() {
+    ArrayList<Identifier> accounts = new ArrayList<>();
+    if (this.parentBlockId == null) {
+      for (int row = 0; row < this.size; row++) {
+        accounts.add(this.identifierAt(row));
+      }
+    } else {
+      for (int row = this.changed.nextSetBit(0); row >= 0; row = this.changed.nextSetBit(row + 1)) {
+        accounts.add(this.identifierAt(row));
+      }
+    }
+    return new ChangeSet(this.rootBlockId, this.rootBlockHeight, this.parentBlockId, accounts);
+  }
+
+  /**
+   * Adds an account to the snapshot, or replaces the account with the same identifier.
+   *
+   * @param identifier Identifier of the account to add.
+   * @param account    Account to add.
+   * @throws IllegalStateException if the snapshot is already sealed, or it is full.
+   */
+  public void addAccount(Identifier identifier, Account account) throws IllegalStateException {
+    if (this.sealed) {
+      throw new IllegalStateException("cannot add account to a sealed snapshot: " + this.rootBlockId);
+    }
+    byte[] idBytes = identifier.getBytes();
+    int row = this.find(idBytes);
+    if (row < 0) {
+      if (this.size == this.capacity) {
+        throw new IllegalStateException("snapshot is full: " + this.rootBlockId + ", capacity: " + this.capacity);
+      }
+      row = this.size;
+      ByteBuffer target = this.ids.duplicate();
+      target.position(row * Identifier.Size);
+      target.put(idBytes);
+      this.insertIndex(row);
+      this.size++;
+    }
+
+    this.balances.put(row, account.getBalance());
+    this.stakes.put(row, account.getStake());
+    this.lastBlocks.put(row, this.blockRef(account.getLastBlockId()));
+    this.keyRefs.put(row, this.keyRef(account));
+    this.dirty.set(row);
+    if (this.parentBlockId != null) {
+      this.changed.set(row);
+    }
+  }
+
+  /**
+   * Seals the snapshot, so that its set of accounts no longer changes once it is published to the state.
+   */
+  public void seal() {
+    this.sealed = true;
+  }
+
+  /**
+   * Checks whether the snapshot is sealed.
+   *
+   * @return true if the snapshot is sealed, false otherwise.
+   */
+  public boolean isSealed() {
+    return this.sealed;
+  }
+
+  /**
+   * Number of accounts in this snapshot.
+   *
+   * @return number of accounts in this snapshot.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Maximum number of accounts of this snapshot.
+   *
+   * @return maximum number of accounts of this snapshot.
+   */
+  public int capacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Off-heap memory allocated by the columns and the index of this snapshot, excluding the shared public key table.
+   *
+   * @return number of off-heap bytes allocated by this snapshot.
+   */
+  public long offHeapBytes() {
+    long rowBytes = Identifier.Size + Double.BYTES + 3L * Integer.BYTES;
+    return rowBytes * this.capacity + (long) this.index.capacity() * Integer.BYTES;
+  }
+
+  /**
+   * Trie of the current accounts of this snapshot. Once sealed, the trie is computed only once.
+   *
+   * @return trie of the current accounts of this snapshot.
+   */
+  private PersistentMerklePatriciaTrie trie() {
+    if (this.trieComputed) {
+      return this.trie;
+    }
+    if (!this.sealed) {
+      return this.applyDirty();
+    }
+    synchronized (this) {
+      if (!this.trieComputed) {
+        this.trie = this.applyDirty();
+        this.trieComputed = true;
+      }
+      return this.trie;
+    }
+  }
+
+  /**
+   * Rehashes the paths of the rows changed since the parent snapshot, hashing rows straight from the columns.
+   *
+   * @return the trie of the parent snapshot updated with the rows changed since.
+   */
+  private PersistentMerklePatriciaTrie applyDirty() {
+    PersistentMerklePatriciaTrie updated = this.trie;
+    for (int row = this.dirty.nextSetBit(0); row >= 0; row = this.dirty.nextSetBit(row + 1)) {
+      Identifier identifier = this.identifierAt(row);
+      updated = updated.put(identifier, encoder.hashAccount(identifier, this.keys.get(this.keyRefs.get(row)),
+          this.blockIds.get(this.lastBlocks.get(row)), this.balances.get(row), this.stakes.get(row)));
+    }
+    return updated;
+  }
+
+  private Account view(int row) {
+    return new ColumnarAccount(this.identifierAt(row), this.keys, this.keyRefs.get(row),
+        this.blockIds.get(this.lastBlocks.get(row)), this.balances.get(row), this.stakes.get(row));
+  }
+
+  private Identifier identifierAt(int row) {
+    byte[] bytes = new byte[Identifier.Size];
+    ByteBuffer source = this.ids.duplicate();
+    source.position(row * Identifier.Size);
+    source.get(bytes);
+    return new Identifier(bytes);
+  }
+
+  /**
+   * Finds the row of the given account identifier.
+   *
+   * @return row of the account, or -1 if the account is not in this snapshot.
+   */
+  private int find(byte[] idBytes) {
+    int mask = this.index.capacity() - 1;
+    int slot = hash(idBytes) & mask;
+    int entry;
+    while ((entry = this.index.get(slot)) != EMPTY_SLOT) {
+      if (this.matches(entry - 1, idBytes)) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void insertIndex(int row) {
+    int mask = this.index.capacity() - 1;
+    int slot = this.ids.getInt(row * Identifier.Size) & mask;
+    while (this.index.get(slot) != EMPTY_SLOT) {
+      slot = (slot + 1) & mask;
+    }
+    this.index.put(slot, row + 1);
+  }
+
+  private boolean matches(int row, byte[] idBytes) {
+    int offset = row * Identifier.Size;
+    for (int i = 0; i < Identifier.Size; i++) {
+      if (this.ids.get(offset + i) != idBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int blockRef(Identifier blockId) {
+    Integer ref = this.blockRefs.get(blockId);
+    if (ref == null) {
+      ref = this.blockIds.size();
+      this.blockIds.add(blockId);
+      this.blockRefs.put(blockId, ref);
+    }
+    return ref;
+  }
+
+  /**
+   * Reference of the public key of the given account in the key table. The key of an account viewed from a snapshot
+   * sharing the same table is reused as is, without being decoded or encoded.
+   */
+  private int keyRef(Account account) {
+    if (account instanceof ColumnarAccount && ((ColumnarAccount) account).keys() == this.keys) {
+      return ((ColumnarAccount) account).keyRef();
+    }
+    PublicKey publicKey = account.getPublicKey();
+    return this.keys.intern(publicKey == null ? null : publicKey.getBytes());
+  }
+
+  /**
+   * Hash of an account identifier in the index. Identifiers are themselves hashes, so their leading bytes are
+   * uniformly distributed.
+   */
+  private static int hash(byte[] idBytes) {
+    return ((idBytes[0] & 0xFF) << 24) | ((idBytes[1] & 0xFF) << 16) | ((idBytes[2] & 0xFF) << 8) | (idBytes[3] & 0xFF);
+  }
+
+  /**
+   * Number of index slots for the given capacity, i.e., the power of two that keeps the load factor at most one half.
+   */
+  private static int slotsFor(int capacity) {
+    return Integer.highestOneBit(capacity * 2 - 1) << 1;
+  }
+
+  private static void copy(ByteBuffer from, ByteBuffer to, int length) {
+    ByteBuffer source = from.duplicate();
+    source.clear();
+    source.limit(length);
+    ByteBuffer target = to.duplicate();
+    target.clear();
+    target.put(source);
+  }
+}
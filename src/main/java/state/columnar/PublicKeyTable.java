@@ -0,0 +1,168 @@
+package state.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Implements an append-only, off-heap table of encoded public keys in which every distinct key is stored once. Keys
+ * are referred to by their reference in the table, so a table shared by the snapshots of a state keeps the key of an
+ * account once no matter how many snapshots the account appears in.
+ *
+ * <p>Interning takes a lock, while reading a key by its reference does not: references are only handed out once their
+ * key is fully written, and the buffers are never overwritten but only copied over to larger ones.
+ */
+public class PublicKeyTable {
+  /**
+   * Reference of an absent public key.
+   */
+  public static final int NO_KEY = -1;
+  private static final int INITIAL_KEYS = 1024;
+  private static final int INITIAL_KEY_BYTES = 128;
+  private static final int EMPTY_SLOT = 0;
+
+  /**
+   * Encoded keys, one after another.
+   */
+  private volatile ByteBuffer data;
+
+  /**
+   * Offset and length of each key in data, indexed by reference.
+   */
+  private volatile IntBuffer entries;
+
+  /**
+   * Open-addressing index from the hash of a key to its reference plus one; zero marks an empty slot.
+   */
+  private IntBuffer index;
+  private int count;
+
+  /**
+   * Creates an empty table.
+   */
+  public PublicKeyTable() {
+    this.data = ByteBuffer.allocateDirect(INITIAL_KEYS * INITIAL_KEY_BYTES);
+    this.entries = ByteBuffer.allocateDirect(INITIAL_KEYS * 2 * Integer.BYTES).asIntBuffer();
+    this.index = ByteBuffer.allocateDirect(INITIAL_KEYS * 2 * Integer.BYTES).asIntBuffer();
+    this.count = 0;
+  }
+
+  /**
+   * Returns the reference of the given encoded key, and adds the key to the table if it is not already there.
+   *
+   * @param key encoded public key, or null for an absent key.
+   * @return reference of the key in the table, or NO_KEY if the key is null.
+   */
+  public synchronized int intern(byte[] key) {
+    if (key == null) {
+      return NO_KEY;
+    }
+    int mask = this.index.capacity() - 1;
+    int slot = Arrays.hashCode(key) & mask;
+    while (this.index.get(slot) != EMPTY_SLOT) {
+      int ref = this.index.get(slot) - 1;
+      if (this.matches(ref, key)) {
+        return ref;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    int ref = this.count;
+    int offset = ref == 0 ? 0 : this.entries.get(2 * (ref - 1)) + this.entries.get(2 * (ref - 1) + 1);
+    this.ensureCapacity(ref + 1, offset + key.length);
+    ByteBuffer target = this.data.duplicate();
+    target.position(offset);
+    target.put(key);
+    this.entries.put(2 * ref, offset);
+    this.entries.put(2 * ref + 1, key.length);
+    this.index.put(slot, ref + 1);
+    this.count++;
+    if (this.count * 2 > this.index.capacity()) {
+      this.rehash(this.index.capacity() * 2);
+    }
+    return ref;
+  }
+
+  /**
+   * Returns the encoded key of the given reference.
+   *
+   * @param ref reference of the key in the table.
+   * @return the encoded key, or null if the reference is NO_KEY.
+   */
+  public byte[] get(int ref) {
+    if (ref == NO_KEY) {
+      return null;
+    }
+    IntBuffer currentEntries = this.entries;
+    ByteBuffer source = this.data.duplicate();
+    byte[] key = new byte[currentEntries.get(2 * ref + 1)];
+    source.position(currentEntries.get(2 * ref));
+    source.get(key);
+    return key;
+  }
+
+  /**
+   * Number of distinct keys in the table.
+   *
+   * @return number of distinct keys in the table.
+   */
+  public synchronized int size() {
+    return this.count;
+  }
+
+  /**
+   * Off-heap memory allocated by the table.
+   *
+   * @return number of off-heap bytes allocated by the table.
+   */
+  public synchronized long offHeapBytes() {
+    return this.data.capacity() + (long) (this.entries.capacity() + this.index.capacity()) * Integer.BYTES;
+  }
+
+  private boolean matches(int ref, byte[] key) {
+    if (this.entries.get(2 * ref + 1) != key.length) {
+      return false;
+    }
+    int offset = this.entries.get(2 * ref);
+    for (int i = 0; i < key.length; i++) {
+      if (this.data.get(offset + i) != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Grows the buffers so that they hold the given number of keys and bytes. Buffers are copied to new ones, since
+   * readers may still be reading the current ones.
+   */
+  private void ensureCapacity(int keys, int bytes) {
+    if (bytes > this.data.capacity()) {
+      ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(bytes, this.data.capacity() * 2));
+      ByteBuffer source = this.data.duplicate();
+      source.clear();
+      grown.put(source);
+      this.data = grown;
+    }
+    if (2 * keys > this.entries.capacity()) {
+      IntBuffer grown = ByteBuffer.allocateDirect(this.entries.capacity() * 2 * Integer.BYTES).asIntBuffer();
+      IntBuffer source = this.entries.duplicate();
+      source.clear();
+      grown.put(source);
+      this.entries = grown;
+    }
+  }
+
+  private void rehash(int slots) {
+    IntBuffer rehashed = ByteBuffer.allocateDirect(slots * Integer.BYTES).asIntBuffer();
+    int mask = slots - 1;
+    for (int ref = 0; ref < this.count; ref++) {
+      int slot = Arrays.hashCode(this.get(ref)) & mask;
+      while (rehashed.get(slot) != EMPTY_SLOT) {
+        slot = (slot + 1) & mask;
+      }
+      rehashed.put(slot, ref + 1);
+    }
+    this.index = rehashed;
+  }
+}
@@ -0,0 +1,367 @@
+package state.mapdb;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import model.exceptions.CodecException;
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import modules.cache.LruCache;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+import state.ChangeSet;
+import state.Snapshot;
+import state.SnapshotDelta;
+import state.State;
+import state.table.SnapshotEncoder;
+import state.table.TableSnapshot;
+
+/**
+ * Implements a disk-backed protocol state on MapDB. Every snapshot is persisted in its encoded form, so the state
+ * survives a restart of the node, while only the recently referenced snapshots are kept decoded in an in-memory LRU
+ * cache. Since transactions mostly reference recent blocks, most lookups are served by the cache.
+ */
+public class StateMapDb implements State {
+  /**
+   * Default number of decoded snapshots kept in memory.
+   */
+  public static final int DEFAULT_CACHE_CAPACITY = 128;
+  private static final String SNAPSHOT_MAP_NAME = "snapshot_map";
+  private static final String HEIGHT_MAP_NAME = "height_map";
+  private static final String CHANGE_SET_MAP_NAME = "change_set_map";
+  private static final String CHANGE_SET_HEIGHT_MAP_NAME = "change_set_height_map";
+
+  private final DB db;
+  private final ReentrantReadWriteLock lock;
+
+  /**
+   * Encoded snapshots keyed by the bytes of their root block id.
+   */
+  private final HTreeMap<byte[], byte[]> snapshotMap;
+
+  /**
+   * Root block id of snapshots keyed by their root block height; the first snapshot added at a height is kept.
+   */
+  private final BTreeMap<Long, byte[]> heightMap;
+
+  /**
+   * Encoded change sets of the indexed snapshots keyed by height.
+   */
+  private final BTreeMap<Long, byte[]> changeSetMap;
+
+  /**
+   * Height of every persisted change set keyed by the bytes of its block id.
+   */
+  private final HTreeMap<byte[], Long> changeSetHeightMap;
+
+  /**
+   * Recently referenced snapshots in their decoded form, keyed by their root block id.
+   */
+  private final LruCache<Identifier, Snapshot> cache;
+  private final SnapshotEncoder encoder;
+
+  /**
+   * The snapshot with the greatest root block height, i.e., the tip of the finalized chain.
+   */
+  private volatile Snapshot tip;
+
+  /**
+   * Creates a disk-backed state with the default cache capacity.
+   *
+   * @param filePath the path of the database file.
+   */
+  public StateMapDb(String filePath) {
+    this(filePath, DEFAULT_CACHE_CAPACITY);
+  }
+
+  /**
+   * Creates a disk-backed state, or reopens the one already persisted at the given path.
+   *
+   * @param filePath      the path of the database file.
+   * @param cacheCapacity maximum number of decoded snapshots kept in memory.
+   * @throws IllegalStateException if the tip of a persisted state cannot be decoded.
+   */
+  public StateMapDb(String filePath, int cacheCapacity) throws IllegalStateException {
+    this.db = DBMaker.fileDB(filePath).transactionEnable().make();
+    this.lock = new ReentrantReadWriteLock();
+    this.snapshotMap = this.db.hashMap(SNAPSHOT_MAP_NAME)
+        .keySerializer(Serializer.BYTE_ARRAY)
+        .valueSerializer(Serializer.BYTE_ARRAY)
+        .createOrOpen();
+    this.heightMap = this.db.treeMap(HEIGHT_MAP_NAME)
+        .keySerializer(Serializer.LONG)
+        .valueSerializer(Serializer.BYTE_ARRAY)
+        .createOrOpen();
+    this.changeSetMap = this.db.treeMap(CHANGE_SET_MAP_NAME)
+        .keySerializer(Serializer.LONG)
+        .valueSerializer(Serializer.BYTE_ARRAY)
+        .createOrOpen();
+    this.changeSetHeightMap = this.db.hashMap(CHANGE_SET_HEIGHT_MAP_NAME)
+        .keySerializer(Serializer.BYTE_ARRAY)
+        .valueSerializer(Serializer.LONG)
+        .createOrOpen();
+    this.cache = new LruCache<>(cacheCapacity);
+    this.encoder = new SnapshotEncoder();
+
+    Map.Entry<Long, byte[]> last = this.heightMap.lastEntry();
+    this.tip = last == null ? null : this.fetch(new Identifier(last.getValue()));
+  }
+
+  /**
+   * Adds snapshot to state. The snapshot is persisted before this method returns. A table snapshot is sealed and
+   * cached as is, so that its trie is shared with the snapshots decoded on top of it; any other snapshot is cached in
+   * its decoded form, so that the cached snapshot never changes after it is persisted.
+   *
+   * @param blockId  identifier of block representing snapshot.
+   * @param snapshot the snapshot associated with block
+   * @throws IllegalStateException if a snapshot is already associated with block id, or it cannot be encoded.
+   */
+  @Override
+  public void addSnapshot(Identifier blockId, Snapshot snapshot) throws IllegalStateException {
+    if (snapshot instanceof TableSnapshot) {
+      ((TableSnapshot) snapshot).seal();
+    }
+    byte[] encoded;
+    byte[] encodedChangeSet;
+    Snapshot cached;
+    try {
+      encoded = this.encoder.encode(snapshot);
+      encodedChangeSet = this.encoder.encodeChangeSet(snapshot.changeSet());
+      cached = snapshot instanceof TableSnapshot ? snapshot : this.encoder.decode(encoded);
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not encode snapshot for block id: " + blockId.toString(), e);
+    }
+
+    long height = snapshot.getReferenceBlockHeight();
+    try {
+      lock.writeLock().lock();
+      if (!this.snapshotMap.putIfAbsentBoolean(blockId.getBytes(), encoded)) {
+        throw new IllegalStateException("a snapshot for block id already exists: " + blockId.toString());
+      }
+      if (this.heightMap.putIfAbsent(height, blockId.getBytes()) == null) {
+        this.changeSetMap.put(height, encodedChangeSet);
+        this.changeSetHeightMap.put(blockId.getBytes(), height);
+      }
+      this.db.commit();
+
+      Snapshot current = this.tip;
+      if (current == null || snapshot.getReferenceBlockHeight() > current.getReferenceBlockHeight()) {
+        this.tip = cached;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    this.cache.put(blockId, cached);
+  }
+
+  /**
+   * Fetches snapshot at the given finalized block id. The snapshot is served from the cache if it is recently
+   * referenced, otherwise it is decoded from disk and cached.
+   *
+   * @param identifier identifier of corresponding block for snapshot.
+   * @return the snapshot of the local node at the given finalized block id, or null of such snapshot does not exist.
+   * @throws IllegalStateException if the persisted snapshot cannot be decoded.
+   */
+  @Override
+  public Snapshot atBlockId(Identifier identifier) throws IllegalStateException {
+    return this.fetch(identifier);
+  }
+
+  /**
+   * Fetches snapshot at the given block id from the cache, or decodes it from disk and caches it. If the snapshot of
+   * the parent block is cached, the snapshot is decoded on top of it, so that only the accounts of its change set are
+   * rehashed; otherwise the trie of all of its accounts is rebuilt.
+   *
+   * @param identifier identifier of corresponding block for snapshot.
+   * @return the snapshot at the given block id, or null if such snapshot does not exist.
+   * @throws IllegalStateException if the persisted snapshot cannot be decoded.
+   */
+  private Snapshot fetch(Identifier identifier) throws IllegalStateException {
+    Snapshot snapshot = this.cache.get(identifier);
+    if (snapshot != null) {
+      return snapshot;
+    }
+
+    byte[] encoded;
+    byte[] encodedChangeSet = null;
+    try {
+      lock.readLock().lock();
+      encoded = this.snapshotMap.get(identifier.getBytes());
+      Long height = this.changeSetHeightMap.get(identifier.getBytes());
+      if (height != null) {
+        encodedChangeSet = this.changeSetMap.get(height);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (encoded == null) {
+      return null;
+    }
+
+    try {
+      Snapshot parent = null;
+      ChangeSet changeSet = null;
+      if (encodedChangeSet != null) {
+        changeSet = this.encoder.decodeChangeSet(encodedChangeSet);
+        if (changeSet.getParentBlockId() != null) {
+          parent = this.cache.peek(changeSet.getParentBlockId());
+        }
+      }
+      snapshot = parent instanceof TableSnapshot
+          ? this.encoder.decode(encoded, (TableSnapshot) parent, changeSet)
+          : this.encoder.decode(encoded);
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not decode snapshot for block id: " + identifier.toString(), e);
+    }
+    this.cache.put(identifier, snapshot);
+    return snapshot;
+  }
+
+  /**
+   * The most recent finalized state snapshot (tail of the snapshot list).
+   *
+   * @return the most recent finalized state snapshot of the node. Note that it never returns a null, since at the
+   * bare minimum the snapshot of Genesis block exists.
+   */
+  @Override
+  public Snapshot last() {
+    return this.tip;
+  }
+
+  /**
+   * Fetches snapshot at the given height of the finalized chain.
+   *
+   * @param height height of the reference block of the snapshot.
+   * @return the snapshot at the given height, or null if such snapshot does not exist.
+   */
+  @Override
+  public Snapshot atHeight(long height) {
+    byte[] blockId;
+    try {
+      lock.readLock().lock();
+      blockId = this.heightMap.get(height);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return blockId == null ? null : this.atBlockId(new Identifier(blockId));
+  }
+
+  /**
+   * Fetches the snapshots whose reference block heights fall within the given range.
+   *
+   * @param from lowest height of the range (inclusive).
+   * @param to   highest height of the range (inclusive).
+   * @return list of snapshots within the range ordered by their reference block height, or an empty list if no
+   * snapshot falls within the range.
+   */
+  @Override
+  public ArrayList<Snapshot> range(long from, long to) {
+    ArrayList<Snapshot> snapshots = new ArrayList<>();
+    if (from > to) {
+      return snapshots;
+    }
+
+    ArrayList<byte[]> blockIds;
+    try {
+      lock.readLock().lock();
+      blockIds = new ArrayList<>(this.heightMap.subMap(from, true, to, true).values());
+    } finally {
+      lock.readLock().unlock();
+    }
+    for (byte[] blockId : blockIds) {
+      Snapshot snapshot = this.atBlockId(new Identifier(blockId));
+      if (snapshot != null) {
+        snapshots.add(snapshot);
+      }
+    }
+    return snapshots;
+  }
+
+  /**
+   * Fetches the accounts changed between two snapshots of the finalized chain, based on the change sets persisted for
+   * the blocks in between. Only the later snapshot is decoded, and only if it is not cached.
+   *
+   * @param fromBlockId identifier of the block of the earlier snapshot.
+   * @param toBlockId   identifier of the block of the later snapshot.
+   * @return the accounts changed from the earlier snapshot to the later one.
+   * @throws IllegalArgumentException if the later snapshot or the change sets in between are not available, or the
+   *                                  snapshots are not on the same chain.
+   * @throws IllegalStateException    if a persisted change set cannot be decoded.
+   */
+  @Override
+  public SnapshotDelta delta(Identifier fromBlockId, Identifier toBlockId) throws IllegalArgumentException,
+      IllegalStateException {
+    Snapshot to = this.fetch(toBlockId);
+    if (to == null) {
+      throw new IllegalArgumentException("no snapshot for block id: " + toBlockId);
+    }
+
+    Long fromHeight;
+    ArrayList<byte[]> encoded = new ArrayList<>();
+    try {
+      lock.readLock().lock();
+      fromHeight = this.changeSetHeightMap.get(fromBlockId.getBytes());
+      if (fromHeight != null && fromHeight < to.getReferenceBlockHeight()) {
+        encoded.addAll(this.changeSetMap.subMap(fromHeight, false, to.getReferenceBlockHeight(), true).values());
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (fromHeight == null) {
+      throw new IllegalArgumentException("no change set for block id: " + fromBlockId);
+    }
+
+    ArrayList<ChangeSet> changeSets = new ArrayList<>();
+    try {
+      for (byte[] bytes : encoded) {
+        changeSets.add(this.encoder.decodeChangeSet(bytes));
+      }
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not decode change set", e);
+    }
+    return SnapshotDelta.between(fromBlockId, fromHeight, to, changeSets);
+  }
+
+  @Override
+  public Snapshot execute(Block block) throws IllegalStateException {
+    return null;
+  }
+
+  /**
+   * Number of snapshot lookups served by the in-memory cache.
+   *
+   * @return number of cache hits so far.
+   */
+  public long cacheHits() {
+    return this.cache.hits();
+  }
+
+  /**
+   * Number of snapshot lookups that were decoded from disk.
+   *
+   * @return number of cache misses so far.
+   */
+  public long cacheMisses() {
+    return this.cache.misses();
+  }
+
+  /**
+   * Number of decoded snapshots currently kept in memory.
+   *
+   * @return number of cached snapshots.
+   */
+  public int cachedSnapshots() {
+    return this.cache.size();
+  }
+
+  /**
+   * It closes the database.
+   */
+  public void closeDb() {
+    db.close();
+  }
+}
@@ -0,0 +1,372 @@
+package state.recovery;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.function.BiFunction;
+import java.util.zip.CRC32;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import model.codec.EncodedEntity;
+import model.exceptions.CodecException;
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import model.lightchain.Transaction;
+import model.lightchain.ValidatedTransaction;
+import modules.codec.JsonEncoder;
+import state.Snapshot;
+import state.SnapshotDelta;
+import state.State;
+import state.table.RetentionPolicy;
+import state.table.SnapshotEncoder;
+import state.table.TableState;
+import storage.pool.TransactionPool;
+
+/**
+ * Implements a protocol state that recovers quickly from a crash. The state itself, along with the pool of pending
+ * transactions, is kept in memory; every ingested block is appended to a write-ahead log before its snapshot is
+ * published, and periodically the latest snapshot and the pending transactions are written to a checkpoint, which
+ * empties the log.
+ *
+ * <p>On open, the state is restored from the checkpoint, and only the blocks logged since are replayed on top of it.
+ * Since the log never holds more than a checkpoint interval of blocks, the time to open the state does not depend on
+ * the length of the chain. Only the latest snapshot is checkpointed, so the snapshots of older blocks are not
+ * restored; the pending transactions received after the last checkpoint are not logged either, as they are gossiped
+ * again by their senders.
+ *
+ * <p>Snapshots are derived from the ingested blocks by a state transition function, and cannot be added otherwise.
+ */
+public final class RecoverableState implements State {
+  /**
+   * Default number of blocks ingested between two checkpoints.
+   */
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 1024;
+  private static final String CHECKPOINT_FILE = "checkpoint";
+  private static final String CHECKPOINT_TEMP_FILE = "checkpoint.tmp";
+  private static final String LOG_FILE = "wal.log";
+  private static final int CHECKPOINT_MAGIC = 0x4c434b50;
+
+  private final Path directory;
+  private final BiFunction<Snapshot, Block, Snapshot> transition;
+  private final int checkpointInterval;
+  private final TableState state;
+  private final TransactionPool pending;
+  private final WriteAheadLog log;
+  private final JsonEncoder encoder;
+  private final SnapshotEncoder snapshotEncoder;
+
+  /**
+   * Number of blocks ingested since the last checkpoint, guarded by the monitor of this object.
+   */
+  private int sinceCheckpoint;
+
+  /**
+   * Number of logged blocks replayed when the state was opened.
+   */
+  private final int replayed;
+
+  /**
+   * Opens the state with the default checkpoint interval, retaining every snapshot ingested since it was opened.
+   *
+   * @param directoryPath the path of the directory holding the checkpoint and the write-ahead log.
+   * @param transition    derives the snapshot of a block from the snapshot of its parent, which is null for the first
+   *                      block of the chain.
+   * @throws IllegalStateException if the checkpoint or the log cannot be read.
+   */
+  public RecoverableState(String directoryPath, BiFunction<Snapshot, Block, Snapshot> transition)
+      throws IllegalStateException {
+    this(directoryPath, transition, DEFAULT_CHECKPOINT_INTERVAL, RetentionPolicy.KEEP_ALL);
+  }
+
+  /**
+   * Opens the state persisted in the given directory, or creates an empty one.
+   *
+   * @param directoryPath      the path of the directory holding the checkpoint and the write-ahead log.
+   * @param transition         derives the snapshot of a block from the snapshot of its parent, which is null for the
+   *                           first block of the chain.
+   * @param checkpointInterval number of blocks ingested between two checkpoints.
+   * @param policy             determines which snapshots are kept in memory as the chain grows.
+   * @throws IllegalArgumentException if the checkpoint interval is not positive.
+   * @throws IllegalStateException    if the checkpoint or the log cannot be read.
+   */
+  public RecoverableState(String directoryPath, BiFunction<Snapshot, Block, Snapshot> transition,
+                          int checkpointInterval, RetentionPolicy policy)
+      throws IllegalArgumentException, IllegalStateException {
+    if (checkpointInterval <= 0) {
+      throw new IllegalArgumentException("checkpoint interval must be positive, got: " + checkpointInterval);
+    }
+    this.directory = Paths.get(directoryPath);
+    this.transition = transition;
+    this.checkpointInterval = checkpointInterval;
+    this.state = new TableState(policy);
+    this.pending = new TransactionPool();
+    this.encoder = new JsonEncoder();
+    this.snapshotEncoder = new SnapshotEncoder();
+    try {
+      Files.createDirectories(this.directory);
+    } catch (IOException e) {
+      throw new IllegalStateException("could not create state directory: " + directoryPath, e);
+    }
+    this.restoreCheckpoint();
+    this.log = new WriteAheadLog(this.directory.resolve(LOG_FILE));
+    this.replayed = this.log.replay(this::replay);
+    this.sinceCheckpoint = this.replayed;
+  }
+
+  /**
+   * Ingests a finalized block: its snapshot is derived from the latest snapshot, the block is logged, and the snapshot
+   * becomes the latest snapshot. The transactions of the block leave the pending pool. Once a checkpoint interval of
+   * blocks is ingested, a checkpoint is taken. A block is only logged once its snapshot is derived, so that a block
+   * the transition rejects is never replayed.
+   *
+   * @param block the block to ingest, which extends the latest snapshot.
+   * @return true if the block is ingested, false if it is not above the latest snapshot, e.g., already ingested.
+   * @throws IllegalArgumentException if the block is above the latest snapshot, but its previous block is not the
+   *                                  block of the latest snapshot.
+   * @throws IllegalStateException    if the block cannot be logged, or the checkpoint cannot be written.
+   */
+  public synchronized boolean ingest(Block block) throws IllegalArgumentException, IllegalStateException {
+    Snapshot last = this.state.last();
+    if (last != null && block.getHeight() <= last.getReferenceBlockHeight()) {
+      return false;
+    }
+    if (last != null && !last.getReferenceBlockId().equals(block.getPreviousBlockId())) {
+      throw new IllegalArgumentException("block " + block.id() + " does not extend the latest snapshot: "
+          + last.getReferenceBlockId());
+    }
+    Snapshot snapshot = this.transition.apply(last, block);
+    try {
+      this.log.append(this.encoder.encode(block).getBytes());
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not encode block: " + block.id(), e);
+    }
+    this.publish(block, snapshot);
+    if (++this.sinceCheckpoint >= this.checkpointInterval) {
+      this.checkpoint();
+    }
+    return true;
+  }
+
+  /**
+   * Writes the latest snapshot and the pending transactions to a new checkpoint, and empties the write-ahead log. The
+   * checkpoint replaces the previous one atomically, so that a crash meanwhile leaves the previous checkpoint intact.
+   *
+   * @throws IllegalStateException if the checkpoint cannot be written.
+   */
+  public synchronized void checkpoint() throws IllegalStateException {
+    Snapshot last = this.state.last();
+    if (last == null) {
+      return;
+    }
+    Path temp = this.directory.resolve(CHECKPOINT_TEMP_FILE);
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bos);
+      out.writeInt(CHECKPOINT_MAGIC);
+      byte[] snapshot = this.snapshotEncoder.encode(last);
+      out.writeInt(snapshot.length);
+      out.write(snapshot);
+      // the pool keeps changing while it is written, so its count and its transactions are taken from one copy.
+      ArrayList<Transaction> transactions = this.pending.all();
+      out.writeInt(transactions.size());
+      for (Transaction transaction : transactions) {
+        byte[] encoded = this.encoder.encode(transaction).getBytes();
+        out.writeInt(encoded.length);
+        out.write(encoded);
+      }
+      out.flush();
+      byte[] bytes = bos.toByteArray();
+      CRC32 crc = new CRC32();
+      crc.update(bytes, 0, bytes.length);
+      out.writeLong(crc.getValue());
+      out.flush();
+
+      Files.write(temp, bos.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+      Files.move(temp, this.directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+      // the rename is only durable once the directory is synced; the log must not be emptied before that.
+      try (FileChannel directory = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+        directory.force(true);
+      }
+    } catch (IOException | CodecException e) {
+      throw new IllegalStateException("could not write checkpoint at: " + this.directory, e);
+    }
+    // a crash before the log is emptied replays blocks the checkpoint covers, which are skipped by their height.
+    this.log.clear();
+    this.sinceCheckpoint = 0;
+  }
+
+  /**
+   * The pool of pending transactions, which is checkpointed along with the latest snapshot.
+   *
+   * @return the pool of pending transactions.
+   */
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "the pool is intentionally shared with the engines")
+  public TransactionPool pending() {
+    return this.pending;
+  }
+
+  /**
+   * Number of logged blocks that were replayed on top of the checkpoint when the state was opened.
+   *
+   * @return number of replayed blocks.
+   */
+  public int replayedBlocks() {
+    return this.replayed;
+  }
+
+  /**
+   * Size of the write-ahead log in bytes.
+   *
+   * @return size of the write-ahead log in bytes.
+   */
+  public long logSize() {
+    return this.log.size();
+  }
+
+  @Override
+  public Snapshot atBlockId(Identifier identifier) {
+    return this.state.atBlockId(identifier);
+  }
+
+  /**
+   * Snapshots are only derived from ingested blocks, so that each of them is recoverable from the log.
+   *
+   * @param blockId  identifier of block representing snapshot.
+   * @param snapshot the snapshot associated with block
+   * @throws IllegalStateException always.
+   */
+  @Override
+  public void addSnapshot(Identifier blockId, Snapshot snapshot) throws IllegalStateException {
+    throw new IllegalStateException("snapshots of a recoverable state are derived from ingested blocks: " + blockId);
+  }
+
+  @Override
+  public Snapshot last() {
+    return this.state.last();
+  }
+
+  @Override
+  public Snapshot atHeight(long height) {
+    return this.state.atHeight(height);
+  }
+
+  @Override
+  public ArrayList<Snapshot> range(long from, long to) {
+    return this.state.range(from, to);
+  }
+
+  @Override
+  public SnapshotDelta delta(Identifier fromBlockId, Identifier toBlockId) throws IllegalArgumentException {
+    return this.state.delta(fromBlockId, toBlockId);
+  }
+
+  /**
+   * Derives the snapshot of the given block from the latest snapshot, without ingesting the block.
+   *
+   * @param block the block to execute.
+   * @return the snapshot of the block.
+   */
+  @Override
+  public Snapshot execute(Block block) {
+    return this.transition.apply(this.state.last(), block);
+  }
+
+  /**
+   * It closes the write-ahead log and stops the pruning thread, without taking a checkpoint; every ingested block is
+   * already on disk.
+   */
+  public synchronized void closeDb() {
+    this.log.close();
+    this.state.shutdown();
+  }
+
+  /**
+   * Publishes the snapshot of a block as the latest snapshot, and drops the transactions of the block from the
+   * pending pool.
+   *
+   * @param block    the block of the snapshot.
+   * @param snapshot the snapshot derived from the block.
+   */
+  private void publish(Block block, Snapshot snapshot) {
+    this.state.addSnapshot(block.id(), snapshot);
+    ValidatedTransaction[] transactions = block.getTransactions();
+    if (transactions != null) {
+      for (ValidatedTransaction transaction : transactions) {
+        this.pending.remove(transaction.id());
+      }
+    }
+  }
+
+  /**
+   * Applies a block read back from the write-ahead log, unless the checkpoint already covers it.
+   *
+   * @param encoded the encoded block.
+   * @throws IllegalStateException if the block cannot be decoded.
+   */
+  private void replay(byte[] encoded) throws IllegalStateException {
+    Block block;
+    try {
+      block = (Block) this.encoder.decode(new EncodedEntity(encoded, Block.class.getCanonicalName()));
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not decode logged block", e);
+    }
+    Snapshot last = this.state.last();
+    if (last == null || block.getHeight() > last.getReferenceBlockHeight()) {
+      this.publish(block, this.transition.apply(last, block));
+    }
+  }
+
+  /**
+   * Restores the latest snapshot and the pending transactions from the checkpoint, if any.
+   *
+   * @throws IllegalStateException if the checkpoint is corrupted.
+   */
+  private void restoreCheckpoint() throws IllegalStateException {
+    Path path = this.directory.resolve(CHECKPOINT_FILE);
+    if (!Files.exists(path)) {
+      return;
+    }
+    try {
+      byte[] bytes = Files.readAllBytes(path);
+      if (bytes.length < 4 + 8) {
+        throw new IllegalStateException("checkpoint is truncated: " + path);
+      }
+      CRC32 crc = new CRC32();
+      crc.update(bytes, 0, bytes.length - 8);
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      in.skipBytes(bytes.length - 8);
+      if (in.readLong() != crc.getValue()) {
+        throw new IllegalStateException("checkpoint fails its checksum: " + path);
+      }
+
+      in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 8));
+      if (in.readInt() != CHECKPOINT_MAGIC) {
+        throw new IllegalStateException("not a checkpoint: " + path);
+      }
+      byte[] snapshot = new byte[in.readInt()];
+      in.readFully(snapshot);
+      Snapshot last = this.snapshotEncoder.decode(snapshot);
+      this.state.addSnapshot(last.getReferenceBlockId(), last);
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        byte[] encoded = new byte[in.readInt()];
+        in.readFully(encoded);
+        this.pending.add((Transaction) this.encoder.decode(new EncodedEntity(encoded,
+            Transaction.class.getCanonicalName())));
+      }
+    } catch (IOException | CodecException e) {
+      throw new IllegalStateException("could not read checkpoint: " + path, e);
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package state.recovery;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of opaque records, forced to disk on every append. Every record is framed by its length and the
+ * CRC32 checksum of its payload, so that replaying the log stops at the first record whose append was torn by a crash,
+ * and drops it along with anything after it.
+ */
+final class WriteAheadLog {
+  /**
+   * Every record starts with the length of its payload and the checksum of its payload.
+   */
+  private static final int HEADER_SIZE = 4 + 4;
+
+  private final Path path;
+  private final FileChannel channel;
+
+  /**
+   * Opens the log at the given path, creating an empty one if it does not exist.
+   *
+   * @param path the path of the log file.
+   * @throws IllegalStateException if the log file cannot be opened.
+   */
+  WriteAheadLog(Path path) throws IllegalStateException {
+    this.path = path;
+    try {
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new IllegalStateException("could not open write-ahead log at: " + path, e);
+    }
+  }
+
+  /**
+   * Appends a record to the end of the log, and forces it to disk before returning.
+   *
+   * @param payload the record to append.
+   * @throws IllegalStateException if the record cannot be appended.
+   */
+  void append(byte[] payload) throws IllegalStateException {
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+    record.putInt(payload.length);
+    record.putInt(checksum(payload));
+    record.put(payload);
+    record.flip();
+    try {
+      long position = this.channel.size();
+      while (record.hasRemaining()) {
+        position += this.channel.write(record, position);
+      }
+      this.channel.force(false);
+    } catch (IOException e) {
+      throw new IllegalStateException("could not append to write-ahead log at: " + this.path, e);
+    }
+  }
+
+  /**
+   * Reads the records of the log oldest first. A record that is cut short or fails its checksum ends the log, and is
+   * truncated away along with anything after it, so that later appends follow the last intact record.
+   *
+   * @param consumer receives the payload of every intact record.
+   * @return number of intact records.
+   * @throws IllegalStateException if the log cannot be read or truncated.
+   */
+  int replay(Consumer<byte[]> consumer) throws IllegalStateException {
+    int records = 0;
+    long intact = 0;
+    try {
+      long size = this.channel.size();
+      DataInputStream in = new DataInputStream(new BufferedInputStream(
+          Channels.newInputStream(this.channel.position(0))));
+      while (intact + HEADER_SIZE <= size) {
+        int length = in.readInt();
+        int checksum = in.readInt();
+        if (length < 0 || intact + HEADER_SIZE + length > size) {
+          break;
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        if (checksum(payload) != checksum) {
+          break;
+        }
+        consumer.accept(payload);
+        records++;
+        intact += HEADER_SIZE + length;
+      }
+      if (intact < size) {
+        this.channel.truncate(intact);
+        this.channel.force(true);
+      }
+      return records;
+    } catch (EOFException e) {
+      throw new IllegalStateException("write-ahead log shrank while replaying: " + this.path, e);
+    } catch (IOException e) {
+      throw new IllegalStateException("could not replay write-ahead log at: " + this.path, e);
+    }
+  }
+
+  /**
+   * Drops every record of the log, e.g., once they are covered by a checkpoint.
+   *
+   * @throws IllegalStateException if the log cannot be truncated.
+   */
+  void clear() throws IllegalStateException {
+    try {
+      this.channel.truncate(0);
+      this.channel.force(true);
+    } catch (IOException e) {
+      throw new IllegalStateException("could not clear write-ahead log at: " + this.path, e);
+    }
+  }
+
+  /**
+   * Size of the log in bytes.
+   *
+   * @return size of the log in bytes.
+   * @throws IllegalStateException if the size cannot be read.
+   */
+  long size() throws IllegalStateException {
+    try {
+      return this.channel.size();
+    } catch (IOException e) {
+      throw new IllegalStateException("could not read size of write-ahead log at: " + this.path, e);
+    }
+  }
+
+  /**
+   * Closes the log file; every appended record is already on disk.
+   *
+   * @throws IllegalStateException if the log file cannot be closed.
+   */
+  void close() throws IllegalStateException {
+    try {
+      this.channel.close();
+    } catch (IOException e) {
+      throw new IllegalStateException("could not close write-ahead log at: " + this.path, e);
+    }
+  }
+
+  private static int checksum(byte[] payload) {
+    CRC32 crc = new CRC32();
+    crc.update(payload, 0, payload.length);
+    return (int) crc.getValue();
+  }
+}
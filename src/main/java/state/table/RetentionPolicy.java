@@ -0,0 +1,143 @@
+package state.table;
+
+import protocol.Parameters;
+
+/**
+ * Determines which snapshots of the protocol state are kept in memory as the finalized chain grows. A snapshot is
+ * retained if it falls within the window of the most recent heights, or if it is one of the most recent periodic
+ * checkpoints below that window. Every other snapshot is eligible for pruning, so the number of retained snapshots is
+ * bounded however long the chain grows. The window of recent heights always covers the reference block window of
+ * transactions, so that a transaction whose sender's last block has been pruned can still be validated against the
+ * retained heights.
+ */
+public class RetentionPolicy {
+  /**
+   * Retention policy that keeps every snapshot, i.e., never prunes.
+   */
+  public static final RetentionPolicy KEEP_ALL = new RetentionPolicy(Long.MAX_VALUE, 0);
+
+  /**
+   * Default number of checkpoints below the recent window that are retained.
+   */
+  public static final long DEFAULT_MAX_CHECKPOINTS = 8;
+
+  /**
+   * Least number of most recent heights a policy may retain, i.e., one more than the reference block window.
+   */
+  public static final long MIN_RECENT_HEIGHTS = Parameters.REFERENCE_BLOCK_WINDOW + 1;
+
+  /**
+   * Number of most recent heights (including the tip) whose snapshots are kept in full.
+   */
+  private final long recentHeights;
+
+  /**
+   * Interval of heights at which snapshots are kept as checkpoints regardless of their age, zero disables checkpoints.
+   */
+  private final long checkpointInterval;
+
+  /**
+   * Number of most recent checkpoints below the recent window that are retained, older checkpoints are pruned.
+   */
+  private final long maxCheckpoints;
+
+  /**
+   * Constructor of RetentionPolicy that retains the default number of checkpoints.
+   *
+   * @param recentHeights      number of most recent heights (including the tip) whose snapshots are kept in full.
+   * @param checkpointInterval interval of heights at which snapshots are kept as checkpoints once they fall out of
+   *                           the recent window, zero disables checkpoints.
+   * @throws IllegalArgumentException if recent heights is below the minimum or checkpoint interval is negative.
+   */
+  public RetentionPolicy(long recentHeights, long checkpointInterval) throws IllegalArgumentException {
+    this(recentHeights, checkpointInterval, DEFAULT_MAX_CHECKPOINTS);
+  }
+
+  /**
+   * Constructor of RetentionPolicy.
+   *
+   * @param recentHeights      number of most recent heights (including the tip) whose snapshots are kept in full.
+   * @param checkpointInterval interval of heights at which snapshots are kept as checkpoints once they fall out of
+   *                           the recent window, zero disables checkpoints.
+   * @param maxCheckpoints     number of most recent checkpoints below the recent window that are retained.
+   * @throws IllegalArgumentException if recent heights is below the minimum, or checkpoint interval or max
+   *                                  checkpoints is negative.
+   */
+  public RetentionPolicy(long recentHeights, long checkpointInterval, long maxCheckpoints)
+      throws IllegalArgumentException {
+    if (recentHeights < MIN_RECENT_HEIGHTS) {
+      throw new IllegalArgumentException("recent heights must cover the reference block window: " + recentHeights);
+    }
+    if (checkpointInterval < 0) {
+      throw new IllegalArgumentException("checkpoint interval cannot be negative: " + checkpointInterval);
+    }
+    if (maxCheckpoints < 0) {
+      throw new IllegalArgumentException("max checkpoints cannot be negative: " + maxCheckpoints);
+    }
+    this.recentHeights = recentHeights;
+    this.checkpointInterval = checkpointInterval;
+    this.maxCheckpoints = maxCheckpoints;
+  }
+
+  public long getRecentHeights() {
+    return recentHeights;
+  }
+
+  public long getCheckpointInterval() {
+    return checkpointInterval;
+  }
+
+  public long getMaxCheckpoints() {
+    return maxCheckpoints;
+  }
+
+  /**
+   * Lowest height that falls within the window of recent heights for the given tip.
+   *
+   * @param tipHeight height of the most recent snapshot.
+   * @return lowest height of the recent window, heights below it are only retained if they are checkpoints.
+   */
+  public long windowStart(long tipHeight) {
+    if (tipHeight < recentHeights) {
+      return 0;
+    }
+    return tipHeight - recentHeights + 1;
+  }
+
+  /**
+   * Checks whether the given height is a periodic checkpoint.
+   *
+   * @param height height of a snapshot.
+   * @return true if checkpoints are enabled and the height is a multiple of the checkpoint interval, false otherwise.
+   */
+  public boolean isCheckpoint(long height) {
+    return checkpointInterval > 0 && height % checkpointInterval == 0;
+  }
+
+  /**
+   * Checks whether a snapshot at the given height must be retained for the given tip.
+   *
+   * @param height    height of a snapshot.
+   * @param tipHeight height of the most recent snapshot.
+   * @return true if the snapshot falls within the recent window or is one of the most recent checkpoints below it,
+   * false otherwise.
+   */
+  public boolean retains(long height, long tipHeight) {
+    long windowStart = windowStart(tipHeight);
+    if (height >= windowStart) {
+      return true;
+    }
+    // a checkpoint is retained while fewer than max checkpoints lie between it and the window.
+    return isCheckpoint(height)
+        && (windowStart - 1) / checkpointInterval - height / checkpointInterval < maxCheckpoints;
+  }
+
+  /**
+   * Checks whether this policy ever prunes a snapshot.
+   *
+   * @return true if this policy prunes snapshots outside a bounded window, false if it keeps every snapshot.
+   */
+  public boolean prunes() {
+    return recentHeights != Long.MAX_VALUE;
+  }
+}
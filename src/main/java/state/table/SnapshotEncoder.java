@@ -0,0 +1,374 @@
+package state.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import crypto.Sha3256Hasher;
+import model.crypto.PublicKey;
+import model.crypto.Sha3256Hash;
+import model.crypto.ecdsa.EcdsaPublicKey;
+import model.exceptions.CodecException;
+import model.lightchain.Account;
+import model.lightchain.Identifier;
+import state.ChangeSet;
+import state.Snapshot;
+import state.SnapshotDelta;
+
+/**
+ * Implements a compact binary encoding of snapshots and their accounts, so that they can be kept off the heap, e.g.,
+ * on disk. Public keys are kept in their encoded form and decoded back as ECDSA public keys.
+ */
+public class SnapshotEncoder {
+  /**
+   * Marks an account without public key.
+   */
+  private static final int NO_PUBLIC_KEY = -1;
+  private static final Sha3256Hasher hasher = new Sha3256Hasher();
+
+  /**
+   * Encodes a snapshot along with all of its accounts.
+   *
+   * @param snapshot the snapshot to encode.
+   * @return the encoded representation of the snapshot.
+   * @throws CodecException if the snapshot cannot be encoded.
+   */
+  public byte[] encode(Snapshot snapshot) throws CodecException {
+    ArrayList<Account> accounts = snapshot.all();
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bos);
+      out.write(snapshot.getReferenceBlockId().getBytes());
+      out.writeLong(snapshot.getReferenceBlockHeight());
+      out.writeInt(accounts.size());
+      for (Account account : accounts) {
+        this.writeAccount(out, account);
+      }
+      out.flush();
+      return bos.toByteArray();
+    } catch (IOException e) {
+      throw new CodecException("could not encode snapshot", e);
+    }
+  }
+
+  /**
+   * Decodes a snapshot that is encoded by this encoder. The decoded snapshot is sealed.
+   *
+   * @param bytes the encoded representation of the snapshot.
+   * @return the decoded snapshot.
+   * @throws CodecException if the bytes do not represent an encoded snapshot.
+   */
+  public TableSnapshot decode(byte[] bytes) throws CodecException {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      Identifier blockId = readIdentifier(in);
+      long height = in.readLong();
+      int count = in.readInt();
+      TableSnapshot snapshot = new TableSnapshot(blockId, height);
+      for (int i = 0; i < count; i++) {
+        Account account = this.readAccount(in);
+        snapshot.addAccount(account.getIdentifier(), account);
+      }
+      snapshot.seal();
+      return snapshot;
+    } catch (IOException | IllegalStateException e) {
+      throw new CodecException("could not decode snapshot", e);
+    }
+  }
+
+  /**
+   * Decodes a snapshot that is encoded by this encoder on top of the snapshot of its parent block, so that only the
+   * paths of the accounts in its change set are rehashed, rather than the trie of all of its accounts. The decoded
+   * snapshot is sealed.
+   *
+   * @param bytes     the encoded representation of the snapshot.
+   * @param parent    the sealed snapshot of the parent block.
+   * @param changeSet the change set of the snapshot, i.e., the accounts changed since the parent.
+   * @return the decoded snapshot.
+   * @throws CodecException if the bytes do not represent an encoded snapshot, or the snapshot is not derived from the
+   *                        parent by the change set.
+   */
+  public TableSnapshot decode(byte[] bytes, TableSnapshot parent, ChangeSet changeSet) throws CodecException {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      Identifier blockId = readIdentifier(in);
+      long height = in.readLong();
+      int count = in.readInt();
+      if (!parent.isSealed()
+          || !blockId.equals(changeSet.getBlockId())
+          || !parent.getReferenceBlockId().equals(changeSet.getParentBlockId())) {
+        throw new IllegalStateException("snapshot is not derived from the parent by the change set: " + blockId);
+      }
+      TableSnapshot snapshot = new TableSnapshot(blockId, height, parent);
+      for (int i = 0; i < count; i++) {
+        Account account = this.readAccount(in);
+        if (changeSet.contains(account.getIdentifier())) {
+          snapshot.addAccount(account.getIdentifier(), account);
+        }
+      }
+      if (snapshot.size() != count) {
+        throw new IllegalStateException("snapshot has accounts missing from the parent: " + blockId);
+      }
+      snapshot.seal();
+      return snapshot;
+    } catch (IOException | IllegalStateException e) {
+      throw new CodecException("could not decode snapshot", e);
+    }
+  }
+
+  /**
+   * Encodes a delta along with the changed accounts as of its later snapshot. The changed accounts are streamed from
+   * the delta one at a time.
+   *
+   * @param delta the delta to encode.
+   * @return the encoded representation of the delta.
+   * @throws CodecException if the delta cannot be encoded.
+   */
+  public byte[] encodeDelta(SnapshotDelta delta) throws CodecException {
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bos);
+      out.write(delta.getFromBlockId().getBytes());
+      out.writeLong(delta.getFromHeight());
+      out.write(delta.getToBlockId().getBytes());
+      out.writeLong(delta.getToHeight());
+      out.writeInt(delta.size());
+      for (Account account : delta) {
+        this.writeAccount(out, account);
+      }
+      out.flush();
+      return bos.toByteArray();
+    } catch (IOException e) {
+      throw new CodecException("could not encode delta", e);
+    }
+  }
+
+  /**
+   * Decodes a delta that is encoded by this encoder.
+   *
+   * @param bytes the encoded representation of the delta.
+   * @return the decoded delta, whose changed accounts are held in memory.
+   * @throws CodecException if the bytes do not represent an encoded delta.
+   */
+  public SnapshotDelta decodeDelta(byte[] bytes) throws CodecException {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      Identifier fromBlockId = readIdentifier(in);
+      long fromHeight = in.readLong();
+      Identifier toBlockId = readIdentifier(in);
+      long toHeight = in.readLong();
+      int count = in.readInt();
+      ArrayList<Identifier> changed = new ArrayList<>(count);
+      HashMap<Identifier, Account> accounts = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        Account account = this.readAccount(in);
+        changed.add(account.getIdentifier());
+        accounts.put(account.getIdentifier(), account);
+      }
+      return new SnapshotDelta(fromBlockId, fromHeight, toBlockId, toHeight, changed, accounts::get);
+    } catch (IOException | IllegalStateException e) {
+      throw new CodecException("could not decode delta", e);
+    }
+  }
+
+  /**
+   * Encodes a change set.
+   *
+   * @param changeSet the change set to encode.
+   * @return the encoded representation of the change set.
+   * @throws CodecException if the change set cannot be encoded.
+   */
+  public byte[] encodeChangeSet(ChangeSet changeSet) throws CodecException {
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bos);
+      out.write(changeSet.getBlockId().getBytes());
+      out.writeLong(changeSet.getHeight());
+      out.writeBoolean(changeSet.getParentBlockId() != null);
+      if (changeSet.getParentBlockId() != null) {
+        out.write(changeSet.getParentBlockId().getBytes());
+      }
+      ArrayList<Identifier> accounts = changeSet.getAccounts();
+      out.writeInt(accounts.size());
+      for (Identifier account : accounts) {
+        out.write(account.getBytes());
+      }
+      out.flush();
+      return bos.toByteArray();
+    } catch (IOException e) {
+      throw new CodecException("could not encode change set", e);
+    }
+  }
+
+  /**
+   * Decodes a change set that is encoded by this encoder.
+   *
+   * @param bytes the encoded representation of the change set.
+   * @return the decoded change set.
+   * @throws CodecException if the bytes do not represent an encoded change set.
+   */
+  public ChangeSet decodeChangeSet(byte[] bytes) throws CodecException {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      Identifier blockId = readIdentifier(in);
+      long height = in.readLong();
+      Identifier parentBlockId = in.readBoolean() ? readIdentifier(in) : null;
+      int count = in.readInt();
+      ArrayList<Identifier> accounts = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        accounts.add(readIdentifier(in));
+      }
+      return new ChangeSet(blockId, height, parentBlockId, accounts);
+    } catch (IOException e) {
+      throw new CodecException("could not decode change set", e);
+    }
+  }
+
+  /**
+   * Encodes a single account.
+   *
+   * @param account the account to encode.
+   * @return the encoded representation of the account.
+   * @throws CodecException if the account cannot be encoded.
+   */
+  public byte[] encodeAccount(Account account) throws CodecException {
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bos);
+      this.writeAccount(out, account);
+      out.flush();
+      return bos.toByteArray();
+    } catch (IOException e) {
+      throw new CodecException("could not encode account", e);
+    }
+  }
+
+  /**
+   * Decodes a single account that is encoded by this encoder.
+   *
+   * @param bytes the encoded representation of the account.
+   * @return the decoded account.
+   * @throws CodecException if the bytes do not represent an encoded account.
+   */
+  public Account decodeAccount(byte[] bytes) throws CodecException {
+    try {
+      return this.readAccount(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (IOException | IllegalStateException e) {
+      throw new CodecException("could not decode account", e);
+    }
+  }
+
+  /**
+   * Hashes the encoded representation of an account, i.e., the value an account is authenticated by in the state
+   * trie of a snapshot.
+   *
+   * @param account the account to hash.
+   * @return hash of the encoded account.
+   * @throws IllegalStateException if the account cannot be encoded.
+   */
+  public Sha3256Hash hashAccount(Account account) throws IllegalStateException {
+    try {
+      return hasher.computeHash(this.encodeAccount(account));
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not hash account: " + account.getIdentifier(), e);
+    }
+  }
+
+  /**
+   * Hashes the encoded representation of an account given by its fields, so that accounts kept in encoded form are
+   * hashed without being decoded. The hash is the same as the one of the equivalent account.
+   *
+   * @param identifier     identifier of the account.
+   * @param publicKeyBytes encoded public key of the account, or null if the account has no public key.
+   * @param lastBlockId    identifier of the last block that changed the account.
+   * @param balance        balance of the account.
+   * @param stake          stake of the account.
+   * @return hash of the encoded account.
+   * @throws IllegalStateException if the account cannot be encoded.
+   */
+  public Sha3256Hash hashAccount(Identifier identifier, byte[] publicKeyBytes, Identifier lastBlockId, double balance,
+                                 int stake) throws IllegalStateException {
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bos);
+      this.writeAccount(out, identifier, publicKeyBytes, lastBlockId, balance, stake);
+      out.flush();
+      return hasher.computeHash(bos.toByteArray());
+    } catch (IOException e) {
+      throw new IllegalStateException("could not hash account: " + identifier, e);
+    }
+  }
+
+  /**
+   * Writes an account to the given stream.
+   *
+   * @param out     stream to write to.
+   * @param account account to write.
+   * @throws IOException if writing to the stream fails.
+   */
+  public void writeAccount(DataOutputStream out, Account account) throws IOException {
+    PublicKey publicKey = account.getPublicKey();
+    this.writeAccount(out, account.getIdentifier(), publicKey == null ? null : publicKey.getBytes(),
+        account.getLastBlockId(), account.getBalance(), account.getStake());
+  }
+
+  /**
+   * Writes an account given by its fields to the given stream.
+   *
+   * @param out            stream to write to.
+   * @param identifier     identifier of the account.
+   * @param publicKeyBytes encoded public key of the account, or null if the account has no public key.
+   * @param lastBlockId    identifier of the last block that changed the account.
+   * @param balance        balance of the account.
+   * @param stake          stake of the account.
+   * @throws IOException if writing to the stream fails.
+   */
+  public void writeAccount(DataOutputStream out, Identifier identifier, byte[] publicKeyBytes, Identifier lastBlockId,
+                           double balance, int stake) throws IOException {
+    out.write(identifier.getBytes());
+    if (publicKeyBytes == null) {
+      out.writeInt(NO_PUBLIC_KEY);
+    } else {
+      out.writeInt(publicKeyBytes.length);
+      out.write(publicKeyBytes);
+    }
+    out.write(lastBlockId.getBytes());
+    out.writeDouble(balance);
+    out.writeInt(stake);
+  }
+
+  /**
+   * Reads an account from the given stream.
+   *
+   * @param in stream to read from.
+   * @return the account read from the stream.
+   * @throws IOException           if reading from the stream fails.
+   * @throws IllegalStateException if the encoded public key is invalid.
+   */
+  public Account readAccount(DataInputStream in) throws IOException, IllegalStateException {
+    Identifier identifier = readIdentifier(in);
+    int publicKeyLength = in.readInt();
+    PublicKey publicKey = null;
+    if (publicKeyLength != NO_PUBLIC_KEY) {
+      byte[] publicKeyBytes = new byte[publicKeyLength];
+      in.readFully(publicKeyBytes);
+      publicKey = new EcdsaPublicKey(publicKeyBytes);
+    }
+    Identifier lastBlockId = readIdentifier(in);
+    double balance = in.readDouble();
+    int stake = in.readInt();
+    Account account = new Account(identifier, publicKey, lastBlockId, stake);
+    account.setBalance(balance);
+    return account;
+  }
+
+  private static Identifier readIdentifier(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[Identifier.Size];
+    in.readFully(bytes);
+    return new Identifier(bytes);
+  }
+}
@@ -1,18 +1,54 @@
 package state.table;
 
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import model.crypto.Sha3256Hash;
 import model.lightchain.Account;
 import model.lightchain.Identifier;
+import modules.ads.MembershipProof;
+import modules.ads.mtrie.PersistentMerklePatriciaTrie;
+import state.ChangeSet;
 
 /**
  * Implements a simplified hash-table based model of the protocol snapshot at a given block.
+ * A snapshot is published once: it is filled with accounts, and then sealed when it is added to the state. Reads
+ * never take a lock, and a sealed snapshot rejects any further accounts.
+ * The accounts are authenticated by a Merkle Patricia trie. A snapshot derived from a parent snapshot shares the trie
+ * of its parent, and on sealing only the paths of the accounts added since are rehashed. Until it is sealed, an account
+ * inherited from the parent is copied on its first access, so that changing it never changes the parent.
  */
 public class TableSnapshot implements state.Snapshot {
+  private static final SnapshotEncoder encoder = new SnapshotEncoder();
   private final Identifier rootBlockId;
   private final long rootBlockHeight;
-  private Hashtable<Identifier, Account> table;
+  private final ConcurrentHashMap<Identifier, Account> table;
+  private volatile boolean sealed;
+
+  /**
+   * Trie of the accounts as of the parent snapshot until this snapshot is sealed, and of the accounts of this
+   * snapshot afterwards.
+   */
+  private volatile PersistentMerklePatriciaTrie trie;
+
+  /**
+   * Identifier of the block of the parent snapshot, or null if this snapshot is not derived from a parent.
+   */
+  private final Identifier parentBlockId;
+
+  /**
+   * Accounts added since the parent snapshot; until this snapshot is sealed, they are not yet reflected in the trie.
+   */
+  private final Set<Identifier> changed;
+
+  /**
+   * Accounts inherited from the parent that are copied on access until this snapshot is sealed, mapped to the
+   * instances of the parent; a copy counts as changed once its balance differs from the one of the parent.
+   */
+  private final ConcurrentHashMap<Identifier, Account> copied;
 
   /**
    * Constructor of TableSnapShot.
@@ -21,9 +57,32 @@ public class TableSnapshot implements state.Snapshot {
    * @param rootBlockHeight root block height of this snapshot.
    */
   public TableSnapshot(Identifier rootBlockId, long rootBlockHeight) {
+    this(rootBlockId, rootBlockHeight, null, PersistentMerklePatriciaTrie.EMPTY);
+  }
+
+  /**
+   * Constructor of a TableSnapshot that starts with the accounts of a parent snapshot, e.g., the snapshot of the
+   * parent block. Accounts added afterwards replace the ones of the parent, and only those are rehashed on sealing.
+   *
+   * @param rootBlockId     root block id representing this snapshot.
+   * @param rootBlockHeight root block height of this snapshot.
+   * @param parent          the snapshot this snapshot is derived from.
+   */
+  public TableSnapshot(Identifier rootBlockId, long rootBlockHeight, TableSnapshot parent) {
+    this(rootBlockId, rootBlockHeight, parent.rootBlockId, parent.trie());
+    this.table.putAll(parent.table);
+  }
+
+  private TableSnapshot(Identifier rootBlockId, long rootBlockHeight, Identifier parentBlockId,
+                        PersistentMerklePatriciaTrie trie) {
     this.rootBlockId = rootBlockId;
     this.rootBlockHeight = rootBlockHeight;
-    this.table = new Hashtable<>();
+    this.parentBlockId = parentBlockId;
+    this.table = new ConcurrentHashMap<>();
+    this.sealed = false;
+    this.trie = trie;
+    this.changed = ConcurrentHashMap.newKeySet();
+    this.copied = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -38,12 +97,41 @@ public class TableSnapshot implements state.Snapshot {
 
   @Override
   public Account getAccount(Identifier identifier) {
-    return table.get(identifier);
+    Account account = table.get(identifier);
+    if (account == null || this.sealed || !this.inherits(identifier)) {
+      return account;
+    }
+    return this.own(identifier);
   }
 
   @Override
   public ArrayList<Account> all() {
-    return this.table.values().stream().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    if (this.sealed || this.parentBlockId == null) {
+      return new ArrayList<>(this.table.values());
+    }
+    ArrayList<Account> accounts = new ArrayList<>();
+    for (Identifier identifier : this.table.keySet()) {
+      accounts.add(this.getAccount(identifier));
+    }
+    return accounts;
+  }
+
+  @Override
+  public Sha3256Hash root() {
+    return this.trie().root();
+  }
+
+  @Override
+  public MembershipProof proof(Identifier identifier) {
+    return this.trie().proof(identifier);
+  }
+
+  @Override
+  public ChangeSet changeSet() {
+    if (this.parentBlockId == null) {
+      return new ChangeSet(this.rootBlockId, this.rootBlockHeight, null, this.table.keySet());
+    }
+    return new ChangeSet(this.rootBlockId, this.rootBlockHeight, this.parentBlockId, this.changedAccounts());
   }
 
   /**
@@ -51,8 +139,123 @@ public class TableSnapshot implements state.Snapshot {
    *
    * @param identifier Identifier of the account to add.
    * @param account Account to add.
+   * @throws IllegalStateException if the snapshot is already sealed.
    */
-  public void addAccount(Identifier identifier, Account account) {
+  public void addAccount(Identifier identifier, Account account) throws IllegalStateException {
+    if (this.sealed) {
+      throw new IllegalStateException("cannot add account to a sealed snapshot: " + this.rootBlockId);
+    }
     this.table.put(identifier, account);
+    this.changed.add(identifier);
+  }
+
+  /**
+   * Seals the snapshot, so that its set of accounts no longer changes once it is published to the state. The trie of
+   * the snapshot is brought up to date with the accounts added since its parent.
+   */
+  public synchronized void seal() {
+    if (this.sealed) {
+      return;
+    }
+    this.changed.addAll(this.changedAccounts());
+    this.copied.clear();
+    this.trie = this.applyChanges();
+    if (this.parentBlockId == null) {
+      // every account is changed, so the change set is the table itself.
+      this.changed.clear();
+    }
+    this.sealed = true;
+  }
+
+  /**
+   * Checks whether the snapshot is sealed.
+   *
+   * @return true if the snapshot is sealed, false otherwise.
+   */
+  public boolean isSealed() {
+    return this.sealed;
+  }
+
+  /**
+   * Number of accounts in this snapshot.
+   *
+   * @return number of accounts in this snapshot.
+   */
+  public int size() {
+    return this.table.size();
+  }
+
+  /**
+   * Checks whether the account is still the instance of the parent snapshot.
+   *
+   * @param identifier identifier of the account.
+   * @return true if this snapshot is derived from a parent and the account has neither been added nor copied since,
+   * false otherwise.
+   */
+  private boolean inherits(Identifier identifier) {
+    return this.parentBlockId != null && !this.changed.contains(identifier) && !this.copied.containsKey(identifier);
+  }
+
+  /**
+   * Replaces an account inherited from the parent snapshot with a copy of it, which is rehashed on sealing if it is
+   * changed by then.
+   *
+   * @param identifier identifier of the inherited account.
+   * @return the copy of the account owned by this snapshot.
+   */
+  private synchronized Account own(Identifier identifier) {
+    Account account = this.table.get(identifier);
+    if (this.sealed || !this.inherits(identifier)) {
+      return account;
+    }
+    Account copy = new Account(account.getIdentifier(), account.getPublicKey(), account.getLastBlockId(),
+        account.getStake());
+    copy.setBalance(account.getBalance());
+    this.copied.put(identifier, account);
+    this.table.put(identifier, copy);
+    return copy;
+  }
+
+  /**
+   * Accounts added since the parent snapshot, along with the copied accounts whose balance has been changed since.
+   *
+   * @return identifiers of the accounts changed since the parent snapshot.
+   */
+  private Set<Identifier> changedAccounts() {
+    if (this.copied.isEmpty()) {
+      return this.changed;
+    }
+    Set<Identifier> accounts = new HashSet<>(this.changed);
+    for (Map.Entry<Identifier, Account> entry : this.copied.entrySet()) {
+      if (Double.compare(this.table.get(entry.getKey()).getBalance(), entry.getValue().getBalance()) != 0) {
+        accounts.add(entry.getKey());
+      }
+    }
+    return accounts;
+  }
+
+  /**
+   * Trie of the current accounts of this snapshot. Once sealed, the trie is computed only once.
+   *
+   * @return trie of the current accounts of this snapshot.
+   */
+  private PersistentMerklePatriciaTrie trie() {
+    if (this.sealed) {
+      return this.trie;
+    }
+    return this.applyChanges();
+  }
+
+  /**
+   * Rehashes the paths of the accounts added since the parent snapshot.
+   *
+   * @return the trie of the parent snapshot updated with the accounts added since.
+   */
+  private PersistentMerklePatriciaTrie applyChanges() {
+    PersistentMerklePatriciaTrie updated = this.trie;
+    for (Identifier identifier : this.changedAccounts()) {
+      updated = updated.put(identifier, encoder.hashAccount(this.table.get(identifier)));
+    }
+    return updated;
   }
 }
@@ -1,36 +1,203 @@
 package state.table;
 
-import java.util.Hashtable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+import io.prometheus.client.Gauge;
+import metrics.Collector;
 import model.lightchain.Block;
 import model.lightchain.Identifier;
+import modules.cache.MemoryConsumer;
+import state.ChangeSet;
 import state.Snapshot;
+import state.SnapshotDelta;
+import state.columnar.ColumnarSnapshot;
 
 /**
- * Implements a simplified hash table-based model of the protocol state.
+ * Implements a simplified hash table-based model of the protocol state. Reads never take a lock, and snapshots are
+ * published once: a table snapshot is sealed when it is added to the state.
  */
-public class TableState implements state.State {
+public class TableState implements state.State, MemoryConsumer {
+  /**
+   * Rough estimate of the heap footprint of a single account of a snapshot, i.e., its identifier, public key, last
+   * block id and the table entry that holds it.
+   */
+  private static final long ESTIMATED_ACCOUNT_BYTES = 400;
+  /**
+   * Rough estimate of the heap footprint of a snapshot excluding its accounts.
+   */
+  private static final long ESTIMATED_SNAPSHOT_BYTES = 128;
+  private static final String NAMESPACE_STATE = "state";
+  private static final String SUBSYSTEM_TABLE = "table";
+
   /**
    * Table of root block id as the key, and snapshot at the root block id as the value.
    */
-  private final Hashtable<Identifier, Snapshot> table;
+  private final ConcurrentHashMap<Identifier, Snapshot> table;
 
+  /**
+   * Index of snapshots ordered by the height of their root block. Since snapshots represent finalized blocks, there is
+   * at most one snapshot per height; if several snapshots share a height, the first one added is kept.
+   */
+  private final ConcurrentSkipListMap<Long, Snapshot> heightIndex;
+
+  /**
+   * Snapshots not indexed by height as another snapshot was added first at their height, keyed by their root block id.
+   * They are never retained as checkpoints, and are pruned once their height falls out of the recent window.
+   */
+  private final ConcurrentHashMap<Identifier, Snapshot> forks;
+
+  /**
+   * The snapshot with the greatest root block height, i.e., the tip of the finalized chain.
+   */
+  private volatile Snapshot tip;
+
+  /**
+   * Change sets of the indexed snapshots keyed by height. A change set is pruned along with its snapshot, so deltas
+   * only span heights whose snapshots are all retained.
+   */
+  private final ConcurrentSkipListMap<Long, ChangeSet> changeSets;
+
+  /**
+   * Height of every recorded change set keyed by its block id.
+   */
+  private final ConcurrentHashMap<Identifier, Long> changeSetHeights;
+
+  /**
+   * Determines which snapshots are kept as the chain grows.
+   */
+  private final RetentionPolicy policy;
+
+  /**
+   * Receives every pruned snapshot, e.g., to spill it to a secondary store; null if pruned snapshots are dropped.
+   */
+  private final Consumer<Snapshot> spill;
+
+  /**
+   * Runs pruning off the thread that adds snapshots; null if the retention policy never prunes.
+   */
+  private final ExecutorService pruner;
+
+  /**
+   * Estimated heap footprint of each retained snapshot, keyed by its root block id.
+   */
+  private final ConcurrentHashMap<Identifier, Long> estimatedBytes;
+  private final AtomicLong retainedBytes;
+
+  /**
+   * Heights below this watermark have already been examined by the pruner.
+   */
+  private long prunedUpTo;
+
+  private final Gauge retainedSnapshotsGauge;
+  private final Gauge retainedBytesGauge;
+
+  /**
+   * Constructor of TableState that retains every snapshot.
+   */
   public TableState() {
-    this.table = new Hashtable<>();
+    this(RetentionPolicy.KEEP_ALL);
+  }
+
+  /**
+   * Constructor of TableState with the given retention policy, pruned snapshots are dropped.
+   *
+   * @param policy determines which snapshots are kept as the chain grows.
+   */
+  public TableState(RetentionPolicy policy) {
+    this(policy, null, null);
   }
 
   /**
-   * Adds snapshot to state.
+   * Constructor of TableState.
+   *
+   * @param policy    determines which snapshots are kept as the chain grows.
+   * @param spill     receives every pruned snapshot on the pruning thread, or null if pruned snapshots are dropped.
+   * @param collector metrics collector to report retained snapshots and bytes on, or null to disable metrics.
+   */
+  public TableState(RetentionPolicy policy, Consumer<Snapshot> spill, Collector collector) {
+    this.table = new ConcurrentHashMap<>();
+    this.heightIndex = new ConcurrentSkipListMap<>();
+    this.forks = new ConcurrentHashMap<>();
+    this.changeSets = new ConcurrentSkipListMap<>();
+    this.changeSetHeights = new ConcurrentHashMap<>();
+    this.policy = policy;
+    this.spill = spill;
+    this.estimatedBytes = new ConcurrentHashMap<>();
+    this.retainedBytes = new AtomicLong();
+    this.prunedUpTo = 0;
+
+    if (policy.prunes()) {
+      this.pruner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "state-pruner");
+        t.setDaemon(true);
+        return t;
+      });
+    } else {
+      this.pruner = null;
+    }
+
+    if (collector != null) {
+      this.retainedSnapshotsGauge = collector.gauge().register("retained_snapshots",
+          NAMESPACE_STATE, SUBSYSTEM_TABLE, "Number of snapshots retained in memory");
+      this.retainedBytesGauge = collector.gauge().register("retained_bytes",
+          NAMESPACE_STATE, SUBSYSTEM_TABLE, "Estimated heap bytes of snapshots retained in memory");
+    } else {
+      this.retainedSnapshotsGauge = null;
+      this.retainedBytesGauge = null;
+    }
+  }
+
+  /**
+   * Adds snapshot to state. Table and columnar snapshots are sealed before they are published; any other snapshot is
+   * expected to be immutable once added, as readers access it without a lock.
    *
    * @param blockId  identifier of block representing snapshot.
    * @param snapshot the snapshot associated with block
    * @throws IllegalStateException if a snapshot is already associated with block id.
    */
-  public void addSnapshot(Identifier blockId, Snapshot snapshot) throws IllegalStateException {
-    if (this.table.get(blockId) != null) {
+  public synchronized void addSnapshot(Identifier blockId, Snapshot snapshot) throws IllegalStateException {
+    if (this.table.containsKey(blockId)) {
       throw new IllegalStateException("a snapshot for block id already exists: " + blockId.toString());
     }
+    // seals before publishing, so that readers never observe a snapshot whose accounts still change.
+    if (snapshot instanceof TableSnapshot) {
+      ((TableSnapshot) snapshot).seal();
+    } else if (snapshot instanceof ColumnarSnapshot) {
+      ((ColumnarSnapshot) snapshot).seal();
+    }
     this.table.put(blockId, snapshot);
+    long height = snapshot.getReferenceBlockHeight();
+    if (this.heightIndex.putIfAbsent(height, snapshot) == null) {
+      ChangeSet changeSet = snapshot.changeSet();
+      if (changeSet != null) {
+        this.changeSets.put(height, changeSet);
+        this.changeSetHeights.put(blockId, height);
+      }
+    } else {
+      this.forks.put(blockId, snapshot);
+    }
+
+    long bytes = estimateBytes(snapshot);
+    this.estimatedBytes.put(blockId, bytes);
+    this.retainedBytes.addAndGet(bytes);
+    this.updateMetrics();
+
+    Snapshot current = this.tip;
+    if (current == null || snapshot.getReferenceBlockHeight() > current.getReferenceBlockHeight()) {
+      this.tip = snapshot;
+      if (this.pruner != null) {
+        this.pruner.execute(this::prune);
+      }
+    }
   }
 
   /**
@@ -52,20 +219,246 @@ public class TableState implements state.State {
    */
   @Override
   public Snapshot last() {
-    Identifier lastBlockId = null;
-    long maxHeight = 0L;
-    // TODO: this linear search can be optimized further.
-    for (Snapshot snapshot : this.table.values()) {
-      if (snapshot.getReferenceBlockHeight() > maxHeight) {
-        lastBlockId = snapshot.getReferenceBlockId();
-        maxHeight = snapshot.getReferenceBlockHeight();
+    return this.tip;
+  }
+
+  /**
+   * Fetches snapshot at the given height of the finalized chain.
+   *
+   * @param height height of the reference block of the snapshot.
+   * @return the snapshot at the given height, or null if such snapshot does not exist.
+   */
+  @Override
+  public Snapshot atHeight(long height) {
+    return this.heightIndex.get(height);
+  }
+
+  /**
+   * Fetches the snapshots whose reference block heights fall within the given range.
+   *
+   * @param from lowest height of the range (inclusive).
+   * @param to   highest height of the range (inclusive).
+   * @return list of snapshots within the range ordered by their reference block height, or an empty list if no
+   * snapshot falls within the range.
+   */
+  @Override
+  public ArrayList<Snapshot> range(long from, long to) {
+    if (from > to) {
+      return new ArrayList<>();
+    }
+    return new ArrayList<>(this.heightIndex.subMap(from, true, to, true).values());
+  }
+
+  /**
+   * Fetches the accounts changed between two snapshots of the finalized chain, based on the change sets recorded for
+   * the blocks in between. Change sets are pruned along with their snapshots, so both snapshots and every height in
+   * between must still be retained.
+   *
+   * @param fromBlockId identifier of the block of the earlier snapshot.
+   * @param toBlockId   identifier of the block of the later snapshot.
+   * @return the accounts changed from the earlier snapshot to the later one.
+   * @throws IllegalArgumentException if the later snapshot or the change sets in between are not available, e.g.,
+   *                                  as they have been pruned, or the snapshots are not on the same chain.
+   */
+  @Override
+  public SnapshotDelta delta(Identifier fromBlockId, Identifier toBlockId) throws IllegalArgumentException {
+    Snapshot to = this.table.get(toBlockId);
+    if (to == null) {
+      throw new IllegalArgumentException("no snapshot for block id: " + toBlockId);
+    }
+    Long fromHeight = this.changeSetHeights.get(fromBlockId);
+    if (fromHeight == null) {
+      throw new IllegalArgumentException("no change set for block id, it is unknown or has been pruned: "
+          + fromBlockId);
+    }
+    long toHeight = to.getReferenceBlockHeight();
+    ArrayList<ChangeSet> between = new ArrayList<>();
+    if (fromHeight < toHeight) {
+      between.addAll(this.changeSets.subMap(fromHeight, false, toHeight, true).values());
+      if (between.size() != toHeight - fromHeight) {
+        throw new IllegalArgumentException("change sets between heights " + fromHeight + " and " + toHeight
+            + " have been pruned");
       }
     }
-    return this.table.get(lastBlockId);
+    return SnapshotDelta.between(fromBlockId, fromHeight, to, between);
   }
 
   @Override
   public Snapshot execute(Block block) throws IllegalStateException {
     return null;
   }
+
+  /**
+   * Number of snapshots currently retained in memory.
+   *
+   * @return number of snapshots currently retained in memory.
+   */
+  public int retainedSnapshots() {
+    return this.table.size();
+  }
+
+  /**
+   * Estimated heap footprint of the snapshots currently retained in memory.
+   *
+   * @return estimated heap footprint of the retained snapshots in bytes.
+   */
+  public long retainedBytes() {
+    return this.retainedBytes.get();
+  }
+
+  /**
+   * Estimated heap footprint of the retained snapshots, so that a memory budget accounts for them.
+   *
+   * @return estimated heap footprint of the retained snapshots in bytes.
+   */
+  @Override
+  public long estimatedBytes() {
+    return this.retainedBytes.get();
+  }
+
+  /**
+   * Evicts the snapshots that are no longer retained but not pruned yet, i.e., those the retention policy gave up
+   * since the last pruning and those not indexed by height as another snapshot was added first at their height, from
+   * the lowest height, until the estimated footprint is at most the given size. Snapshots retained by the policy are
+   * never evicted, so the state may stay above the given size; the budget then takes its share from other consumers.
+   *
+   * @param targetBytes the estimated size in bytes to shrink to.
+   * @return the estimated bytes evicted.
+   */
+  @Override
+  public synchronized long shrinkTo(long targetBytes) {
+    Snapshot current = this.tip;
+    if (current == null || this.retainedBytes.get() <= targetBytes) {
+      return 0;
+    }
+    long tipHeight = current.getReferenceBlockHeight();
+    ArrayList<Map.Entry<Identifier, Snapshot>> evictable = new ArrayList<>();
+    for (Map.Entry<Identifier, Snapshot> entry : this.table.entrySet()) {
+      Snapshot snapshot = entry.getValue();
+      long height = snapshot.getReferenceBlockHeight();
+      if (snapshot != current
+          && (this.heightIndex.get(height) != snapshot || !this.policy.retains(height, tipHeight))) {
+        evictable.add(entry);
+      }
+    }
+    evictable.sort(Comparator.comparingLong(entry -> entry.getValue().getReferenceBlockHeight()));
+
+    long evicted = 0;
+    for (Map.Entry<Identifier, Snapshot> entry : evictable) {
+      if (this.retainedBytes.get() <= targetBytes) {
+        break;
+      }
+      evicted += this.evict(entry.getKey(), entry.getValue());
+    }
+    this.updateMetrics();
+    return evicted;
+  }
+
+  /**
+   * Blocks until every pruning scheduled so far is done.
+   *
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public void awaitPruning() throws InterruptedException {
+    if (this.pruner == null) {
+      return;
+    }
+    try {
+      this.pruner.submit(() -> {
+      }).get();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("pruning failed", e);
+    }
+  }
+
+  /**
+   * Stops the pruning thread, snapshots added afterwards are no longer pruned.
+   */
+  public void shutdown() {
+    if (this.pruner != null) {
+      this.pruner.shutdown();
+    }
+  }
+
+  /**
+   * Removes the snapshots that fell out of the retention window since the last pruning, along with the checkpoints
+   * that are no longer among the most recent ones, the forks below the window, and the change sets of the removed
+   * snapshots. Snapshots are removed one at a time, so readers only ever contend with a single removal rather than
+   * the whole pass.
+   */
+  private void prune() {
+    long tipHeight = this.tip.getReferenceBlockHeight();
+    long windowStart = this.policy.windowStart(tipHeight);
+    if (windowStart <= this.prunedUpTo) {
+      return;
+    }
+
+    // below the watermark only the retained checkpoints are left, so the pass visits at most that many of them.
+    for (Map.Entry<Long, Snapshot> entry : this.heightIndex.headMap(windowStart).entrySet()) {
+      if (this.policy.retains(entry.getKey(), tipHeight)) {
+        continue;
+      }
+      Snapshot snapshot = entry.getValue();
+      this.evict(snapshot.getReferenceBlockId(), snapshot);
+    }
+    // forks are not indexed by height, and may be added below the watermark, so each pass visits all of them.
+    for (Map.Entry<Identifier, Snapshot> entry : this.forks.entrySet()) {
+      if (entry.getValue().getReferenceBlockHeight() < windowStart) {
+        this.evict(entry.getKey(), entry.getValue());
+      }
+    }
+    this.prunedUpTo = windowStart;
+    this.updateMetrics();
+  }
+
+  /**
+   * Removes a snapshot along with its height index entry and change set, and hands it to the spill. A snapshot that
+   * the pruner and the memory budget both evict is only removed and spilled by the first of them.
+   *
+   * @param blockId  identifier of the block of the snapshot.
+   * @param snapshot the snapshot to remove.
+   * @return the estimated bytes of the removed snapshot, or zero if it was already removed.
+   */
+  private long evict(Identifier blockId, Snapshot snapshot) {
+    if (!this.table.remove(blockId, snapshot)) {
+      return 0;
+    }
+    Long height = this.changeSetHeights.remove(blockId);
+    if (height != null) {
+      this.changeSets.remove(height);
+    }
+    this.heightIndex.remove(snapshot.getReferenceBlockHeight(), snapshot);
+    this.forks.remove(blockId, snapshot);
+    Long bytes = this.estimatedBytes.remove(blockId);
+    if (bytes == null) {
+      bytes = 0L;
+    }
+    this.retainedBytes.addAndGet(-bytes);
+    if (this.spill != null) {
+      this.spill.accept(snapshot);
+    }
+    return bytes;
+  }
+
+  private void updateMetrics() {
+    if (this.retainedSnapshotsGauge != null) {
+      this.retainedSnapshotsGauge.set(this.table.size());
+      this.retainedBytesGauge.set(this.retainedBytes.get());
+    }
+  }
+
+  /**
+   * Estimates the heap footprint of a snapshot based on its number of accounts. The accounts of a columnar snapshot
+   * are kept off heap, and do not count.
+   *
+   * @param snapshot the snapshot to estimate.
+   * @return estimated heap footprint of the snapshot in bytes.
+   */
+  private static long estimateBytes(Snapshot snapshot) {
+    if (snapshot instanceof ColumnarSnapshot) {
+      return ESTIMATED_SNAPSHOT_BYTES;
+    }
+    int accounts = snapshot instanceof TableSnapshot ? ((TableSnapshot) snapshot).size() : snapshot.all().size();
+    return ESTIMATED_SNAPSHOT_BYTES + ESTIMATED_ACCOUNT_BYTES * accounts;
+  }
 }
@@ -0,0 +1,91 @@
+package storage;
+
+import java.util.ArrayList;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+
+/**
+ * Secondary index of the transactions of each account, as a sender or a receiver, ordered by the height of their
+ * block. The index is maintained incrementally, i.e., a block is indexed when it is stored and unindexed when it is
+ * removed, so that the history of an account is queried in pages without scanning the chain.
+ */
+public interface AccountHistory {
+  /**
+   * Indexes the transactions of the given block under their sender and receiver accounts.
+   *
+   * @param block the block to index.
+   * @return true if the block added any entry to the index, false if all of its transactions were already indexed.
+   */
+  boolean index(Block block);
+
+  /**
+   * Removes the transactions of the given block from the index.
+   *
+   * @param block the block to unindex.
+   * @return true if the block removed any entry from the index, false otherwise.
+   */
+  boolean unindex(Block block);
+
+  /**
+   * Returns a page of the history of an account, oldest first.
+   *
+   * @param account  identifier of the account.
+   * @param after    last entry of the previous page (exclusive), or null to start from the oldest entry.
+   * @param pageSize maximum number of entries in the page.
+   * @return the entries of the page, at most pageSize of them.
+   */
+  ArrayList<Entry> page(Identifier account, Entry after, int pageSize);
+
+  /**
+   * Returns a page of the history of an account, newest first.
+   *
+   * @param account  identifier of the account.
+   * @param before   last entry of the previous page (exclusive), or null to start from the newest entry.
+   * @param pageSize maximum number of entries in the page.
+   * @return the entries of the page, at most pageSize of them.
+   */
+  ArrayList<Entry> pageDescending(Identifier account, Entry before, int pageSize);
+
+  /**
+   * An entry of the history of an account, i.e., a transaction the account sent or received, and the height of the
+   * block that carries it.
+   */
+  final class Entry {
+    private final long height;
+    private final Identifier transactionId;
+    private final boolean sent;
+    private final boolean received;
+
+    /**
+     * Constructor of an Entry.
+     *
+     * @param height        height of the block that carries the transaction.
+     * @param transactionId identifier of the transaction.
+     * @param sent          true if the account is the sender of the transaction.
+     * @param received      true if the account is the receiver of the transaction.
+     */
+    public Entry(long height, Identifier transactionId, boolean sent, boolean received) {
+      this.height = height;
+      this.transactionId = transactionId;
+      this.sent = sent;
+      this.received = received;
+    }
+
+    public long getHeight() {
+      return height;
+    }
+
+    public Identifier getTransactionId() {
+      return transactionId;
+    }
+
+    public boolean isSent() {
+      return sent;
+    }
+
+    public boolean isReceived() {
+      return received;
+    }
+  }
+}
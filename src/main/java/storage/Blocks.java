@@ -1,6 +1,9 @@
 package storage;
 
 import java.util.ArrayList;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import model.lightchain.Block;
 import model.lightchain.Identifier;
@@ -57,4 +60,26 @@ public interface Blocks {
    * @return all stored blocks in database.
    */
   ArrayList<Block> all();
+
+  /**
+   * Streams all blocks stored in database. Unlike all(), implementations may decode one block at a time, so that a
+   * scan takes constant memory and stops reading as soon as the stream is short-circuited.
+   *
+   * @return stream of all stored blocks in database.
+   */
+  default Stream<Block> stream() {
+    return this.all().stream();
+  }
+
+  /**
+   * Streams the blocks at the given range of heights in ascending order of height, i.e., the block that atHeight
+   * returns for each height of the range that has one.
+   *
+   * @param fromHeight lowest height of the range (inclusive).
+   * @param toHeight   highest height of the range (exclusive).
+   * @return stream of the blocks at the range of heights.
+   */
+  default Stream<Block> stream(int fromHeight, int toHeight) {
+    return IntStream.range(Math.max(fromHeight, 0), toHeight).mapToObj(this::atHeight).filter(Objects::nonNull);
+  }
 }
@@ -1,6 +1,7 @@
 package storage;
 
 import java.util.ArrayList;
+import java.util.stream.Stream;
 
 import model.Entity;
 import model.lightchain.Block;
@@ -51,4 +52,27 @@ public interface Distributed {
    * @return all stored entities in database.
    */
   ArrayList<Entity> all();
+
+  /**
+   * Streams all entities stored in database. Unlike all(), implementations may read one entity at a time, so that a
+   * scan takes constant memory and stops reading as soon as the stream is short-circuited.
+   *
+   * @return stream of all stored entities in database.
+   */
+  default Stream<Entity> stream() {
+    return this.all().stream();
+  }
+
+  /**
+   * Streams the stored entities whose identifiers are within the given bounds, which follow the order of
+   * Identifier.comparedTo. The stream itself is in no particular order, as the storage may be a hash table; callers
+   * that need the entities ordered sort them.
+   *
+   * @param from lower bound (inclusive), or null for no lower bound.
+   * @param to   upper bound (exclusive), or null for no upper bound.
+   * @return stream of the stored entities within the bounds, in no particular order.
+   */
+  default Stream<Entity> stream(Identifier from, Identifier to) {
+    return this.stream().filter(e -> e.id().isWithin(from, to));
+  }
 }
@@ -1,6 +1,8 @@
 package storage;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.stream.Stream;
 
 import model.lightchain.Identifier;
 
@@ -38,4 +40,61 @@ public interface Identifiers {
    * @return all stored identifiers on storage.
    */
   ArrayList<Identifier> all();
+
+  /**
+   * Adds a batch of identifiers to the storage. Implementations may apply the batch at once, e.g., under a single
+   * lock acquisition and commit, rather than one identifier at a time.
+   *
+   * @param identifiers identifiers to be added to storage.
+   * @return number of identifiers that were new.
+   */
+  default int addAll(Collection<Identifier> identifiers) {
+    int added = 0;
+    for (Identifier identifier : identifiers) {
+      if (this.add(identifier)) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Removes a batch of identifiers from the storage. Implementations may apply the batch at once, e.g., under a
+   * single lock acquisition and commit, rather than one identifier at a time.
+   *
+   * @param identifiers identifiers to be removed.
+   * @return number of identifiers that existed and were removed.
+   */
+  default int removeAll(Collection<Identifier> identifiers) {
+    int removed = 0;
+    for (Identifier identifier : identifiers) {
+      if (this.remove(identifier)) {
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Streams all stored identifiers on storage. Unlike all(), implementations may read one identifier at a time, so
+   * that a scan takes constant memory and stops reading as soon as the stream is short-circuited.
+   *
+   * @return stream of all stored identifiers on storage.
+   */
+  default Stream<Identifier> stream() {
+    return this.all().stream();
+  }
+
+  /**
+   * Streams the stored identifiers within the given bounds, which follow the order of Identifier.comparedTo. The
+   * stream itself is in no particular order, as the storage may be a hash table; callers that need the identifiers
+   * ordered sort them.
+   *
+   * @param from lower bound (inclusive), or null for no lower bound.
+   * @param to   upper bound (exclusive), or null for no upper bound.
+   * @return stream of the stored identifiers within the bounds, in no particular order.
+   */
+  default Stream<Identifier> stream(Identifier from, Identifier to) {
+    return this.stream().filter(identifier -> identifier.isWithin(from, to));
+  }
 }
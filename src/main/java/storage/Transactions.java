@@ -1,6 +1,7 @@
 package storage;
 
 import java.util.ArrayList;
+import java.util.stream.Stream;
 
 import model.lightchain.Identifier;
 import model.lightchain.Transaction;
@@ -56,4 +57,27 @@ public interface Transactions {
    * @return the size of all transactions stored in database.
    */
   int size();
+
+  /**
+   * Streams all stored transactions on storage. Unlike all(), implementations may read one transaction at a time, so
+   * that a scan takes constant memory and stops reading as soon as the stream is short-circuited.
+   *
+   * @return stream of all stored transactions on storage.
+   */
+  default Stream<Transaction> stream() {
+    return this.all().stream();
+  }
+
+  /**
+   * Streams the stored transactions whose identifiers are within the given bounds, which follow the order of
+   * Identifier.comparedTo. The stream itself is in no particular order, as the storage may be a hash table; callers
+   * that need the transactions ordered sort them.
+   *
+   * @param from lower bound (inclusive), or null for no lower bound.
+   * @param to   upper bound (exclusive), or null for no upper bound.
+   * @return stream of the stored transactions within the bounds, in no particular order.
+   */
+  default Stream<Transaction> stream(Identifier from, Identifier to) {
+    return this.stream().filter(transaction -> transaction.id().isWithin(from, to));
+  }
 }
\ No newline at end of file
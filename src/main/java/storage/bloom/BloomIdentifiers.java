@@ -0,0 +1,217 @@
+package storage.bloom;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import metrics.Collector;
+import model.lightchain.Identifier;
+import storage.Identifiers;
+
+/**
+ * Decorates an identifiers storage with an in-memory scalable Bloom filter of its identifiers. Since most lookups of
+ * seen entities are for new entities, most of them are answered by the filter alone, and only a possible hit goes to
+ * the backing storage.
+ *
+ * <p>The filter never forgets an identifier, so removing identifiers only adds to the false positives, which are still
+ * resolved by the backing storage.
+ */
+public class BloomIdentifiers implements Identifiers {
+  /**
+   * Default number of identifiers the filter holds before it scales.
+   */
+  public static final int DEFAULT_EXPECTED_INSERTIONS = 100_000;
+
+  /**
+   * Default upper bound on the false-positive rate of the filter.
+   */
+  public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+  /**
+   * Default subsystem the metrics of the filter are reported under.
+   */
+  public static final String DEFAULT_SUBSYSTEM = "bloom";
+  private static final String NAMESPACE_STORAGE = "storage";
+
+  private final Identifiers backing;
+  private final ScalableBloomFilter filter;
+  private final AtomicLong lookupsSaved;
+  private final AtomicLong falsePositives;
+  private final Counter lookupsSavedCounter;
+  private final Counter falsePositivesCounter;
+  private final Gauge falsePositiveRateGauge;
+
+  /**
+   * Constructor of BloomIdentifiers with the default filter settings, and metrics disabled.
+   *
+   * @param backing the identifiers storage to decorate.
+   */
+  public BloomIdentifiers(Identifiers backing) {
+    this(backing, DEFAULT_EXPECTED_INSERTIONS, DEFAULT_FALSE_POSITIVE_RATE, null, DEFAULT_SUBSYSTEM);
+  }
+
+  /**
+   * Constructor of BloomIdentifiers. The filter is filled with the identifiers already in the backing storage.
+   *
+   * @param backing            the identifiers storage to decorate.
+   * @param expectedInsertions number of identifiers the filter holds before it scales.
+   * @param falsePositiveRate  upper bound on the false-positive rate of the filter.
+   * @param collector          metrics collector to report the saved lookups and false positives on, or null to
+   *                           disable metrics.
+   * @param subsystem          subsystem the metrics are reported under, distinct for every filter reporting on the
+   *                           same collector, e.g., seen_entities_bloom.
+   * @throws IllegalArgumentException if the filter settings are out of range, or the metrics of the subsystem are
+   *                                  already registered.
+   */
+  public BloomIdentifiers(Identifiers backing, int expectedInsertions, double falsePositiveRate, Collector collector,
+                          String subsystem) throws IllegalArgumentException {
+    this.backing = backing;
+    this.filter = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+    this.lookupsSaved = new AtomicLong();
+    this.falsePositives = new AtomicLong();
+    backing.stream().forEach(identifier -> this.filter.put(identifier.getBytes()));
+
+    if (collector != null) {
+      this.lookupsSavedCounter = collector.counter().register("lookups_saved",
+          NAMESPACE_STORAGE, subsystem, "Number of identifier lookups answered by the Bloom filter alone");
+      this.falsePositivesCounter = collector.counter().register("false_positives",
+          NAMESPACE_STORAGE, subsystem, "Number of possible hits of the Bloom filter missed by the storage");
+      this.falsePositiveRateGauge = collector.gauge().register("false_positive_rate",
+          NAMESPACE_STORAGE, subsystem, "Ratio of lookups of absent identifiers that went to the storage");
+    } else {
+      this.lookupsSavedCounter = null;
+      this.falsePositivesCounter = null;
+      this.falsePositiveRateGauge = null;
+    }
+  }
+
+  /**
+   * Adds an identifier to the storage, returns true if it is new, false if it already exists. The identifier enters
+   * the filter before the storage, so that a concurrent lookup never misses it.
+   *
+   * @param identifier identifier to be added to storage.
+   * @return true if it is new, false if it already exists.
+   */
+  @Override
+  public boolean add(Identifier identifier) {
+    this.filter.put(identifier.getBytes());
+    return this.backing.add(identifier);
+  }
+
+  /**
+   * Adds a batch of identifiers to the storage; the identifiers enter the filter before the storage.
+   *
+   * @param identifiers identifiers to be added to storage.
+   * @return number of identifiers that were new.
+   */
+  @Override
+  public int addAll(Collection<Identifier> identifiers) {
+    for (Identifier identifier : identifiers) {
+      this.filter.put(identifier.getBytes());
+    }
+    return this.backing.addAll(identifiers);
+  }
+
+  /**
+   * Checks existence of an identifier, going to the backing storage only if the filter reports a possible hit.
+   *
+   * @param identifier identifier to be checked.
+   * @return true if identifier exists on the storage, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier identifier) {
+    boolean has = false;
+    if (!this.filter.mightContain(identifier.getBytes())) {
+      this.lookupsSaved.incrementAndGet();
+      if (this.lookupsSavedCounter != null) {
+        this.lookupsSavedCounter.inc();
+      }
+    } else {
+      has = this.backing.has(identifier);
+      if (!has) {
+        this.falsePositives.incrementAndGet();
+        if (this.falsePositivesCounter != null) {
+          this.falsePositivesCounter.inc();
+        }
+      }
+    }
+    // the rate drops with every saved lookup as well, so it is refreshed on every lookup rather than on misses alone.
+    if (this.falsePositiveRateGauge != null) {
+      this.falsePositiveRateGauge.set(this.falsePositiveRate());
+    }
+    return has;
+  }
+
+  /**
+   * Removes an identifier from the storage; the filter keeps reporting it as a possible hit.
+   *
+   * @param identifier identifier to be removed.
+   * @return true if identifier exists and removed, false otherwise.
+   */
+  @Override
+  public boolean remove(Identifier identifier) {
+    return this.backing.remove(identifier);
+  }
+
+  /**
+   * Removes a batch of identifiers from the storage; the filter keeps reporting them as possible hits.
+   *
+   * @param identifiers identifiers to be removed.
+   * @return number of identifiers that existed and were removed.
+   */
+  @Override
+  public int removeAll(Collection<Identifier> identifiers) {
+    return this.backing.removeAll(identifiers);
+  }
+
+  /**
+   * Returns all stored identifiers on storage.
+   *
+   * @return all stored identifiers on storage.
+   */
+  @Override
+  public ArrayList<Identifier> all() {
+    return this.backing.all();
+  }
+
+  /**
+   * Streams all stored identifiers on storage.
+   *
+   * @return stream of all stored identifiers on storage.
+   */
+  @Override
+  public Stream<Identifier> stream() {
+    return this.backing.stream();
+  }
+
+  /**
+   * Number of lookups answered by the filter alone, i.e., the lookups saved on the backing storage.
+   *
+   * @return number of saved lookups.
+   */
+  public long lookupsSaved() {
+    return this.lookupsSaved.get();
+  }
+
+  /**
+   * Number of possible hits of the filter that the backing storage did not hold.
+   *
+   * @return number of false positives.
+   */
+  public long falsePositives() {
+    return this.falsePositives.get();
+  }
+
+  /**
+   * Observed false-positive rate, i.e., the ratio of lookups of absent identifiers that went to the backing storage.
+   *
+   * @return observed false-positive rate, or zero if no absent identifier has been looked up.
+   */
+  public double falsePositiveRate() {
+    long falsePositives = this.falsePositives.get();
+    long negatives = falsePositives + this.lookupsSaved.get();
+    return negatives == 0 ? 0 : (double) falsePositives / negatives;
+  }
+}
@@ -0,0 +1,215 @@
+package storage.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Implements a scalable Bloom filter over byte keys, i.e., a series of Bloom filters where a new, larger filter is
+ * started whenever the current one is full. Each filter doubles the capacity of the previous one and halves its
+ * false-positive rate, so that the compound false-positive rate stays below the configured rate no matter how many
+ * keys are added. Adding and checking keys are lock-free; only starting a new filter takes a lock.
+ */
+public class ScalableBloomFilter {
+  /**
+   * Ratio by which the false-positive rate of each filter tightens over the previous one.
+   */
+  private static final double TIGHTENING_RATIO = 0.5;
+  private static final double LN2 = Math.log(2);
+
+  /**
+   * The filters of this series, oldest first; replaced as a whole when a new filter is started.
+   */
+  private volatile Stage[] stages;
+
+  /**
+   * Constructor of ScalableBloomFilter.
+   *
+   * @param initialCapacity   number of keys the first filter holds before a new one is started.
+   * @param falsePositiveRate upper bound on the compound false-positive rate, between zero and one (exclusive).
+   * @throws IllegalArgumentException if the capacity is not positive or the rate is out of range.
+   */
+  public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) throws IllegalArgumentException {
+    if (initialCapacity <= 0) {
+      throw new IllegalArgumentException("initial capacity must be positive, got: " + initialCapacity);
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("false positive rate must be in (0, 1), got: " + falsePositiveRate);
+    }
+    // the rates of the filters form a geometric series that sums up to the given rate.
+    this.stages = new Stage[]{new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+  }
+
+  /**
+   * Adds a key to the filter, unless the filter already reports it as a possible hit. Such a key would only set bits
+   * that are already set, while counting towards the capacity of the newest filter and making it scale early.
+   *
+   * @param key the key to add.
+   * @return true if the key was added, false if the filter already reported it as a possible hit.
+   */
+  public boolean put(byte[] key) {
+    long h1 = hash(key, 0x9E3779B97F4A7C15L);
+    long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+    Stage[] current = this.stages;
+    if (mightContain(current, h1, h2)) {
+      return false;
+    }
+    Stage last = current[current.length - 1];
+    if (last.count.incrementAndGet() > last.capacity) {
+      last = this.grow(current);
+      last.count.incrementAndGet();
+    }
+    last.put(h1, h2);
+    return true;
+  }
+
+  /**
+   * Checks whether a key may have been added to the filter. A false answer is always right, while a true answer is
+   * wrong with a probability bounded by the false-positive rate of the filter.
+   *
+   * @param key the key to check.
+   * @return false if the key was never added, true if it may have been.
+   */
+  public boolean mightContain(byte[] key) {
+    long h1 = hash(key, 0x9E3779B97F4A7C15L);
+    long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+    return mightContain(this.stages, h1, h2);
+  }
+
+  /**
+   * Number of filters in the series.
+   *
+   * @return number of filters.
+   */
+  public int stages() {
+    return this.stages.length;
+  }
+
+  /**
+   * Number of bits allocated by all filters of the series.
+   *
+   * @return number of allocated bits.
+   */
+  public long bits() {
+    long bits = 0;
+    for (Stage stage : this.stages) {
+      bits += stage.bits;
+    }
+    return bits;
+  }
+
+  /**
+   * Starts a new filter, unless another thread already started one since the given series was read.
+   *
+   * @param seen the series as read by the caller.
+   * @return the newest filter.
+   */
+  private synchronized Stage grow(Stage[] seen) {
+    Stage[] current = this.stages;
+    if (current != seen) {
+      return current[current.length - 1];
+    }
+    Stage last = current[current.length - 1];
+    Stage[] grown = new Stage[current.length + 1];
+    System.arraycopy(current, 0, grown, 0, current.length);
+    grown[current.length] = new Stage(last.capacity * 2, last.falsePositiveRate * TIGHTENING_RATIO);
+    this.stages = grown;
+    return grown[current.length];
+  }
+
+  /**
+   * Checks whether any filter of the given series reports the hashes of a key as a possible hit.
+   *
+   * @param stages the series of filters.
+   * @param h1     first hash of the key.
+   * @param h2     second hash of the key.
+   * @return true if any filter reports a possible hit, false otherwise.
+   */
+  private static boolean mightContain(Stage[] stages, long h1, long h2) {
+    for (Stage stage : stages) {
+      if (stage.mightContain(h1, h2)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Hashes a key into 64 bits, mixing in 8 bytes at a time.
+   *
+   * @param key  the key to hash.
+   * @param seed seed of the hash.
+   * @return hash of the key.
+   */
+  private static long hash(byte[] key, long seed) {
+    long h = seed ^ key.length;
+    long chunk = 0;
+    for (int i = 0; i < key.length; i++) {
+      chunk = (chunk << 8) | (key[i] & 0xFF);
+      if ((i & 7) == 7 || i == key.length - 1) {
+        h = mix(h ^ chunk) + seed;
+        chunk = 0;
+      }
+    }
+    return mix(h);
+  }
+
+  /**
+   * Finalizer of the 64-bit MurmurHash3, which spreads every input bit over the output bits.
+   *
+   * @param h value to mix.
+   * @return mixed value.
+   */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * A single Bloom filter sized for its capacity and false-positive rate. Bit positions are derived by double hashing.
+   */
+  private static final class Stage {
+    private final long capacity;
+    private final double falsePositiveRate;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLongArray words;
+    private final AtomicLong count;
+
+    private Stage(long capacity, double falsePositiveRate) {
+      this.capacity = capacity;
+      this.falsePositiveRate = falsePositiveRate;
+      long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+      // rounds up to whole words, and keeps the words addressable by an int.
+      this.bits = Math.min(Math.max(64, (optimalBits + 63) / 64 * 64), (long) Integer.MAX_VALUE * 64);
+      this.hashes = Math.max(1, (int) Math.round((double) this.bits / capacity * LN2));
+      this.words = new AtomicLongArray((int) (this.bits / 64));
+      this.count = new AtomicLong();
+    }
+
+    private void put(long h1, long h2) {
+      for (int i = 0; i < this.hashes; i++) {
+        long bit = Math.floorMod(h1 + i * h2, this.bits);
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current = this.words.get(word);
+        while ((current & mask) == 0 && !this.words.compareAndSet(word, current, current | mask)) {
+          current = this.words.get(word);
+        }
+      }
+    }
+
+    private boolean mightContain(long h1, long h2) {
+      for (int i = 0; i < this.hashes; i++) {
+        long bit = Math.floorMod(h1 + i * h2, this.bits);
+        if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,349 @@
+package storage.cache;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import metrics.Collector;
+import model.crypto.Signature;
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import model.lightchain.ValidatedTransaction;
+import modules.cache.LruCache;
+import modules.cache.MemoryConsumer;
+import storage.Blocks;
+
+/**
+ * Decorates a blocks storage with a least-recently-used cache of decoded blocks, bounded by their estimated size in
+ * bytes. Validators mostly read recent blocks, e.g., the parent of a block under validation or the block at the new
+ * height, so that most reads are served without decoding the block again.
+ *
+ * <p>Lookups by height go through a small index from heights to identifiers, so that a cached block is found by its
+ * height as well as by its identifier.
+ */
+public class CachedBlocks implements Blocks, MemoryConsumer {
+  /**
+   * Default maximum estimated size in bytes of the cached blocks.
+   */
+  public static final long DEFAULT_CAPACITY_BYTES = 64L * 1024 * 1024;
+
+  /**
+   * Maximum number of heights indexed to the identifier of their block.
+   */
+  private static final long HEIGHT_INDEX_CAPACITY = 4096;
+
+  /**
+   * Estimated bytes of an object header plus its primitive fields and references.
+   */
+  private static final long OBJECT_OVERHEAD = 48;
+
+  /**
+   * Estimated bytes of an identifier, i.e., the object, its array header, and its value.
+   */
+  private static final long IDENTIFIER_BYTES = 2 * OBJECT_OVERHEAD + Identifier.Size;
+
+  /**
+   * Default subsystem the metrics of the cache are reported under.
+   */
+  public static final String DEFAULT_SUBSYSTEM = "block_cache";
+  private static final String NAMESPACE_STORAGE = "storage";
+
+  private final Blocks backing;
+  private final LruCache<Identifier, Block> cache;
+  private final LruCache<Integer, Identifier> heights;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final Counter hitsCounter;
+  private final Counter missesCounter;
+  private final Gauge hitRateGauge;
+  private final Gauge bytesGauge;
+
+  /**
+   * Constructor of CachedBlocks with the default capacity, and metrics disabled.
+   *
+   * @param backing the blocks storage to decorate.
+   */
+  public CachedBlocks(Blocks backing) {
+    this(backing, DEFAULT_CAPACITY_BYTES, null, DEFAULT_SUBSYSTEM);
+  }
+
+  /**
+   * Constructor of CachedBlocks.
+   *
+   * @param backing       the blocks storage to decorate.
+   * @param capacityBytes maximum estimated size in bytes of the cached blocks.
+   * @param collector     metrics collector to report the hits, misses, hit rate and size of the cache on, or null to
+   *                      disable metrics.
+   * @param subsystem     subsystem the metrics are reported under, distinct for every cache reporting on the same
+   *                      collector, e.g., proposed_block_cache.
+   * @throws IllegalArgumentException if the capacity is not positive, or the metrics of the subsystem are already
+   *                                  registered.
+   */
+  public CachedBlocks(Blocks backing, long capacityBytes, Collector collector, String subsystem)
+      throws IllegalArgumentException {
+    this.backing = backing;
+    this.cache = new LruCache<>(capacityBytes, CachedBlocks::estimateBytes);
+    this.heights = new LruCache<>(HEIGHT_INDEX_CAPACITY);
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+
+    if (collector != null) {
+      this.hitsCounter = collector.counter().register("hits",
+          NAMESPACE_STORAGE, subsystem, "Number of block reads served by the cache");
+      this.missesCounter = collector.counter().register("misses",
+          NAMESPACE_STORAGE, subsystem, "Number of block reads that went to the storage");
+      this.hitRateGauge = collector.gauge().register("hit_rate",
+          NAMESPACE_STORAGE, subsystem, "Ratio of block reads served by the cache");
+      this.bytesGauge = collector.gauge().register("bytes",
+          NAMESPACE_STORAGE, subsystem, "Estimated size in bytes of the cached blocks");
+    } else {
+      this.hitsCounter = null;
+      this.missesCounter = null;
+      this.hitRateGauge = null;
+      this.bytesGauge = null;
+    }
+  }
+
+  /**
+   * Estimates the size in bytes that a decoded block takes on the heap, i.e., the block, its identifiers, its
+   * signature, and its transactions with their certificates.
+   *
+   * @param block the block to estimate.
+   * @return estimated size of the block in bytes.
+   */
+  public static long estimateBytes(Block block) {
+    // previous block id, proposer, and the identifier computed by the entity.
+    long bytes = OBJECT_OVERHEAD + 3 * IDENTIFIER_BYTES + estimateBytes(block.getSignature());
+    ValidatedTransaction[] transactions = block.getTransactions();
+    if (transactions != null) {
+      bytes += OBJECT_OVERHEAD + 8L * transactions.length;
+      for (ValidatedTransaction transaction : transactions) {
+        // reference block id, sender, receiver, and the identifier computed by the entity.
+        bytes += OBJECT_OVERHEAD + 4 * IDENTIFIER_BYTES + estimateBytes(transaction.getSignature());
+        Signature[] certificates = transaction.getCertificates();
+        if (certificates != null) {
+          bytes += OBJECT_OVERHEAD + 8L * certificates.length;
+          for (Signature certificate : certificates) {
+            bytes += estimateBytes(certificate);
+          }
+        }
+      }
+    }
+    return bytes;
+  }
+
+  private static long estimateBytes(Signature signature) {
+    if (signature == null) {
+      return 0;
+    }
+    byte[] bytes = signature.getBytes();
+    return 2 * OBJECT_OVERHEAD + IDENTIFIER_BYTES + (bytes == null ? 0 : bytes.length);
+  }
+
+  /**
+   * Checks existence of block, on the cache first and on the backing storage otherwise.
+   *
+   * @param blockId Identifier of block.
+   * @return true if a block with that identifier exists, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier blockId) {
+    return this.cache.get(blockId) != null || this.backing.has(blockId);
+  }
+
+  /**
+   * Adds block to the backing storage, and caches it, since a new block is likely to be read soon.
+   *
+   * @param block given block to be added.
+   * @return true if block did not exist, false if block already exists.
+   */
+  @Override
+  public boolean add(Block block) {
+    if (!this.backing.add(block)) {
+      return false;
+    }
+    this.cache(block);
+    return true;
+  }
+
+  /**
+   * Removes block with given identifier from the backing storage, and then drops it from the cache, so that a
+   * concurrent read missing the cache cannot cache the block again from the backing storage.
+   *
+   * @param blockId identifier of the block.
+   * @return true if block exists and removed, false if block does not exist.
+   */
+  @Override
+  public boolean remove(Identifier blockId) {
+    boolean removed = this.backing.remove(blockId);
+    this.cache.remove(blockId);
+    return removed;
+  }
+
+  /**
+   * Returns the block with given identifier, from the cache if it is cached, otherwise decoded by the backing storage
+   * and cached.
+   *
+   * @param blockId identifier of the block.
+   * @return the block itself if exists and null otherwise.
+   */
+  @Override
+  public Block byId(Identifier blockId) {
+    Block block = this.cache.get(blockId);
+    if (block != null) {
+      this.hit();
+      return block;
+    }
+    this.miss();
+    block = this.backing.byId(blockId);
+    if (block != null) {
+      this.cache(block);
+    }
+    return block;
+  }
+
+  /**
+   * Returns the block with the given height, from the cache if it is cached, otherwise decoded by the backing storage
+   * and cached.
+   *
+   * @param height height of the block.
+   * @return the block itself if exists and null otherwise.
+   */
+  @Override
+  public Block atHeight(int height) {
+    Identifier blockId = this.heights.get(height);
+    Block block = blockId == null ? null : this.cache.get(blockId);
+    if (block != null) {
+      this.hit();
+      return block;
+    }
+    this.miss();
+    block = this.backing.atHeight(height);
+    if (block != null) {
+      this.cache(block);
+      this.heights.put(height, block.id());
+    }
+    return block;
+  }
+
+  /**
+   * Returns all blocks of the backing storage.
+   *
+   * @return all stored blocks.
+   */
+  @Override
+  public ArrayList<Block> all() {
+    return this.backing.all();
+  }
+
+  /**
+   * Streams all blocks of the backing storage; scans do not go through the cache, so that they do not evict the
+   * recent blocks.
+   *
+   * @return stream of all stored blocks.
+   */
+  @Override
+  public Stream<Block> stream() {
+    return this.backing.stream();
+  }
+
+  /**
+   * Streams the blocks of the backing storage at the given range of heights, without going through the cache.
+   *
+   * @param fromHeight lowest height of the range (inclusive).
+   * @param toHeight   highest height of the range (exclusive).
+   * @return stream of the blocks at the range of heights.
+   */
+  @Override
+  public Stream<Block> stream(int fromHeight, int toHeight) {
+    return this.backing.stream(fromHeight, toHeight);
+  }
+
+  /**
+   * Number of block reads served by the cache.
+   *
+   * @return number of cache hits so far.
+   */
+  public long hits() {
+    return this.hits.get();
+  }
+
+  /**
+   * Number of block reads that went to the backing storage.
+   *
+   * @return number of cache misses so far.
+   */
+  public long misses() {
+    return this.misses.get();
+  }
+
+  /**
+   * Fraction of block reads served by the cache.
+   *
+   * @return hit rate of the cache, or zero if no block has been read yet.
+   */
+  public double hitRate() {
+    long h = this.hits.get();
+    long total = h + this.misses.get();
+    return total == 0 ? 0 : (double) h / total;
+  }
+
+  /**
+   * Estimated size in bytes of the cached blocks.
+   *
+   * @return estimated size of the cached blocks in bytes.
+   */
+  public long cachedBytes() {
+    return this.cache.weight();
+  }
+
+  /**
+   * Estimated size in bytes of the cached blocks, as governed by a memory budget.
+   *
+   * @return estimated size of the cached blocks in bytes.
+   */
+  @Override
+  public long estimatedBytes() {
+    return this.cache.weight();
+  }
+
+  /**
+   * Evicts the least recently used blocks until the cache is at most the given size, e.g., under memory pressure.
+   *
+   * @param targetBytes the estimated size in bytes to shrink the cache to.
+   * @return the estimated bytes evicted.
+   */
+  @Override
+  public long shrinkTo(long targetBytes) {
+    long evicted = this.cache.shrinkTo(targetBytes);
+    if (this.bytesGauge != null) {
+      this.bytesGauge.set(this.cache.weight());
+    }
+    return evicted;
+  }
+
+  private void cache(Block block) {
+    this.cache.put(block.id(), block);
+    if (this.bytesGauge != null) {
+      this.bytesGauge.set(this.cache.weight());
+    }
+  }
+
+  private void hit() {
+    this.hits.incrementAndGet();
+    if (this.hitsCounter != null) {
+      this.hitsCounter.inc();
+      this.hitRateGauge.set(this.hitRate());
+    }
+  }
+
+  private void miss() {
+    this.misses.incrementAndGet();
+    if (this.missesCounter != null) {
+      this.missesCounter.inc();
+      this.hitRateGauge.set(this.hitRate());
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package storage.generational;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import model.lightchain.Identifier;
+import protocol.Parameters;
+import state.Snapshot;
+import state.State;
+import storage.Identifiers;
+import storage.offheap.OffHeapIdentifiers;
+
+/**
+ * Implements an expiring set of seen entities. Identifiers are partitioned into generations by the height of the last
+ * finalized block at the time they are added, and a whole generation is dropped once all of its heights fall behind
+ * the reference block window. Since transactions that reference blocks behind the window are rejected by their
+ * reference height, the entities of a dropped generation can no longer be accepted anyway, and the memory spent on
+ * deduplication stays bounded by the window rather than growing with the age of the node.
+ *
+ * <p>Generations follow the height of the last finalized snapshot of the state, and rotate lazily on the next access
+ * once that height moves into a new generation.
+ */
+public class GenerationalIdentifiers implements Identifiers {
+  /**
+   * Default number of generations the window is split into.
+   */
+  public static final int DEFAULT_GENERATIONS = 4;
+
+  private final State state;
+  private final long window;
+  private final long span;
+  private final Supplier<Identifiers> factory;
+
+  /**
+   * Generations keyed by their index, i.e., the height at which they start divided by the span of a generation.
+   */
+  private final ConcurrentSkipListMap<Long, Identifiers> generations;
+
+  /**
+   * Constructor of GenerationalIdentifiers with the protocol window, the default number of generations, and off-heap
+   * generations.
+   *
+   * @param state the state whose last finalized snapshot determines the current height.
+   */
+  public GenerationalIdentifiers(State state) {
+    this(state, Parameters.REFERENCE_BLOCK_WINDOW, DEFAULT_GENERATIONS, () -> new OffHeapIdentifiers(0));
+  }
+
+  /**
+   * Constructor of GenerationalIdentifiers.
+   *
+   * @param state       the state whose last finalized snapshot determines the current height.
+   * @param window      number of heights an identifier is remembered for at least.
+   * @param generations number of generations the window is split into; more generations drop expired identifiers
+   *                    sooner, at the cost of checking more generations on a lookup.
+   * @param factory     creates the identifiers storage of a new generation.
+   * @throws IllegalArgumentException if the window or the number of generations is not positive.
+   */
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "state is intentionally shared with the engines")
+  public GenerationalIdentifiers(State state, long window, int generations, Supplier<Identifiers> factory)
+      throws IllegalArgumentException {
+    if (window <= 0 || generations <= 0) {
+      throw new IllegalArgumentException("window and generations must be positive, got: " + window + ", "
+          + generations);
+    }
+    this.state = state;
+    this.window = window;
+    this.span = Math.max(1, window / generations);
+    this.factory = factory;
+    this.generations = new ConcurrentSkipListMap<>();
+  }
+
+  /**
+   * Adds an identifier to the generation of the current height, returns true if it is new, false if it already
+   * exists in any live generation.
+   *
+   * @param identifier identifier to be added to storage.
+   * @return true if it is new, false if it already exists.
+   */
+  @Override
+  public synchronized boolean add(Identifier identifier) {
+    Identifiers current = this.rotate();
+    for (Identifiers generation : this.generations.values()) {
+      if (generation != current && generation.has(identifier)) {
+        return false;
+      }
+    }
+    return current.add(identifier);
+  }
+
+  /**
+   * Checks existence of an identifier in any live generation.
+   *
+   * @param identifier identifier to be checked.
+   * @return true if identifier exists in a live generation, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier identifier) {
+    this.rotate();
+    // newest generations first, as recently seen entities are the most likely to be seen again.
+    for (Identifiers generation : this.generations.descendingMap().values()) {
+      if (generation.has(identifier)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes an identifier from every live generation.
+   *
+   * @param identifier identifier to be removed.
+   * @return true if identifier exists and removed, false otherwise.
+   */
+  @Override
+  public synchronized boolean remove(Identifier identifier) {
+    boolean removed = false;
+    for (Identifiers generation : this.generations.values()) {
+      removed |= generation.remove(identifier);
+    }
+    return removed;
+  }
+
+  /**
+   * Returns the identifiers of all live generations.
+   *
+   * @return all live identifiers.
+   */
+  @Override
+  public ArrayList<Identifier> all() {
+    HashSet<Identifier> all = new HashSet<>();
+    for (Identifiers generation : this.generations.values()) {
+      all.addAll(generation.all());
+    }
+    return new ArrayList<>(all);
+  }
+
+  /**
+   * Streams the identifiers of all live generations, one generation at a time. Since an identifier is only added to
+   * the current generation if no other generation has it, generations never share an identifier.
+   *
+   * @return stream of all live identifiers.
+   */
+  @Override
+  public Stream<Identifier> stream() {
+    return this.generations.values().stream().flatMap(Identifiers::stream);
+  }
+
+  /**
+   * Number of live generations.
+   *
+   * @return number of live generations.
+   */
+  public int generations() {
+    return this.generations.size();
+  }
+
+  /**
+   * Brings the generations up to the current height: starts the generation of the current height if it does not
+   * exist yet, and drops the generations whose heights all fall behind the window.
+   *
+   * @return the generation of the current height.
+   */
+  private Identifiers rotate() {
+    long height = this.currentHeight();
+    long index = height / this.span;
+    Identifiers current = this.generations.get(index);
+    if (current != null) {
+      return current;
+    }
+
+    synchronized (this) {
+      current = this.generations.computeIfAbsent(index, i -> this.factory.get());
+      // the last height of generation i is (i + 1) * span - 1, which is behind the window once it is below
+      // height - window.
+      long expired = Math.floorDiv(height - this.window, this.span);
+      for (Map.Entry<Long, Identifiers> entry : this.generations.headMap(expired).entrySet()) {
+        this.generations.remove(entry.getKey());
+      }
+      return current;
+    }
+  }
+
+  private long currentHeight() {
+    Snapshot last = this.state.last();
+    return last == null ? 0 : last.getReferenceBlockHeight();
+  }
+}
@@ -0,0 +1,672 @@
+package storage.log;
+
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import model.codec.EncodedEntity;
+import model.exceptions.CodecException;
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import modules.codec.JsonEncoder;
+import storage.Blocks;
+
+/**
+ * Implements an append-only block store for archival nodes. Blocks are appended to fixed-size segment files, and
+ * read back through memory mappings of the segments. An in-memory index maps the identifier of each block to its
+ * location, i.e., its segment and offset, and an array indexed by height maps each height to the location of the
+ * first block stored at that height. Both indexes are rebuilt by scanning the segments on open.
+ *
+ * <p>Once a block no longer fits into the active segment, the segment is sealed and a new one is started. Removing a
+ * block appends a tombstone rather than rewriting the log, and {@link #compact()} reclaims the sealed segments that
+ * are mostly made of removed blocks by moving their live blocks to the end of the log.
+ *
+ * <p>Since blocks are mostly appended in height order, {@link #replay(int)} streams the chain as sequential reads of
+ * the mapped segments.
+ */
+public class BlockLog implements Blocks, Flushable {
+  /**
+   * Default size of a segment file in bytes.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  /**
+   * Default ratio of live bytes below which a sealed segment is compacted.
+   */
+  public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  /**
+   * Marks the end of the records of a segment; a preallocated segment is zero-filled.
+   */
+  private static final byte TYPE_END = 0;
+  private static final byte TYPE_BLOCK = 1;
+  private static final byte TYPE_TOMBSTONE = 2;
+
+  /**
+   * Every record starts with its type, the identifier of its block, and 8 bytes that hold the height and payload
+   * length of a block record, or the location of the removed block for a tombstone.
+   */
+  private static final int HEADER_SIZE = 1 + Identifier.Size + 8;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final ReentrantReadWriteLock lock;
+  private final JsonEncoder encoder;
+
+  /**
+   * Segments keyed by their number; the last one is the active segment, which blocks are appended to.
+   */
+  private final TreeMap<Integer, Segment> segments;
+
+  /**
+   * Location of every stored block keyed by its identifier.
+   */
+  private final HashMap<Identifier, Long> index;
+
+  /**
+   * Location of the first block stored at each height, indexed by height; zero if no block is stored at a height.
+   */
+  private long[] heights;
+  private int maxHeight;
+
+  /**
+   * Creates a block log with the default segment size.
+   *
+   * @param directoryPath the path of the directory holding the segment files.
+   * @throws IllegalStateException if the segments cannot be opened.
+   */
+  public BlockLog(String directoryPath) throws IllegalStateException {
+    this(directoryPath, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Creates a block log, or reopens the one already persisted in the given directory.
+   *
+   * @param directoryPath the path of the directory holding the segment files.
+   * @param segmentSize   size of a segment file in bytes; larger blocks get a segment of their own.
+   * @throws IllegalArgumentException if the segment size cannot hold a record.
+   * @throws IllegalStateException    if the segments cannot be opened.
+   */
+  public BlockLog(String directoryPath, int segmentSize) throws IllegalArgumentException, IllegalStateException {
+    if (segmentSize <= HEADER_SIZE) {
+      throw new IllegalArgumentException("segment size must be greater than " + HEADER_SIZE + ", got: " + segmentSize);
+    }
+    this.directory = Paths.get(directoryPath);
+    this.segmentSize = segmentSize;
+    this.lock = new ReentrantReadWriteLock();
+    this.encoder = new JsonEncoder();
+    this.segments = new TreeMap<>();
+    this.index = new HashMap<>();
+    this.heights = new long[1024];
+    this.maxHeight = -1;
+
+    try {
+      Files.createDirectories(this.directory);
+      File[] files = this.directory.toFile().listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX)
+          && name.endsWith(SEGMENT_SUFFIX));
+      if (files != null) {
+        for (File file : files) {
+          String name = file.getName();
+          int number = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+              name.length() - SEGMENT_SUFFIX.length()));
+          this.segments.put(number, new Segment(number, file.toPath(), (int) file.length()));
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      throw new IllegalStateException("could not open block log at: " + directoryPath, e);
+    }
+    this.recover();
+  }
+
+  /**
+   * Checks existence of block on the log.
+   *
+   * @param blockId Identifier of block.
+   * @return true if a block with that identifier exists, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier blockId) {
+    try {
+      lock.readLock().lock();
+      return this.index.containsKey(blockId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Appends block to the log.
+   *
+   * @param block given block to be added.
+   * @return true if block did not exist on the log, false if block is already in the log.
+   * @throws IllegalStateException if the block cannot be encoded or appended.
+   */
+  @Override
+  public boolean add(Block block) throws IllegalStateException {
+    Identifier blockId = block.id();
+    byte[] encoded;
+    try {
+      encoded = this.encoder.encode(block).getBytes();
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not encode block: " + blockId, e);
+    }
+
+    try {
+      lock.writeLock().lock();
+      if (this.index.containsKey(blockId)) {
+        return false;
+      }
+      long location = this.append(TYPE_BLOCK, blockId.getBytes(), pack(block.getHeight(), encoded.length), encoded);
+      this.indexBlock(blockId, block.getHeight(), location);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes block with given identifier by appending a tombstone for it.
+   *
+   * @param blockId identifier of the block.
+   * @return true if block exists on the log and removed successfully, false if block does not exist on the log.
+   * @throws IllegalStateException if the tombstone cannot be appended.
+   */
+  @Override
+  public boolean remove(Identifier blockId) throws IllegalStateException {
+    try {
+      lock.writeLock().lock();
+      Long location = this.index.get(blockId);
+      if (location == null) {
+        return false;
+      }
+      this.append(TYPE_TOMBSTONE, blockId.getBytes(), location, new byte[0]);
+      this.unindexBlock(blockId, location);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the block with given identifier.
+   *
+   * @param blockId identifier of the block.
+   * @return the block itself if exists and null otherwise.
+   * @throws IllegalStateException if the block cannot be decoded.
+   */
+  @Override
+  public Block byId(Identifier blockId) throws IllegalStateException {
+    try {
+      lock.readLock().lock();
+      Long location = this.index.get(blockId);
+      return location == null ? null : this.read(location);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the block with the given height.
+   *
+   * @param height height of the block.
+   * @return the block itself if exists and null otherwise.
+   * @throws IllegalStateException if the block cannot be decoded.
+   */
+  @Override
+  public Block atHeight(int height) throws IllegalStateException {
+    try {
+      lock.readLock().lock();
+      if (height < 0 || height > this.maxHeight || this.heights[height] == 0) {
+        return null;
+      }
+      return this.read(this.heights[height]);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns all blocks stored in the log, in the order they are laid out on disk.
+   *
+   * @return all stored blocks in the log.
+   * @throws IllegalStateException if a block cannot be decoded.
+   */
+  @Override
+  public ArrayList<Block> all() throws IllegalStateException {
+    try {
+      lock.readLock().lock();
+      long[] locations = new long[this.index.size()];
+      int i = 0;
+      for (long location : this.index.values()) {
+        locations[i++] = location;
+      }
+      Arrays.sort(locations);
+      ArrayList<Block> blocks = new ArrayList<>(locations.length);
+      for (long location : locations) {
+        blocks.add(this.read(location));
+      }
+      return blocks;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Streams the blocks indexed by height, from the given height upwards, decoding one block at a time. Since blocks
+   * are appended in height order, replaying the chain reads the mapped segments sequentially.
+   *
+   * @param fromHeight lowest height to replay from (inclusive).
+   * @return stream of the blocks ordered by height.
+   * @throws IllegalStateException if a block cannot be decoded while streaming.
+   */
+  public Stream<Block> replay(int fromHeight) throws IllegalStateException {
+    Iterator<Block> iterator = new Iterator<>() {
+      private int height = Math.max(fromHeight, 0);
+      private Block next = advance();
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public Block next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        Block block = next;
+        next = advance();
+        return block;
+      }
+
+      private Block advance() {
+        try {
+          lock.readLock().lock();
+          while (height <= maxHeight) {
+            long location = heights[height++];
+            if (location != 0) {
+              return read(location);
+            }
+          }
+          return null;
+        } finally {
+          lock.readLock().unlock();
+        }
+      }
+    };
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+        Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Streams the blocks at the given range of heights by replaying the log from the lowest height of the range.
+   *
+   * @param fromHeight lowest height of the range (inclusive).
+   * @param toHeight   highest height of the range (exclusive).
+   * @return stream of the blocks at the range of heights.
+   * @throws IllegalStateException if a block cannot be decoded while streaming.
+   */
+  @Override
+  public Stream<Block> stream(int fromHeight, int toHeight) throws IllegalStateException {
+    if (fromHeight >= toHeight) {
+      return Stream.empty();
+    }
+    return this.replay(fromHeight).takeWhile(block -> block.getHeight() < toHeight);
+  }
+
+  /**
+   * Compacts the sealed segments whose ratio of live bytes falls below the default threshold.
+   *
+   * @return number of compacted segments.
+   * @throws IllegalStateException if a segment cannot be compacted.
+   */
+  public int compact() throws IllegalStateException {
+    return this.compact(DEFAULT_COMPACTION_THRESHOLD);
+  }
+
+  /**
+   * Compacts the sealed segments whose ratio of live bytes falls below the given threshold. The live blocks of such a
+   * segment are appended to the end of the log, and the segment file is deleted. A tombstone is carried over as long
+   * as the segment of the block it removes still exists, so that the block is not revived on reopen.
+   *
+   * @param threshold ratio of live bytes below which a sealed segment is compacted.
+   * @return number of compacted segments.
+   * @throws IllegalStateException if a segment cannot be compacted.
+   */
+  public int compact(double threshold) throws IllegalStateException {
+    try {
+      lock.writeLock().lock();
+      ArrayList<Segment> candidates = new ArrayList<>();
+      for (Segment segment : this.segments.values()) {
+        if (segment != this.active() && segment.liveBytes < threshold * segment.writeOffset) {
+          candidates.add(segment);
+        }
+      }
+
+      for (Segment segment : candidates) {
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segment.writeOffset) {
+          ByteBuffer view = segment.view();
+          byte type = view.get(offset);
+          Identifier blockId = readId(view, offset);
+          long field = view.getLong(offset + 1 + Identifier.Size);
+          long location = location(segment.number, offset);
+          if (type == TYPE_BLOCK) {
+            Long current = this.index.get(blockId);
+            if (current != null && current == location) {
+              byte[] payload = new byte[length(field)];
+              view.position(offset + HEADER_SIZE);
+              view.get(payload);
+              long moved = this.append(TYPE_BLOCK, blockId.getBytes(), field, payload);
+              this.unindexBlock(blockId, location);
+              this.indexBlock(blockId, height(field), moved);
+            }
+            offset += HEADER_SIZE + length(field);
+          } else {
+            int target = segmentOf(field);
+            if (target != segment.number && this.segments.containsKey(target)) {
+              this.append(TYPE_TOMBSTONE, blockId.getBytes(), field, new byte[0]);
+            }
+            offset += HEADER_SIZE;
+          }
+        }
+        this.segments.remove(segment.number);
+        segment.delete();
+      }
+      return candidates.size();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Forces the appended records of the active segment to disk.
+   */
+  @Override
+  public void flush() {
+    try {
+      lock.writeLock().lock();
+      Segment active = this.active();
+      if (active != null) {
+        active.buffer.force();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Number of segment files of the log.
+   *
+   * @return number of segment files.
+   */
+  public int segmentCount() {
+    try {
+      lock.readLock().lock();
+      return this.segments.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * It forces the appended records to disk and closes the segment files.
+   */
+  public void closeDb() {
+    try {
+      lock.writeLock().lock();
+      for (Segment segment : this.segments.values()) {
+        segment.close();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Rebuilds the indexes by scanning the segments oldest first. A block record indexes its block, and a tombstone
+   * unindexes the block only if the block is still at the location the tombstone removed it from.
+   *
+   * @throws IllegalStateException if a block record is inconsistent with its segment.
+   */
+  private void recover() throws IllegalStateException {
+    for (Segment segment : this.segments.values()) {
+      ByteBuffer view = segment.view();
+      int offset = 0;
+      while (offset + HEADER_SIZE <= segment.size) {
+        byte type = view.get(offset);
+        if (type == TYPE_END || (type != TYPE_BLOCK && type != TYPE_TOMBSTONE)) {
+          // the end of the records, or a record whose append was torn by a crash.
+          break;
+        }
+        Identifier blockId = readId(view, offset);
+        long field = view.getLong(offset + 1 + Identifier.Size);
+        if (type == TYPE_BLOCK) {
+          if (length(field) < 0 || offset + HEADER_SIZE + length(field) > segment.size) {
+            break;
+          }
+          Long previous = this.index.get(blockId);
+          if (previous != null) {
+            this.unindexBlock(blockId, previous);
+          }
+          this.indexBlock(blockId, height(field), location(segment.number, offset));
+          offset += HEADER_SIZE + length(field);
+        } else {
+          Long current = this.index.get(blockId);
+          if (current != null && current == field) {
+            this.unindexBlock(blockId, field);
+          }
+          offset += HEADER_SIZE;
+        }
+      }
+      segment.writeOffset = offset;
+    }
+  }
+
+  /**
+   * Appends a record to the active segment, sealing it and starting a new segment if the record does not fit. The
+   * type of the record is written last, so that a torn append reads as the end of the segment.
+   *
+   * @param type    type of the record.
+   * @param id      identifier of the block of the record.
+   * @param field   the height and payload length of a block record, or the removed location for a tombstone.
+   * @param payload encoded block, or empty for a tombstone.
+   * @return location of the appended record.
+   * @throws IllegalStateException if a new segment cannot be created.
+   */
+  private long append(byte type, byte[] id, long field, byte[] payload) throws IllegalStateException {
+    int recordSize = HEADER_SIZE + payload.length;
+    Segment active = this.active();
+    if (active == null || active.writeOffset + recordSize > active.size) {
+      if (active != null) {
+        active.buffer.force();
+      }
+      int number = active == null ? 1 : active.number + 1;
+      Path path = this.directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+      try {
+        active = new Segment(number, path, Math.max(this.segmentSize, recordSize));
+      } catch (IOException e) {
+        throw new IllegalStateException("could not create segment: " + path, e);
+      }
+      this.segments.put(number, active);
+    }
+
+    int offset = active.writeOffset;
+    ByteBuffer view = active.view();
+    view.position(offset + 1);
+    view.put(id);
+    view.putLong(field);
+    view.put(payload);
+    view.put(offset, type);
+    active.writeOffset += recordSize;
+    return location(active.number, offset);
+  }
+
+  private void indexBlock(Identifier blockId, int height, long location) {
+    this.index.put(blockId, location);
+    Segment segment = this.segments.get(segmentOf(location));
+    segment.liveBytes += this.recordSize(location);
+    if (height < 0) {
+      return;
+    }
+    if (height >= this.heights.length) {
+      this.heights = Arrays.copyOf(this.heights, Math.max(height + 1, 2 * this.heights.length));
+    }
+    if (this.heights[height] == 0) {
+      this.heights[height] = location;
+    }
+    this.maxHeight = Math.max(this.maxHeight, height);
+  }
+
+  private void unindexBlock(Identifier blockId, long location) {
+    this.index.remove(blockId);
+    Segment segment = this.segments.get(segmentOf(location));
+    segment.liveBytes -= this.recordSize(location);
+    int height = height(segment.view().getLong(offsetOf(location) + 1 + Identifier.Size));
+    if (height >= 0 && height <= this.maxHeight && this.heights[height] == location) {
+      this.heights[height] = 0;
+    }
+  }
+
+  private int recordSize(long location) {
+    ByteBuffer view = this.segments.get(segmentOf(location)).view();
+    return HEADER_SIZE + length(view.getLong(offsetOf(location) + 1 + Identifier.Size));
+  }
+
+  /**
+   * Decodes the block at the given location, under the read or write lock.
+   *
+   * @param location location of the block record.
+   * @return the decoded block.
+   * @throws IllegalStateException if the block cannot be decoded.
+   */
+  private Block read(long location) throws IllegalStateException {
+    ByteBuffer view = this.segments.get(segmentOf(location)).view();
+    int offset = offsetOf(location);
+    byte[] payload = new byte[length(view.getLong(offset + 1 + Identifier.Size))];
+    view.position(offset + HEADER_SIZE);
+    view.get(payload);
+    try {
+      return (Block) this.encoder.decode(new EncodedEntity(payload, Block.class.getCanonicalName()));
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not decode block at segment " + segmentOf(location) + ", offset "
+          + offset, e);
+    }
+  }
+
+  private Segment active() {
+    Map.Entry<Integer, Segment> last = this.segments.lastEntry();
+    return last == null ? null : last.getValue();
+  }
+
+  private static Identifier readId(ByteBuffer view, int offset) {
+    byte[] id = new byte[Identifier.Size];
+    view.position(offset + 1);
+    view.get(id);
+    return new Identifier(id);
+  }
+
+  private static long pack(int height, int length) {
+    return ((long) height << 32) | (length & 0xFFFFFFFFL);
+  }
+
+  private static int height(long field) {
+    return (int) (field >>> 32);
+  }
+
+  private static int length(long field) {
+    return (int) field;
+  }
+
+  private static long location(int segment, int offset) {
+    return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+  }
+
+  private static int segmentOf(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static int offsetOf(long location) {
+    return (int) location;
+  }
+
+  /**
+   * A segment file mapped into memory. Segments are numbered from one, so that no location is zero.
+   */
+  private static final class Segment {
+    private final int number;
+    private final Path path;
+    private final int size;
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Offset right after the last record of the segment.
+     */
+    private int writeOffset;
+
+    /**
+     * Bytes of the records of blocks that are still stored at this segment.
+     */
+    private long liveBytes;
+
+    private Segment(int number, Path path, int size) throws IOException {
+      this.number = number;
+      this.path = path;
+      this.size = size;
+      this.file = new RandomAccessFile(path.toFile(), "rw");
+      this.file.setLength(size);
+      this.buffer = this.file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+      this.writeOffset = 0;
+      this.liveBytes = 0;
+    }
+
+    /**
+     * A view of the mapping with its own position, so that reads never move the position of each other.
+     *
+     * @return a view of the mapping.
+     */
+    private ByteBuffer view() {
+      return this.buffer.duplicate();
+    }
+
+    private void close() {
+      this.buffer.force();
+      try {
+        this.file.close();
+      } catch (IOException e) {
+        throw new IllegalStateException("could not close segment: " + this.path, e);
+      }
+    }
+
+    private void delete() throws IllegalStateException {
+      this.close();
+      try {
+        Files.deleteIfExists(this.path);
+      } catch (IOException e) {
+        throw new IllegalStateException("could not delete segment: " + this.path, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package storage.mapdb;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import model.lightchain.ValidatedTransaction;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+import org.mapdb.serializer.SerializerArrayTuple;
+import storage.AccountHistory;
+
+/**
+ * Implementation of the account history index on MapDB. Entries live in a B-tree keyed by the tuple (account, block
+ * height, transaction id), so that the entries of an account are contiguous and ordered by height; a page is a
+ * logarithmic search for its first key followed by a sequential walk over at most a page of keys.
+ *
+ * <p>The value of an entry records whether the account sent the transaction, received it, or both.
+ */
+public class AccountHistoryMapDb implements AccountHistory {
+  private static final String MAP_NAME = "account_history_map";
+  private static final int SENT = 1;
+  private static final int RECEIVED = 2;
+
+  private final DB db;
+  private final ReentrantReadWriteLock lock;
+
+  /**
+   * Roles of the account in each transaction, keyed by (account bytes, block height, transaction id bytes).
+   */
+  private final BTreeMap<Object[], Integer> historyMap;
+
+  /**
+   * Creates MapDb, or reopens the one already persisted at the given path.
+   *
+   * @param filePath the path of the file.
+   */
+  public AccountHistoryMapDb(String filePath) {
+    this.db = DBMaker.fileDB(filePath).transactionEnable().make();
+    this.lock = new ReentrantReadWriteLock();
+    this.historyMap = this.db.treeMap(MAP_NAME)
+        .keySerializer(new SerializerArrayTuple(Serializer.BYTE_ARRAY, Serializer.LONG, Serializer.BYTE_ARRAY))
+        .valueSerializer(Serializer.INTEGER)
+        .createOrOpen();
+  }
+
+  /**
+   * Indexes the transactions of the given block under their sender and receiver accounts, in a single commit.
+   *
+   * @param block the block to index.
+   * @return true if the block added any entry to the index, false if all of its transactions were already indexed.
+   */
+  @Override
+  public boolean index(Block block) {
+    ValidatedTransaction[] transactions = block.getTransactions();
+    if (transactions == null) {
+      return false;
+    }
+    long height = block.getHeight();
+    try {
+      lock.writeLock().lock();
+      boolean indexed = false;
+      for (ValidatedTransaction transaction : transactions) {
+        byte[] transactionId = transaction.id().getBytes();
+        Identifier sender = transaction.getSender();
+        Identifier receiver = transaction.getReceiver();
+        if (sender.equals(receiver)) {
+          indexed |= this.historyMap.putIfAbsent(key(sender, height, transactionId), SENT | RECEIVED) == null;
+        } else {
+          indexed |= this.historyMap.putIfAbsent(key(sender, height, transactionId), SENT) == null;
+          indexed |= this.historyMap.putIfAbsent(key(receiver, height, transactionId), RECEIVED) == null;
+        }
+      }
+      if (indexed) {
+        this.db.commit();
+      }
+      return indexed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the transactions of the given block from the index, in a single commit.
+   *
+   * @param block the block to unindex.
+   * @return true if the block removed any entry from the index, false otherwise.
+   */
+  @Override
+  public boolean unindex(Block block) {
+    ValidatedTransaction[] transactions = block.getTransactions();
+    if (transactions == null) {
+      return false;
+    }
+    long height = block.getHeight();
+    try {
+      lock.writeLock().lock();
+      boolean unindexed = false;
+      for (ValidatedTransaction transaction : transactions) {
+        byte[] transactionId = transaction.id().getBytes();
+        unindexed |= this.historyMap.remove(key(transaction.getSender(), height, transactionId)) != null;
+        unindexed |= this.historyMap.remove(key(transaction.getReceiver(), height, transactionId)) != null;
+      }
+      if (unindexed) {
+        this.db.commit();
+      }
+      return unindexed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns a page of the history of an account, oldest first.
+   *
+   * @param account  identifier of the account.
+   * @param after    last entry of the previous page (exclusive), or null to start from the oldest entry.
+   * @param pageSize maximum number of entries in the page.
+   * @return the entries of the page, at most pageSize of them.
+   */
+  @Override
+  public ArrayList<Entry> page(Identifier account, Entry after, int pageSize) {
+    try {
+      lock.readLock().lock();
+      NavigableMap<Object[], Integer> entries = this.historyMap.prefixSubMap(new Object[] {account.getBytes()});
+      if (after != null) {
+        entries = entries.tailMap(key(account, after.getHeight(), after.getTransactionId().getBytes()), false);
+      }
+      return collect(entries, pageSize);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns a page of the history of an account, newest first.
+   *
+   * @param account  identifier of the account.
+   * @param before   last entry of the previous page (exclusive), or null to start from the newest entry.
+   * @param pageSize maximum number of entries in the page.
+   * @return the entries of the page, at most pageSize of them.
+   */
+  @Override
+  public ArrayList<Entry> pageDescending(Identifier account, Entry before, int pageSize) {
+    try {
+      lock.readLock().lock();
+      NavigableMap<Object[], Integer> entries = this.historyMap.prefixSubMap(new Object[] {account.getBytes()});
+      if (before != null) {
+        entries = entries.headMap(key(account, before.getHeight(), before.getTransactionId().getBytes()), false);
+      }
+      return collect(entries.descendingMap(), pageSize);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * It closes the database.
+   */
+  public void closeDb() {
+    db.close();
+  }
+
+  private static Object[] key(Identifier account, long height, byte[] transactionId) {
+    return new Object[] {account.getBytes(), height, transactionId};
+  }
+
+  /**
+   * Walks over at most a page of entries of an ordered view of the index.
+   *
+   * @param entries  ordered view of the entries of an account.
+   * @param pageSize maximum number of entries in the page.
+   * @return the entries of the page.
+   */
+  private static ArrayList<Entry> collect(NavigableMap<Object[], Integer> entries, int pageSize) {
+    ArrayList<Entry> page = new ArrayList<>(Math.min(Math.max(pageSize, 0), 1024));
+    Iterator<Map.Entry<Object[], Integer>> iterator = entries.entrySet().iterator();
+    while (page.size() < pageSize && iterator.hasNext()) {
+      Map.Entry<Object[], Integer> entry = iterator.next();
+      Object[] key = entry.getKey();
+      int roles = entry.getValue();
+      page.add(new Entry((Long) key[1], new Identifier((byte[]) key[2]), (roles & SENT) != 0,
+          (roles & RECEIVED) != 0));
+    }
+    return page;
+  }
+}
@@ -0,0 +1,353 @@
+package storage.mapdb;
+
+import java.io.Flushable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import model.codec.EncodedEntity;
+import model.exceptions.CodecException;
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import modules.codec.JsonEncoder;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+import storage.Blocks;
+
+/**
+ * Implementation of blocks interface on MapDB. Blocks are kept in their encoded form keyed by their identifier, and a
+ * secondary B-tree maps each height to the identifier of the first block stored at that height, so that lookups by
+ * height cost a logarithmic search rather than a scan.
+ *
+ * <p>Writes are grouped into batched commits: a write is visible to readers as soon as its method returns, while it
+ * is made durable by the next commit, which happens once a batch of writes is pending or the commit interval elapses,
+ * whichever comes first. Hence, a crash may lose at most the writes of the last pending batch; {@link #flush()} commits
+ * them right away.
+ */
+public class BlocksMapDb implements Blocks, Flushable {
+  /**
+   * Default number of writes grouped into a single commit.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  /**
+   * Default maximum time in milliseconds a write stays uncommitted.
+   */
+  public static final long DEFAULT_COMMIT_INTERVAL_MS = 100;
+  private static final String BLOCK_MAP_NAME = "block_map";
+  private static final String HEIGHT_MAP_NAME = "block_height_map";
+
+  private final DB db;
+  private final ReentrantReadWriteLock lock;
+  private final JsonEncoder encoder;
+
+  /**
+   * Encoded blocks keyed by the bytes of their identifier.
+   */
+  private final HTreeMap<byte[], byte[]> blockMap;
+
+  /**
+   * Identifier of blocks keyed by their height; the first block stored at a height is indexed.
+   */
+  private final BTreeMap<Long, byte[]> heightMap;
+  private final int batchSize;
+  private final ScheduledExecutorService committer;
+
+  /**
+   * Number of writes since the last commit, guarded by the write lock.
+   */
+  private int pendingWrites;
+
+  /**
+   * Creates MapDb with the default batch size and commit interval.
+   *
+   * @param filePath the path of the file.
+   */
+  public BlocksMapDb(String filePath) {
+    this(filePath, DEFAULT_BATCH_SIZE, DEFAULT_COMMIT_INTERVAL_MS);
+  }
+
+  /**
+   * Creates MapDb, or reopens the one already persisted at the given path.
+   *
+   * @param filePath         the path of the file.
+   * @param batchSize        number of writes grouped into a single commit.
+   * @param commitIntervalMs maximum time in milliseconds a write stays uncommitted.
+   * @throws IllegalArgumentException if the batch size or the commit interval is not positive.
+   */
+  public BlocksMapDb(String filePath, int batchSize, long commitIntervalMs) throws IllegalArgumentException {
+    if (batchSize <= 0 || commitIntervalMs <= 0) {
+      throw new IllegalArgumentException("batch size and commit interval must be positive, got: " + batchSize
+          + ", " + commitIntervalMs);
+    }
+    this.db = DBMaker.fileDB(filePath).transactionEnable().make();
+    this.lock = new ReentrantReadWriteLock();
+    this.encoder = new JsonEncoder();
+    this.blockMap = this.db.hashMap(BLOCK_MAP_NAME)
+        .keySerializer(Serializer.BYTE_ARRAY)
+        .valueSerializer(Serializer.BYTE_ARRAY)
+        .createOrOpen();
+    this.heightMap = this.db.treeMap(HEIGHT_MAP_NAME)
+        .keySerializer(Serializer.LONG)
+        .valueSerializer(Serializer.BYTE_ARRAY)
+        .createOrOpen();
+    this.batchSize = batchSize;
+    this.pendingWrites = 0;
+
+    this.committer = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "blocks-committer");
+      t.setDaemon(true);
+      return t;
+    });
+    this.committer.scheduleWithFixedDelay(this::commitPending, commitIntervalMs, commitIntervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Checks existence of block on the database.
+   *
+   * @param blockId Identifier of block.
+   * @return true if a block with that identifier exists, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier blockId) {
+    try {
+      lock.readLock().lock();
+      return this.blockMap.containsKey(blockId.getBytes());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Adds block to the database. The block is durable once the batch it belongs to is committed.
+   *
+   * @param block given block to be added.
+   * @return true if block did not exist on the database, false if block is already in database.
+   * @throws IllegalStateException if the block cannot be encoded.
+   */
+  @Override
+  public boolean add(Block block) throws IllegalStateException {
+    byte[] encoded;
+    try {
+      encoded = this.encoder.encode(block).getBytes();
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not encode block: " + block.id(), e);
+    }
+
+    byte[] id = block.id().getBytes();
+    try {
+      lock.writeLock().lock();
+      if (!this.blockMap.putIfAbsentBoolean(id, encoded)) {
+        return false;
+      }
+      this.heightMap.putIfAbsent((long) block.getHeight(), id);
+      this.written();
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes block with given identifier. The removal is durable once the batch it belongs to is committed.
+   *
+   * @param blockId identifier of the block.
+   * @return true if block exists on database and removed successfully, false if block does not exist on database.
+   * @throws IllegalStateException if the removed block cannot be decoded.
+   */
+  @Override
+  public boolean remove(Identifier blockId) throws IllegalStateException {
+    byte[] id = blockId.getBytes();
+    try {
+      lock.writeLock().lock();
+      byte[] encoded = this.blockMap.remove(id);
+      if (encoded == null) {
+        return false;
+      }
+      // only drops the height entry if it indexes this very block.
+      long height = this.decode(blockId, encoded).getHeight();
+      if (Arrays.equals(this.heightMap.get(height), id)) {
+        this.heightMap.remove(height);
+      }
+      this.written();
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the block with given identifier.
+   *
+   * @param blockId identifier of the block.
+   * @return the block itself if exists and null otherwise.
+   * @throws IllegalStateException if the block cannot be decoded.
+   */
+  @Override
+  public Block byId(Identifier blockId) throws IllegalStateException {
+    byte[] encoded;
+    try {
+      lock.readLock().lock();
+      encoded = this.blockMap.get(blockId.getBytes());
+    } finally {
+      lock.readLock().unlock();
+    }
+    return encoded == null ? null : this.decode(blockId, encoded);
+  }
+
+  /**
+   * Returns the block with the given height, looked up through the height index.
+   *
+   * @param height height of the block.
+   * @return the block itself if exists and null otherwise.
+   * @throws IllegalStateException if the block cannot be decoded.
+   */
+  @Override
+  public Block atHeight(int height) throws IllegalStateException {
+    byte[] id;
+    byte[] encoded;
+    try {
+      lock.readLock().lock();
+      id = this.heightMap.get((long) height);
+      if (id == null) {
+        return null;
+      }
+      encoded = this.blockMap.get(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return encoded == null ? null : this.decode(new Identifier(id), encoded);
+  }
+
+  /**
+   * Returns all blocks stored in database.
+   *
+   * @return all stored blocks in database.
+   * @throws IllegalStateException if a block cannot be decoded.
+   */
+  @Override
+  public ArrayList<Block> all() throws IllegalStateException {
+    ArrayList<byte[]> ids = new ArrayList<>();
+    ArrayList<byte[]> encoded = new ArrayList<>();
+    try {
+      lock.readLock().lock();
+      for (byte[] id : this.blockMap.keySet()) {
+        ids.add(id);
+        encoded.add(this.blockMap.get(id));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    ArrayList<Block> blocks = new ArrayList<>();
+    for (int i = 0; i < ids.size(); i++) {
+      blocks.add(this.decode(new Identifier(ids.get(i)), encoded.get(i)));
+    }
+    return blocks;
+  }
+
+  /**
+   * Streams the stored blocks straight off the block map, decoding one block at a time. Blocks added or removed while
+   * streaming may or may not be reflected.
+   *
+   * @return stream of all stored blocks in database.
+   * @throws IllegalStateException if a block cannot be decoded while streaming.
+   */
+  @Override
+  public Stream<Block> stream() throws IllegalStateException {
+    return this.blockMap.entrySet().stream()
+        .map(entry -> this.decode(new Identifier(entry.getKey()), entry.getValue()));
+  }
+
+  /**
+   * Streams the blocks at the given range of heights off an ordered view of the height B-tree, so that only the
+   * heights of the range are visited, and only one block is decoded at a time. Blocks added or removed while
+   * streaming may or may not be reflected.
+   *
+   * @param fromHeight lowest height of the range (inclusive).
+   * @param toHeight   highest height of the range (exclusive).
+   * @return stream of the blocks at the range of heights.
+   * @throws IllegalStateException if a block cannot be decoded while streaming.
+   */
+  @Override
+  public Stream<Block> stream(int fromHeight, int toHeight) throws IllegalStateException {
+    if (fromHeight >= toHeight) {
+      return Stream.empty();
+    }
+    return this.heightMap.subMap((long) fromHeight, true, (long) toHeight, false).values().stream()
+        .map(id -> {
+          byte[] encoded = this.blockMap.get(id);
+          // the block may have been removed since its height was visited.
+          return encoded == null ? null : this.decode(new Identifier(id), encoded);
+        })
+        .filter(Objects::nonNull);
+  }
+
+  /**
+   * Commits the pending writes right away, making them durable.
+   */
+  @Override
+  public void flush() {
+    this.commitPending();
+  }
+
+  /**
+   * Commits the pending writes, if any; run periodically so that no write stays uncommitted beyond the interval.
+   */
+  private void commitPending() {
+    try {
+      lock.writeLock().lock();
+      if (this.pendingWrites > 0 && !this.db.isClosed()) {
+        this.db.commit();
+        this.pendingWrites = 0;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * It commits the pending writes and closes the database.
+   */
+  public void closeDb() {
+    this.committer.shutdownNow();
+    this.flush();
+    db.close();
+  }
+
+  /**
+   * Accounts for a write under the write lock, and commits once a full batch of writes is pending.
+   */
+  private void written() {
+    this.pendingWrites++;
+    if (this.pendingWrites >= this.batchSize) {
+      this.db.commit();
+      this.pendingWrites = 0;
+    }
+  }
+
+  /**
+   * Decodes a stored block.
+   *
+   * @param blockId identifier of the block.
+   * @param encoded encoded block.
+   * @return the decoded block.
+   * @throws IllegalStateException if the block cannot be decoded.
+   */
+  private Block decode(Identifier blockId, byte[] encoded) throws IllegalStateException {
+    try {
+      return (Block) this.encoder.decode(new EncodedEntity(encoded, Block.class.getCanonicalName()));
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not decode block: " + blockId, e);
+    }
+  }
+}
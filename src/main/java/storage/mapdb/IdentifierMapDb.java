@@ -1,7 +1,14 @@
 package storage.mapdb;
 
+import java.io.Flushable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import model.lightchain.Identifier;
 import org.mapdb.DB;
@@ -11,26 +18,82 @@ import org.mapdb.Serializer;
 import storage.Identifiers;
 
 /**
- * Implementation of identifiers interface.
+ * Implementation of identifiers interface on MapDB. The durability of the store is tunable per instance: the file can
+ * be memory-mapped, writes can go through the write-ahead log of MapDB, and commits can happen after every write,
+ * periodically, or only on flush and close. Batches of identifiers added or removed through addAll and removeAll
+ * take the write lock and commit once for the whole batch.
  */
-public class IdentifierMapDb implements Identifiers {
+public class IdentifierMapDb implements Identifiers, Flushable {
+  /**
+   * Commit interval under which writes are committed only on flush and close.
+   */
+  public static final long COMMIT_ON_FLUSH = -1;
   private final DB db;
   private final ReentrantReadWriteLock lock;
   private static final String MAP_NAME = "identifier_map";
   private final HTreeMap<byte[], byte[]> identifierMap;
+  private final long commitIntervalMs;
+  private final ScheduledExecutorService committer;
+
+  /**
+   * Number of writes since the last commit, guarded by the write lock.
+   */
+  private int pendingWrites;
 
   /**
-   * Creates MapDb.
+   * Creates MapDb on a plain file without write-ahead log, committing only on flush and close.
    *
    * @param filePath the path of the file.
    */
   public IdentifierMapDb(String filePath) {
-    this.db = DBMaker.fileDB(filePath).make();
+    this(filePath, false, false, COMMIT_ON_FLUSH);
+  }
+
+  /**
+   * Creates MapDb, or reopens the one already persisted at the given path, with the given durability settings.
+   *
+   * @param filePath         the path of the file.
+   * @param memoryMapped     true to access the file through memory-mapping where the platform supports it, false to
+   *                         access it through random access file reads and writes.
+   * @param transactional    true to write through the write-ahead log of MapDB, so that a crash loses at most the
+   *                         uncommitted writes and never corrupts the store; false to write straight to the store,
+   *                         which is faster but may corrupt it on a crash.
+   * @param commitIntervalMs interval in milliseconds between periodic commits, zero to commit after every write, or
+   *                         COMMIT_ON_FLUSH to commit only on flush and close.
+   * @throws IllegalArgumentException if the commit interval is negative and not COMMIT_ON_FLUSH.
+   */
+  public IdentifierMapDb(String filePath, boolean memoryMapped, boolean transactional, long commitIntervalMs)
+      throws IllegalArgumentException {
+    if (commitIntervalMs < 0 && commitIntervalMs != COMMIT_ON_FLUSH) {
+      throw new IllegalArgumentException("commit interval must be non-negative, got: " + commitIntervalMs);
+    }
+    DBMaker.Maker maker = DBMaker.fileDB(filePath);
+    if (memoryMapped) {
+      maker = maker.fileMmapEnableIfSupported();
+    }
+    if (transactional) {
+      maker = maker.transactionEnable();
+    }
+    this.db = maker.make();
     this.lock = new ReentrantReadWriteLock();
     identifierMap = this.db.hashMap(MAP_NAME)
         .keySerializer(Serializer.BYTE_ARRAY)
         .valueSerializer(Serializer.BYTE_ARRAY)
         .createOrOpen();
+    this.commitIntervalMs = commitIntervalMs;
+    this.pendingWrites = 0;
+
+    if (commitIntervalMs > 0) {
+      this.committer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "identifiers-committer");
+        t.setDaemon(true);
+        return t;
+      });
+      this.committer.scheduleWithFixedDelay(this::commitPending, commitIntervalMs, commitIntervalMs,
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.committer = null;
+    }
   }
 
   /**
@@ -45,6 +108,9 @@ public class IdentifierMapDb implements Identifiers {
     try {
       lock.writeLock().lock();
       addBoolean = identifierMap.putIfAbsentBoolean(identifier.getBytes(), identifier.getBytes());
+      if (addBoolean) {
+        this.written(1);
+      }
     } finally {
       lock.writeLock().unlock();
     }
@@ -78,7 +144,63 @@ public class IdentifierMapDb implements Identifiers {
    */
   @Override
   public boolean remove(Identifier identifier) {
-    return identifierMap.remove(identifier.getBytes(), identifier.getBytes());
+    try {
+      lock.writeLock().lock();
+      boolean removed = identifierMap.remove(identifier.getBytes()) != null;
+      if (removed) {
+        this.written(1);
+      }
+      return removed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds a batch of identifiers to the storage under a single acquisition of the write lock, and a single commit.
+   *
+   * @param identifiers identifiers to be added to storage.
+   * @return number of identifiers that were new.
+   */
+  @Override
+  public int addAll(Collection<Identifier> identifiers) {
+    try {
+      lock.writeLock().lock();
+      int added = 0;
+      for (Identifier identifier : identifiers) {
+        if (identifierMap.putIfAbsentBoolean(identifier.getBytes(), identifier.getBytes())) {
+          added++;
+        }
+      }
+      this.written(added);
+      return added;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a batch of identifiers from the storage under a single acquisition of the write lock, and a single
+   * commit.
+   *
+   * @param identifiers identifiers to be removed.
+   * @return number of identifiers that existed and were removed.
+   */
+  @Override
+  public int removeAll(Collection<Identifier> identifiers) {
+    try {
+      lock.writeLock().lock();
+      int removed = 0;
+      for (Identifier identifier : identifiers) {
+        if (identifierMap.remove(identifier.getBytes()) != null) {
+          removed++;
+        }
+      }
+      this.written(removed);
+      return removed;
+    } finally {
+      lock.writeLock().unlock();
+    }
   }
 
   /**
@@ -88,19 +210,68 @@ public class IdentifierMapDb implements Identifiers {
    */
   @Override
   public ArrayList<Identifier> all() {
-    ArrayList<Identifier> arrayList = new ArrayList<>();
-    for (byte[] element : identifierMap.keySet()) {
-      Identifier identifierFromBytes = new Identifier(element);
-      arrayList.add(identifierFromBytes);
-    }
-    return arrayList;
+    return this.stream().collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Streams the stored identifiers straight off the keys of the map, decoding one identifier at a time. Identifiers
+   * added or removed while streaming may or may not be reflected.
+   *
+   * @return stream of all stored identifiers on storage.
+   */
+  @Override
+  public Stream<Identifier> stream() {
+    return identifierMap.keySet().stream().map(Identifier::new);
+  }
+
+  /**
+   * Commits the pending writes right away, making them durable.
+   */
+  @Override
+  public void flush() {
+    this.commitPending();
   }
 
   /**
-   * It closes the database.
+   * It commits the pending writes and closes the database.
    */
   public void closeDb() {
+    if (this.committer != null) {
+      this.committer.shutdownNow();
+    }
+    this.flush();
     db.close();
   }
+
+  /**
+   * Commits the pending writes, if any.
+   */
+  private void commitPending() {
+    try {
+      lock.writeLock().lock();
+      if (this.pendingWrites > 0 && !this.db.isClosed()) {
+        this.db.commit();
+        this.pendingWrites = 0;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Accounts for a write operation under the write lock, and commits right away if every write is to be committed.
+   *
+   * @param writes number of entries the operation changed.
+   */
+  private void written(int writes) {
+    if (writes == 0) {
+      return;
+    }
+    this.pendingWrites += writes;
+    if (this.commitIntervalMs == 0) {
+      this.db.commit();
+      this.pendingWrites = 0;
+    }
+  }
 }
 
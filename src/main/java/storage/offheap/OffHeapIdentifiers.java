@@ -0,0 +1,393 @@
+package storage.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import model.lightchain.Identifier;
+import storage.Identifiers;
+
+/**
+ * Implements an in-memory set of identifiers kept off the Java heap, for the sets that need no durability such as the
+ * seen entities. Identifiers are stored as their raw 32 bytes in open-addressing tables with linear probing, held in
+ * direct buffers, so that an identifier costs a state byte and its 32 bytes, divided by the load of its table, instead
+ * of the several objects of a hash set entry.
+ *
+ * <p>The set is split into stripes by the hash of the identifiers. Each stripe has its own table and lock, so inserts
+ * into different stripes do not contend, and a resize only rehashes a single stripe at a time. Lookups are optimistic
+ * and take no lock unless they race with a write on the same stripe.
+ */
+public class OffHeapIdentifiers implements Identifiers {
+  /**
+   * Default number of stripes; a power of two.
+   */
+  public static final int DEFAULT_STRIPES = 16;
+
+  /**
+   * Fraction of slots, including the ones of removed identifiers, above which a stripe is resized.
+   */
+  private static final double MAX_LOAD = 0.8;
+  private static final int MIN_STRIPE_CAPACITY = 16;
+  private static final int SLOT_SIZE = 1 + Identifier.Size;
+  private static final byte EMPTY = 0;
+  private static final byte OCCUPIED = 1;
+  private static final byte REMOVED = 2;
+
+  private final Stripe[] stripes;
+  private final int stripeShift;
+
+  /**
+   * Creates an empty set with the default number of stripes.
+   *
+   * @param expectedSize number of identifiers the set is expected to hold; the set grows beyond it as needed.
+   */
+  public OffHeapIdentifiers(int expectedSize) {
+    this(expectedSize, DEFAULT_STRIPES);
+  }
+
+  /**
+   * Creates an empty set.
+   *
+   * @param expectedSize number of identifiers the set is expected to hold; the set grows beyond it as needed.
+   * @param stripes      number of stripes, a power of two.
+   * @throws IllegalArgumentException if the number of stripes is not a positive power of two, or a stripe cannot
+   *                                  hold its share of the expected size.
+   */
+  public OffHeapIdentifiers(int expectedSize, int stripes) throws IllegalArgumentException {
+    if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+      throw new IllegalArgumentException("number of stripes must be a positive power of two, got: " + stripes);
+    }
+    this.stripes = new Stripe[stripes];
+    this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripes);
+    int capacity = capacityFor((long) Math.max(expectedSize, 0) / stripes);
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new Stripe(capacity);
+    }
+  }
+
+  /**
+   * Adds an identifier to the set, returns true if it is new, false if it already exists.
+   *
+   * @param identifier identifier to be added to the set.
+   * @return true if it is new, false if it already exists.
+   * @throws IllegalArgumentException if the identifier is not of the identifier size.
+   */
+  @Override
+  public boolean add(Identifier identifier) throws IllegalArgumentException {
+    byte[] key = keyOf(identifier);
+    long hash = hash(key);
+    Stripe stripe = this.stripeOf(hash);
+    long stamp = stripe.lock.writeLock();
+    try {
+      return stripe.insert(key, hash);
+    } finally {
+      stripe.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Checks existence of an identifier in the set.
+   *
+   * @param identifier identifier to be checked.
+   * @return true if identifier exists in the set, false otherwise.
+   * @throws IllegalArgumentException if the identifier is not of the identifier size.
+   */
+  @Override
+  public boolean has(Identifier identifier) throws IllegalArgumentException {
+    byte[] key = keyOf(identifier);
+    long hash = hash(key);
+    Stripe stripe = this.stripeOf(hash);
+    long stamp = stripe.lock.tryOptimisticRead();
+    if (stamp != 0) {
+      boolean found = Stripe.find(stripe.table, key, hash) >= 0;
+      if (stripe.lock.validate(stamp)) {
+        return found;
+      }
+    }
+    stamp = stripe.lock.readLock();
+    try {
+      return Stripe.find(stripe.table, key, hash) >= 0;
+    } finally {
+      stripe.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Removes an identifier from the set.
+   *
+   * @param identifier identifier to be removed.
+   * @return true if identifier exists and removed, false otherwise.
+   * @throws IllegalArgumentException if the identifier is not of the identifier size.
+   */
+  @Override
+  public boolean remove(Identifier identifier) throws IllegalArgumentException {
+    byte[] key = keyOf(identifier);
+    long hash = hash(key);
+    Stripe stripe = this.stripeOf(hash);
+    long stamp = stripe.lock.writeLock();
+    try {
+      return stripe.delete(key, hash);
+    } finally {
+      stripe.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Returns all identifiers in the set, collected from the stream of the set.
+   *
+   * @return all identifiers in the set.
+   */
+  @Override
+  public ArrayList<Identifier> all() {
+    return this.stream().collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Streams the identifiers in the set one stripe at a time, so that only a single stripe is copied out of the off-heap
+   * tables at once. Identifiers added or removed while streaming may or may not be reflected.
+   *
+   * @return stream of the identifiers in the set.
+   */
+  @Override
+  public Stream<Identifier> stream() {
+    return IntStream.range(0, this.stripes.length).boxed().flatMap(i -> this.stripes[i].identifiers().stream());
+  }
+
+  /**
+   * Number of identifiers in the set.
+   *
+   * @return number of identifiers in the set.
+   */
+  public long size() {
+    long size = 0;
+    for (Stripe stripe : this.stripes) {
+      size += stripe.size;
+    }
+    return size;
+  }
+
+  /**
+   * Bytes allocated off the heap by the tables of the set.
+   *
+   * @return allocated off-heap bytes.
+   */
+  public long offHeapBytes() {
+    long bytes = 0;
+    for (Stripe stripe : this.stripes) {
+      bytes += stripe.table.capacity();
+    }
+    return bytes;
+  }
+
+  private Stripe stripeOf(long hash) {
+    return this.stripeShift == 64 ? this.stripes[0] : this.stripes[(int) (hash >>> this.stripeShift)];
+  }
+
+  private static byte[] keyOf(Identifier identifier) throws IllegalArgumentException {
+    byte[] key = identifier.getBytes();
+    if (key.length != Identifier.Size) {
+      throw new IllegalArgumentException("identifier must be " + Identifier.Size + " bytes, got: " + key.length);
+    }
+    return key;
+  }
+
+  /**
+   * Hashes an identifier by mixing its four 8-byte words, so that slots spread well even for non-random identifiers.
+   *
+   * @param key raw bytes of the identifier.
+   * @return hash of the identifier.
+   */
+  private static long hash(byte[] key) {
+    ByteBuffer words = ByteBuffer.wrap(key);
+    long h = words.getLong(0);
+    for (int i = 8; i < Identifier.Size; i += 8) {
+      h = h * 0x9E3779B97F4A7C15L + words.getLong(i);
+    }
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Smallest power-of-two number of slots that holds the given number of identifiers within the maximum load.
+   *
+   * @param size number of identifiers.
+   * @return number of slots.
+   * @throws IllegalArgumentException if a stripe cannot hold that many identifiers.
+   */
+  private static int capacityFor(long size) throws IllegalArgumentException {
+    long slots = Math.max(MIN_STRIPE_CAPACITY, (long) Math.ceil(size / MAX_LOAD) + 1);
+    long capacity = Long.highestOneBit(slots - 1) << 1;
+    if (capacity * SLOT_SIZE > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("stripe cannot hold " + size + " identifiers, use more stripes");
+    }
+    return (int) capacity;
+  }
+
+  /**
+   * An open-addressing table of identifiers in a direct buffer, guarded by its own lock. Each slot holds a state byte
+   * followed by the raw identifier.
+   */
+  private static final class Stripe {
+    private final StampedLock lock;
+
+    /**
+     * Table of the stripe, replaced as a whole on resize, so that optimistic readers always see a complete table.
+     */
+    private volatile ByteBuffer table;
+    private volatile int size;
+
+    /**
+     * Number of slots that are not empty, i.e., occupied or left by removed identifiers.
+     */
+    private int used;
+
+    private Stripe(int capacity) {
+      this.lock = new StampedLock();
+      this.table = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+      this.size = 0;
+      this.used = 0;
+    }
+
+    /**
+     * Inserts an identifier under the write lock, resizing the table first if it is too loaded.
+     */
+    private boolean insert(byte[] key, long hash) {
+      if (find(this.table, key, hash) >= 0) {
+        return false;
+      }
+      int capacity = this.table.capacity() / SLOT_SIZE;
+      if (this.used + 1 > capacity * MAX_LOAD) {
+        // grows if the table is mostly occupied, otherwise only purges the slots of removed identifiers.
+        this.rehash(this.size + 1 > capacity * MAX_LOAD / 2 ? capacity * 2 : capacity);
+      }
+
+      ByteBuffer table = this.table;
+      int mask = table.capacity() / SLOT_SIZE - 1;
+      int slot = (int) hash & mask;
+      while (table.get(slot * SLOT_SIZE) == OCCUPIED) {
+        slot = (slot + 1) & mask;
+      }
+      if (table.get(slot * SLOT_SIZE) == EMPTY) {
+        this.used++;
+      }
+      write(table, slot, key);
+      this.size++;
+      return true;
+    }
+
+    /**
+     * Marks the slot of an identifier as removed under the write lock, so that probing still goes past it.
+     */
+    private boolean delete(byte[] key, long hash) {
+      int slot = find(this.table, key, hash);
+      if (slot < 0) {
+        return false;
+      }
+      this.table.put(slot * SLOT_SIZE, REMOVED);
+      this.size--;
+      return true;
+    }
+
+    /**
+     * Moves the identifiers into a new table of the given number of slots, dropping the slots of removed ones.
+     */
+    private void rehash(int capacity) {
+      if ((long) capacity * SLOT_SIZE > Integer.MAX_VALUE) {
+        throw new IllegalStateException("stripe cannot grow beyond " + capacity / 2 + " slots, use more stripes");
+      }
+      ByteBuffer old = this.table;
+      ByteBuffer table = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+      int mask = capacity - 1;
+      byte[] key = new byte[Identifier.Size];
+      for (int i = 0; i < old.capacity() / SLOT_SIZE; i++) {
+        if (old.get(i * SLOT_SIZE) != OCCUPIED) {
+          continue;
+        }
+        read(old, i, key);
+        int slot = (int) hash(key) & mask;
+        while (table.get(slot * SLOT_SIZE) == OCCUPIED) {
+          slot = (slot + 1) & mask;
+        }
+        write(table, slot, key);
+      }
+      this.used = this.size;
+      this.table = table;
+    }
+
+    /**
+     * Copies the identifiers of this stripe out of its table, under the read lock.
+     */
+    private ArrayList<Identifier> identifiers() {
+      long stamp = this.lock.readLock();
+      try {
+        ByteBuffer table = this.table;
+        ArrayList<Identifier> identifiers = new ArrayList<>(this.size);
+        byte[] key = new byte[Identifier.Size];
+        for (int i = 0; i < table.capacity() / SLOT_SIZE; i++) {
+          if (table.get(i * SLOT_SIZE) == OCCUPIED) {
+            read(table, i, key);
+            identifiers.add(new Identifier(key));
+          }
+        }
+        return identifiers;
+      } finally {
+        this.lock.unlockRead(stamp);
+      }
+    }
+
+    /**
+     * Probes the table for an identifier. The probe is bounded by the number of slots, so that an optimistic read
+     * racing with a write always terminates; its answer is then discarded by the caller.
+     *
+     * @return the slot of the identifier, or -1 if it is not in the table.
+     */
+    private static int find(ByteBuffer table, byte[] key, long hash) {
+      int capacity = table.capacity() / SLOT_SIZE;
+      int mask = capacity - 1;
+      int slot = (int) hash & mask;
+      for (int probes = 0; probes < capacity; probes++) {
+        byte state = table.get(slot * SLOT_SIZE);
+        if (state == EMPTY) {
+          return -1;
+        }
+        if (state == OCCUPIED && matches(table, slot, key)) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    private static boolean matches(ByteBuffer table, int slot, byte[] key) {
+      int offset = slot * SLOT_SIZE + 1;
+      for (int i = 0; i < Identifier.Size; i++) {
+        if (table.get(offset + i) != key[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static void write(ByteBuffer table, int slot, byte[] key) {
+      int offset = slot * SLOT_SIZE;
+      for (int i = 0; i < Identifier.Size; i++) {
+        table.put(offset + 1 + i, key[i]);
+      }
+      table.put(offset, OCCUPIED);
+    }
+
+    private static void read(ByteBuffer table, int slot, byte[] key) {
+      int offset = slot * SLOT_SIZE + 1;
+      for (int i = 0; i < Identifier.Size; i++) {
+        key[i] = table.get(offset + i);
+      }
+    }
+  }
+}
@@ -0,0 +1,340 @@
+package storage.pool;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import model.codec.EncodedEntity;
+import model.exceptions.CodecException;
+import model.lightchain.Identifier;
+import model.lightchain.Transaction;
+import modules.codec.JsonEncoder;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+import storage.Transactions;
+
+/**
+ * Implements a concurrent pool of pending transactions. Transactions are indexed by their identifier in a concurrent
+ * hash map, and threaded in their arrival order through a doubly linked list, so that size, has, get and remove cost
+ * constant time, and the pool can be iterated oldest first without copying it.
+ *
+ * <p>Reads never take a lock, and iterators are weakly consistent: they never throw a concurrent modification, skip
+ * the transactions removed while iterating, and may or may not reach the transactions added while iterating.
+ *
+ * <p>Optionally, the pool writes every change through to MapDB and commits it before returning, so that the pending
+ * transactions, together with their arrival order, survive a restart or a crash of the node.
+ */
+public class TransactionPool implements Transactions, Iterable<Transaction> {
+  private static final String ORDER_MAP_NAME = "pending_order_map";
+  private static final String SEQUENCE_MAP_NAME = "pending_sequence_map";
+
+  private final ConcurrentHashMap<Identifier, Node> index;
+
+  /**
+   * Sentinels of the arrival-order list; the oldest transaction follows head.
+   */
+  private final Node head;
+  private final Node tail;
+
+  /**
+   * Serializes the changes to the arrival-order list and the write-through maps.
+   */
+  private final ReentrantLock writeLock;
+  private long nextSequence;
+
+  private final JsonEncoder encoder;
+  private final DB db;
+
+  /**
+   * Encoded transactions keyed by their arrival sequence, or null if the pool is not persistent.
+   */
+  private final BTreeMap<Long, byte[]> orderMap;
+
+  /**
+   * Arrival sequence of transactions keyed by the bytes of their identifier, or null if the pool is not persistent.
+   */
+  private final HTreeMap<byte[], Long> sequenceMap;
+
+  /**
+   * Creates an in-memory pool.
+   */
+  public TransactionPool() {
+    this((DB) null);
+  }
+
+  /**
+   * Creates a pool that writes through to MapDB, or reopens the one already persisted at the given path with its
+   * pending transactions in their arrival order. Every change is committed through the write-ahead log of MapDB.
+   *
+   * @param filePath the path of the file.
+   * @throws IllegalStateException if a persisted transaction cannot be decoded.
+   */
+  public TransactionPool(String filePath) throws IllegalStateException {
+    this(DBMaker.fileDB(filePath).transactionEnable().make());
+  }
+
+  private TransactionPool(DB db) throws IllegalStateException {
+    this.index = new ConcurrentHashMap<>();
+    this.head = new Node(null, -1);
+    this.tail = new Node(null, -1);
+    this.head.next = this.tail;
+    this.tail.prev = this.head;
+    this.writeLock = new ReentrantLock();
+    this.nextSequence = 0;
+    this.encoder = new JsonEncoder();
+    this.db = db;
+    if (db == null) {
+      this.orderMap = null;
+      this.sequenceMap = null;
+      return;
+    }
+
+    this.orderMap = db.treeMap(ORDER_MAP_NAME)
+        .keySerializer(Serializer.LONG)
+        .valueSerializer(Serializer.BYTE_ARRAY)
+        .createOrOpen();
+    this.sequenceMap = db.hashMap(SEQUENCE_MAP_NAME)
+        .keySerializer(Serializer.BYTE_ARRAY)
+        .valueSerializer(Serializer.LONG)
+        .createOrOpen();
+    for (Map.Entry<Long, byte[]> entry : this.orderMap.entrySet()) {
+      Transaction transaction = this.decode(entry.getValue());
+      Node node = new Node(transaction, entry.getKey());
+      this.index.put(transaction.id(), node);
+      this.link(node);
+      this.nextSequence = entry.getKey() + 1;
+    }
+  }
+
+  /**
+   * Checks existence of a transaction in the pool.
+   *
+   * @param transactionId Identifier of transaction.
+   * @return true if a transaction with that identifier exists, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier transactionId) {
+    return this.index.containsKey(transactionId);
+  }
+
+  /**
+   * Adds transaction to the end of the pool.
+   *
+   * @param transaction given transaction to be added.
+   * @return true if transaction did not exist in the pool, false if transaction is already in the pool.
+   * @throws IllegalStateException if the transaction cannot be encoded for writing through.
+   */
+  @Override
+  public boolean add(Transaction transaction) throws IllegalStateException {
+    Identifier transactionId = transaction.id();
+    byte[] encoded = null;
+    if (this.db != null) {
+      try {
+        encoded = this.encoder.encode(transaction).getBytes();
+      } catch (CodecException e) {
+        throw new IllegalStateException("could not encode transaction: " + transactionId, e);
+      }
+    }
+
+    writeLock.lock();
+    try {
+      if (this.index.containsKey(transactionId)) {
+        return false;
+      }
+      Node node = new Node(transaction, this.nextSequence++);
+      if (this.db != null) {
+        this.orderMap.put(node.sequence, encoded);
+        this.sequenceMap.put(transactionId.getBytes(), node.sequence);
+        this.db.commit();
+      }
+      this.link(node);
+      this.index.put(transactionId, node);
+      return true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Removes transaction with given identifier.
+   *
+   * @param transactionId identifier of the transaction.
+   * @return true if transaction exists in the pool and removed successfully, false if transaction does not exist in
+   * the pool.
+   */
+  @Override
+  public boolean remove(Identifier transactionId) {
+    writeLock.lock();
+    try {
+      Node node = this.index.remove(transactionId);
+      if (node == null) {
+        return false;
+      }
+      this.unlink(node);
+      if (this.db != null) {
+        this.orderMap.remove(node.sequence);
+        this.sequenceMap.remove(transactionId.getBytes());
+        this.db.commit();
+      }
+      return true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the transaction with given identifier.
+   *
+   * @param transactionId identifier of the transaction.
+   * @return the transaction itself if exists and null otherwise.
+   */
+  @Override
+  public Transaction get(Identifier transactionId) {
+    Node node = this.index.get(transactionId);
+    return node == null ? null : node.transaction;
+  }
+
+  /**
+   * Returns a copy of all transactions in the pool in their arrival order. Prefer iterating the pool, which does not
+   * copy it.
+   *
+   * @return all transactions in the pool.
+   */
+  @Override
+  public ArrayList<Transaction> all() {
+    ArrayList<Transaction> transactions = new ArrayList<>(this.size());
+    for (Transaction transaction : this) {
+      transactions.add(transaction);
+    }
+    return transactions;
+  }
+
+  /**
+   * Returns the number of transactions in the pool.
+   *
+   * @return the number of transactions in the pool.
+   */
+  @Override
+  public int size() {
+    return this.index.size();
+  }
+
+  /**
+   * Iterates over the transactions in the pool oldest first, without copying the pool.
+   *
+   * @return weakly consistent iterator over the transactions in the pool.
+   */
+  @Override
+  public Iterator<Transaction> iterator() {
+    return new Iterator<>() {
+      private Node next = advance(head);
+
+      @Override
+      public boolean hasNext() {
+        return next != tail;
+      }
+
+      @Override
+      public Transaction next() {
+        if (next == tail) {
+          throw new NoSuchElementException();
+        }
+        Transaction transaction = next.transaction;
+        next = advance(next);
+        return transaction;
+      }
+    };
+  }
+
+  /**
+   * Streams the transactions in the pool oldest first, without copying the pool.
+   *
+   * @return stream of the transactions in the pool.
+   */
+  @Override
+  public Stream<Transaction> stream() {
+    return StreamSupport.stream(this.spliterator(), false);
+  }
+
+  /**
+   * It closes the database, if the pool writes through to one.
+   */
+  public void closeDb() {
+    if (this.db != null) {
+      this.db.close();
+    }
+  }
+
+  /**
+   * Returns the first node after the given one that is still in the pool. A removed node keeps its forward link, so
+   * an iterator parked on it still finds its way back into the list.
+   *
+   * @param node node to advance from.
+   * @return the first node in the pool after the given one, or the tail sentinel.
+   */
+  private Node advance(Node node) {
+    Node next = node.next;
+    while (next != this.tail && next.removed) {
+      next = next.next;
+    }
+    return next;
+  }
+
+  /**
+   * Appends a node to the end of the arrival-order list, under the write lock.
+   *
+   * @param node node to append.
+   */
+  private void link(Node node) {
+    Node last = this.tail.prev;
+    node.prev = last;
+    node.next = this.tail;
+    last.next = node;
+    this.tail.prev = node;
+  }
+
+  /**
+   * Unlinks a node from the arrival-order list, under the write lock. The forward link of the node is kept for the
+   * iterators parked on it.
+   *
+   * @param node node to unlink.
+   */
+  private void unlink(Node node) {
+    node.removed = true;
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+  }
+
+  private Transaction decode(byte[] encoded) throws IllegalStateException {
+    try {
+      return (Transaction) this.encoder.decode(new EncodedEntity(encoded, Transaction.class.getCanonicalName()));
+    } catch (CodecException e) {
+      throw new IllegalStateException("could not decode pending transaction", e);
+    }
+  }
+
+  /**
+   * A transaction threaded through the arrival-order list. Forward links are volatile, since iterators follow them
+   * without taking the write lock.
+   */
+  private static final class Node {
+    private final Transaction transaction;
+    private final long sequence;
+    private volatile Node next;
+    private Node prev;
+    private volatile boolean removed;
+
+    private Node(Transaction transaction, long sequence) {
+      this.transaction = transaction;
+      this.sequence = sequence;
+    }
+  }
+}
@@ -0,0 +1,305 @@
+package storage.tiered;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import modules.cache.MemoryConsumer;
+import storage.Blocks;
+import storage.cache.CachedBlocks;
+
+/**
+ * Tiered blocks storage: the blocks within a window of recent heights are kept decoded in memory (the hot tier), and
+ * older blocks live in a persistent blocks storage (the cold tier). Blocks migrate from the hot tier to the cold tier
+ * as the highest added height moves the window forward; blocks added below the window go to the cold tier directly.
+ *
+ * <p>Reads go to the hot tier first and to the cold tier otherwise. A migrating block is added to the cold tier
+ * before it leaves the hot tier, so that it is always found by one of them.
+ *
+ * <p>Under memory pressure, the hot tier migrates its oldest heights to the cold tier ahead of the window.
+ */
+public class TieredBlocks implements Blocks, MemoryConsumer {
+  /**
+   * Default number of recent heights kept in the hot tier.
+   */
+  public static final int DEFAULT_HOT_WINDOW = 256;
+
+  private final Blocks cold;
+  private final int window;
+  private final ConcurrentHashMap<Identifier, Block> hot;
+
+  /**
+   * Identifiers of the hot blocks keyed by their height, in their order of arrival; like the cold tier, the first
+   * block added at a height is the block at that height.
+   */
+  private final ConcurrentSkipListMap<Integer, CopyOnWriteArrayList<Identifier>> hotHeights;
+
+  /**
+   * Estimated heap footprint of the hot blocks.
+   */
+  private final AtomicLong hotBytes;
+
+  /**
+   * Highest height of the added blocks, guarded by the monitor of this object.
+   */
+  private int tip;
+
+  /**
+   * Constructor of TieredBlocks with the default hot window.
+   *
+   * @param cold the persistent blocks storage of the cold tier.
+   */
+  public TieredBlocks(Blocks cold) {
+    this(cold, DEFAULT_HOT_WINDOW);
+  }
+
+  /**
+   * Constructor of TieredBlocks.
+   *
+   * @param cold   the persistent blocks storage of the cold tier.
+   * @param window number of recent heights kept in the hot tier.
+   * @throws IllegalArgumentException if the window is not positive.
+   */
+  public TieredBlocks(Blocks cold, int window) throws IllegalArgumentException {
+    if (window <= 0) {
+      throw new IllegalArgumentException("hot window must be positive, got: " + window);
+    }
+    this.cold = cold;
+    this.window = window;
+    this.hot = new ConcurrentHashMap<>();
+    this.hotHeights = new ConcurrentSkipListMap<>();
+    this.hotBytes = new AtomicLong();
+    this.tip = -1;
+  }
+
+  /**
+   * Checks existence of block on either tier.
+   *
+   * @param blockId Identifier of block.
+   * @return true if a block with that identifier exists, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier blockId) {
+    return this.hot.containsKey(blockId) || this.cold.has(blockId);
+  }
+
+  /**
+   * Adds block to the hot tier if it is within the window of recent heights, and to the cold tier otherwise. A block
+   * that moves the window forward migrates the blocks that fall out of it to the cold tier.
+   *
+   * @param block given block to be added.
+   * @return true if block did not exist, false if block already exists.
+   */
+  @Override
+  public synchronized boolean add(Block block) {
+    if (this.has(block.id())) {
+      return false;
+    }
+    int height = block.getHeight();
+    if (height > this.tip) {
+      this.tip = height;
+      this.migrate();
+    }
+    if (height <= this.tip - this.window) {
+      return this.cold.add(block);
+    }
+    this.hot.put(block.id(), block);
+    this.hotBytes.addAndGet(CachedBlocks.estimateBytes(block));
+    this.hotHeights.computeIfAbsent(height, h -> new CopyOnWriteArrayList<>()).add(block.id());
+    return true;
+  }
+
+  /**
+   * Removes block with given identifier from both tiers.
+   *
+   * @param blockId identifier of the block.
+   * @return true if block exists and removed, false if block does not exist.
+   */
+  @Override
+  public synchronized boolean remove(Identifier blockId) {
+    Block block = this.hot.remove(blockId);
+    if (block != null) {
+      this.hotBytes.addAndGet(-CachedBlocks.estimateBytes(block));
+      CopyOnWriteArrayList<Identifier> ids = this.hotHeights.get(block.getHeight());
+      ids.remove(blockId);
+      if (ids.isEmpty()) {
+        this.hotHeights.remove(block.getHeight(), ids);
+      }
+    }
+    return this.cold.remove(blockId) || block != null;
+  }
+
+  /**
+   * Returns the block with given identifier from the hot tier, or from the cold tier otherwise.
+   *
+   * @param blockId identifier of the block.
+   * @return the block itself if exists and null otherwise.
+   */
+  @Override
+  public Block byId(Identifier blockId) {
+    Block block = this.hot.get(blockId);
+    return block != null ? block : this.cold.byId(blockId);
+  }
+
+  /**
+   * Returns the block with the given height from the hot tier, or from the cold tier otherwise.
+   *
+   * @param height height of the block.
+   * @return the block itself if exists and null otherwise.
+   */
+  @Override
+  public Block atHeight(int height) {
+    CopyOnWriteArrayList<Identifier> ids = this.hotHeights.get(height);
+    if (ids != null) {
+      for (Identifier blockId : ids) {
+        Block block = this.hot.get(blockId);
+        if (block != null) {
+          return block;
+        }
+      }
+    }
+    return this.cold.atHeight(height);
+  }
+
+  /**
+   * Returns all blocks of both tiers.
+   *
+   * @return all stored blocks.
+   */
+  @Override
+  public ArrayList<Block> all() {
+    LinkedHashMap<Identifier, Block> all = new LinkedHashMap<>();
+    // the hot tier is read first, so that a block migrating meanwhile is found on the cold tier, possibly twice.
+    for (Block block : this.hot.values()) {
+      all.put(block.id(), block);
+    }
+    for (Block block : this.cold.all()) {
+      all.putIfAbsent(block.id(), block);
+    }
+    return new ArrayList<>(all.values());
+  }
+
+  /**
+   * Streams the blocks of both tiers: the hot blocks first, then the stream of the cold tier, which skips the blocks
+   * already streamed from the hot tier.
+   *
+   * @return stream of all stored blocks.
+   */
+  @Override
+  public Stream<Block> stream() {
+    ArrayList<Block> hotBlocks = new ArrayList<>(this.hot.values());
+    HashSet<Identifier> hotIds = new HashSet<>();
+    for (Block block : hotBlocks) {
+      hotIds.add(block.id());
+    }
+    return Stream.concat(hotBlocks.stream(), this.cold.stream().filter(block -> !hotIds.contains(block.id())));
+  }
+
+  /**
+   * Streams the blocks at the given range of heights in ascending order of height. The heights below and above the
+   * ones of the hot tier are streamed from the cold tier, and the heights in between are read like atHeight does,
+   * from the hot tier first.
+   *
+   * @param fromHeight lowest height of the range (inclusive).
+   * @param toHeight   highest height of the range (exclusive).
+   * @return stream of the blocks at the range of heights.
+   */
+  @Override
+  public Stream<Block> stream(int fromHeight, int toHeight) {
+    Map.Entry<Integer, CopyOnWriteArrayList<Identifier>> lowest = this.hotHeights.firstEntry();
+    Map.Entry<Integer, CopyOnWriteArrayList<Identifier>> highest = this.hotHeights.lastEntry();
+    if (lowest == null || highest == null) {
+      return this.cold.stream(fromHeight, toHeight);
+    }
+    int hotFrom = Math.max(fromHeight, lowest.getKey());
+    int hotTo = Math.min(toHeight, highest.getKey() + 1);
+    if (hotFrom >= hotTo) {
+      return this.cold.stream(fromHeight, toHeight);
+    }
+    Stream<Block> hotRange = IntStream.range(hotFrom, hotTo).mapToObj(this::atHeight).filter(Objects::nonNull);
+    return Stream.concat(Stream.concat(this.cold.stream(fromHeight, hotFrom), hotRange),
+        this.cold.stream(hotTo, toHeight));
+  }
+
+  /**
+   * Number of blocks in the hot tier.
+   *
+   * @return number of hot blocks.
+   */
+  public int hotSize() {
+    return this.hot.size();
+  }
+
+  /**
+   * Estimated heap footprint of the hot blocks, so that a memory budget accounts for them.
+   *
+   * @return estimated heap footprint of the hot blocks in bytes.
+   */
+  @Override
+  public long estimatedBytes() {
+    return this.hotBytes.get();
+  }
+
+  /**
+   * Migrates the hot blocks to the cold tier from the lowest height, ahead of the window, until the estimated
+   * footprint of the hot tier is at most the given size. The migrated blocks are still found on the cold tier.
+   *
+   * @param targetBytes the estimated size in bytes to shrink to.
+   * @return the estimated bytes migrated out of memory.
+   */
+  @Override
+  public synchronized long shrinkTo(long targetBytes) {
+    long evicted = 0;
+    Map.Entry<Integer, CopyOnWriteArrayList<Identifier>> oldest = this.hotHeights.firstEntry();
+    while (oldest != null && this.hotBytes.get() > targetBytes) {
+      evicted += this.migrate(oldest);
+      oldest = this.hotHeights.firstEntry();
+    }
+    return evicted;
+  }
+
+  /**
+   * Moves the blocks that fell out of the window of recent heights to the cold tier; must be called while holding the
+   * monitor of this object.
+   */
+  private void migrate() {
+    Map.Entry<Integer, CopyOnWriteArrayList<Identifier>> oldest = this.hotHeights.firstEntry();
+    while (oldest != null && oldest.getKey() <= this.tip - this.window) {
+      this.migrate(oldest);
+      oldest = this.hotHeights.firstEntry();
+    }
+  }
+
+  /**
+   * Moves the blocks of a height to the cold tier; must be called while holding the monitor of this object.
+   *
+   * @param height the height and the identifiers of its hot blocks.
+   * @return the estimated bytes of the moved blocks.
+   */
+  private long migrate(Map.Entry<Integer, CopyOnWriteArrayList<Identifier>> height) {
+    // the blocks leave the hot tier only once they are on the cold tier, and the height only once they left.
+    for (Identifier blockId : height.getValue()) {
+      this.cold.add(this.hot.get(blockId));
+    }
+    long bytes = 0;
+    for (Identifier blockId : height.getValue()) {
+      Block block = this.hot.remove(blockId);
+      if (block != null) {
+        bytes += CachedBlocks.estimateBytes(block);
+      }
+    }
+    this.hotBytes.addAndGet(-bytes);
+    this.hotHeights.remove(height.getKey());
+    return bytes;
+  }
+}
@@ -0,0 +1,260 @@
+package storage.tiered;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import model.lightchain.Identifier;
+import modules.cache.MemoryConsumer;
+import state.Snapshot;
+import state.State;
+import storage.Identifiers;
+
+/**
+ * Tiered identifiers storage: the identifiers added within a window of recent heights are kept in memory (the hot
+ * tier), and older ones live in a persistent identifiers storage (the cold tier). Identifiers are grouped by the
+ * height of the last finalized snapshot at the time they are added, and a group migrates to the cold tier, as one
+ * batch, once it falls out of the window.
+ *
+ * <p>Reads go to the hot tier first and to the cold tier otherwise. A migrating group is added to the cold tier
+ * before it leaves the hot tier, so that its identifiers are always found by one of them. Since checking a new
+ * identifier goes to the cold tier, a cold tier fronted by a Bloom filter keeps such checks in memory as well.
+ *
+ * <p>Under memory pressure, the hot tier migrates its oldest groups to the cold tier ahead of the window.
+ */
+public class TieredIdentifiers implements Identifiers, MemoryConsumer {
+  /**
+   * Default number of recent heights kept in the hot tier.
+   */
+  public static final long DEFAULT_HOT_WINDOW = 256;
+
+  /**
+   * Rough estimate of the heap footprint of a hot identifier, i.e., the identifier, its bytes and the set entry that
+   * holds it.
+   */
+  private static final long ESTIMATED_IDENTIFIER_BYTES = 128;
+
+  private final Identifiers cold;
+  private final State state;
+  private final long window;
+
+  /**
+   * Hot identifiers grouped by the height they were added at.
+   */
+  private final ConcurrentSkipListMap<Long, Set<Identifier>> hot;
+
+  /**
+   * Constructor of TieredIdentifiers with the default hot window.
+   *
+   * @param cold  the persistent identifiers storage of the cold tier.
+   * @param state the state whose last finalized snapshot determines the current height.
+   */
+  public TieredIdentifiers(Identifiers cold, State state) {
+    this(cold, state, DEFAULT_HOT_WINDOW);
+  }
+
+  /**
+   * Constructor of TieredIdentifiers.
+   *
+   * @param cold   the persistent identifiers storage of the cold tier.
+   * @param state  the state whose last finalized snapshot determines the current height.
+   * @param window number of recent heights kept in the hot tier.
+   * @throws IllegalArgumentException if the window is not positive.
+   */
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "state is intentionally shared with the engines")
+  public TieredIdentifiers(Identifiers cold, State state, long window) throws IllegalArgumentException {
+    if (window <= 0) {
+      throw new IllegalArgumentException("hot window must be positive, got: " + window);
+    }
+    this.cold = cold;
+    this.state = state;
+    this.window = window;
+    this.hot = new ConcurrentSkipListMap<>();
+  }
+
+  /**
+   * Adds an identifier to the hot tier, after migrating the groups that fell out of the window.
+   *
+   * @param identifier identifier to be added to storage.
+   * @return true if it is new, false if it already exists on either tier.
+   */
+  @Override
+  public synchronized boolean add(Identifier identifier) {
+    long height = this.currentHeight();
+    this.migrate(height);
+    if (this.has(identifier)) {
+      return false;
+    }
+    this.hot.computeIfAbsent(height, h -> ConcurrentHashMap.newKeySet()).add(identifier);
+    return true;
+  }
+
+  /**
+   * Checks existence of an identifier on either tier, the hot one first.
+   *
+   * @param identifier identifier to be checked.
+   * @return true if identifier exists, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier identifier) {
+    // newest groups first, as recently added identifiers are the most likely to be checked again.
+    for (Set<Identifier> group : this.hot.descendingMap().values()) {
+      if (group.contains(identifier)) {
+        return true;
+      }
+    }
+    return this.cold.has(identifier);
+  }
+
+  /**
+   * Removes an identifier from both tiers.
+   *
+   * @param identifier identifier to be removed.
+   * @return true if identifier exists and removed, false otherwise.
+   */
+  @Override
+  public synchronized boolean remove(Identifier identifier) {
+    boolean removed = false;
+    for (Set<Identifier> group : this.hot.values()) {
+      removed |= group.remove(identifier);
+    }
+    return this.cold.remove(identifier) || removed;
+  }
+
+  /**
+   * Returns the identifiers of both tiers.
+   *
+   * @return all stored identifiers.
+   */
+  @Override
+  public ArrayList<Identifier> all() {
+    LinkedHashSet<Identifier> all = new LinkedHashSet<>();
+    // the hot tier is read first, so that a group migrating meanwhile is found on the cold tier, possibly twice.
+    for (Set<Identifier> group : this.hot.values()) {
+      all.addAll(group);
+    }
+    all.addAll(this.cold.all());
+    return new ArrayList<>(all);
+  }
+
+  /**
+   * Streams the identifiers of both tiers: the hot identifiers first, then the stream of the cold tier, which skips the
+   * identifiers already streamed from the hot tier.
+   *
+   * @return stream of all stored identifiers.
+   */
+  @Override
+  public Stream<Identifier> stream() {
+    HashSet<Identifier> hotIdentifiers = this.hotIdentifiers();
+    return Stream.concat(hotIdentifiers.stream(),
+        this.cold.stream().filter(identifier -> !hotIdentifiers.contains(identifier)));
+  }
+
+  /**
+   * Streams the identifiers of both tiers within the given bounds: the hot identifiers within the bounds first, then
+   * the bounded stream of the cold tier, which skips the identifiers already streamed from the hot tier.
+   *
+   * @param from lower bound (inclusive), or null for no lower bound.
+   * @param to   upper bound (exclusive), or null for no upper bound.
+   * @return stream of the stored identifiers within the bounds, in no particular order.
+   */
+  @Override
+  public Stream<Identifier> stream(Identifier from, Identifier to) {
+    HashSet<Identifier> hotIdentifiers = this.hotIdentifiers();
+    return Stream.concat(hotIdentifiers.stream().filter(identifier -> identifier.isWithin(from, to)),
+        this.cold.stream(from, to).filter(identifier -> !hotIdentifiers.contains(identifier)));
+  }
+
+  /**
+   * Number of identifiers in the hot tier.
+   *
+   * @return number of hot identifiers.
+   */
+  public int hotSize() {
+    int size = 0;
+    for (Set<Identifier> group : this.hot.values()) {
+      size += group.size();
+    }
+    return size;
+  }
+
+  /**
+   * Estimated heap footprint of the hot identifiers, so that a memory budget accounts for them.
+   *
+   * @return estimated heap footprint of the hot identifiers in bytes.
+   */
+  @Override
+  public long estimatedBytes() {
+    return this.hotSize() * ESTIMATED_IDENTIFIER_BYTES;
+  }
+
+  /**
+   * Migrates the hot groups to the cold tier from the oldest one, ahead of the window, until the estimated footprint
+   * of the hot tier is at most the given size. The migrated identifiers are still found on the cold tier.
+   *
+   * @param targetBytes the estimated size in bytes to shrink to.
+   * @return the estimated bytes migrated out of memory.
+   */
+  @Override
+  public synchronized long shrinkTo(long targetBytes) {
+    long hotBytes = this.estimatedBytes();
+    long evicted = 0;
+    Map.Entry<Long, Set<Identifier>> oldest = this.hot.firstEntry();
+    while (oldest != null && hotBytes - evicted > targetBytes) {
+      evicted += this.migrate(oldest) * ESTIMATED_IDENTIFIER_BYTES;
+      oldest = this.hot.firstEntry();
+    }
+    return evicted;
+  }
+
+  /**
+   * Moves the groups that fell out of the window of recent heights to the cold tier; must be called while holding
+   * the monitor of this object.
+   *
+   * @param height the current height.
+   */
+  private void migrate(long height) {
+    Map.Entry<Long, Set<Identifier>> oldest = this.hot.firstEntry();
+    while (oldest != null && oldest.getKey() <= height - this.window) {
+      this.migrate(oldest);
+      oldest = this.hot.firstEntry();
+    }
+  }
+
+  /**
+   * Moves a group to the cold tier; must be called while holding the monitor of this object.
+   *
+   * @param group the height and the identifiers of the group.
+   * @return the number of moved identifiers.
+   */
+  private int migrate(Map.Entry<Long, Set<Identifier>> group) {
+    ArrayList<Identifier> identifiers = new ArrayList<>(group.getValue());
+    this.cold.addAll(identifiers);
+    this.hot.remove(group.getKey());
+    return identifiers.size();
+  }
+
+  /**
+   * Copies the identifiers of the hot tier, so that a stream reads them while groups keep migrating.
+   *
+   * @return the identifiers of the hot tier.
+   */
+  private HashSet<Identifier> hotIdentifiers() {
+    HashSet<Identifier> identifiers = new HashSet<>();
+    for (Set<Identifier> group : this.hot.values()) {
+      identifiers.addAll(group);
+    }
+    return identifiers;
+  }
+
+  private long currentHeight() {
+    Snapshot last = this.state.last();
+    return last == null ? 0 : last.getReferenceBlockHeight();
+  }
+}
@@ -0,0 +1,250 @@
+package storage.writebehind;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import model.lightchain.Identifier;
+
+/**
+ * Write-behind core shared by the storage decorators of this package. Writes are recorded in an in-memory overlay
+ * keyed by identifier, where readers see them right away, and queued in their order of arrival. A background thread
+ * drains the queue at a fixed interval and applies it to the backing storage as a group, followed by a single flush of
+ * the backing storage if it is flushable; an entry leaves the overlay only once it has been applied, so reads never
+ * miss a write in between.
+ *
+ * <p>A crash loses at most the writes queued within the last flush interval. With a zero interval every write is
+ * applied and flushed before it returns, i.e., the decorator is fully synchronous.
+ *
+ * @param <V> type of the stored values.
+ */
+abstract class WriteBehind<V> {
+  /**
+   * Default interval in milliseconds between group commits.
+   */
+  static final long DEFAULT_FLUSH_INTERVAL_MS = 50;
+
+  /**
+   * Guards the queue, and makes the check-then-write of the decorators atomic.
+   */
+  protected final ReentrantLock lock;
+  private final Object backing;
+  private final long flushIntervalMs;
+  private final ConcurrentHashMap<Identifier, Write<V>> overlay;
+
+  /**
+   * Serializes the appliers of the queue, so that writes reach the backing storage in their order of arrival.
+   */
+  private final ReentrantLock flushLock;
+  private final ScheduledExecutorService flusher;
+  private ArrayList<Write<V>> queue;
+
+  /**
+   * Constructor of WriteBehind.
+   *
+   * @param backing         the storage that writes are applied to.
+   * @param flushIntervalMs interval in milliseconds between group commits, or zero to apply and flush every write
+   *                        before it returns.
+   * @param name            name of the background thread.
+   * @throws IllegalArgumentException if the flush interval is negative.
+   */
+  WriteBehind(Object backing, long flushIntervalMs, String name) throws IllegalArgumentException {
+    if (flushIntervalMs < 0) {
+      throw new IllegalArgumentException("flush interval must be non-negative, got: " + flushIntervalMs);
+    }
+    this.backing = backing;
+    this.flushIntervalMs = flushIntervalMs;
+    this.overlay = new ConcurrentHashMap<>();
+    this.lock = new ReentrantLock();
+    this.flushLock = new ReentrantLock();
+    this.queue = new ArrayList<>();
+
+    if (flushIntervalMs > 0) {
+      this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+      });
+      this.flusher.scheduleWithFixedDelay(this::flushInBackground, flushIntervalMs, flushIntervalMs,
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.flusher = null;
+    }
+  }
+
+  /**
+   * Applies a group of writes to the backing storage, in the given order.
+   *
+   * @param writes the writes to apply.
+   */
+  protected abstract void apply(List<Write<V>> writes);
+
+  /**
+   * Returns the pending write of the given identifier, i.e., the last write not applied to the backing storage yet.
+   *
+   * @param id identifier of the entry.
+   * @return the pending write, or null if there is none.
+   */
+  protected Write<V> pending(Identifier id) {
+    return this.overlay.get(id);
+  }
+
+  /**
+   * Returns a snapshot of the pending writes.
+   *
+   * @return the pending writes, one per identifier.
+   */
+  protected ArrayList<Write<V>> pending() {
+    return new ArrayList<>(this.overlay.values());
+  }
+
+  /**
+   * Runs a read while no group of writes is being applied, so that every write is seen either in the overlay or in
+   * the backing storage, but never half-applied.
+   *
+   * @param read the read to run.
+   * @param <R>  type of the result of the read.
+   * @return the result of the read.
+   */
+  protected <R> R withoutFlushing(Supplier<R> read) {
+    try {
+      this.flushLock.lock();
+      return read.get();
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  /**
+   * Records a write in the overlay and queues it; must be called while holding the lock. With a zero flush interval,
+   * the write is applied and flushed once the lock is released, by calling written.
+   *
+   * @param write the write to record.
+   */
+  protected void record(Write<V> write) {
+    this.overlay.put(write.id, write);
+    this.queue.add(write);
+  }
+
+  /**
+   * Completes a write after the lock is released; applies and flushes it right away when the decorator is fully
+   * synchronous.
+   *
+   * @throws IllegalStateException if the backing storage cannot be flushed.
+   */
+  protected void written() throws IllegalStateException {
+    if (this.flushIntervalMs == 0) {
+      this.flush();
+    }
+  }
+
+  /**
+   * Applies the queued writes to the backing storage and flushes it, making the writes durable.
+   *
+   * @throws IllegalStateException if the backing storage cannot be flushed.
+   */
+  public void flush() throws IllegalStateException {
+    try {
+      this.flushLock.lock();
+      ArrayList<Write<V>> writes;
+      try {
+        lock.lock();
+        writes = this.queue;
+        this.queue = new ArrayList<>();
+      } finally {
+        lock.unlock();
+      }
+      if (writes.isEmpty()) {
+        return;
+      }
+
+      try {
+        this.apply(writes);
+        if (this.backing instanceof Flushable) {
+          ((Flushable) this.backing).flush();
+        }
+      } catch (IOException | RuntimeException e) {
+        // puts the writes back in front of the queue, so that they are retried in order; writes are idempotent.
+        try {
+          lock.lock();
+          writes.addAll(this.queue);
+          this.queue = writes;
+        } finally {
+          lock.unlock();
+        }
+        throw new IllegalStateException("could not apply writes to the backing storage", e);
+      }
+
+      for (Write<V> write : writes) {
+        // a later write of the same identifier stays in the overlay until it is applied too.
+        this.overlay.remove(write.id, write);
+      }
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  /**
+   * Stops the background thread and flushes the queued writes.
+   *
+   * @throws IllegalStateException if the backing storage cannot be flushed.
+   */
+  public void close() throws IllegalStateException {
+    if (this.flusher != null) {
+      this.flusher.shutdownNow();
+    }
+    this.flush();
+  }
+
+  /**
+   * Number of writes not applied to the backing storage yet.
+   *
+   * @return number of pending writes.
+   */
+  public int pendingWrites() {
+    try {
+      lock.lock();
+      return this.queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void flushInBackground() {
+    try {
+      this.flush();
+    } catch (IllegalStateException e) {
+      // the writes are kept queued, and retried on the next interval.
+    }
+  }
+
+  /**
+   * A write of an entry: either a value stored under its identifier, or a removal of the identifier.
+   *
+   * @param <V> type of the stored values.
+   */
+  static final class Write<V> {
+    final Identifier id;
+
+    /**
+     * Value stored by the write, or null if the write removes the identifier.
+     */
+    final V value;
+
+    Write(Identifier id, V value) {
+      this.id = id;
+      this.value = value;
+    }
+
+    boolean isRemoval() {
+      return this.value == null;
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package storage.writebehind;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import storage.Blocks;
+
+/**
+ * Write-behind decorator of a blocks storage. Added and removed blocks are served from memory right away, and applied
+ * to the backing storage in group commits on a background thread, so that adding a block does not wait for the disk.
+ */
+public class WriteBehindBlocks extends WriteBehind<Block> implements Blocks {
+  private final Blocks backing;
+
+  /**
+   * Pending blocks keyed by their height; like the backing storage, the first block added at a height is indexed.
+   */
+  private final ConcurrentHashMap<Integer, Block> heights;
+
+  /**
+   * Constructor of WriteBehindBlocks with the default flush interval.
+   *
+   * @param backing the blocks storage to decorate.
+   */
+  public WriteBehindBlocks(Blocks backing) {
+    this(backing, DEFAULT_FLUSH_INTERVAL_MS);
+  }
+
+  /**
+   * Constructor of WriteBehindBlocks.
+   *
+   * @param backing         the blocks storage to decorate.
+   * @param flushIntervalMs interval in milliseconds between group commits, i.e., the window of writes a crash may
+   *                        lose; zero applies and flushes every write before it returns.
+   * @throws IllegalArgumentException if the flush interval is negative.
+   */
+  public WriteBehindBlocks(Blocks backing, long flushIntervalMs) throws IllegalArgumentException {
+    super(backing, flushIntervalMs, "blocks-write-behind");
+    this.backing = backing;
+    this.heights = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Checks existence of block, on the pending writes first and on the backing storage otherwise.
+   *
+   * @param blockId Identifier of block.
+   * @return true if a block with that identifier exists, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier blockId) {
+    Write<Block> write = this.pending(blockId);
+    if (write != null) {
+      return !write.isRemoval();
+    }
+    return this.backing.has(blockId);
+  }
+
+  /**
+   * Adds block; it is visible right away, and durable once the group it belongs to is committed.
+   *
+   * @param block given block to be added.
+   * @return true if block did not exist, false if block already exists.
+   */
+  @Override
+  public boolean add(Block block) {
+    try {
+      lock.lock();
+      if (this.has(block.id())) {
+        return false;
+      }
+      this.record(new Write<>(block.id(), block));
+      this.heights.putIfAbsent(block.getHeight(), block);
+    } finally {
+      lock.unlock();
+    }
+    this.written();
+    return true;
+  }
+
+  /**
+   * Removes block with given identifier; the removal is visible right away, and durable once the group it belongs to
+   * is committed.
+   *
+   * @param blockId identifier of the block.
+   * @return true if block exists and removed, false if block does not exist.
+   */
+  @Override
+  public boolean remove(Identifier blockId) {
+    try {
+      lock.lock();
+      if (!this.has(blockId)) {
+        return false;
+      }
+      this.record(new Write<>(blockId, null));
+    } finally {
+      lock.unlock();
+    }
+    this.written();
+    return true;
+  }
+
+  /**
+   * Returns the block with given identifier, from the pending writes first and from the backing storage otherwise.
+   *
+   * @param blockId identifier of the block.
+   * @return the block itself if exists and null otherwise.
+   */
+  @Override
+  public Block byId(Identifier blockId) {
+    Write<Block> write = this.pending(blockId);
+    if (write != null) {
+      return write.value;
+    }
+    return this.backing.byId(blockId);
+  }
+
+  /**
+   * Returns the block with the given height; the block indexed by the backing storage takes precedence, like the
+   * first block added at a height does.
+   *
+   * @param height height of the block.
+   * @return the block itself if exists and null otherwise.
+   */
+  @Override
+  public Block atHeight(int height) {
+    Block block = this.backing.atHeight(height);
+    if (block != null && this.has(block.id())) {
+      return block;
+    }
+    // either no block at this height is applied yet, or its removal is not applied yet.
+    block = this.heights.get(height);
+    return block != null && this.has(block.id()) ? block : null;
+  }
+
+  /**
+   * Returns all blocks, i.e., the blocks of the backing storage updated with the pending writes.
+   *
+   * @return all stored blocks.
+   */
+  @Override
+  public ArrayList<Block> all() {
+    return this.withoutFlushing(() -> {
+      LinkedHashMap<Identifier, Block> all = new LinkedHashMap<>();
+      this.backing.stream()
+          .filter(block -> this.pending(block.id()) == null)
+          .forEach(block -> all.put(block.id(), block));
+      for (Write<Block> write : this.pending()) {
+        if (!write.isRemoval()) {
+          all.put(write.id, write.value);
+        }
+      }
+      return new ArrayList<>(all.values());
+    });
+  }
+
+  /**
+   * Applies a group of writes to the backing storage, and drops the heights of the applied blocks from memory.
+   *
+   * @param writes the writes to apply.
+   */
+  @Override
+  protected void apply(List<Write<Block>> writes) {
+    for (Write<Block> write : writes) {
+      if (write.isRemoval()) {
+        this.backing.remove(write.id);
+      } else {
+        this.backing.add(write.value);
+        this.heights.remove(write.value.getHeight(), write.value);
+      }
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package storage.writebehind;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import model.lightchain.Identifier;
+import storage.Identifiers;
+
+/**
+ * Write-behind decorator of an identifiers storage. Added and removed identifiers are served from memory right away,
+ * and applied to the backing storage in group commits on a background thread, where consecutive additions and
+ * removals go through the batch operations of the backing storage.
+ */
+public class WriteBehindIdentifiers extends WriteBehind<Identifier> implements Identifiers {
+  private final Identifiers backing;
+
+  /**
+   * Constructor of WriteBehindIdentifiers with the default flush interval.
+   *
+   * @param backing the identifiers storage to decorate.
+   */
+  public WriteBehindIdentifiers(Identifiers backing) {
+    this(backing, DEFAULT_FLUSH_INTERVAL_MS);
+  }
+
+  /**
+   * Constructor of WriteBehindIdentifiers.
+   *
+   * @param backing         the identifiers storage to decorate.
+   * @param flushIntervalMs interval in milliseconds between group commits, i.e., the window of writes a crash may
+   *                        lose; zero applies and flushes every write before it returns.
+   * @throws IllegalArgumentException if the flush interval is negative.
+   */
+  public WriteBehindIdentifiers(Identifiers backing, long flushIntervalMs) throws IllegalArgumentException {
+    super(backing, flushIntervalMs, "identifiers-write-behind");
+    this.backing = backing;
+  }
+
+  /**
+   * Adds an identifier; it is visible right away, and durable once the group it belongs to is committed.
+   *
+   * @param identifier identifier to be added to storage.
+   * @return true if it is new, false if it already exists.
+   */
+  @Override
+  public boolean add(Identifier identifier) {
+    try {
+      lock.lock();
+      if (this.has(identifier)) {
+        return false;
+      }
+      this.record(new Write<>(identifier, identifier));
+    } finally {
+      lock.unlock();
+    }
+    this.written();
+    return true;
+  }
+
+  /**
+   * Checks existence of an identifier, on the pending writes first and on the backing storage otherwise.
+   *
+   * @param identifier identifier to be checked.
+   * @return true if identifier exists, false otherwise.
+   */
+  @Override
+  public boolean has(Identifier identifier) {
+    Write<Identifier> write = this.pending(identifier);
+    if (write != null) {
+      return !write.isRemoval();
+    }
+    return this.backing.has(identifier);
+  }
+
+  /**
+   * Removes an identifier; the removal is visible right away, and durable once the group it belongs to is committed.
+   *
+   * @param identifier identifier to be removed.
+   * @return true if identifier exists and removed, false otherwise.
+   */
+  @Override
+  public boolean remove(Identifier identifier) {
+    try {
+      lock.lock();
+      if (!this.has(identifier)) {
+        return false;
+      }
+      this.record(new Write<>(identifier, null));
+    } finally {
+      lock.unlock();
+    }
+    this.written();
+    return true;
+  }
+
+  /**
+   * Returns all identifiers, i.e., the identifiers of the backing storage updated with the pending writes.
+   *
+   * @return all stored identifiers.
+   */
+  @Override
+  public ArrayList<Identifier> all() {
+    return this.withoutFlushing(() -> {
+      LinkedHashSet<Identifier> all = new LinkedHashSet<>();
+      this.backing.stream()
+          .filter(identifier -> this.pending(identifier) == null)
+          .forEach(all::add);
+      for (Write<Identifier> write : this.pending()) {
+        if (!write.isRemoval()) {
+          all.add(write.id);
+        }
+      }
+      return new ArrayList<>(all);
+    });
+  }
+
+  /**
+   * Applies a group of writes to the backing storage, as one batch per run of consecutive additions or removals.
+   *
+   * @param writes the writes to apply.
+   */
+  @Override
+  protected void apply(List<Write<Identifier>> writes) {
+    ArrayList<Identifier> run = new ArrayList<>();
+    boolean removals = false;
+    for (Write<Identifier> write : writes) {
+      if (write.isRemoval() != removals && !run.isEmpty()) {
+        this.applyRun(run, removals);
+        run.clear();
+      }
+      removals = write.isRemoval();
+      run.add(write.id);
+    }
+    if (!run.isEmpty()) {
+      this.applyRun(run, removals);
+    }
+  }
+
+  private void applyRun(ArrayList<Identifier> run, boolean removals) {
+    if (removals) {
+      this.backing.removeAll(run);
+    } else {
+      this.backing.addAll(run);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package modules.ads;
+
+import java.util.ArrayList;
+
+import model.crypto.Sha3256Hash;
+import model.lightchain.Identifier;
+import modules.ads.mtrie.PersistentMerklePatriciaTrie;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import unittest.fixtures.IdentifierFixture;
+import unittest.fixtures.Sha3256HashFixture;
+
+/**
+ * Encapsulates tests for the persistent implementation of the Merkle Patricia trie.
+ */
+public class PersistentMerklePatriciaTrieTest {
+  private static final int SIZE = 100;
+
+  /**
+   * Evaluates that every key put into the trie has a valid membership proof against the root, and that the proof does
+   * not verify for another value hash.
+   */
+  @Test
+  public void testVerification() {
+    // Arrange
+    ArrayList<Identifier> keys = new ArrayList<>();
+    ArrayList<Sha3256Hash> values = new ArrayList<>();
+    PersistentMerklePatriciaTrie trie = PersistentMerklePatriciaTrie.EMPTY;
+    for (int i = 0; i < SIZE; i++) {
+      keys.add(IdentifierFixture.newIdentifier());
+      values.add(Sha3256HashFixture.newSha3256Hash());
+      trie = trie.put(keys.get(i), values.get(i));
+    }
+
+    // Act & Assert
+    Assertions.assertEquals(SIZE, trie.size());
+    for (int i = 0; i < SIZE; i++) {
+      MembershipProof proof = trie.proof(keys.get(i));
+      Assertions.assertEquals(trie.root(), proof.getRoot());
+      Assertions.assertEquals(values.get(i), trie.get(keys.get(i)));
+      Assertions.assertTrue(PersistentMerklePatriciaTrie.verify(keys.get(i), values.get(i), proof));
+      Assertions.assertFalse(PersistentMerklePatriciaTrie.verify(keys.get(i), Sha3256HashFixture.newSha3256Hash(),
+          proof));
+    }
+    Identifier absent = IdentifierFixture.newIdentifier();
+    Assertions.assertNull(trie.proof(absent));
+    Assertions.assertNull(trie.get(absent));
+  }
+
+  /**
+   * Evaluates that updating a key leaves the original trie unchanged, and that the root depends only on the content
+   * of the trie, not on the order of insertions.
+   */
+  @Test
+  public void testPersistentUpdates() {
+    // Arrange
+    ArrayList<Identifier> keys = new ArrayList<>();
+    ArrayList<Sha3256Hash> values = new ArrayList<>();
+    PersistentMerklePatriciaTrie forward = PersistentMerklePatriciaTrie.EMPTY;
+    for (int i = 0; i < SIZE; i++) {
+      keys.add(IdentifierFixture.newIdentifier());
+      values.add(Sha3256HashFixture.newSha3256Hash());
+      forward = forward.put(keys.get(i), values.get(i));
+    }
+    PersistentMerklePatriciaTrie backward = PersistentMerklePatriciaTrie.EMPTY;
+    for (int i = SIZE - 1; i >= 0; i--) {
+      backward = backward.put(keys.get(i), values.get(i));
+    }
+
+    // Act
+    Sha3256Hash updatedValue = Sha3256HashFixture.newSha3256Hash();
+    PersistentMerklePatriciaTrie updated = forward.put(keys.get(0), updatedValue);
+
+    // Assert
+    Assertions.assertEquals(forward.root(), backward.root());
+    Assertions.assertSame(forward, forward.put(keys.get(1), values.get(1)));
+    Assertions.assertNotEquals(forward.root(), updated.root());
+    Assertions.assertEquals(SIZE, updated.size());
+    Assertions.assertEquals(values.get(0), forward.get(keys.get(0)));
+    Assertions.assertEquals(updatedValue, updated.get(keys.get(0)));
+    Assertions.assertTrue(PersistentMerklePatriciaTrie.verify(keys.get(0), values.get(0), forward.proof(keys.get(0))));
+    Assertions.assertTrue(PersistentMerklePatriciaTrie.verify(keys.get(0), updatedValue, updated.proof(keys.get(0))));
+    Assertions.assertEquals(PersistentMerklePatriciaTrie.EMPTY.root(), new Sha3256Hash(new byte[32]));
+  }
+}
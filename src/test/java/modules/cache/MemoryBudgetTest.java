@@ -0,0 +1,173 @@
+package modules.cache;
+
+import io.prometheus.client.CollectorRegistry;
+import metrics.Collector;
+import metrics.collectors.LightChainCollector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Encapsulates tests for the memory budget shared by caches. Caches are weighed by the length of their byte array
+ * values, so that their estimated footprint is exact.
+ */
+public class MemoryBudgetTest {
+  private static final int ENTRY_BYTES = 10;
+  private static final long BUDGET = 600;
+  private int nextKey;
+
+  /**
+   * Evaluates that caches within the budget are left alone, and that caches exceeding it together are shrunk in
+   * proportion to their footprint, down to the low watermark.
+   */
+  @Test
+  void testProportionalEviction() {
+    // Arrange
+    MemoryBudget budget = new MemoryBudget(BUDGET, null, MemoryBudget.DEFAULT_SUBSYSTEM);
+    LruCache<Integer, byte[]> large = newCache();
+    LruCache<Integer, byte[]> small = newCache();
+    budget.register("large", large);
+    budget.register("small", small);
+    fill(large, 40);
+    fill(small, 20);
+    Assertions.assertEquals(0, budget.rebalance());
+
+    // Act
+    fill(large, 60);
+    fill(small, 30);
+    long evicted = budget.rebalance();
+
+    // Assert
+    // 1500 bytes are shrunk by a fraction of 540 / 1500, i.e., to 36% of the footprint of every cache.
+    Assertions.assertEquals(360, large.estimatedBytes());
+    Assertions.assertEquals(180, small.estimatedBytes());
+    Assertions.assertEquals(1500 - 540, evicted);
+    Assertions.assertEquals(540, budget.usedBytes());
+    Assertions.assertEquals(360, budget.usedBytes("large"));
+  }
+
+  /**
+   * Evaluates that the share of a consumer that cannot evict is taken from the caches that can.
+   */
+  @Test
+  void testShareOfRetainedConsumerIsTakenFromCaches() {
+    // Arrange
+    MemoryBudget budget = new MemoryBudget(BUDGET, null, MemoryBudget.DEFAULT_SUBSYSTEM);
+    LruCache<Integer, byte[]> first = newCache();
+    LruCache<Integer, byte[]> second = newCache();
+    budget.register("first", first);
+    budget.register("second", second);
+    budget.register("retained", new MemoryConsumer() {
+      @Override
+      public long estimatedBytes() {
+        return 300;
+      }
+
+      @Override
+      public long shrinkTo(long targetBytes) {
+        return 0;
+      }
+    });
+    fill(first, 30);
+    fill(second, 30);
+
+    // Act
+    budget.rebalance();
+
+    // Assert
+    Assertions.assertTrue(budget.usedBytes() <= 540);
+    Assertions.assertTrue(first.estimatedBytes() > 0);
+    Assertions.assertEquals(first.estimatedBytes(), second.estimatedBytes());
+  }
+
+  /**
+   * Evaluates that consumers are registered under unique and valid names, only if weighed in bytes, and are no longer
+   * shrunk once unregistered.
+   */
+  @Test
+  void testRegistration() {
+    // Arrange
+    MemoryBudget budget = new MemoryBudget(BUDGET, null, MemoryBudget.DEFAULT_SUBSYSTEM);
+    LruCache<Integer, byte[]> cache = newCache();
+    budget.register("blocks", cache);
+
+    // Act and Assert
+    Assertions.assertThrows(IllegalArgumentException.class, () -> budget.register("blocks", newCache()));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> budget.register("Block Cache", newCache()));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new MemoryBudget(0, null, MemoryBudget.DEFAULT_SUBSYSTEM));
+    /// a cache bounded by its number of entries weighs every entry as one byte, so it is not accepted.
+    Assertions.assertThrows(IllegalArgumentException.class, () -> budget.register("entries", new LruCache<>(100)));
+    Assertions.assertTrue(budget.unregister("blocks"));
+    Assertions.assertFalse(budget.unregister("blocks"));
+    fill(cache, 100);
+    Assertions.assertEquals(0, budget.rebalance());
+    Assertions.assertEquals(1000, cache.estimatedBytes());
+    budget.register("blocks", cache);
+    Assertions.assertTrue(budget.rebalance() > 0);
+  }
+
+  /**
+   * Evaluates that the background thread brings the caches back within the budget after a burst of writes.
+   */
+  @Test
+  void testBackgroundRebalanceAfterBurst() throws InterruptedException {
+    // Arrange
+    MemoryBudget budget = new MemoryBudget(BUDGET, null, MemoryBudget.DEFAULT_SUBSYSTEM);
+    LruCache<Integer, byte[]> cache = newCache();
+    budget.register("burst", cache);
+    budget.start(10);
+
+    // Act
+    fill(cache, 1000);
+
+    // Assert
+    long deadline = System.currentTimeMillis() + 5000;
+    while (budget.usedBytes() > BUDGET && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    budget.stop();
+    Assertions.assertTrue(budget.usedBytes() <= BUDGET);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> budget.start(0));
+  }
+
+  /**
+   * Evaluates that two budgets report their metrics on the same collector under their own subsystems, including
+   * consumers registered under the same name, and that a subsystem cannot be registered twice.
+   */
+  @Test
+  void testMetricsPerSubsystem() {
+    // Arrange
+    Collector collector = new LightChainCollector();
+    MemoryBudget first = new MemoryBudget(BUDGET, collector, "budget_test_first");
+    MemoryBudget second = new MemoryBudget(2 * BUDGET, collector, "budget_test_second");
+    LruCache<Integer, byte[]> firstCache = newCache();
+    LruCache<Integer, byte[]> secondCache = newCache();
+    first.register("blocks", firstCache);
+    second.register("blocks", secondCache);
+
+    // Act
+    fill(firstCache, 10);
+    fill(secondCache, 20);
+    first.rebalance();
+    second.rebalance();
+
+    // Assert
+    CollectorRegistry registry = CollectorRegistry.defaultRegistry;
+    Assertions.assertEquals((double) BUDGET, registry.getSampleValue("memory_budget_test_first_budget_bytes"));
+    Assertions.assertEquals(2.0 * BUDGET, registry.getSampleValue("memory_budget_test_second_budget_bytes"));
+    Assertions.assertEquals(10.0 * ENTRY_BYTES, registry.getSampleValue("memory_budget_test_first_blocks_bytes"));
+    Assertions.assertEquals(20.0 * ENTRY_BYTES, registry.getSampleValue("memory_budget_test_second_blocks_bytes"));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new MemoryBudget(BUDGET, collector, "budget_test_first"));
+  }
+
+  private static LruCache<Integer, byte[]> newCache() {
+    return new LruCache<>(Long.MAX_VALUE, v -> v.length);
+  }
+
+  private void fill(LruCache<Integer, byte[]> cache, int entries) {
+    for (int i = 0; i < entries; i++) {
+      cache.put(this.nextKey++, new byte[ENTRY_BYTES]);
+    }
+  }
+}
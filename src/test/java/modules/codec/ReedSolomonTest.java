@@ -0,0 +1,149 @@
+package modules.codec;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import unittest.fixtures.Bytes;
+
+/**
+ * Encapsulates tests for the Reed-Solomon erasure code.
+ */
+public class ReedSolomonTest {
+  private static final int DATA_SHARDS = 4;
+  private static final int PARITY_SHARDS = 2;
+
+  /**
+   * Evaluates that a payload is rebuilt from every subset of its shards that has as many shards as data shards, for
+   * payloads that do and do not fill their last data shard.
+   */
+  @Test
+  void testRebuildFromAnyDataShards() {
+    // Arrange
+    ReedSolomon code = new ReedSolomon(DATA_SHARDS, PARITY_SHARDS);
+    int total = code.totalShards();
+
+    for (int length : new int[]{0, 1, 1000, 1021}) {
+      byte[] payload = Bytes.byteArrayFixture(length);
+
+      // Act
+      byte[][] shards = code.encode(payload);
+
+      // Assert
+      Assertions.assertEquals(total, shards.length);
+      for (int lost = 0; lost < (1 << total); lost++) {
+        if (Integer.bitCount(lost) > PARITY_SHARDS) {
+          continue;
+        }
+        byte[][] received = new byte[total][];
+        for (int i = 0; i < total; i++) {
+          received[i] = (lost & (1 << i)) == 0 ? shards[i].clone() : null;
+        }
+        Assertions.assertArrayEquals(payload, code.decode(received));
+      }
+    }
+  }
+
+  /**
+   * Evaluates that too few shards and invalid parameters are rejected.
+   */
+  @Test
+  void testInvalidInput() {
+    // Arrange
+    ReedSolomon code = new ReedSolomon(DATA_SHARDS, PARITY_SHARDS);
+    byte[][] shards = code.encode(Bytes.byteArrayFixture(100));
+
+    // Act
+    shards[0] = null;
+    shards[2] = null;
+    shards[5] = null;
+
+    // Assert
+    Assertions.assertThrows(IllegalArgumentException.class, () -> code.decode(shards));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> code.decode(new byte[DATA_SHARDS][]));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ReedSolomon(0, PARITY_SHARDS));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ReedSolomon(DATA_SHARDS, 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ReedSolomon(200, 57));
+  }
+
+  /**
+   * Evaluates that the code is systematic: the data shards hold the length prefixed payload verbatim, so that a
+   * payload is rebuilt from its data shards without any decoding work, and the shards take (k + m) / k times the
+   * payload, up to the length prefix and the padding of the last data shard.
+   */
+  @Test
+  void testSystematicShardsAndOverhead() {
+    // Arrange
+    ReedSolomon code = new ReedSolomon(DATA_SHARDS, PARITY_SHARDS);
+    byte[] payload = Bytes.byteArrayFixture(1 << 20);
+
+    // Act
+    byte[][] shards = code.encode(payload);
+
+    // Assert
+    int shardSize = shards[0].length;
+    Assertions.assertEquals((4 + payload.length + DATA_SHARDS - 1) / DATA_SHARDS, shardSize);
+    long stored = 0;
+    for (byte[] shard : shards) {
+      Assertions.assertEquals(shardSize, shard.length);
+      stored += shard.length;
+    }
+    Assertions.assertTrue(stored <= (long) (4 + payload.length + DATA_SHARDS) * code.totalShards() / DATA_SHARDS);
+
+    /// the first data shard starts with the length of the payload, and the payload follows on the data shards.
+    Assertions.assertEquals(payload.length, ByteBuffer.wrap(shards[0]).getInt());
+    for (int i = 0; i < payload.length; i++) {
+      Assertions.assertEquals(payload[i], shards[(i + 4) / shardSize][(i + 4) % shardSize]);
+    }
+    byte[][] dataOnly = shards.clone();
+    for (int i = DATA_SHARDS; i < code.totalShards(); i++) {
+      dataOnly[i] = null;
+    }
+    Assertions.assertArrayEquals(payload, code.decode(dataOnly));
+  }
+
+  /**
+   * Benchmarks encoding and decoding throughput of a 1 MiB payload, decoding from the data shards only as well as
+   * with as many data shards lost as there are parity shards. The figures are printed rather than asserted, as they
+   * depend on the machine running the tests.
+   */
+  @Test
+  @Tag("benchmark")
+  void benchmarkThroughput() {
+    // Arrange
+    ReedSolomon code = new ReedSolomon(DATA_SHARDS, PARITY_SHARDS);
+    byte[] payload = Bytes.byteArrayFixture(1 << 20);
+    int rounds = 50;
+
+    // Act
+    byte[][] shards = code.encode(payload);
+    long start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      shards = code.encode(payload);
+    }
+    double encodeSeconds = (System.nanoTime() - start) / 1e9;
+
+    start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      Assertions.assertEquals(payload.length, code.decode(shards).length);
+    }
+    double intactSeconds = (System.nanoTime() - start) / 1e9;
+
+    byte[][] degraded = shards.clone();
+    for (int i = 0; i < PARITY_SHARDS; i++) {
+      degraded[i] = null;
+    }
+    start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      Assertions.assertArrayEquals(payload, code.decode(degraded));
+    }
+    double degradedSeconds = (System.nanoTime() - start) / 1e9;
+
+    // Assert
+    double megabytes = rounds * payload.length / (1024.0 * 1024.0);
+    System.out.printf("reed-solomon (k=%d, m=%d): encode=%.0fMB/s, decode intact=%.0fMB/s, decode degraded=%.0fMB/s%n",
+        DATA_SHARDS, PARITY_SHARDS, megabytes / encodeSeconds, megabytes / intactSeconds,
+        megabytes / degradedSeconds);
+  }
+}
@@ -0,0 +1,187 @@
+package networking.cache;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Entity;
+import model.exceptions.LightChainDistributedStorageException;
+import model.lightchain.Identifier;
+import network.Conduit;
+import network.cache.CachedConduit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import unittest.fixtures.EntityFixture;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the read-through cache in front of the gets of a conduit.
+ */
+public class CachedConduitTest {
+  private static final int THREADS = 10;
+  private static final long NEGATIVE_TTL_MILLIS = 100;
+
+  /**
+   * Evaluates that repeated gets of the same entity, and gets of a put entity, do not go to the decorated conduit.
+   */
+  @Test
+  void testRepeatedGetsAreHits() throws LightChainDistributedStorageException {
+    // Arrange
+    CountingConduit backing = new CountingConduit();
+    Entity stored = new EntityFixture();
+    backing.entities.put(stored.id(), stored);
+    CachedConduit conduit = new CachedConduit(backing);
+    Entity put = new EntityFixture();
+
+    // Act
+    conduit.put(put);
+    for (int i = 0; i < 10; i++) {
+      Assertions.assertEquals(stored, conduit.get(stored.id()));
+      Assertions.assertEquals(put, conduit.get(put.id()));
+    }
+
+    // Assert
+    Assertions.assertEquals(1, backing.gets.get());
+    Assertions.assertEquals(1, conduit.misses());
+    Assertions.assertEquals(19, conduit.hits());
+  }
+
+  /**
+   * Evaluates that a missing identifier is answered from its negative entry until the entry expires, and that putting
+   * the entity drops the negative entry.
+   */
+  @Test
+  void testMissingIdentifiersAreNegativelyCached() throws LightChainDistributedStorageException,
+      InterruptedException {
+    // Arrange
+    CountingConduit backing = new CountingConduit();
+    CachedConduit conduit = new CachedConduit(backing, CachedConduit.DEFAULT_CAPACITY,
+        CachedConduit.DEFAULT_NEGATIVE_CAPACITY, NEGATIVE_TTL_MILLIS);
+    Identifier missing = IdentifierFixture.newIdentifier();
+    Entity late = new EntityFixture();
+
+    // Act and Assert
+    Assertions.assertNull(conduit.get(missing));
+    Assertions.assertNull(conduit.get(missing));
+    Assertions.assertNull(conduit.get(late.id()));
+    Assertions.assertEquals(2, backing.gets.get());
+    Assertions.assertEquals(1, conduit.negativeHits());
+
+    // the entity is put after it was found missing, so its negative entry must not hide it.
+    conduit.put(late);
+    Assertions.assertEquals(late, conduit.get(late.id()));
+
+    // once the negative entry expires, the identifier is looked up again.
+    Thread.sleep(2 * NEGATIVE_TTL_MILLIS);
+    Assertions.assertNull(conduit.get(missing));
+    Assertions.assertEquals(3, backing.gets.get());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new CachedConduit(backing, 1, 1, -1));
+  }
+
+  /**
+   * Evaluates that concurrent gets of the same identifier are merged into a single get on the decorated conduit, and
+   * that all of them receive its result, or its failure.
+   */
+  @Test
+  void testConcurrentGetsAreMerged() throws InterruptedException {
+    // Arrange
+    CountingConduit backing = new CountingConduit();
+    Entity hot = new EntityFixture();
+    backing.entities.put(hot.id(), hot);
+    CachedConduit conduit = new CachedConduit(backing);
+
+    // Act
+    ArrayList<Entity> results = getConcurrently(conduit, backing, hot.id());
+
+    // Assert
+    Assertions.assertEquals(1, backing.gets.get());
+    Assertions.assertEquals(THREADS - 1, conduit.merged());
+    Assertions.assertEquals(THREADS, results.size());
+    for (Entity result : results) {
+      Assertions.assertEquals(hot, result);
+    }
+
+    // a failed get fails all the gets merged into it, and is not cached.
+    Identifier failing = IdentifierFixture.newIdentifier();
+    backing.failing = true;
+    Assertions.assertTrue(getConcurrently(conduit, backing, failing).isEmpty());
+    Assertions.assertEquals(2, backing.gets.get());
+    backing.failing = false;
+    Assertions.assertDoesNotThrow(() -> conduit.get(failing));
+    Assertions.assertEquals(3, backing.gets.get());
+  }
+
+  /**
+   * Gets the identifier on as many threads, holding the decorated conduit until all but one of them are merged.
+   *
+   * @return the entities that the gets returned, leaving out the failed ones.
+   */
+  private static ArrayList<Entity> getConcurrently(CachedConduit conduit, CountingConduit backing,
+                                                   Identifier identifier) throws InterruptedException {
+    long mergedBefore = conduit.merged();
+    backing.gate = new CountDownLatch(1);
+    ArrayList<Entity> results = new ArrayList<>();
+    AtomicInteger failures = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(THREADS);
+    for (int i = 0; i < THREADS; i++) {
+      new Thread(() -> {
+        try {
+          Entity entity = conduit.get(identifier);
+          synchronized (results) {
+            results.add(entity);
+          }
+        } catch (LightChainDistributedStorageException e) {
+          failures.incrementAndGet();
+        }
+        done.countDown();
+      }).start();
+    }
+    while (conduit.merged() - mergedBefore < THREADS - 1) {
+      Thread.sleep(1);
+    }
+    backing.gate.countDown();
+    Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(THREADS, results.size() + failures.get());
+    return results;
+  }
+
+  /**
+   * Conduit that counts the gets that reach it, and holds them until its gate is opened.
+   */
+  private static class CountingConduit implements Conduit {
+    private final ConcurrentHashMap<Identifier, Entity> entities = new ConcurrentHashMap<>();
+    private final AtomicInteger gets = new AtomicInteger();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private volatile boolean failing = false;
+
+    @Override
+    public void unicast(Entity e, Identifier target) {
+    }
+
+    @Override
+    public void put(Entity e) {
+      this.entities.put(e.id(), e);
+    }
+
+    @Override
+    public Entity get(Identifier identifier) throws LightChainDistributedStorageException {
+      this.gets.incrementAndGet();
+      try {
+        this.gate.await();
+      } catch (InterruptedException e) {
+        throw new LightChainDistributedStorageException("interrupted", e);
+      }
+      if (this.failing) {
+        throw new LightChainDistributedStorageException();
+      }
+      return this.entities.get(identifier);
+    }
+
+    @Override
+    public ArrayList<Entity> allEntities() {
+      return new ArrayList<>(this.entities.values());
+    }
+  }
+}
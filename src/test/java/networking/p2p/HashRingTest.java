@@ -0,0 +1,91 @@
+package networking.p2p;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import model.lightchain.Identifier;
+import network.p2p.HashRing;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the consistent hashing ring of the distributed hash table.
+ */
+public class HashRingTest {
+  private static final int NODES = 10;
+  private static final int KEYS = 10000;
+  private static final int REPLICAS = 3;
+
+  /**
+   * Evaluates that every identifier is assigned to distinct responsible nodes, the same ones on every ring of the same
+   * nodes, and to all nodes if there are fewer nodes than replicas.
+   */
+  @Test
+  void testResponsibleNodes() {
+    // Arrange
+    ArrayList<Identifier> nodes = newIdentifiers(NODES);
+    HashRing ring = new HashRing(nodes);
+    HashRing same = new HashRing(nodes);
+    HashRing small = new HashRing(nodes.subList(0, 2));
+
+    // Act and Assert
+    for (Identifier key : newIdentifiers(100)) {
+      ArrayList<Identifier> responsible = ring.responsible(key, REPLICAS);
+      Assertions.assertEquals(REPLICAS, responsible.size());
+      Assertions.assertEquals(REPLICAS, new HashSet<>(responsible).size());
+      Assertions.assertTrue(nodes.containsAll(responsible));
+      Assertions.assertEquals(responsible, same.responsible(key, REPLICAS));
+      Assertions.assertEquals(2, small.responsible(key, REPLICAS).size());
+    }
+    Assertions.assertTrue(new HashRing(new ArrayList<>()).responsible(IdentifierFixture.newIdentifier(), 1).isEmpty());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new HashRing(nodes, 0));
+  }
+
+  /**
+   * Evaluates that the identifiers are spread evenly among the nodes, and that adding a node only moves the
+   * identifiers it becomes the primary node of.
+   */
+  @Test
+  void testBalanceAndMinimalMovement() {
+    // Arrange
+    ArrayList<Identifier> nodes = newIdentifiers(NODES);
+    HashRing ring = new HashRing(nodes);
+    ArrayList<Identifier> keys = newIdentifiers(KEYS);
+    Identifier joining = IdentifierFixture.newIdentifier();
+    ArrayList<Identifier> grown = new ArrayList<>(nodes);
+    grown.add(joining);
+    HashRing grownRing = new HashRing(grown);
+
+    // Act
+    HashMap<Identifier, Integer> load = new HashMap<>();
+    int moved = 0;
+    for (Identifier key : keys) {
+      Identifier primary = ring.responsible(key, 1).get(0);
+      load.merge(primary, 1, Integer::sum);
+      Identifier newPrimary = grownRing.responsible(key, 1).get(0);
+      if (!newPrimary.equals(primary)) {
+        Assertions.assertEquals(joining, newPrimary);
+        moved++;
+      }
+    }
+
+    // Assert
+    for (Identifier node : nodes) {
+      int share = load.getOrDefault(node, 0);
+      Assertions.assertTrue(share > KEYS / NODES / 2, "node is underloaded: " + share);
+      Assertions.assertTrue(share < KEYS / NODES * 2, "node is overloaded: " + share);
+    }
+    Assertions.assertTrue(moved > 0);
+    Assertions.assertTrue(moved < KEYS / (NODES + 1) * 2, "too many identifiers moved: " + moved);
+  }
+
+  private static ArrayList<Identifier> newIdentifiers(int count) {
+    ArrayList<Identifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      identifiers.add(IdentifierFixture.newIdentifier());
+    }
+    return identifiers;
+  }
+}
@@ -0,0 +1,100 @@
+package networking.p2p;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+import model.lightchain.Identifier;
+import network.p2p.Contact;
+import network.p2p.RoutingTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the Kademlia routing table.
+ */
+public class RoutingTableTest {
+  private static final int BUCKET_SIZE = 4;
+  private static final int NODES = 1000;
+
+  /**
+   * Evaluates that identifiers fall into the bucket of the highest bit they differ from this node in, and that the
+   * closest contacts are ordered by their XOR distance to the target.
+   */
+  @Test
+  void testBucketsAndDistance() {
+    // Arrange
+    byte[] bytes = new byte[Identifier.Size];
+    Identifier self = new Identifier(bytes);
+    bytes[Identifier.Size - 1] = 1;
+    Identifier lowest = new Identifier(bytes);
+    bytes[0] = (byte) 0x80;
+    Identifier highest = new Identifier(bytes);
+    bytes[0] = 0x01;
+    Identifier middle = new Identifier(bytes);
+    // buckets are large enough to keep every node.
+    RoutingTable table = new RoutingTable(self, NODES);
+
+    // Act
+    ArrayList<Identifier> nodes = new ArrayList<>();
+    for (int i = 0; i < NODES; i++) {
+      Identifier node = IdentifierFixture.newIdentifier();
+      nodes.add(node);
+      table.update(new Contact(node, "localhost:" + i));
+    }
+
+    // Assert
+    Assertions.assertEquals(-1, RoutingTable.bucketIndex(self, self));
+    Assertions.assertEquals(0, RoutingTable.bucketIndex(self, lowest));
+    Assertions.assertEquals(RoutingTable.BUCKETS - 1, RoutingTable.bucketIndex(self, highest));
+    Assertions.assertEquals(RoutingTable.BUCKETS - 8, RoutingTable.bucketIndex(self, middle));
+
+    Identifier target = IdentifierFixture.newIdentifier();
+    Comparator<Identifier> byDistance = RoutingTable.byDistanceTo(target);
+    nodes.sort(byDistance);
+    ArrayList<Contact> closest = table.closest(target, 10);
+    Assertions.assertEquals(10, closest.size());
+    for (int i = 0; i < closest.size(); i++) {
+      Assertions.assertEquals(nodes.get(i), closest.get(i).getIdentifier());
+    }
+    Assertions.assertTrue(table.remove(nodes.get(0)));
+    Assertions.assertNull(table.get(nodes.get(0)));
+    Assertions.assertEquals(nodes.get(1), table.closest(target, 1).get(0).getIdentifier());
+  }
+
+  /**
+   * Evaluates that buckets keep at most bucket size contacts, so that the table holds O(k log n) contacts, and that a
+   * full bucket offers its least recently seen contact for eviction rather than admitting a new contact.
+   */
+  @Test
+  void testBucketsAreBounded() {
+    // Arrange
+    Identifier self = IdentifierFixture.newIdentifier();
+    RoutingTable table = new RoutingTable(self, BUCKET_SIZE);
+
+    // Act
+    for (int i = 0; i < NODES; i++) {
+      table.update(new Contact(IdentifierFixture.newIdentifier(), "localhost:" + i));
+    }
+
+    // Assert
+    // half of the nodes fall into the top bucket, a quarter into the next one, and so on.
+    int log = 32 - Integer.numberOfLeadingZeros(NODES);
+    Assertions.assertTrue(table.size() <= BUCKET_SIZE * (log + 2), "routing table is too large: " + table.size());
+    Assertions.assertTrue(table.size() >= BUCKET_SIZE * (log - 4), "routing table is too small: " + table.size());
+
+    Contact oldest = table.contacts().get(table.contacts().size() - BUCKET_SIZE);
+    byte[] bytes = oldest.getIdentifier().getBytes();
+    bytes[Identifier.Size - 1] ^= 1;
+    Contact sameBucket = new Contact(new Identifier(bytes), "localhost:0");
+    Assertions.assertEquals(RoutingTable.bucketIndex(self, oldest.getIdentifier()),
+        RoutingTable.bucketIndex(self, sameBucket.getIdentifier()));
+    Assertions.assertEquals(oldest, table.update(sameBucket));
+    Assertions.assertNull(table.get(sameBucket.getIdentifier()));
+
+    // seeing the oldest contact again makes it the most recently seen one, so another contact is offered instead.
+    Assertions.assertNull(table.update(oldest));
+    Assertions.assertNotEquals(oldest, table.update(sameBucket));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new RoutingTable(self, 0));
+  }
+}
@@ -0,0 +1,203 @@
+package networking.p2p;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import model.Entity;
+import model.lightchain.Identifier;
+import network.Conduit;
+import network.p2p.Contact;
+import network.p2p.P2pNetwork;
+import networking.MockEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import unittest.fixtures.EntityFixture;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for peer discovery through the Kademlia routing tables of in-process networks on loopback. No
+ * network knows the others up front: each one joins through the first network only.
+ */
+public class RoutingTest {
+  private static final int PORT_ZERO = 0;
+  /**
+   * Sizes of the default runs. The buckets are small enough that a routing table cannot hold every other network.
+   */
+  private static final int NETWORKS = 32;
+  private static final int BUCKET_SIZE = 2;
+  private static final int LOOKUPS_PER_NETWORK = 2;
+  private static final int LEAVING = 4;
+  /**
+   * Sizes of the benchmark runs.
+   */
+  private static final int BENCHMARK_NETWORKS = 64;
+  private static final int BENCHMARK_BUCKET_SIZE = 4;
+  private static final int BENCHMARK_LOOKUPS_PER_NETWORK = 5;
+  private static final int BENCHMARK_LEAVING = 8;
+  private final String channel = "test-routing-channel";
+  private P2pNetwork[] networks;
+  private MockEngine[] engines;
+  private Conduit[] conduits;
+
+  /**
+   * Stops the networks.
+   */
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    for (P2pNetwork network : networks) {
+      network.stop();
+    }
+  }
+
+  /**
+   * Runs the discovery and lookup on 32 networks with buckets of 2 contacts.
+   */
+  @Test
+  void testDiscoveryAndLookup() throws IOException, InterruptedException {
+    this.discoveryAndLookup(NETWORKS, BUCKET_SIZE, LOOKUPS_PER_NETWORK);
+  }
+
+  /**
+   * Runs the discovery and lookup on 64 networks with buckets of 4 contacts, and reports the time it takes along with
+   * the requests per lookup.
+   */
+  @Test
+  @Tag("benchmark")
+  void benchmarkDiscoveryAndLookup() throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    double requestsPerLookup = this.discoveryAndLookup(BENCHMARK_NETWORKS, BENCHMARK_BUCKET_SIZE,
+        BENCHMARK_LOOKUPS_PER_NETWORK);
+    System.out.printf("p2p routing discovery and lookup: networks=%d, k=%d, requests per lookup=%.2f, elapsed=%.2fs%n",
+        BENCHMARK_NETWORKS, BENCHMARK_BUCKET_SIZE, requestsPerLookup, (System.nanoTime() - start) / 1e9);
+  }
+
+  /**
+   * Runs the lookups after networks leave on 32 networks, 4 of which leave.
+   */
+  @Test
+  void testLookupAfterNetworksLeave() throws IOException, InterruptedException {
+    this.lookupAfterNetworksLeave(NETWORKS, BUCKET_SIZE, LEAVING);
+  }
+
+  /**
+   * Runs the lookups after networks leave on 64 networks, 8 of which leave, and reports the time it takes.
+   */
+  @Test
+  @Tag("benchmark")
+  void benchmarkLookupAfterNetworksLeave() throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    this.lookupAfterNetworksLeave(BENCHMARK_NETWORKS, BENCHMARK_BUCKET_SIZE, BENCHMARK_LEAVING);
+    System.out.printf("p2p routing lookup after leaving: networks=%d, leaving=%d, elapsed=%.2fs%n",
+        BENCHMARK_NETWORKS, BENCHMARK_LEAVING, (System.nanoTime() - start) / 1e9);
+  }
+
+  /**
+   * Each network joins through the first one. Then, every network keeps O(k log n) contacts rather than all of them,
+   * every network finds any other network by a lookup of O(log n) requests, and unicasts reach networks that the
+   * sender did not know.
+   *
+   * @return the number of requests per lookup.
+   */
+  private double discoveryAndLookup(int count, int bucketSize, int lookupsPerNetwork)
+      throws IOException, InterruptedException {
+    // Arrange
+    this.startNetworks(count, bucketSize);
+
+    // Act
+    long requestsBefore = totalLookupRequests();
+    int lookups = 0;
+    for (int i = 0; i < count; i++) {
+      for (int j = 1; j <= lookupsPerNetwork; j++) {
+        P2pNetwork target = networks[(i + j * 7) % count];
+        if (target == networks[i]) {
+          continue;
+        }
+        ArrayList<Contact> closest = networks[i].lookup(target.getId());
+        lookups++;
+        Assertions.assertFalse(closest.isEmpty());
+        Assertions.assertEquals(target.getId(), closest.get(0).getIdentifier());
+        Assertions.assertEquals(target.getAddress(), closest.get(0).getAddress());
+      }
+    }
+    double requestsPerLookup = (double) (totalLookupRequests() - requestsBefore) / lookups;
+
+    // Assert
+    int log = 32 - Integer.numberOfLeadingZeros(count);
+    for (P2pNetwork network : networks) {
+      int size = network.getRoutingTable().size();
+      Assertions.assertTrue(size > 0);
+      Assertions.assertTrue(size <= bucketSize * (log + 2), "routing table is too large: " + size);
+    }
+    Assertions.assertTrue(requestsPerLookup <= P2pNetwork.LOOKUP_PARALLELISM * (log + 2),
+        "too many requests per lookup: " + requestsPerLookup);
+
+    // unicasts are resolved through the routing table, as no network has an id to address map.
+    for (int i = 0; i < count; i++) {
+      Entity entity = new EntityFixture();
+      Conduit conduit = conduits[i];
+      int target = (i + count / 2) % count;
+      Assertions.assertDoesNotThrow(() -> conduit.unicast(entity, networks[target].getId()));
+      Assertions.assertTrue(engines[target].hasReceived(entity));
+    }
+    Assertions.assertNull(networks[0].resolve(IdentifierFixture.newIdentifier()));
+    return requestsPerLookup;
+  }
+
+  /**
+   * Each network joins through the first one, and then some networks leave without notice. Then, the remaining
+   * networks still find each other, and a lookup of a network that left drops it from the routing table of the
+   * network that looks it up, as it does not reply.
+   */
+  private void lookupAfterNetworksLeave(int count, int bucketSize, int leaving)
+      throws IOException, InterruptedException {
+    // Arrange
+    this.startNetworks(count, bucketSize);
+
+    // Act
+    for (int i = count - leaving; i < count; i++) {
+      networks[i].stop();
+    }
+
+    // Assert
+    for (int i = 0; i < count - leaving; i++) {
+      P2pNetwork target = networks[(i + 1) % (count - leaving)];
+      Assertions.assertEquals(target.getId(), networks[i].lookup(target.getId()).get(0).getIdentifier());
+      Identifier left = networks[count - 1 - i % leaving].getId();
+      for (Contact contact : networks[i].lookup(left)) {
+        Assertions.assertNotEquals(left, contact.getIdentifier());
+      }
+      Assertions.assertNull(networks[i].getRoutingTable().get(left));
+    }
+  }
+
+  /**
+   * Starts the given number of networks, each of which joins through the first one.
+   */
+  private void startNetworks(int count, int bucketSize) throws IOException, InterruptedException {
+    networks = new P2pNetwork[count];
+    engines = new MockEngine[count];
+    conduits = new Conduit[count];
+    for (int i = 0; i < count; i++) {
+      networks[i] = new P2pNetwork(IdentifierFixture.newIdentifier(), PORT_ZERO, P2pNetwork.DEFAULT_REPLICATION, null,
+          0, bucketSize);
+      engines[i] = new MockEngine();
+      conduits[i] = networks[i].register(engines[i], channel);
+      networks[i].start();
+    }
+    Contact seed = new Contact(networks[0].getId(), networks[0].getAddress());
+    for (int i = 1; i < count; i++) {
+      networks[i].bootstrap(Collections.singletonList(seed));
+    }
+  }
+
+  private long totalLookupRequests() {
+    long total = 0;
+    for (P2pNetwork network : networks) {
+      total += network.getLookupRequests();
+    }
+    return total;
+  }
+}
@@ -1,29 +1,340 @@
 package networking.p2p;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Entity;
+import model.exceptions.LightChainDistributedStorageException;
+import model.lightchain.Identifier;
+import modules.codec.ReedSolomon;
+import network.p2p.P2pConduit;
+import network.p2p.P2pNetwork;
+import networking.MockEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import unittest.fixtures.EntityFixture;
+import unittest.fixtures.EntityFixtureList;
+import unittest.fixtures.IdentifierFixture;
+
 /**
- * Encapsulates tests for p2p storage.
+ * Encapsulates tests for p2p storage, i.e., the distributed hash table of in-process networks on loopback. Each
+ * network has one engine on channel 1 and one engine on channel 2.
  */
 public class StorageTest {
-  // Add a test case for each of following scenarios, for now use a hash table per network instance for storage of
-  // entities.
-  // 1.Run a system with 10 networks each with one engine on channel 1 and one engine on channel 2.
-  // Each engine concurrently puts 100 entities on the channel that it is registered on.
-  // Then, all engines registering on channel 1 should be able to get all entities that other
-  // engines have put on this channel (total of 1000), while could not get any of
-  // entities that have been put on channel 2. The same should be true for engines of channel 2.
-  //
-  // 2. Create 10 networks, all having two mock engine registering one registering on
-  // channel 1 and the other on channel 2. Each engine concurrently puts 100 entities on the channel
-  // that it is registered on. Then check the Distributed storage component of
-  // each stub network, and all stored entities on the Distributed storage components of each node
-  // should satisfy condition 2 regarding their identifier. Moreover, the union of all stored entities
-  // across all storage components should be exactly the 1000 original entities that are stored.
-  // Moreover, no two Distributed storage components should share the same entity.
-  //
-  // 3. Create 10 networks, all having two mock engine registering one registering
-  // on channel 1 and the other on channel 2.
-  // Each engine concurrently puts only one entity 100 times on the channel it is registered on.
-  // So a total of 10 unique entities are stored.
-  // Then check the union of all stored entities across all storage components
-  // should be exactly the 10 unique original entities that are stored.
+  private static final int PORT_ZERO = 0;
+  private static final int NETWORKS = 10;
+  private static final int ENTITIES_PER_ENGINE = 5;
+  /**
+   * Number of entities each engine puts in the benchmark runs, i.e., a total of 1000 entities per channel.
+   */
+  private static final int BENCHMARK_ENTITIES_PER_ENGINE = 100;
+  private static final int DATA_SHARDS = 4;
+  private static final int PARITY_SHARDS = 2;
+  private final String channel1 = "test-storage-channel-1";
+  private final String channel2 = "test-storage-channel-2";
+  private P2pNetwork[] networks;
+  private P2pConduit[] conduits1;
+  private P2pConduit[] conduits2;
+
+  /**
+   * Stops the networks.
+   */
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    for (P2pNetwork network : networks) {
+      network.stop();
+    }
+  }
+
+  /**
+   * Each engine concurrently puts 5 entities on the channel that it is registered on, and all of them are retrieved
+   * on that channel only.
+   */
+  @Test
+  void testPutAndGetAcrossChannels() throws LightChainDistributedStorageException {
+    this.putAndGetAcrossChannels(ENTITIES_PER_ENGINE);
+  }
+
+  /**
+   * Runs the put and get across channels with 100 entities per engine (total of 1000 per channel), and reports the
+   * time it takes.
+   */
+  @Test
+  @Tag("benchmark")
+  void benchmarkPutAndGetAcrossChannels() throws LightChainDistributedStorageException {
+    long start = System.nanoTime();
+    this.putAndGetAcrossChannels(BENCHMARK_ENTITIES_PER_ENGINE);
+    System.out.printf("p2p storage put and get: networks=%d, entities per engine=%d, elapsed=%.2fs%n", NETWORKS,
+        BENCHMARK_ENTITIES_PER_ENGINE, (System.nanoTime() - start) / 1e9);
+  }
+
+  /**
+   * Each engine concurrently puts the given number of entities on the channel that it is registered on. Then, all
+   * engines registered on channel 1 get all entities that other engines have put on this channel, both one at a time
+   * and in a single batch, while they cannot get any of the entities that have been put on channel 2. The same holds
+   * for engines of channel 2.
+   */
+  private void putAndGetAcrossChannels(int entitiesPerEngine) throws LightChainDistributedStorageException {
+    // Arrange
+    this.startNetworks(P2pNetwork.DEFAULT_REPLICATION);
+    ArrayList<ArrayList<Entity>> entities1 = newEntities(entitiesPerEngine);
+    ArrayList<ArrayList<Entity>> entities2 = newEntities(entitiesPerEngine);
+
+    // Act
+    this.putConcurrently(conduits1, entities1);
+    this.putConcurrently(conduits2, entities2);
+
+    // Assert
+    ArrayList<Identifier> ids1 = ids(flatten(entities1));
+    ArrayList<Identifier> ids2 = ids(flatten(entities2));
+    for (int i = 0; i < NETWORKS; i++) {
+      Assertions.assertEquals(ids1, ids(conduits1[i].get(ids1)));
+      Assertions.assertEquals(ids2, ids(conduits2[i].get(ids2)));
+      Assertions.assertTrue(conduits1[i].get(ids2).isEmpty());
+      Assertions.assertTrue(conduits2[i].get(ids1).isEmpty());
+    }
+    Entity entity = entities1.get(0).get(0);
+    Assertions.assertEquals(entity, conduits1[NETWORKS - 1].get(entity.id()));
+    Assertions.assertNull(conduits2[NETWORKS - 1].get(entity.id()));
+    Assertions.assertNull(conduits1[0].get(IdentifierFixture.newIdentifier()));
+  }
+
+  /**
+   * Each engine concurrently puts 5 entities on the channel that it is registered on, without replication. Then,
+   * every entity is stored on the local store of exactly its responsible node, the union of all local stores is
+   * exactly the 50 entities of the channel, and all of them are returned by allEntities.
+   */
+  @Test
+  void testEntitiesArePartitioned() throws LightChainDistributedStorageException {
+    // Arrange
+    this.startNetworks(1);
+    ArrayList<ArrayList<Entity>> entities1 = newEntities(ENTITIES_PER_ENGINE);
+
+    // Act
+    this.putConcurrently(conduits1, entities1);
+
+    // Assert
+    HashSet<Identifier> union = new HashSet<>();
+    int total = 0;
+    for (P2pNetwork network : networks) {
+      ArrayList<Identifier> stored = network.getStorage().identifiers(channel1);
+      total += stored.size();
+      union.addAll(stored);
+      Assertions.assertTrue(network.getStorage().identifiers(channel2).isEmpty());
+    }
+    Assertions.assertEquals(NETWORKS * ENTITIES_PER_ENGINE, total);
+    HashSet<Identifier> ids1 = new HashSet<>(ids(flatten(entities1)));
+    Assertions.assertEquals(ids1, union);
+    ArrayList<Entity> all = conduits1[0].allEntities();
+    Assertions.assertEquals(NETWORKS * ENTITIES_PER_ENGINE, all.size());
+    Assertions.assertEquals(ids1, new HashSet<>(ids(all)));
+    Assertions.assertTrue(conduits2[0].allEntities().isEmpty());
+  }
+
+  /**
+   * Each engine puts the same entity 5 times on its channel, so that a total of 10 unique entities are stored,
+   * each of them on as many nodes as the replication. Then, every entity is still found, one at a time and by
+   * allEntities, once the primary node of the entity leaves the network.
+   */
+  @Test
+  void testReplicasServeMissingPrimary() throws LightChainDistributedStorageException, InterruptedException {
+    // Arrange
+    this.startNetworks(P2pNetwork.DEFAULT_REPLICATION);
+    ArrayList<ArrayList<Entity>> entities1 = new ArrayList<>();
+    for (int i = 0; i < NETWORKS; i++) {
+      Entity entity = new EntityFixture();
+      ArrayList<Entity> same = new ArrayList<>();
+      for (int j = 0; j < ENTITIES_PER_ENGINE; j++) {
+        same.add(entity);
+      }
+      entities1.add(same);
+    }
+
+    // Act
+    this.putConcurrently(conduits1, entities1);
+
+    // Assert
+    int total = 0;
+    for (P2pNetwork network : networks) {
+      total += network.getStorage().identifiers(channel1).size();
+    }
+    Assertions.assertEquals(NETWORKS * P2pNetwork.DEFAULT_REPLICATION, total);
+    Assertions.assertEquals(NETWORKS, conduits1[0].allEntities().size());
+
+    // the last network leaves without the others noticing, and the entities it is the primary node of are served by
+    // their replicas.
+    networks[NETWORKS - 1].stop();
+    for (ArrayList<Entity> same : entities1) {
+      Assertions.assertEquals(same.get(0), conduits1[0].get(same.get(0).id()));
+    }
+    Assertions.assertEquals(NETWORKS, conduits1[0].allEntities().size());
+
+    // once no other network can be reached, all entities cannot be retrieved from the local store alone.
+    for (int i = 1; i < NETWORKS - 1; i++) {
+      networks[i].stop();
+    }
+    Assertions.assertThrows(LightChainDistributedStorageException.class, () -> conduits1[0].allEntities());
+  }
+
+  /**
+   * Each engine concurrently puts 5 entities on channel 1 with erasure coding, and all of them are retrieved, also
+   * once as many nodes as parity shards leave the network.
+   */
+  @Test
+  void testErasureCodedEntities() throws LightChainDistributedStorageException, InterruptedException {
+    this.erasureCodedEntities(ENTITIES_PER_ENGINE);
+  }
+
+  /**
+   * Runs the erasure coded put and get with 100 entities per engine (total of 1000), and reports the time it takes.
+   */
+  @Test
+  @Tag("benchmark")
+  void benchmarkErasureCodedEntities() throws LightChainDistributedStorageException, InterruptedException {
+    long start = System.nanoTime();
+    this.erasureCodedEntities(BENCHMARK_ENTITIES_PER_ENGINE);
+    System.out.printf("p2p storage erasure coded (k=%d, m=%d): networks=%d, entities per engine=%d, elapsed=%.2fs%n",
+        DATA_SHARDS, PARITY_SHARDS, NETWORKS, BENCHMARK_ENTITIES_PER_ENGINE, (System.nanoTime() - start) / 1e9);
+  }
+
+  /**
+   * Each engine concurrently puts the given number of entities on channel 1 with erasure coding, so that every entity
+   * is split into 4 data and 2 parity shards stored on distinct nodes, and no node stores a whole entity but only its
+   * placement record. Then, all engines get all entities, and they still do once 2 of the nodes leave the network.
+   */
+  private void erasureCodedEntities(int entitiesPerEngine)
+      throws LightChainDistributedStorageException, InterruptedException {
+    // Arrange
+    this.startNetworks(P2pNetwork.DEFAULT_REPLICATION, new ReedSolomon(DATA_SHARDS, PARITY_SHARDS));
+    ArrayList<ArrayList<Entity>> entities1 = newEntities(entitiesPerEngine);
+    ArrayList<Identifier> ids1 = ids(flatten(entities1));
+
+    // Act
+    this.putConcurrently(conduits1, entities1);
+
+    // Assert
+    int shards = 0;
+    int records = 0;
+    for (P2pNetwork network : networks) {
+      // the replicas of an entity only hold its empty placement record.
+      for (Identifier identifier : network.getStorage().identifiers(channel1)) {
+        Assertions.assertEquals(0, network.getStorage().fetch(channel1, identifier).getBytes().length);
+        records++;
+      }
+      for (int i = 0; i < DATA_SHARDS + PARITY_SHARDS; i++) {
+        shards += network.getStorage().identifiers(channel1 + "/shard-" + i).size();
+      }
+    }
+    Assertions.assertEquals(NETWORKS * entitiesPerEngine * (DATA_SHARDS + PARITY_SHARDS), shards);
+    Assertions.assertEquals(NETWORKS * entitiesPerEngine * P2pNetwork.DEFAULT_REPLICATION, records);
+    Assertions.assertEquals(new HashSet<>(ids1), new HashSet<>(ids(conduits1[0].allEntities())));
+    for (int i = 0; i < NETWORKS; i++) {
+      Assertions.assertEquals(ids1, ids(conduits1[i].get(ids1)));
+      Assertions.assertTrue(conduits2[i].get(ids1).isEmpty());
+    }
+
+    // as many nodes as parity shards leave without the others noticing, and their shards are made up for by parity.
+    for (int i = 0; i < PARITY_SHARDS; i++) {
+      networks[NETWORKS - 1 - i].stop();
+    }
+    for (int i = 0; i < NETWORKS - PARITY_SHARDS; i++) {
+      Assertions.assertEquals(ids1, ids(conduits1[i].get(ids1)));
+    }
+    Assertions.assertEquals(new HashSet<>(ids1), new HashSet<>(ids(conduits1[0].allEntities())));
+  }
+
+  private void startNetworks(int replication) {
+    this.startNetworks(replication, null);
+  }
+
+  /**
+   * Starts the networks, erasure coding all entities if an erasure code is given.
+   */
+  private void startNetworks(int replication, ReedSolomon erasure) {
+    networks = new P2pNetwork[NETWORKS];
+    conduits1 = new P2pConduit[NETWORKS];
+    conduits2 = new P2pConduit[NETWORKS];
+    AtomicInteger threadErrorCount = new AtomicInteger();
+    for (int i = 0; i < NETWORKS; i++) {
+      networks[i] = new P2pNetwork(IdentifierFixture.newIdentifier(), PORT_ZERO, replication, erasure, 0);
+      conduits1[i] = (P2pConduit) networks[i].register(new MockEngine(), channel1);
+      conduits2[i] = (P2pConduit) networks[i].register(new MockEngine(), channel2);
+      try {
+        networks[i].start();
+      } catch (IOException e) {
+        threadErrorCount.incrementAndGet();
+      }
+    }
+    Assertions.assertEquals(0, threadErrorCount.get());
+
+    ConcurrentMap<Identifier, String> idToAddressMap = new ConcurrentHashMap<>();
+    for (P2pNetwork network : networks) {
+      idToAddressMap.put(network.getId(), network.getAddress());
+    }
+    for (P2pNetwork network : networks) {
+      network.setIdToAddressMap(idToAddressMap);
+    }
+  }
+
+  /**
+   * Puts the i-th list of entities through the i-th conduit, all conduits concurrently.
+   */
+  private void putConcurrently(P2pConduit[] conduits, ArrayList<ArrayList<Entity>> entities) {
+    AtomicInteger threadErrorCount = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(conduits.length);
+    for (int i = 0; i < conduits.length; i++) {
+      int finalI = i;
+      new Thread(() -> {
+        try {
+          for (Entity entity : entities.get(finalI)) {
+            conduits[finalI].put(entity);
+          }
+        } catch (LightChainDistributedStorageException e) {
+          threadErrorCount.incrementAndGet();
+        }
+        done.countDown();
+      }).start();
+    }
+    try {
+      Assertions.assertTrue(done.await(120, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Assertions.fail();
+    }
+    Assertions.assertEquals(0, threadErrorCount.get());
+  }
+
+  /**
+   * Creates the given number of entities for each engine.
+   */
+  private static ArrayList<ArrayList<Entity>> newEntities(int entitiesPerEngine) {
+    ArrayList<ArrayList<Entity>> entities = new ArrayList<>();
+    for (int i = 0; i < NETWORKS; i++) {
+      entities.add(EntityFixtureList.newList(entitiesPerEngine));
+    }
+    return entities;
+  }
+
+  private static ArrayList<Entity> flatten(ArrayList<ArrayList<Entity>> entities) {
+    ArrayList<Entity> flat = new ArrayList<>();
+    for (ArrayList<Entity> list : entities) {
+      flat.addAll(list);
+    }
+    return flat;
+  }
+
+  private static ArrayList<Identifier> ids(ArrayList<Entity> entities) {
+    ArrayList<Identifier> ids = new ArrayList<>();
+    for (Entity entity : entities) {
+      ids.add(entity.id());
+    }
+    return ids;
+  }
 }
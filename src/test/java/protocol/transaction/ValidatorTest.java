@@ -9,9 +9,11 @@ import model.lightchain.Identifier;
 import model.lightchain.Transaction;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import protocol.Parameters;
 import state.Snapshot;
 import state.State;
 import unittest.fixtures.AccountFixture;
+import unittest.fixtures.IdentifierFixture;
 import unittest.fixtures.TransactionFixture;
 import unittest.fixtures.ValidatedTransactionFixture;
 
@@ -44,6 +46,39 @@ public class ValidatorTest {
     Assertions.assertFalse(result);
   }
 
+  /**
+   * Evaluates the transaction validation fails when the reference block is further behind the last finalized block
+   * than the reference block window, and passes when it is exactly at the edge of the window.
+   */
+  @Test
+  public void testTransactionIsNotValid_ReferenceBlockTooOld() {
+    // Arrange
+    /// Transaction
+    Transaction transaction = ValidatedTransactionFixture.newValidatedTransaction();
+
+    /// State & Snapshot Mocking
+    State mockState = mock(State.class);
+    Snapshot mockSnapshot = mock(Snapshot.class);
+    Snapshot lastSnapshot = mock(Snapshot.class);
+    Account senderAccount = AccountFixture.newAccount(transaction.getSender());
+    Account receiverAccount = AccountFixture.newAccount(transaction.getReceiver());
+
+    when(mockState.atBlockId(transaction.getReferenceBlockId())).thenReturn(mockSnapshot);
+    when(mockState.last()).thenReturn(lastSnapshot);
+    when(mockSnapshot.getReferenceBlockHeight()).thenReturn(10L);
+    when(mockSnapshot.getAccount(transaction.getSender())).thenReturn(senderAccount);
+    when(mockSnapshot.getAccount(transaction.getReceiver())).thenReturn(receiverAccount);
+
+    /// Verifier
+    InfTransactionValidator verifier = new TransactionValidator(mockState);
+
+    // Act & Assert
+    when(lastSnapshot.getReferenceBlockHeight()).thenReturn(10L + Parameters.REFERENCE_BLOCK_WINDOW + 1);
+    Assertions.assertFalse(verifier.isCorrect(transaction));
+    when(lastSnapshot.getReferenceBlockHeight()).thenReturn(10L + Parameters.REFERENCE_BLOCK_WINDOW);
+    Assertions.assertEquals(transaction.getAmount() > 0, verifier.isCorrect(transaction));
+  }
+
   /**
    * Evaluates the transaction validation fails when sender identifier does not refer to a valid account at the
    * snapshot of reference block.
@@ -301,6 +336,89 @@ public class ValidatorTest {
     Assertions.assertTrue(result);
   }
 
+  /**
+   * Evaluates the transaction validation passes when the snapshot of the last block of sender account has been pruned,
+   * and the reference block is the one indexed at its height within the reference block window.
+   */
+  @Test
+  public void testTransactionIsSound_PrunedLastBlock() {
+    // Arrange
+    /// Transaction
+    Transaction transaction = ValidatedTransactionFixture.newValidatedTransaction();
+
+    /// State & Snapshot Mocking
+    State mockState = mock(State.class);
+    Snapshot mockTransactionSnapshot = mock(Snapshot.class);
+    Snapshot mockLastSnapshot = mock(Snapshot.class);
+
+    Identifier sender = transaction.getSender();
+    Account senderAccount = AccountFixture.newAccount(sender);
+
+    when(mockState.atBlockId(transaction.getReferenceBlockId())).thenReturn(mockTransactionSnapshot);
+    when(mockTransactionSnapshot.getAccount(sender)).thenReturn(senderAccount);
+    when(mockState.atBlockId(senderAccount.getLastBlockId())).thenReturn(null);
+
+    when(mockTransactionSnapshot.getReferenceBlockHeight()).thenReturn(200L);
+    when(mockTransactionSnapshot.getReferenceBlockId()).thenReturn(transaction.getReferenceBlockId());
+    when(mockState.atHeight(200L)).thenReturn(mockTransactionSnapshot);
+    when(mockState.last()).thenReturn(mockLastSnapshot);
+    when(mockLastSnapshot.getReferenceBlockHeight()).thenReturn(200L + Parameters.REFERENCE_BLOCK_WINDOW);
+
+    /// Verifier
+    InfTransactionValidator verifier = new TransactionValidator(mockState);
+
+    // Act
+    boolean result = verifier.isSound(transaction);
+
+    // Assert
+    Assertions.assertTrue(result);
+  }
+
+  /**
+   * Evaluates the transaction validation fails when the snapshot of the last block of sender account has been pruned,
+   * and the reference block is either a fork of the block indexed at its height, or lies outside the reference block
+   * window.
+   */
+  @Test
+  public void testTransactionIsNotSound_PrunedLastBlock() {
+    // Arrange
+    /// Transaction
+    Transaction transaction = ValidatedTransactionFixture.newValidatedTransaction();
+
+    /// State & Snapshot Mocking
+    State mockState = mock(State.class);
+    Snapshot mockTransactionSnapshot = mock(Snapshot.class);
+    Snapshot mockIndexedSnapshot = mock(Snapshot.class);
+    Snapshot mockLastSnapshot = mock(Snapshot.class);
+
+    Identifier sender = transaction.getSender();
+    Account senderAccount = AccountFixture.newAccount(sender);
+
+    when(mockState.atBlockId(transaction.getReferenceBlockId())).thenReturn(mockTransactionSnapshot);
+    when(mockTransactionSnapshot.getAccount(sender)).thenReturn(senderAccount);
+    when(mockState.atBlockId(senderAccount.getLastBlockId())).thenReturn(null);
+
+    when(mockTransactionSnapshot.getReferenceBlockHeight()).thenReturn(200L);
+    when(mockTransactionSnapshot.getReferenceBlockId()).thenReturn(transaction.getReferenceBlockId());
+    when(mockIndexedSnapshot.getReferenceBlockId()).thenReturn(IdentifierFixture.newIdentifier());
+    when(mockState.atHeight(200L)).thenReturn(mockIndexedSnapshot);
+    when(mockState.last()).thenReturn(mockLastSnapshot);
+    when(mockLastSnapshot.getReferenceBlockHeight()).thenReturn(210L);
+
+    /// Verifier
+    InfTransactionValidator verifier = new TransactionValidator(mockState);
+
+    // Act
+    boolean fork = verifier.isSound(transaction);
+    when(mockState.atHeight(200L)).thenReturn(mockTransactionSnapshot);
+    when(mockLastSnapshot.getReferenceBlockHeight()).thenReturn(201L + Parameters.REFERENCE_BLOCK_WINDOW);
+    boolean tooOld = verifier.isSound(transaction);
+
+    // Assert
+    Assertions.assertFalse(fork);
+    Assertions.assertFalse(tooOld);
+  }
+
   /**
    * Evaluates the transaction validation fails when the transaction signature verification against
    * its sender public key fails.
@@ -0,0 +1,183 @@
+package state;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import model.exceptions.CodecException;
+import model.lightchain.Account;
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import protocol.Parameters;
+import state.table.RetentionPolicy;
+import state.table.SnapshotEncoder;
+import state.table.TableSnapshot;
+import state.table.TableState;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for deltas between snapshots.
+ */
+public class SnapshotDeltaTest {
+  private static final int ACCOUNTS = 100;
+  private static final int SNAPSHOTS = 10;
+  private static final int RETAINED_SNAPSHOTS = 140;
+  private static final int CHANGES_PER_BLOCK = 3;
+  private final Random random = new Random();
+
+  /**
+   * Evaluates that the delta between two snapshots holds exactly the accounts changed by the blocks in between, with
+   * their values as of the later snapshot, and that applying it on the earlier snapshot results in the later one.
+   */
+  @Test
+  public void testDelta() {
+    // Arrange
+    TableState state = new TableState();
+    ArrayList<HashSet<Identifier>> changes = new ArrayList<>();
+    ArrayList<TableSnapshot> snapshots = this.populate(state, changes);
+    TableSnapshot from = snapshots.get(2);
+    TableSnapshot to = snapshots.get(7);
+
+    // Act
+    SnapshotDelta delta = state.delta(from.getReferenceBlockId(), to.getReferenceBlockId());
+
+    // Assert
+    HashSet<Identifier> expected = new HashSet<>();
+    for (int height = 3; height <= 7; height++) {
+      expected.addAll(changes.get(height));
+    }
+    Assertions.assertEquals(expected, new HashSet<>(delta.getChangedAccounts()));
+    Assertions.assertEquals(expected.size(), delta.size());
+    for (Account account : delta) {
+      Assertions.assertSame(to.getAccount(account.getIdentifier()), account);
+    }
+    Assertions.assertEquals(expected, delta.stream().map(Account::getIdentifier).collect(Collectors.toSet()));
+
+    TableSnapshot applied = delta.applyTo(from);
+    Assertions.assertEquals(to.root(), applied.root());
+    Assertions.assertEquals(0, state.delta(to.getReferenceBlockId(), to.getReferenceBlockId()).size());
+  }
+
+  /**
+   * Evaluates that a delta survives encoding and decoding, and that the decoded delta applies the same way.
+   */
+  @Test
+  public void testEncoding() throws CodecException {
+    // Arrange
+    TableState state = new TableState();
+    ArrayList<TableSnapshot> snapshots = this.populate(state, new ArrayList<>());
+    TableSnapshot from = snapshots.get(0);
+    TableSnapshot to = snapshots.get(SNAPSHOTS - 1);
+    SnapshotDelta delta = state.delta(from.getReferenceBlockId(), to.getReferenceBlockId());
+    SnapshotEncoder encoder = new SnapshotEncoder();
+
+    // Act
+    byte[] encoded = encoder.encodeDelta(delta);
+    SnapshotDelta decoded = encoder.decodeDelta(encoded);
+
+    // Assert
+    Assertions.assertEquals(delta.getFromBlockId(), decoded.getFromBlockId());
+    Assertions.assertEquals(delta.getFromHeight(), decoded.getFromHeight());
+    Assertions.assertEquals(delta.getToBlockId(), decoded.getToBlockId());
+    Assertions.assertEquals(delta.getToHeight(), decoded.getToHeight());
+    Assertions.assertEquals(delta.getChangedAccounts(), decoded.getChangedAccounts());
+    Assertions.assertEquals(to.root(), decoded.applyTo(from).root());
+    Assertions.assertTrue(encoded.length < encoder.encode(to).length);
+  }
+
+  /**
+   * Evaluates that deltas within the retained heights apply, and that deltas over pruned heights, across chains or
+   * backwards are rejected.
+   */
+  @Test
+  public void testInvalidAndPrunedDeltas() throws InterruptedException {
+    // Arrange
+    /// heights 10 to 139 are retained, along with the checkpoints at heights 0, 4 and 8.
+    TableState state = new TableState(new RetentionPolicy(130, 4));
+    ArrayList<TableSnapshot> snapshots = this.populate(state, new ArrayList<>(), RETAINED_SNAPSHOTS);
+    state.awaitPruning();
+    TableSnapshot pruned = snapshots.get(1);
+    TableSnapshot checkpoint = snapshots.get(4);
+    TableSnapshot from = snapshots.get(RETAINED_SNAPSHOTS - 3);
+    TableSnapshot to = snapshots.get(RETAINED_SNAPSHOTS - 1);
+    Assertions.assertNull(state.atBlockId(pruned.getReferenceBlockId()));
+    Assertions.assertNotNull(state.atBlockId(checkpoint.getReferenceBlockId()));
+
+    // Act & Assert
+    SnapshotDelta delta = state.delta(from.getReferenceBlockId(), to.getReferenceBlockId());
+    Assertions.assertEquals(to.root(), delta.applyTo(from).root());
+
+    /// change sets are pruned along with their snapshots, so neither a pruned snapshot nor a checkpoint below pruned
+    /// heights can start a delta.
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> state.delta(pruned.getReferenceBlockId(), to.getReferenceBlockId()));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> state.delta(checkpoint.getReferenceBlockId(), to.getReferenceBlockId()));
+
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> state.delta(to.getReferenceBlockId(), snapshots.get(RETAINED_SNAPSHOTS - 2).getReferenceBlockId()));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> state.delta(IdentifierFixture.newIdentifier(), to.getReferenceBlockId()));
+
+    // a fork of the snapshot at height 137 is not on the same chain as the indexed one.
+    TableSnapshot fork = new TableSnapshot(IdentifierFixture.newIdentifier(), 137, snapshots.get(136));
+    state.addSnapshot(fork.getReferenceBlockId(), fork);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> state.delta(snapshots.get(RETAINED_SNAPSHOTS - 3).getReferenceBlockId(), fork.getReferenceBlockId()));
+    state.shutdown();
+  }
+
+  /**
+   * Adds a genesis snapshot and derived snapshots on top of it, each changing a few random accounts.
+   *
+   * @param state   the state to fill.
+   * @param changes filled with the accounts changed at each height.
+   * @return the added snapshots ordered by height.
+   */
+  private ArrayList<TableSnapshot> populate(TableState state, ArrayList<HashSet<Identifier>> changes) {
+    return this.populate(state, changes, SNAPSHOTS);
+  }
+
+  /**
+   * Adds a genesis snapshot and the given number of snapshots in total, each derived from the previous one by changing
+   * a few random accounts.
+   *
+   * @param state   the state to fill.
+   * @param changes filled with the accounts changed at each height.
+   * @param count   total number of snapshots, including the genesis.
+   * @return the added snapshots ordered by height.
+   */
+  private ArrayList<TableSnapshot> populate(TableState state, ArrayList<HashSet<Identifier>> changes, int count) {
+    ArrayList<Identifier> accountIds = new ArrayList<>();
+    Identifier genesisId = IdentifierFixture.newIdentifier();
+    TableSnapshot genesis = new TableSnapshot(genesisId, 0);
+    for (int i = 0; i < ACCOUNTS; i++) {
+      Identifier accountId = IdentifierFixture.newIdentifier();
+      accountIds.add(accountId);
+      genesis.addAccount(accountId, new Account(accountId, null, genesisId, Parameters.MINIMUM_STAKE));
+    }
+    state.addSnapshot(genesisId, genesis);
+    changes.add(new HashSet<>(accountIds));
+
+    ArrayList<TableSnapshot> snapshots = new ArrayList<>();
+    snapshots.add(genesis);
+    for (int height = 1; height < count; height++) {
+      Identifier blockId = IdentifierFixture.newIdentifier();
+      TableSnapshot snapshot = new TableSnapshot(blockId, height, snapshots.get(height - 1));
+      HashSet<Identifier> changed = new HashSet<>();
+      for (int i = 0; i < CHANGES_PER_BLOCK; i++) {
+        Identifier accountId = accountIds.get(random.nextInt(ACCOUNTS));
+        Account account = new Account(accountId, null, blockId, Parameters.MINIMUM_STAKE);
+        account.setBalance(random.nextInt(1000));
+        snapshot.addAccount(accountId, account);
+        changed.add(accountId);
+      }
+      state.addSnapshot(blockId, snapshot);
+      snapshots.add(snapshot);
+      changes.add(changed);
+    }
+    return snapshots;
+  }
+}
@@ -0,0 +1,200 @@
+package state.columnar;
+
+import java.util.ArrayList;
+
+import model.crypto.PublicKey;
+import model.lightchain.Account;
+import model.lightchain.Identifier;
+import modules.ads.mtrie.PersistentMerklePatriciaTrie;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import protocol.Parameters;
+import state.table.SnapshotEncoder;
+import state.table.TableSnapshot;
+import state.table.TableState;
+import unittest.fixtures.IdentifierFixture;
+import unittest.fixtures.KeyGenFixture;
+
+/**
+ * Encapsulates tests for the columnar off-heap implementation of state snapshot.
+ */
+public class ColumnarSnapshotTest {
+  private static final int ACCOUNTS = 1_000;
+
+  /**
+   * Evaluates that accounts read back from the columns equal the ones added, that public keys shared by several
+   * accounts are stored once, and that the columns take a bounded number of off-heap bytes per account.
+   */
+  @Test
+  public void testColumnarSnapshot() {
+    // Arrange
+    PublicKeyTable keys = new PublicKeyTable();
+    Identifier rootBlockId = IdentifierFixture.newIdentifier();
+    ColumnarSnapshot snapshot = new ColumnarSnapshot(rootBlockId, 10L, ACCOUNTS, keys);
+    PublicKey sharedKey = KeyGenFixture.newKeyGen().getPublicKey();
+    ArrayList<Account> accounts = newAccounts(ACCOUNTS, sharedKey);
+
+    // Act
+    for (Account account : accounts) {
+      snapshot.addAccount(account.getIdentifier(), account);
+    }
+
+    // Assert
+    Assertions.assertEquals(rootBlockId, snapshot.getReferenceBlockId());
+    Assertions.assertEquals(10L, snapshot.getReferenceBlockHeight());
+    Assertions.assertEquals(ACCOUNTS, snapshot.size());
+    Assertions.assertEquals(ACCOUNTS, snapshot.all().size());
+    Assertions.assertEquals(1, keys.size());
+    for (Account expected : accounts) {
+      Account actual = snapshot.getAccount(expected.getIdentifier());
+      Assertions.assertNotNull(actual);
+      Assertions.assertEquals(expected.getIdentifier(), actual.getIdentifier());
+      Assertions.assertEquals(expected.getLastBlockId(), actual.getLastBlockId());
+      Assertions.assertEquals(expected.getBalance(), actual.getBalance());
+      Assertions.assertEquals(expected.getStake(), actual.getStake());
+      if (expected.getPublicKey() == null) {
+        Assertions.assertNull(actual.getPublicKey());
+      } else {
+        Assertions.assertArrayEquals(expected.getPublicKey().getBytes(), actual.getPublicKey().getBytes());
+      }
+    }
+    Assertions.assertNull(snapshot.getAccount(IdentifierFixture.newIdentifier()));
+    /// a row of fixed-width columns per account, and at most four index slots per account.
+    long rowBytes = Identifier.Size + Double.BYTES + 3L * Integer.BYTES;
+    Assertions.assertTrue(snapshot.offHeapBytes() <= ACCOUNTS * (rowBytes + 4L * Integer.BYTES),
+        "too many off-heap bytes: " + snapshot.offHeapBytes());
+  }
+
+  /**
+   * Evaluates that a columnar snapshot has the same root as a table snapshot with the same accounts, also when derived
+   * from a parent, and that its membership proofs verify.
+   */
+  @Test
+  public void testRootMatchesTableSnapshot() {
+    // Arrange
+    PublicKeyTable keys = new PublicKeyTable();
+    ArrayList<Account> accounts = newAccounts(ACCOUNTS, KeyGenFixture.newKeyGen().getPublicKey());
+    Identifier parentId = IdentifierFixture.newIdentifier();
+    ColumnarSnapshot parent = new ColumnarSnapshot(parentId, 10L, ACCOUNTS, keys);
+    TableSnapshot tableParent = new TableSnapshot(parentId, 10L);
+    for (Account account : accounts) {
+      parent.addAccount(account.getIdentifier(), account);
+      tableParent.addAccount(account.getIdentifier(), account);
+    }
+    TableState state = new TableState();
+    state.addSnapshot(parentId, parent);
+    Assertions.assertTrue(parent.isSealed());
+    Assertions.assertEquals(tableParent.root(), parent.root());
+
+    // Act
+    Identifier childId = IdentifierFixture.newIdentifier();
+    ColumnarSnapshot child = new ColumnarSnapshot(childId, 11L, parent, 1);
+    Account changed = new Account(accounts.get(0).getIdentifier(), null, childId, Parameters.MINIMUM_STAKE);
+    changed.setBalance(42);
+    child.addAccount(changed.getIdentifier(), changed);
+    Account added = new Account(IdentifierFixture.newIdentifier(), null, childId, Parameters.MINIMUM_STAKE);
+    child.addAccount(added.getIdentifier(), added);
+    state.addSnapshot(childId, child);
+
+    // Assert
+    TableSnapshot tableChild = new TableSnapshot(childId, 11L, tableParent);
+    tableChild.addAccount(changed.getIdentifier(), changed);
+    tableChild.addAccount(added.getIdentifier(), added);
+    Assertions.assertEquals(tableChild.root(), child.root());
+    Assertions.assertNotEquals(parent.root(), child.root());
+    Assertions.assertEquals(ACCOUNTS + 1, child.size());
+    Assertions.assertEquals(42, child.getAccount(changed.getIdentifier()).getBalance());
+    Assertions.assertEquals(accounts.get(0).getBalance(), parent.getAccount(changed.getIdentifier()).getBalance());
+
+    SnapshotEncoder encoder = new SnapshotEncoder();
+    for (Account account : child.all()) {
+      Assertions.assertTrue(PersistentMerklePatriciaTrie.verify(account.getIdentifier(), encoder.hashAccount(account),
+          child.proof(account.getIdentifier())));
+    }
+  }
+
+  /**
+   * Evaluates that a chain of columnar snapshots, each derived from a parent whose root was never asked for, has the
+   * same roots as the matching chain of table snapshots.
+   */
+  @Test
+  public void testChildOfUnhashedParent() {
+    // Arrange
+    PublicKeyTable keys = new PublicKeyTable();
+    ArrayList<Account> accounts = newAccounts(ACCOUNTS, KeyGenFixture.newKeyGen().getPublicKey());
+    Identifier blockId = IdentifierFixture.newIdentifier();
+    ColumnarSnapshot columnar = new ColumnarSnapshot(blockId, 0L, ACCOUNTS, keys);
+    TableSnapshot table = new TableSnapshot(blockId, 0L);
+    for (Account account : accounts) {
+      columnar.addAccount(account.getIdentifier(), account);
+      table.addAccount(account.getIdentifier(), account);
+    }
+    TableState state = new TableState();
+    state.addSnapshot(blockId, columnar);
+
+    // Act
+    for (long height = 1; height <= 5; height++) {
+      blockId = IdentifierFixture.newIdentifier();
+      columnar = new ColumnarSnapshot(blockId, height, columnar, 1);
+      table = new TableSnapshot(blockId, height, table);
+      Account changed = new Account(accounts.get((int) height).getIdentifier(), null, blockId,
+          Parameters.MINIMUM_STAKE);
+      changed.setBalance(height);
+      columnar.addAccount(changed.getIdentifier(), changed);
+      table.addAccount(changed.getIdentifier(), changed);
+      state.addSnapshot(blockId, columnar);
+    }
+
+    // Assert
+    Assertions.assertEquals(table.root(), columnar.root());
+    Assertions.assertEquals(ACCOUNTS, columnar.size());
+    Assertions.assertEquals(1, columnar.changeSet().size());
+  }
+
+  /**
+   * Evaluates that a full or sealed snapshot rejects further accounts, while an existing account can still be
+   * replaced in a full snapshot.
+   */
+  @Test
+  public void testCapacityAndSealing() {
+    // Arrange
+    ColumnarSnapshot snapshot = new ColumnarSnapshot(IdentifierFixture.newIdentifier(), 10L, 2, new PublicKeyTable());
+    ArrayList<Account> accounts = newAccounts(3, null);
+    snapshot.addAccount(accounts.get(0).getIdentifier(), accounts.get(0));
+    snapshot.addAccount(accounts.get(1).getIdentifier(), accounts.get(1));
+
+    // Act & Assert
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> snapshot.addAccount(accounts.get(2).getIdentifier(), accounts.get(2)));
+    snapshot.addAccount(accounts.get(0).getIdentifier(), accounts.get(1));
+    Assertions.assertEquals(2, snapshot.size());
+
+    snapshot.seal();
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> snapshot.addAccount(accounts.get(0).getIdentifier(), accounts.get(0)));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ColumnarSnapshot(IdentifierFixture.newIdentifier(), 10L, 0, new PublicKeyTable()));
+  }
+
+  /**
+   * Creates accounts, every other one holding the given public key and the rest holding no public key.
+   *
+   * @param count     number of accounts.
+   * @param publicKey public key shared by half of the accounts.
+   * @return the accounts.
+   */
+  private static ArrayList<Account> newAccounts(int count, PublicKey publicKey) {
+    ArrayList<Account> accounts = new ArrayList<>();
+    ArrayList<Identifier> lastBlockIds = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      lastBlockIds.add(IdentifierFixture.newIdentifier());
+    }
+    for (int i = 0; i < count; i++) {
+      Account account = new Account(IdentifierFixture.newIdentifier(), i % 2 == 0 ? publicKey : null,
+          lastBlockIds.get(i % lastBlockIds.size()), Parameters.MINIMUM_STAKE + i);
+      account.setBalance(i * 1.5);
+      accounts.add(account);
+    }
+    return accounts;
+  }
+}
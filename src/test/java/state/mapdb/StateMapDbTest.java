@@ -0,0 +1,263 @@
+package state.mapdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import model.lightchain.Account;
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import protocol.Parameters;
+import state.Snapshot;
+import state.SnapshotDelta;
+import state.table.TableSnapshot;
+import unittest.fixtures.IdentifierFixture;
+import unittest.fixtures.KeyGenFixture;
+
+/**
+ * Encapsulates tests for the disk-backed state.
+ */
+public class StateMapDbTest {
+  private static final String TEMP_DIR = "tempdir";
+  private static final String TEMP_FILE = "tempfile.db";
+  private static final int SNAPSHOTS = 10;
+  private static final int ACCOUNTS = 5;
+  private Path tempdir;
+
+  /**
+   * Set the tests up.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that snapshots and their accounts survive closing and reopening the database, and that the tip of the
+   * state is restored on reopen.
+   */
+  @Test
+  void testSurvivesRestart() {
+    // Arrange
+    StateMapDb state = new StateMapDb(this.path());
+    ArrayList<TableSnapshot> snapshots = this.populate(state);
+    state.closeDb();
+
+    // Act
+    StateMapDb reopened = new StateMapDb(this.path());
+
+    // Assert
+    Assertions.assertEquals(snapshots.get(SNAPSHOTS - 1).getReferenceBlockId(), reopened.last().getReferenceBlockId());
+    for (TableSnapshot expected : snapshots) {
+      Snapshot actual = reopened.atBlockId(expected.getReferenceBlockId());
+      Assertions.assertNotNull(actual);
+      Assertions.assertEquals(expected.getReferenceBlockHeight(), actual.getReferenceBlockHeight());
+      Assertions.assertEquals(ACCOUNTS + 1, actual.all().size());
+      for (Account account : expected.all()) {
+        Account decoded = actual.getAccount(account.getIdentifier());
+        Assertions.assertNotNull(decoded);
+        Assertions.assertEquals(account.getLastBlockId(), decoded.getLastBlockId());
+        Assertions.assertEquals(account.getBalance(), decoded.getBalance());
+        Assertions.assertEquals(account.getStake(), decoded.getStake());
+        if (account.getPublicKey() == null) {
+          Assertions.assertNull(decoded.getPublicKey());
+        } else {
+          Assertions.assertArrayEquals(account.getPublicKey().getBytes(), decoded.getPublicKey().getBytes());
+        }
+      }
+    }
+    reopened.closeDb();
+  }
+
+  /**
+   * Evaluates that recently referenced snapshots are served from the cache, while evicted ones are decoded from disk.
+   */
+  @Test
+  void testRecentSnapshotsAreCached() {
+    // Arrange
+    StateMapDb state = new StateMapDb(this.path(), 2);
+    ArrayList<TableSnapshot> snapshots = this.populate(state);
+    Identifier recent = snapshots.get(SNAPSHOTS - 1).getReferenceBlockId();
+    Identifier old = snapshots.get(0).getReferenceBlockId();
+
+    // Act & Assert
+    Assertions.assertSame(snapshots.get(SNAPSHOTS - 1), state.atBlockId(recent));
+    Assertions.assertEquals(1, state.cacheHits());
+    Assertions.assertEquals(0, state.cacheMisses());
+
+    Snapshot decoded = state.atBlockId(old);
+    Assertions.assertNotSame(snapshots.get(0), decoded);
+    Assertions.assertEquals(1, state.cacheMisses());
+    Assertions.assertSame(decoded, state.atBlockId(old));
+    Assertions.assertEquals(2, state.cacheHits());
+    Assertions.assertEquals(2, state.cachedSnapshots());
+
+    Assertions.assertNull(state.atBlockId(IdentifierFixture.newIdentifier()));
+    state.closeDb();
+  }
+
+  /**
+   * Evaluates height-based lookups, and that adding a snapshot twice for the same block is rejected.
+   */
+  @Test
+  void testHeightIndex() {
+    // Arrange
+    StateMapDb state = new StateMapDb(this.path());
+    ArrayList<TableSnapshot> snapshots = this.populate(state);
+
+    // Act & Assert
+    for (TableSnapshot snapshot : snapshots) {
+      Assertions.assertEquals(snapshot.getReferenceBlockId(),
+          state.atHeight(snapshot.getReferenceBlockHeight()).getReferenceBlockId());
+    }
+    Assertions.assertNull(state.atHeight(SNAPSHOTS));
+
+    ArrayList<Snapshot> range = state.range(3, 6);
+    Assertions.assertEquals(4, range.size());
+    for (int i = 0; i < range.size(); i++) {
+      Assertions.assertEquals(snapshots.get(3 + i).getReferenceBlockId(), range.get(i).getReferenceBlockId());
+    }
+    Assertions.assertTrue(state.range(6, 3).isEmpty());
+
+    TableSnapshot duplicate = snapshots.get(0);
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> state.addSnapshot(duplicate.getReferenceBlockId(), duplicate));
+    state.closeDb();
+  }
+
+  /**
+   * Evaluates that the change sets of snapshots are persisted, so that deltas are available after a restart.
+   */
+  @Test
+  void testDeltaSurvivesRestart() {
+    // Arrange
+    StateMapDb state = new StateMapDb(this.path());
+    Identifier genesisId = IdentifierFixture.newIdentifier();
+    TableSnapshot genesis = new TableSnapshot(genesisId, 0);
+    for (int i = 0; i < ACCOUNTS; i++) {
+      Identifier accountId = IdentifierFixture.newIdentifier();
+      genesis.addAccount(accountId, new Account(accountId, null, genesisId, Parameters.MINIMUM_STAKE));
+    }
+    state.addSnapshot(genesisId, genesis);
+    Identifier changedId = genesis.all().get(0).getIdentifier();
+    TableSnapshot parent = genesis;
+    for (int height = 1; height < SNAPSHOTS; height++) {
+      Identifier blockId = IdentifierFixture.newIdentifier();
+      TableSnapshot snapshot = new TableSnapshot(blockId, height, parent);
+      Account changed = new Account(changedId, null, blockId, Parameters.MINIMUM_STAKE);
+      changed.setBalance(height);
+      snapshot.addAccount(changedId, changed);
+      state.addSnapshot(blockId, snapshot);
+      parent = snapshot;
+    }
+    state.closeDb();
+
+    // Act
+    StateMapDb reopened = new StateMapDb(this.path());
+    SnapshotDelta delta = reopened.delta(genesisId, parent.getReferenceBlockId());
+
+    // Assert
+    Assertions.assertEquals(1, delta.size());
+    Assertions.assertEquals(SNAPSHOTS - 1, delta.iterator().next().getBalance());
+    Assertions.assertEquals(parent.root(), delta.applyTo(genesis).root());
+    reopened.closeDb();
+  }
+
+  /**
+   * Evaluates that an added snapshot is sealed and cached as is, and that after a restart a snapshot whose parent is
+   * cached is decoded on top of the parent, i.e., with only its change set rehashed, while the tip, which is decoded
+   * on reopening without its parent, is decoded in full; both with the same root as the added snapshot.
+   */
+  @Test
+  void testDecodesOnTopOfCachedParent() {
+    // Arrange
+    StateMapDb state = new StateMapDb(this.path());
+    Identifier genesisId = IdentifierFixture.newIdentifier();
+    TableSnapshot genesis = new TableSnapshot(genesisId, 0);
+    for (int i = 0; i < ACCOUNTS; i++) {
+      Identifier accountId = IdentifierFixture.newIdentifier();
+      genesis.addAccount(accountId, new Account(accountId, null, genesisId, Parameters.MINIMUM_STAKE));
+    }
+    state.addSnapshot(genesisId, genesis);
+    ArrayList<TableSnapshot> snapshots = new ArrayList<>();
+    snapshots.add(genesis);
+    for (int height = 1; height < SNAPSHOTS; height++) {
+      Identifier blockId = IdentifierFixture.newIdentifier();
+      TableSnapshot snapshot = new TableSnapshot(blockId, height, snapshots.get(height - 1));
+      Identifier changedId = genesis.all().get(height % ACCOUNTS).getIdentifier();
+      Account changed = new Account(changedId, null, blockId, Parameters.MINIMUM_STAKE);
+      changed.setBalance(height);
+      snapshot.addAccount(changedId, changed);
+      state.addSnapshot(blockId, snapshot);
+      Assertions.assertTrue(snapshot.isSealed());
+      Assertions.assertSame(snapshot, state.atBlockId(blockId));
+      snapshots.add(snapshot);
+    }
+    state.closeDb();
+
+    // Act
+    StateMapDb reopened = new StateMapDb(this.path());
+    Snapshot last = reopened.last();
+    ArrayList<Snapshot> decoded = reopened.range(0, SNAPSHOTS - 1);
+
+    // Assert
+    /// without a cached parent, every account is in the change set of the decoded snapshot.
+    Assertions.assertEquals(snapshots.get(SNAPSHOTS - 1).root(), last.root());
+    Assertions.assertNull(last.changeSet().getParentBlockId());
+    Assertions.assertEquals(ACCOUNTS, last.changeSet().size());
+    Assertions.assertEquals(SNAPSHOTS, decoded.size());
+    for (int height = 1; height < SNAPSHOTS - 1; height++) {
+      Assertions.assertEquals(snapshots.get(height).root(), decoded.get(height).root());
+      Assertions.assertEquals(snapshots.get(height - 1).getReferenceBlockId(),
+          decoded.get(height).changeSet().getParentBlockId());
+      Assertions.assertEquals(snapshots.get(height).changeSet().getAccounts(),
+          decoded.get(height).changeSet().getAccounts());
+    }
+    reopened.closeDb();
+  }
+
+  private String path() {
+    return tempdir.toAbsolutePath() + "/" + TEMP_FILE;
+  }
+
+  /**
+   * Adds snapshots at heights zero onwards, each holding accounts with real public keys and one account without.
+   *
+   * @param state the state to fill.
+   * @return the added snapshots ordered by height.
+   */
+  private ArrayList<TableSnapshot> populate(StateMapDb state) {
+    ArrayList<TableSnapshot> snapshots = new ArrayList<>();
+    for (int height = 0; height < SNAPSHOTS; height++) {
+      Identifier blockId = IdentifierFixture.newIdentifier();
+      TableSnapshot snapshot = new TableSnapshot(blockId, height);
+      for (int i = 0; i < ACCOUNTS; i++) {
+        Account account = new Account(IdentifierFixture.newIdentifier(), KeyGenFixture.newKeyGen().getPublicKey(),
+            IdentifierFixture.newIdentifier(), Parameters.MINIMUM_STAKE + i);
+        account.setBalance(100 * i + 0.5);
+        snapshot.addAccount(account.getIdentifier(), account);
+      }
+      Account keyless = new Account(IdentifierFixture.newIdentifier(), null, blockId, 0);
+      snapshot.addAccount(keyless.getIdentifier(), keyless);
+      state.addSnapshot(blockId, snapshot);
+      snapshots.add(snapshot);
+    }
+    return snapshots;
+  }
+}
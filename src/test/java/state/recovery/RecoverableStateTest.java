@@ -0,0 +1,343 @@
+package state.recovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.lightchain.Account;
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import model.lightchain.Transaction;
+import model.lightchain.ValidatedTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import state.Snapshot;
+import state.table.RetentionPolicy;
+import state.table.TableSnapshot;
+import unittest.fixtures.IdentifierFixture;
+import unittest.fixtures.ValidatedTransactionFixture;
+
+/**
+ * Encapsulates tests for the crash recovery of the state from its checkpoint and write-ahead log. Closing the state
+ * without a checkpoint stands for a crash, as every ingested block is on disk by then.
+ */
+public class RecoverableStateTest {
+  private static final String TEMP_DIR = "tempdir";
+  private static final int CHECKPOINT_INTERVAL = 8;
+
+  /**
+   * Number of accounts the blocks are proposed by, which bounds the size of a snapshot.
+   */
+  private static final int ACCOUNTS = 16;
+  private Path tempdir;
+  private ArrayList<Identifier> accounts;
+
+  /**
+   * Set the tests up.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+    accounts = new ArrayList<>();
+    for (int i = 0; i < ACCOUNTS; i++) {
+      accounts.add(IdentifierFixture.newIdentifier());
+    }
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that a reopened state resumes at the latest ingested block, by replaying only the blocks logged since
+   * the last checkpoint, and that the pending transactions of the checkpoint are restored, except for the ones
+   * included in the replayed blocks.
+   */
+  @Test
+  void testRecoversFromCheckpointAndLog() {
+    // Arrange
+    int length = 2 * CHECKPOINT_INTERVAL + 4;
+    RecoverableState state = this.open("state");
+    ValidatedTransaction kept = ValidatedTransactionFixture.newValidatedTransaction();
+    ValidatedTransaction included = ValidatedTransactionFixture.newValidatedTransaction();
+    Assertions.assertTrue(state.pending().add(kept));
+    Assertions.assertTrue(state.pending().add(included));
+    ArrayList<Block> chain = this.newChain(length, length - 2, included);
+
+    // Act
+    for (Block block : chain) {
+      Assertions.assertTrue(state.ingest(block));
+    }
+    Assertions.assertFalse(state.ingest(chain.get(length - 1)));
+    Snapshot before = state.last();
+    state.closeDb();
+    state = this.open("state");
+
+    // Assert
+    Assertions.assertEquals(length % CHECKPOINT_INTERVAL, state.replayedBlocks());
+    Snapshot after = state.last();
+    Assertions.assertEquals(chain.get(length - 1).id(), after.getReferenceBlockId());
+    Assertions.assertEquals(length - 1, after.getReferenceBlockHeight());
+    Assertions.assertEquals(before.root(), after.root());
+    Assertions.assertEquals(before.all().size(), after.all().size());
+    Assertions.assertTrue(state.pending().has(kept.id()));
+    Assertions.assertFalse(state.pending().has(included.id()));
+    Assertions.assertEquals(1, state.pending().size());
+    RecoverableState reopened = state;
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> reopened.addSnapshot(after.getReferenceBlockId(), after));
+    reopened.closeDb();
+  }
+
+  /**
+   * Evaluates that a torn append at the end of the log is dropped on recovery, and that the blocks logged before it
+   * are replayed and ingesting resumes after them.
+   */
+  @Test
+  void testDropsTornLogTail() throws IOException {
+    // Arrange
+    int length = CHECKPOINT_INTERVAL - 1;
+    ArrayList<Block> chain = this.newChain(length + 1, -1, null);
+    RecoverableState state = this.open("torn");
+    for (int i = 0; i < length; i++) {
+      state.ingest(chain.get(i));
+    }
+    long logSize = state.logSize();
+    state.closeDb();
+
+    // Act
+    Files.write(tempdir.resolve("torn").resolve("wal.log"), new byte[] {0, 0, 1, 0, 1, 2, 3},
+        StandardOpenOption.APPEND);
+    state = this.open("torn");
+
+    // Assert
+    Assertions.assertEquals(length, state.replayedBlocks());
+    Assertions.assertEquals(logSize, state.logSize());
+    Assertions.assertEquals(chain.get(length - 1).id(), state.last().getReferenceBlockId());
+    Assertions.assertTrue(state.ingest(chain.get(length)));
+    state.checkpoint();
+    Assertions.assertEquals(0, state.logSize());
+    state.closeDb();
+  }
+
+  /**
+   * Evaluates that the number of blocks replayed on reopening the state does not depend on the length of the chain,
+   * since only the blocks since the last checkpoint are replayed.
+   */
+  @Test
+  void testReplayIsBoundedByCheckpoints() {
+    int[] lengths = {64, 256, 1024};
+    for (int length : lengths) {
+      // the chain ends halfway through a checkpoint interval, so each reopening replays as many blocks.
+      int total = length + CHECKPOINT_INTERVAL / 2;
+      String name = "chain-" + length;
+      RecoverableState state = this.open(name);
+      for (Block block : this.newChain(total, -1, null)) {
+        state.ingest(block);
+      }
+      state.closeDb();
+
+      state = this.open(name);
+
+      Assertions.assertEquals(total - 1, state.last().getReferenceBlockHeight());
+      Assertions.assertEquals(CHECKPOINT_INTERVAL / 2, state.replayedBlocks());
+      state.closeDb();
+    }
+  }
+
+  /**
+   * Evaluates the time to open the state against the length of the chain ingested before, which stays flat since only
+   * the blocks since the last checkpoint are replayed.
+   */
+  @Test
+  @Tag("benchmark")
+  void startupTimeByChainLengthTest() {
+    int[] lengths = {64, 256, 1024, 2048};
+    for (int length : lengths) {
+      int total = length + CHECKPOINT_INTERVAL / 2;
+      String name = "startup-" + length;
+      RecoverableState state = this.open(name);
+      for (Block block : this.newChain(total, -1, null)) {
+        state.ingest(block);
+      }
+      state.closeDb();
+
+      long start = System.nanoTime();
+      state = this.open(name);
+      double elapsed = (System.nanoTime() - start) / 1e6;
+
+      System.out.printf("chain of %d blocks: startup %.2f ms, replayed %d blocks%n", total, elapsed,
+          state.replayedBlocks());
+      Assertions.assertEquals(total - 1, state.last().getReferenceBlockHeight());
+      Assertions.assertEquals(CHECKPOINT_INTERVAL / 2, state.replayedBlocks());
+      state.closeDb();
+    }
+  }
+
+  /**
+   * Evaluates that a block that does not extend the latest snapshot is rejected without being logged, and that
+   * ingesting resumes with the block that does extend it.
+   */
+  @Test
+  void testRejectsBlockNotExtendingLatestSnapshot() {
+    // Arrange
+    ArrayList<Block> chain = this.newChain(2, -1, null);
+    RecoverableState state = this.open("fork");
+    Assertions.assertTrue(state.ingest(chain.get(0)));
+    long logSize = state.logSize();
+    Block fork = new Block(IdentifierFixture.newIdentifier(), accounts.get(1), 1,
+        new ValidatedTransaction[] {ValidatedTransactionFixture.newValidatedTransaction()});
+
+    // Act & Assert
+    Assertions.assertThrows(IllegalArgumentException.class, () -> state.ingest(fork));
+    Assertions.assertEquals(logSize, state.logSize());
+    Assertions.assertEquals(chain.get(0).id(), state.last().getReferenceBlockId());
+    Assertions.assertTrue(state.ingest(chain.get(1)));
+    state.closeDb();
+  }
+
+  /**
+   * Evaluates that a block the transition rejects is not logged, hence not replayed on reopening the state.
+   */
+  @Test
+  void testRejectedTransitionIsNotLogged() {
+    // Arrange
+    ArrayList<Block> chain = this.newChain(2, -1, null);
+    String path = tempdir.resolve("rejected").toAbsolutePath().toString();
+    RecoverableState state = new RecoverableState(path, (parent, block) -> {
+      if (block.getHeight() > 0) {
+        throw new IllegalStateException("rejected block: " + block.id());
+      }
+      return this.transition(parent, block);
+    }, CHECKPOINT_INTERVAL, new RetentionPolicy(RetentionPolicy.MIN_RECENT_HEIGHTS, 0));
+    Assertions.assertTrue(state.ingest(chain.get(0)));
+    long logSize = state.logSize();
+
+    // Act
+    Assertions.assertThrows(IllegalStateException.class, () -> state.ingest(chain.get(1)));
+    state.closeDb();
+    RecoverableState reopened = this.open("rejected");
+
+    // Assert
+    Assertions.assertEquals(logSize, reopened.logSize());
+    Assertions.assertEquals(1, reopened.replayedBlocks());
+    Assertions.assertEquals(chain.get(0).id(), reopened.last().getReferenceBlockId());
+    reopened.closeDb();
+  }
+
+  /**
+   * Evaluates that checkpoints taken while the pending pool keeps changing are consistent, i.e., a state opened from
+   * each of them holds only transactions that were added to the pool, and exactly the pool once it settles.
+   */
+  @Test
+  void testCheckpointWhilePoolChanges() throws InterruptedException, IOException {
+    // Arrange
+    RecoverableState state = this.open("pool");
+    for (Block block : this.newChain(CHECKPOINT_INTERVAL / 2, -1, null)) {
+      state.ingest(block);
+    }
+    HashSet<Identifier> added = new HashSet<>();
+    ArrayList<ValidatedTransaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      ValidatedTransaction transaction = ValidatedTransactionFixture.newValidatedTransaction();
+      transactions.add(transaction);
+      added.add(transaction.id());
+    }
+    AtomicBoolean done = new AtomicBoolean();
+    RecoverableState changing = state;
+    Thread writer = new Thread(() -> {
+      while (!done.get()) {
+        for (ValidatedTransaction transaction : transactions) {
+          changing.pending().add(transaction);
+        }
+        for (ValidatedTransaction transaction : transactions) {
+          changing.pending().remove(transaction.id());
+        }
+      }
+    });
+
+    // Act & Assert
+    writer.start();
+    for (int i = 0; i < 20; i++) {
+      state.checkpoint();
+      // opens a copy of the checkpoint, as the state keeps its own directory open.
+      String copy = "pool-" + i;
+      Files.createDirectories(tempdir.resolve(copy));
+      Files.copy(tempdir.resolve("pool").resolve("checkpoint"), tempdir.resolve(copy).resolve("checkpoint"));
+      RecoverableState restored = this.open(copy);
+      for (Transaction transaction : restored.pending()) {
+        Assertions.assertTrue(added.contains(transaction.id()));
+      }
+      restored.closeDb();
+    }
+    done.set(true);
+    writer.join();
+
+    for (ValidatedTransaction transaction : transactions) {
+      state.pending().add(transaction);
+    }
+    state.checkpoint();
+    state.closeDb();
+    state = this.open("pool");
+    HashSet<Identifier> restored = new HashSet<>();
+    for (Transaction transaction : state.pending()) {
+      restored.add(transaction.id());
+    }
+    Assertions.assertEquals(added, restored);
+    state.closeDb();
+  }
+
+  private RecoverableState open(String name) {
+    return new RecoverableState(tempdir.resolve(name).toAbsolutePath().toString(), this::transition,
+        CHECKPOINT_INTERVAL, new RetentionPolicy(RetentionPolicy.MIN_RECENT_HEIGHTS, 0));
+  }
+
+  /**
+   * Derives the snapshot of a block from its parent by updating the account of the proposer of the block.
+   */
+  private Snapshot transition(Snapshot parent, Block block) {
+    TableSnapshot snapshot = parent == null
+        ? new TableSnapshot(block.id(), block.getHeight())
+        : new TableSnapshot(block.id(), block.getHeight(), (TableSnapshot) parent);
+    Identifier proposer = block.getProposer();
+    snapshot.addAccount(proposer, new Account(proposer, null, block.id(), block.getHeight()));
+    return snapshot;
+  }
+
+  /**
+   * Creates a chain of blocks proposed by the fixed accounts.
+   *
+   * @param length      number of blocks.
+   * @param height      height of the block carrying the given transaction, or -1 for none.
+   * @param transaction transaction to include at the given height.
+   * @return the chain of blocks, ordered by height.
+   */
+  private ArrayList<Block> newChain(int length, int height, ValidatedTransaction transaction) {
+    ArrayList<Block> chain = new ArrayList<>();
+    Identifier previousBlockId = IdentifierFixture.newIdentifier();
+    for (int h = 0; h < length; h++) {
+      ValidatedTransaction[] transactions = {
+          h == height ? transaction : ValidatedTransactionFixture.newValidatedTransaction()
+      };
+      Block block = new Block(previousBlockId, accounts.get(h % ACCOUNTS), h, transactions);
+      chain.add(block);
+      previousBlockId = block.id();
+    }
+    return chain;
+  }
+}
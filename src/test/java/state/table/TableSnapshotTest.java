@@ -1,9 +1,13 @@
 package state.table;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 
+import model.crypto.Sha3256Hash;
 import model.lightchain.Account;
 import model.lightchain.Identifier;
+import modules.ads.MembershipProof;
+import modules.ads.mtrie.PersistentMerklePatriciaTrie;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import protocol.Parameters;
@@ -57,4 +61,125 @@ public class TableSnapshotTest {
     Assertions.assertTrue(tableSnapshot.all().containsAll(accounts)
         && accounts.containsAll(tableSnapshot.all()));
   }
+
+  /**
+   * Evaluates that a snapshot is sealed once it is published to the state, and rejects further accounts afterwards.
+   */
+  @Test
+  public void testSealOnPublish() {
+    // Arrange
+    Identifier rootBlockId = IdentifierFixture.newIdentifier();
+    TableSnapshot tableSnapshot = new TableSnapshot(rootBlockId, 10L);
+    Identifier accountId = IdentifierFixture.newIdentifier();
+    tableSnapshot.addAccount(accountId, AccountFixture.newAccount(accountId));
+    Assertions.assertFalse(tableSnapshot.isSealed());
+
+    // Act
+    TableState tableState = new TableState();
+    tableState.addSnapshot(rootBlockId, tableSnapshot);
+
+    // Assert
+    Assertions.assertTrue(tableSnapshot.isSealed());
+    Identifier otherId = IdentifierFixture.newIdentifier();
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> tableSnapshot.addAccount(otherId, AccountFixture.newAccount(otherId)));
+    Assertions.assertEquals(1, tableSnapshot.size());
+    Assertions.assertNull(tableSnapshot.getAccount(otherId));
+  }
+
+  /**
+   * Evaluates that the root of a snapshot derived from a parent only reflects the accounts changed since the parent,
+   * and that every account of the snapshot has a valid membership proof against the root.
+   */
+  @Test
+  public void testIncrementalRoot() {
+    // Arrange
+    SnapshotEncoder encoder = new SnapshotEncoder();
+    TableSnapshot parent = new TableSnapshot(IdentifierFixture.newIdentifier(), 10L);
+    ArrayList<Identifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Identifier accountId = IdentifierFixture.newIdentifier();
+      Account account = new Account(accountId, null, parent.getReferenceBlockId(), Parameters.MINIMUM_STAKE);
+      parent.addAccount(accountId, account);
+      identifiers.add(accountId);
+    }
+    parent.seal();
+
+    // Act
+    TableSnapshot unchanged = new TableSnapshot(IdentifierFixture.newIdentifier(), 11L, parent);
+    unchanged.seal();
+    TableSnapshot child = new TableSnapshot(IdentifierFixture.newIdentifier(), 11L, parent);
+    Identifier changedId = identifiers.get(0);
+    Account changed = new Account(changedId, null, child.getReferenceBlockId(), Parameters.MINIMUM_STAKE);
+    changed.setBalance(100);
+    child.addAccount(changedId, changed);
+    child.seal();
+
+    // Assert
+    Assertions.assertEquals(parent.root(), unchanged.root());
+    Assertions.assertNotEquals(parent.root(), child.root());
+    Assertions.assertEquals(20, child.size());
+
+    TableSnapshot rebuilt = new TableSnapshot(child.getReferenceBlockId(), 11L);
+    for (Account account : child.all()) {
+      rebuilt.addAccount(account.getIdentifier(), account);
+    }
+    Assertions.assertEquals(child.root(), rebuilt.root());
+
+    for (Identifier identifier : identifiers) {
+      MembershipProof proof = child.proof(identifier);
+      Assertions.assertEquals(child.root(), proof.getRoot());
+      Assertions.assertTrue(PersistentMerklePatriciaTrie.verify(identifier,
+          encoder.hashAccount(child.getAccount(identifier)), proof));
+    }
+    Assertions.assertFalse(PersistentMerklePatriciaTrie.verify(changedId,
+        encoder.hashAccount(parent.getAccount(changedId)), child.proof(changedId)));
+    Assertions.assertNull(child.proof(IdentifierFixture.newIdentifier()));
+  }
+
+  /**
+   * Evaluates that changing an account inherited from a parent snapshot neither changes the account of the parent nor
+   * its root, while the root of the derived snapshot reflects the change.
+   */
+  @Test
+  public void testInheritedAccountsAreCopied() {
+    // Arrange
+    TableSnapshot parent = new TableSnapshot(IdentifierFixture.newIdentifier(), 10L);
+    ArrayList<Identifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Identifier accountId = IdentifierFixture.newIdentifier();
+      Account account = new Account(accountId, null, parent.getReferenceBlockId(), Parameters.MINIMUM_STAKE);
+      account.setBalance(10);
+      parent.addAccount(accountId, account);
+      identifiers.add(accountId);
+    }
+    parent.seal();
+    Sha3256Hash parentRoot = parent.root();
+
+    // Act
+    TableSnapshot child = new TableSnapshot(IdentifierFixture.newIdentifier(), 11L, parent);
+    child.getAccount(identifiers.get(0)).setBalance(100);
+    for (Account account : child.all()) {
+      if (account.getIdentifier().equals(identifiers.get(1))) {
+        account.setBalance(200);
+      }
+    }
+    child.seal();
+
+    // Assert
+    Assertions.assertEquals(10, parent.getAccount(identifiers.get(0)).getBalance());
+    Assertions.assertEquals(10, parent.getAccount(identifiers.get(1)).getBalance());
+    Assertions.assertEquals(parentRoot, parent.root());
+    Assertions.assertEquals(100, child.getAccount(identifiers.get(0)).getBalance());
+    Assertions.assertEquals(200, child.getAccount(identifiers.get(1)).getBalance());
+    Assertions.assertNotEquals(parentRoot, child.root());
+    /// accounts that are only read are copied, but not changed.
+    Assertions.assertEquals(new HashSet<>(identifiers.subList(0, 2)), new HashSet<>(child.changeSet().getAccounts()));
+
+    TableSnapshot rebuilt = new TableSnapshot(child.getReferenceBlockId(), 11L);
+    for (Account account : child.all()) {
+      rebuilt.addAccount(account.getIdentifier(), account);
+    }
+    Assertions.assertEquals(rebuilt.root(), child.root());
+  }
 }
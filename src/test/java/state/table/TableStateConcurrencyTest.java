@@ -0,0 +1,230 @@
+package state.table;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.lightchain.Account;
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import model.lightchain.Transaction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import protocol.Parameters;
+import protocol.block.BlockValidator;
+import protocol.transaction.TransactionValidator;
+import state.Snapshot;
+import unittest.fixtures.AccountFixture;
+import unittest.fixtures.BlockFixture;
+import unittest.fixtures.IdentifierFixture;
+import unittest.fixtures.TransactionFixture;
+
+/**
+ * Encapsulates concurrent read tests and the multi-threaded read benchmark of the table state. The benchmark is tagged,
+ * so that it only runs along with the other benchmarks rather than the unit tests.
+ */
+public class TableStateConcurrencyTest {
+  private static final int SNAPSHOTS = 100;
+  private static final int ACCOUNTS = 1_000;
+  private static final int TRANSACTIONS = 1_000;
+  private static final int VALIDATIONS_PER_THREAD = 100_000;
+  private static final int READERS = 4;
+  private static final int PUBLISHED_SNAPSHOTS = 500;
+  private static final int PUBLISHED_ACCOUNTS = 100;
+  private final Random random = new Random();
+
+  /**
+   * Evaluates that readers never observe a torn snapshot while a writer keeps extending the state: every snapshot
+   * read as the tip holds all of its accounts with the balance written for its height, is indexed by its height and
+   * block id, and the tip never moves backwards.
+   */
+  @Test
+  public void testReadersNeverSeeTornSnapshots() throws InterruptedException {
+    // Arrange
+    TableState state = new TableState();
+    ArrayList<Identifier> accountIds = new ArrayList<>();
+    for (int i = 0; i < PUBLISHED_ACCOUNTS; i++) {
+      accountIds.add(IdentifierFixture.newIdentifier());
+    }
+    Identifier genesisId = IdentifierFixture.newIdentifier();
+    state.addSnapshot(genesisId, this.snapshotAt(genesisId, 0, genesisId, accountIds));
+    AtomicInteger threadError = new AtomicInteger();
+    AtomicInteger reads = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(READERS);
+    Thread writer = new Thread(() -> {
+      for (int height = 1; height <= PUBLISHED_SNAPSHOTS; height++) {
+        Identifier blockId = IdentifierFixture.newIdentifier();
+        state.addSnapshot(blockId, this.snapshotAt(blockId, height, genesisId, accountIds));
+      }
+    });
+
+    // Act
+    for (int i = 0; i < READERS; i++) {
+      new Thread(() -> {
+        long lastHeight = -1;
+        while (lastHeight < PUBLISHED_SNAPSHOTS) {
+          Snapshot tip = state.last();
+          long height = tip.getReferenceBlockHeight();
+          boolean torn = height < lastHeight
+              || state.atHeight(height) != tip
+              || state.atBlockId(tip.getReferenceBlockId()) != tip
+              || tip.all().size() != PUBLISHED_ACCOUNTS;
+          for (Identifier accountId : accountIds) {
+            Account account = tip.getAccount(accountId);
+            torn = torn || account == null || account.getBalance() != height;
+          }
+          if (torn) {
+            threadError.getAndIncrement();
+          }
+          reads.getAndIncrement();
+          lastHeight = height;
+        }
+        done.countDown();
+      }).start();
+    }
+    writer.start();
+
+    // Assert
+    Assertions.assertTrue(done.await(60, TimeUnit.SECONDS));
+    Assertions.assertEquals(0, threadError.get());
+    Assertions.assertTrue(reads.get() >= READERS);
+    Assertions.assertEquals(PUBLISHED_SNAPSHOTS, state.last().getReferenceBlockHeight());
+  }
+
+  /**
+   * Runs the same validation workload with an increasing number of reader threads, and reports the validation
+   * throughput per thread count. Since reads on the state and its snapshots are lock-free, throughput is expected to
+   * grow linearly with the number of cores. The scaling figures are printed rather than asserted, as they depend on
+   * the machine running the tests; every validation must however succeed.
+   */
+  @Test
+  @Tag("benchmark")
+  public void testConcurrentValidationThroughput() throws InterruptedException {
+    // Arrange
+    TableState state = new TableState();
+    ArrayList<Transaction> transactions = new ArrayList<>();
+    Block block = this.populate(state, transactions);
+
+    // Act & Assert
+    double baseline = 0;
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int threads = 1; threads <= cores; threads *= 2) {
+      double throughput = this.validate(state, transactions, block, threads);
+      if (threads == 1) {
+        baseline = throughput;
+      }
+      System.out.printf("table state validation throughput: threads=%d, validations/sec=%.0f, speedup=%.2f%n",
+          threads, throughput, throughput / baseline);
+    }
+  }
+
+  /**
+   * Runs the validation workload on the given number of threads concurrently.
+   *
+   * @param state        the state under validation.
+   * @param transactions transactions to validate.
+   * @param block        block to check the consistency of.
+   * @param threads      number of reader threads.
+   * @return total number of validations per second across all threads.
+   */
+  private double validate(TableState state, ArrayList<Transaction> transactions, Block block, int threads)
+      throws InterruptedException {
+    AtomicInteger threadError = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    Thread[] readers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      int offset = random.nextInt(transactions.size());
+      readers[i] = new Thread(() -> {
+        TransactionValidator transactionValidator = new TransactionValidator(state);
+        BlockValidator blockValidator = new BlockValidator(state);
+        try {
+          start.await();
+          for (int j = 0; j < VALIDATIONS_PER_THREAD; j++) {
+            Transaction tx = transactions.get((offset + j) % transactions.size());
+            if (!transactionValidator.isCorrect(tx)
+                || !transactionValidator.isSound(tx)
+                || !transactionValidator.senderHasEnoughBalance(tx)
+                || !blockValidator.isConsistent(block)) {
+              threadError.getAndIncrement();
+            }
+          }
+        } catch (InterruptedException e) {
+          threadError.getAndIncrement();
+        }
+        done.countDown();
+      });
+      readers[i].start();
+    }
+
+    long startTime = System.nanoTime();
+    start.countDown();
+    Assertions.assertTrue(done.await(120, TimeUnit.SECONDS));
+    long elapsed = System.nanoTime() - startTime;
+    Assertions.assertEquals(0, threadError.get());
+
+    return (double) threads * VALIDATIONS_PER_THREAD / (elapsed / 1_000_000_000.0);
+  }
+
+  /**
+   * Creates a snapshot at the given height whose accounts all hold the height as their balance.
+   *
+   * @param blockId    identifier of the block of the snapshot.
+   * @param height     height of the snapshot.
+   * @param genesisId  identifier of the genesis block, i.e., the last block of every account.
+   * @param accountIds identifiers of the accounts of the snapshot.
+   * @return the snapshot at the given height.
+   */
+  private TableSnapshot snapshotAt(Identifier blockId, long height, Identifier genesisId,
+                                   ArrayList<Identifier> accountIds) {
+    TableSnapshot snapshot = new TableSnapshot(blockId, height);
+    for (Identifier accountId : accountIds) {
+      Account account = AccountFixture.newAccount(accountId, genesisId, Parameters.MINIMUM_STAKE);
+      account.setBalance(height);
+      snapshot.addAccount(accountId, account);
+    }
+    return snapshot;
+  }
+
+  /**
+   * Fills the state with snapshots on top of a genesis snapshot, and creates valid transactions referring to them.
+   *
+   * @param state        the state to fill.
+   * @param transactions list to fill with valid transactions.
+   * @return a block extending the last snapshot of the state.
+   */
+  private Block populate(TableState state, ArrayList<Transaction> transactions) {
+    Identifier genesisId = IdentifierFixture.newIdentifier();
+    ArrayList<Identifier> accountIds = new ArrayList<>();
+    for (int i = 0; i < ACCOUNTS; i++) {
+      accountIds.add(IdentifierFixture.newIdentifier());
+    }
+
+    Identifier blockId = genesisId;
+    ArrayList<Identifier> blockIds = new ArrayList<>();
+    for (int height = 0; height <= SNAPSHOTS; height++) {
+      TableSnapshot snapshot = new TableSnapshot(blockId, height);
+      for (Identifier accountId : accountIds) {
+        Account account = AccountFixture.newAccount(accountId, genesisId, Parameters.MINIMUM_STAKE);
+        account.setBalance(1_000_000);
+        snapshot.addAccount(accountId, account);
+      }
+      state.addSnapshot(blockId, snapshot);
+      blockIds.add(blockId);
+      blockId = IdentifierFixture.newIdentifier();
+    }
+
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      // references any snapshot above genesis, so that the sender's last block (genesis) is strictly lower.
+      Identifier referenceBlockId = blockIds.get(1 + random.nextInt(SNAPSHOTS));
+      Identifier sender = accountIds.get(random.nextInt(ACCOUNTS));
+      Identifier receiver = accountIds.get(random.nextInt(ACCOUNTS));
+      transactions.add(TransactionFixture.newTransaction(referenceBlockId, sender, receiver, sender, 10));
+    }
+
+    return BlockFixture.newBlock(state.last().getReferenceBlockId(), SNAPSHOTS + 1);
+  }
+}
@@ -79,6 +79,259 @@ public class TableStateTest {
 
   }
 
+  /**
+   * Evaluates that last, atHeight and range reflect the height index of snapshots added in arbitrary order.
+   */
+  @Test
+  public void testHeightIndex() {
+    // Arrange
+    ArrayList<Snapshot> snapshots = mockSnapshots(10);
+    TableState tableState = new TableState();
+    for (int i = 0; i < snapshots.size(); i++) {
+      when(snapshots.get(i).getReferenceBlockId()).thenReturn(IdentifierFixture.newIdentifier());
+      when(snapshots.get(i).getReferenceBlockHeight()).thenReturn((long) i);
+    }
+
+    // Act
+    /// adds snapshots with odd heights first, then the even ones, so that the tip moves both forward and stays put.
+    for (int i = 1; i < snapshots.size(); i += 2) {
+      tableState.addSnapshot(snapshots.get(i).getReferenceBlockId(), snapshots.get(i));
+      Assertions.assertEquals(snapshots.get(i), tableState.last());
+    }
+    for (int i = 0; i < snapshots.size(); i += 2) {
+      tableState.addSnapshot(snapshots.get(i).getReferenceBlockId(), snapshots.get(i));
+      Assertions.assertEquals(snapshots.get(9), tableState.last());
+    }
+
+    // Assert
+    for (int i = 0; i < snapshots.size(); i++) {
+      Assertions.assertEquals(snapshots.get(i), tableState.atHeight(i));
+    }
+    Assertions.assertNull(tableState.atHeight(snapshots.size()));
+
+    ArrayList<Snapshot> range = tableState.range(3, 6);
+    Assertions.assertEquals(4, range.size());
+    for (int i = 0; i < range.size(); i++) {
+      Assertions.assertEquals(snapshots.get(i + 3), range.get(i));
+    }
+    Assertions.assertEquals(snapshots.size(), tableState.range(0, Long.MAX_VALUE).size());
+    Assertions.assertTrue(tableState.range(6, 3).isEmpty());
+    Assertions.assertTrue(tableState.range(20, 30).isEmpty());
+  }
+
+  /**
+   * Evaluates that snapshots outside the retention window are pruned in the background, while checkpoints and the
+   * recent window remain retrievable by both block id and height.
+   */
+  @Test
+  public void testRetentionPolicy() throws InterruptedException {
+    // Arrange
+    RetentionPolicy policy = new RetentionPolicy(130, 10);
+    ArrayList<Snapshot> pruned = new ArrayList<>();
+    TableState tableState = new TableState(policy, pruned::add, null);
+    ArrayList<Identifier> blockIds = new ArrayList<>();
+
+    // Act
+    for (int height = 0; height < 175; height++) {
+      Identifier blockId = IdentifierFixture.newIdentifier();
+      TableSnapshot snapshot = new TableSnapshot(blockId, height);
+      for (Map.Entry<Identifier, Account> set : AccountFixture.newAccounts(2, 2).entrySet()) {
+        snapshot.addAccount(set.getKey(), set.getValue());
+      }
+      tableState.addSnapshot(blockId, snapshot);
+      blockIds.add(blockId);
+    }
+    tableState.awaitPruning();
+
+    // Assert
+    /// last 130 heights (45-174) and checkpoints (0, 10, 20, 30, 40) are retained.
+    Assertions.assertEquals(135, tableState.retainedSnapshots());
+    Assertions.assertEquals(40, pruned.size());
+    for (int height = 0; height < 175; height++) {
+      boolean retained = policy.retains(height, 174);
+      Assertions.assertEquals(retained, tableState.atBlockId(blockIds.get(height)) != null);
+      Assertions.assertEquals(retained, tableState.atHeight(height) != null);
+    }
+    Assertions.assertEquals(blockIds.get(174), tableState.last().getReferenceBlockId());
+    Assertions.assertEquals(135, tableState.range(0, 174).size());
+
+    /// retained bytes shrink along with pruned snapshots.
+    TableState keepAll = new TableState();
+    for (int height = 0; height < 175; height++) {
+      Identifier blockId = IdentifierFixture.newIdentifier();
+      TableSnapshot snapshot = new TableSnapshot(blockId, height);
+      for (Map.Entry<Identifier, Account> set : AccountFixture.newAccounts(2, 2).entrySet()) {
+        snapshot.addAccount(set.getKey(), set.getValue());
+      }
+      keepAll.addSnapshot(blockId, snapshot);
+    }
+    Assertions.assertEquals(175, keepAll.retainedSnapshots());
+    Assertions.assertEquals(keepAll.retainedBytes() / 175 * 135, tableState.retainedBytes());
+    tableState.shutdown();
+  }
+
+  /**
+   * Evaluates that snapshots not indexed by height, as another snapshot was added first at their height, are pruned
+   * once their height falls out of the retention window, even at the height of a retained checkpoint.
+   */
+  @Test
+  public void testForksArePruned() throws InterruptedException {
+    // Arrange
+    RetentionPolicy policy = new RetentionPolicy(130, 10);
+    ArrayList<Snapshot> pruned = new ArrayList<>();
+    TableState tableState = new TableState(policy, pruned::add, null);
+    ArrayList<Identifier> forkIds = new ArrayList<>();
+
+    // Act
+    for (int height = 0; height < 175; height++) {
+      TableSnapshot snapshot = newSnapshot(height);
+      tableState.addSnapshot(snapshot.getReferenceBlockId(), snapshot);
+      if (height % 20 == 0) {
+        Identifier forkId = IdentifierFixture.newIdentifier();
+        tableState.addSnapshot(forkId, newSnapshot(forkId, height));
+        forkIds.add(forkId);
+      }
+    }
+    tableState.awaitPruning();
+
+    // Assert
+    /// forks at 0, 20 and 40 fell out of the window, though their heights are checkpoints; the ones at 60-160 remain.
+    for (int i = 0; i < forkIds.size(); i++) {
+      Assertions.assertEquals(i * 20 >= 45, tableState.atBlockId(forkIds.get(i)) != null);
+    }
+    Assertions.assertEquals(135 + 6, tableState.retainedSnapshots());
+    Assertions.assertEquals(40 + 3, pruned.size());
+    for (int height = 0; height < 175; height++) {
+      Assertions.assertEquals(policy.retains(height, 174), tableState.atHeight(height) != null);
+    }
+    tableState.shutdown();
+  }
+
+  /**
+   * Evaluates that only the most recent checkpoints are retained, so that the retained snapshots and their estimated
+   * heap footprint stay flat over a long chain, while older checkpoints are handed to the spill.
+   */
+  @Test
+  public void testCheckpointsAreBounded() throws InterruptedException {
+    // Arrange
+    RetentionPolicy policy = new RetentionPolicy(130, 10, 3);
+    ArrayList<Snapshot> pruned = new ArrayList<>();
+    TableState tableState = new TableState(policy, pruned::add, null);
+    ArrayList<Integer> retainedSnapshots = new ArrayList<>();
+    ArrayList<Long> retainedBytes = new ArrayList<>();
+
+    // Act
+    for (int height = 0; height < 5000; height++) {
+      Identifier blockId = IdentifierFixture.newIdentifier();
+      TableSnapshot snapshot = new TableSnapshot(blockId, height);
+      for (Map.Entry<Identifier, Account> set : AccountFixture.newAccounts(2, 2).entrySet()) {
+        snapshot.addAccount(set.getKey(), set.getValue());
+      }
+      tableState.addSnapshot(blockId, snapshot);
+      if (height % 500 == 499) {
+        tableState.awaitPruning();
+        retainedSnapshots.add(tableState.retainedSnapshots());
+        retainedBytes.add(tableState.retainedBytes());
+      }
+    }
+
+    // Assert
+    /// last 130 heights (4870-4999) and last 3 checkpoints below them (4840, 4850, 4860) are retained.
+    for (int i = 0; i < retainedSnapshots.size(); i++) {
+      Assertions.assertEquals(133, (int) retainedSnapshots.get(i));
+      Assertions.assertEquals(retainedBytes.get(0), retainedBytes.get(i));
+    }
+    Assertions.assertEquals(5000 - 133, pruned.size());
+    for (long height = 0; height < 5000; height++) {
+      boolean retained = height >= 4870 || height == 4840 || height == 4850 || height == 4860;
+      Assertions.assertEquals(retained, policy.retains(height, 4999));
+      Assertions.assertEquals(retained, tableState.atHeight(height) != null);
+    }
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new RetentionPolicy(130, 10, -1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new RetentionPolicy(RetentionPolicy.MIN_RECENT_HEIGHTS - 1, 10));
+    tableState.shutdown();
+  }
+
+  /**
+   * Evaluates that shrinking the state evicts the snapshots that are not indexed by height, and those that fell out
+   * of the retention window before the pruner got to them, but never a retained snapshot; and that a snapshot evicted
+   * by both the pruner and the shrinking is only spilled and discounted once.
+   */
+  @Test
+  public void testShrinkEvictsNonRetainedSnapshots() throws InterruptedException {
+    // Arrange
+    ArrayList<Snapshot> spilled = new ArrayList<>();
+    TableState keepAll = new TableState(RetentionPolicy.KEEP_ALL, spilled::add, null);
+    ArrayList<Identifier> forkIds = new ArrayList<>();
+    for (int height = 0; height < 10; height++) {
+      TableSnapshot snapshot = newSnapshot(height);
+      keepAll.addSnapshot(snapshot.getReferenceBlockId(), snapshot);
+    }
+    long chainBytes = keepAll.estimatedBytes();
+    for (int height = 0; height < 5; height++) {
+      Identifier forkId = IdentifierFixture.newIdentifier();
+      keepAll.addSnapshot(forkId, newSnapshot(forkId, height));
+      forkIds.add(forkId);
+    }
+
+    RetentionPolicy policy = new RetentionPolicy(130, 10);
+    ArrayList<Snapshot> pruned = new ArrayList<>();
+    TableState tableState = new TableState(policy, pruned::add, null);
+
+    // Act
+    long evicted = keepAll.shrinkTo(0);
+    for (int height = 0; height < 175; height++) {
+      TableSnapshot snapshot = newSnapshot(height);
+      tableState.addSnapshot(snapshot.getReferenceBlockId(), snapshot);
+      tableState.shrinkTo(0);
+    }
+    tableState.awaitPruning();
+
+    // Assert
+    /// only the forks are evicted, as every indexed snapshot is retained.
+    Assertions.assertEquals(chainBytes / 2, evicted);
+    Assertions.assertEquals(chainBytes, keepAll.estimatedBytes());
+    Assertions.assertEquals(10, keepAll.retainedSnapshots());
+    Assertions.assertEquals(5, spilled.size());
+    for (int i = 0; i < forkIds.size(); i++) {
+      Assertions.assertNull(keepAll.atBlockId(forkIds.get(i)));
+      Assertions.assertNotNull(keepAll.atHeight(i));
+    }
+    Assertions.assertEquals(0, keepAll.shrinkTo(0));
+
+    /// last 130 heights (45-174) and checkpoints (0, 10, 20, 30, 40) are retained, the others are spilled once.
+    Assertions.assertEquals(135, tableState.retainedSnapshots());
+    Assertions.assertEquals(40, pruned.size());
+    Assertions.assertEquals(chainBytes / 10 * 135, tableState.retainedBytes());
+    tableState.shutdown();
+  }
+
+  /**
+   * Creates and returns a table snapshot at the given height with a fresh block id and two accounts.
+   *
+   * @param height height of the reference block of the snapshot.
+   * @return the table snapshot.
+   */
+  private static TableSnapshot newSnapshot(long height) {
+    return newSnapshot(IdentifierFixture.newIdentifier(), height);
+  }
+
+  /**
+   * Creates and returns a table snapshot at the given block id and height with two accounts.
+   *
+   * @param blockId identifier of the reference block of the snapshot.
+   * @param height  height of the reference block of the snapshot.
+   * @return the table snapshot.
+   */
+  private static TableSnapshot newSnapshot(Identifier blockId, long height) {
+    TableSnapshot snapshot = new TableSnapshot(blockId, height);
+    for (Map.Entry<Identifier, Account> set : AccountFixture.newAccounts(2, 2).entrySet()) {
+      snapshot.addAccount(set.getKey(), set.getValue());
+    }
+    return snapshot;
+  }
+
   /**
    * Creates and returns an arraylist of mock snapshots.
    *
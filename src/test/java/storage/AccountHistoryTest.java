@@ -0,0 +1,150 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import model.lightchain.ValidatedTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import storage.mapdb.AccountHistoryMapDb;
+import unittest.fixtures.IdentifierFixture;
+import unittest.fixtures.ValidatedTransactionFixture;
+
+/**
+ * Encapsulates tests for the account history index. The chain alternates the direction of transfers between two
+ * accounts, among transactions of other accounts, so that each account both sends and receives.
+ */
+public class AccountHistoryTest {
+  private static final String TEMP_DIR = "tempdir";
+  private static final String TEMP_FILE = "tempfile.db";
+  private static final int BLOCKS = 10;
+  private static final int PAGE_SIZE = 3;
+  private Path tempdir;
+  private AccountHistoryMapDb history;
+  private Identifier alice;
+  private Identifier bob;
+  private ArrayList<Block> chain;
+
+  /**
+   * Set the tests up with a chain where the i-th block carries a transfer from alice to bob on even heights, and from
+   * bob to alice on odd heights.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+    history = new AccountHistoryMapDb(this.path());
+    alice = IdentifierFixture.newIdentifier();
+    bob = IdentifierFixture.newIdentifier();
+    chain = new ArrayList<>();
+    Identifier previousBlockId = IdentifierFixture.newIdentifier();
+    for (int height = 0; height < BLOCKS; height++) {
+      ValidatedTransaction transfer = height % 2 == 0
+          ? ValidatedTransactionFixture.newValidatedTransaction(alice, bob)
+          : ValidatedTransactionFixture.newValidatedTransaction(bob, alice);
+      ValidatedTransaction[] transactions = {
+          ValidatedTransactionFixture.newValidatedTransaction(),
+          transfer,
+          ValidatedTransactionFixture.newValidatedTransaction()
+      };
+      Block block = new Block(previousBlockId, IdentifierFixture.newIdentifier(), height, transactions);
+      chain.add(block);
+      previousBlockId = block.id();
+    }
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    history.closeDb();
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that paging through the history of an account, in both directions, returns every transaction of the
+   * account exactly once, ordered by height, with the role of the account in it.
+   */
+  @Test
+  void testPagesInBothDirections() {
+    // Arrange
+    for (Block block : chain) {
+      Assertions.assertTrue(history.index(block));
+      Assertions.assertFalse(history.index(block));
+    }
+
+    // Act
+    ArrayList<AccountHistory.Entry> ascending = this.allPages(alice, true);
+    ArrayList<AccountHistory.Entry> descending = this.allPages(alice, false);
+
+    // Assert
+    Assertions.assertEquals(BLOCKS, ascending.size());
+    Assertions.assertEquals(BLOCKS, descending.size());
+    for (int height = 0; height < BLOCKS; height++) {
+      AccountHistory.Entry entry = ascending.get(height);
+      Assertions.assertEquals(height, entry.getHeight());
+      Assertions.assertEquals(chain.get(height).getTransactions()[1].id(), entry.getTransactionId());
+      Assertions.assertEquals(height % 2 == 0, entry.isSent());
+      Assertions.assertEquals(height % 2 == 1, entry.isReceived());
+      Assertions.assertEquals(entry.getTransactionId(), descending.get(BLOCKS - 1 - height).getTransactionId());
+    }
+    Assertions.assertEquals(BLOCKS, this.allPages(bob, true).size());
+    Assertions.assertTrue(history.page(IdentifierFixture.newIdentifier(), null, PAGE_SIZE).isEmpty());
+  }
+
+  /**
+   * Evaluates that unindexing a block drops its transactions from the history of its accounts, and that the index
+   * survives reopening the database.
+   */
+  @Test
+  void testUnindexAndRestart() {
+    // Arrange
+    for (Block block : chain) {
+      history.index(block);
+    }
+
+    // Act
+    Assertions.assertTrue(history.unindex(chain.get(BLOCKS - 1)));
+    Assertions.assertFalse(history.unindex(chain.get(BLOCKS - 1)));
+    history.closeDb();
+    history = new AccountHistoryMapDb(this.path());
+
+    // Assert
+    ArrayList<AccountHistory.Entry> newest = history.pageDescending(bob, null, 1);
+    Assertions.assertEquals(1, newest.size());
+    Assertions.assertEquals(BLOCKS - 2, newest.get(0).getHeight());
+    Assertions.assertEquals(BLOCKS - 1, this.allPages(alice, true).size());
+    Identifier sender = chain.get(0).getTransactions()[0].getSender();
+    Assertions.assertEquals(1, history.page(sender, null, PAGE_SIZE).size());
+  }
+
+  private ArrayList<AccountHistory.Entry> allPages(Identifier account, boolean ascending) {
+    ArrayList<AccountHistory.Entry> all = new ArrayList<>();
+    AccountHistory.Entry last = null;
+    while (true) {
+      ArrayList<AccountHistory.Entry> page = ascending
+          ? history.page(account, last, PAGE_SIZE)
+          : history.pageDescending(account, last, PAGE_SIZE);
+      Assertions.assertTrue(page.size() <= PAGE_SIZE);
+      if (page.isEmpty()) {
+        return all;
+      }
+      all.addAll(page);
+      last = page.get(page.size() - 1);
+    }
+  }
+
+  private String path() {
+    return tempdir.toAbsolutePath() + "/" + TEMP_FILE;
+  }
+}
@@ -1,36 +1,281 @@
 package storage;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import storage.mapdb.BlocksMapDb;
+import unittest.fixtures.BlockFixture;
+import unittest.fixtures.IdentifierFixture;
+
 /**
- * Encapsulates tests for block database.
+ * Encapsulates tests for block database. Each test runs on a separate instance of database created on a temporary
+ * directory. A "new" block is one that does not exist in the database yet, and a "duplicate" block is one that
+ * already exists in the database.
  */
 public class BlocksTest {
-  // TODO: implement a unit test for each of the following scenarios:
-  // IMPORTANT NOTE: each test must have a separate instance of database, and the database MUST only created on a
-  // temporary directory.
-  // In following tests by a "new" block, we mean a block that already does not exist in the database,
-  // and by a "duplicate" block, we mean one that already exists in the database.
-  // 1. When adding 10 new blocks sequentially, the Add method must return true for all of them. Moreover, after
-  //    adding blocks is done, querying the Has method for each of the block should return true. After adding all blocks
-  //    are done, each block must be retrievable using both its id (byId) as well as its height (byHeight). Also, when
-  //    querying All method, list of all 10 block must be returned.
-  // 2. Repeat test case 1 for concurrently adding blocks as well as concurrently querying the database for has, byId,
-  //    and byHeight.
-  // 3. Add 10 new blocks sequentially, check that they are added correctly, i.e., while adding each block
-  //    Add must return
-  //    true, Has returns true for each of them, each block is retrievable by both its height and its identifier,
-  //    and All returns list of all of them. Then Remove the first 5 blocks sequentially.
-  //    While Removing each of them, the Remove should return true. Then query all 10 blocks using has, byId,
-  //    and byHeight.
-  //    Has should return false for the first 5 blocks have been removed,
-  //    and byId and byHeight should return null. But for the last 5 blocks, has should return true, and byId
-  //    and byHeight should successfully retrieve the exact block. Also, All should return only the last 5 blocks.
-  // 4. Repeat test case 3 for concurrently adding and removing blocks as well as concurrently querying the
-  //    database for has, byId, and byHeight.
-  // 5. Add 10 new blocks and check that all of them are added correctly, i.e., while adding each block
-  //    Add must return true, has returns true for each of them, and All returns list of all of them. Moreover, each
-  //    block is retrievable using its identifier (byId) and height (byHeight). Then try Adding all of them again, and
-  //    Add should return false for each of them, while has should still return true, and byId and byHeight should be
-  //    able to retrieve the block.
-  // 6. Repeat test case 5 for concurrently adding blocks as well as concurrently querying the
-  //    database for has, byId, and byHeight.
+  private static final String TEMP_DIR = "tempdir";
+  private static final String TEMP_FILE = "tempfile.db";
+  private static final int BLOCKS = 10;
+  private Path tempdir;
+  private ArrayList<Block> allBlocks;
+  private ArrayList<Identifier> allIds;
+  private BlocksMapDb db;
+
+  /**
+   * Set the tests up.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+    db = new BlocksMapDb(this.path());
+    allBlocks = new ArrayList<>();
+    allIds = new ArrayList<>();
+    Identifier previousBlockId = IdentifierFixture.newIdentifier();
+    for (int height = 0; height < BLOCKS; height++) {
+      Block block = BlockFixture.newBlock(previousBlockId, height);
+      allBlocks.add(block);
+      allIds.add(block.id());
+      previousBlockId = block.id();
+    }
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    db.closeDb();
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * When adding 10 new blocks sequentially, the Add method must return true for all of them. Moreover, after adding
+   * blocks is done, Has returns true for each of them, each block is retrievable by both its identifier and its
+   * height, and All returns all 10 blocks.
+   */
+  @Test
+  void sequentialAddTest() {
+    for (Block block : allBlocks) {
+      Assertions.assertTrue(db.add(block));
+    }
+    for (int i = 0; i < BLOCKS; i++) {
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    Assertions.assertEquals(new HashSet<>(allIds), this.allStoredIds());
+  }
+
+  /**
+   * Concurrent version of sequentialAddTest.
+   */
+  @Test
+  void concurrentAddTest() {
+    this.concurrently(BLOCKS, i -> db.add(allBlocks.get(i)));
+    this.concurrently(BLOCKS, this::isRetrievable);
+    Assertions.assertEquals(new HashSet<>(allIds), this.allStoredIds());
+  }
+
+  /**
+   * Add 10 new blocks sequentially and check that they are added correctly, then remove the first 5 blocks
+   * sequentially. Remove must return true for each of them. Afterwards, Has returns false and byId and atHeight
+   * return null for the removed blocks, while the last 5 blocks are still retrievable, and All returns only them.
+   */
+  @Test
+  void removeFirstFiveTest() {
+    for (int i = 0; i < BLOCKS; i++) {
+      Assertions.assertTrue(db.add(allBlocks.get(i)));
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    Assertions.assertEquals(new HashSet<>(allIds), this.allStoredIds());
+
+    for (int i = 0; i < BLOCKS / 2; i++) {
+      Assertions.assertTrue(db.remove(allIds.get(i)));
+    }
+    for (int i = 0; i < BLOCKS; i++) {
+      if (i < BLOCKS / 2) {
+        Assertions.assertTrue(this.isRemoved(i));
+      } else {
+        Assertions.assertTrue(this.isRetrievable(i));
+      }
+    }
+    Assertions.assertEquals(new HashSet<>(allIds.subList(BLOCKS / 2, BLOCKS)), this.allStoredIds());
+  }
+
+  /**
+   * Concurrent version of removeFirstFiveTest.
+   */
+  @Test
+  void concurrentRemoveFirstFiveTest() {
+    this.concurrently(BLOCKS, i -> db.add(allBlocks.get(i)));
+    this.concurrently(BLOCKS, this::isRetrievable);
+    Assertions.assertEquals(new HashSet<>(allIds), this.allStoredIds());
+
+    this.concurrently(BLOCKS / 2, i -> db.remove(allIds.get(i)));
+    this.concurrently(BLOCKS, i -> i < BLOCKS / 2 ? this.isRemoved(i) : this.isRetrievable(i));
+    Assertions.assertEquals(new HashSet<>(allIds.subList(BLOCKS / 2, BLOCKS)), this.allStoredIds());
+  }
+
+  /**
+   * Add 10 new blocks and check that they are added correctly, then try adding all of them again. Add must return
+   * false for each duplicate block, while each block is still retrievable by both its identifier and its height.
+   */
+  @Test
+  void duplicationTest() {
+    for (Block block : allBlocks) {
+      Assertions.assertTrue(db.add(block));
+    }
+    for (int i = 0; i < BLOCKS; i++) {
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    Assertions.assertEquals(new HashSet<>(allIds), this.allStoredIds());
+
+    for (int i = 0; i < BLOCKS; i++) {
+      Assertions.assertFalse(db.add(allBlocks.get(i)));
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    Assertions.assertEquals(BLOCKS, db.all().size());
+  }
+
+  /**
+   * Concurrent version of duplicationTest.
+   */
+  @Test
+  void concurrentDuplicationTest() {
+    this.concurrently(BLOCKS, i -> db.add(allBlocks.get(i)));
+    this.concurrently(BLOCKS, this::isRetrievable);
+    Assertions.assertEquals(new HashSet<>(allIds), this.allStoredIds());
+
+    this.concurrently(BLOCKS, i -> !db.add(allBlocks.get(i)) && this.isRetrievable(i));
+    Assertions.assertEquals(BLOCKS, db.all().size());
+  }
+
+  /**
+   * Evaluates that blocks and their height index survive closing and reopening the database, even when fewer blocks
+   * than a full batch have been written.
+   */
+  @Test
+  void survivesRestartTest() {
+    for (Block block : allBlocks) {
+      Assertions.assertTrue(db.add(block));
+    }
+    Assertions.assertTrue(db.remove(allIds.get(0)));
+    db.closeDb();
+
+    db = new BlocksMapDb(this.path());
+    Assertions.assertTrue(this.isRemoved(0));
+    for (int i = 1; i < BLOCKS; i++) {
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    Assertions.assertEquals(new HashSet<>(allIds.subList(1, BLOCKS)), this.allStoredIds());
+  }
+
+  /**
+   * Evaluates that streaming the blocks returns the same blocks as All, and that a height-bounded stream returns the
+   * blocks of its range in ascending order of height, skipping removed blocks.
+   */
+  @Test
+  void streamTest() {
+    for (Block block : allBlocks) {
+      Assertions.assertTrue(db.add(block));
+    }
+    Assertions.assertTrue(db.remove(allIds.get(4)));
+
+    HashSet<Identifier> streamed = db.stream().map(Block::id).collect(Collectors.toCollection(HashSet::new));
+    Assertions.assertEquals(this.allStoredIds(), streamed);
+
+    ArrayList<Identifier> range = db.stream(2, 7).map(Block::id).collect(Collectors.toCollection(ArrayList::new));
+    ArrayList<Identifier> expected = new ArrayList<>(allIds.subList(2, 7));
+    expected.remove(allIds.get(4));
+    Assertions.assertEquals(expected, range);
+    Assertions.assertEquals(0, db.stream(7, 2).count());
+    Assertions.assertEquals(allIds.get(5), db.stream(4, Integer.MAX_VALUE).findFirst().get().id());
+  }
+
+  private String path() {
+    return tempdir.toAbsolutePath() + "/" + TEMP_FILE;
+  }
+
+  /**
+   * Checks that the i-th block exists and is retrievable by both its identifier and its height.
+   *
+   * @param i index of the block.
+   * @return true if the block is retrievable, false otherwise.
+   */
+  private boolean isRetrievable(int i) {
+    Identifier blockId = allIds.get(i);
+    Block byId = db.byId(blockId);
+    Block atHeight = db.atHeight(allBlocks.get(i).getHeight());
+    return db.has(blockId)
+        && byId != null && byId.id().equals(blockId)
+        && atHeight != null && atHeight.id().equals(blockId);
+  }
+
+  /**
+   * Checks that the i-th block is neither retrievable by its identifier nor by its height.
+   *
+   * @param i index of the block.
+   * @return true if the block is removed, false otherwise.
+   */
+  private boolean isRemoved(int i) {
+    return !db.has(allIds.get(i))
+        && db.byId(allIds.get(i)) == null
+        && db.atHeight(allBlocks.get(i).getHeight()) == null;
+  }
+
+  private HashSet<Identifier> allStoredIds() {
+    HashSet<Identifier> ids = new HashSet<>();
+    for (Block block : db.all()) {
+      ids.add(block.id());
+    }
+    return ids;
+  }
+
+  /**
+   * Runs the given check on a separate thread for each index, and asserts that all checks pass.
+   *
+   * @param count number of threads.
+   * @param check check run by the i-th thread.
+   */
+  private void concurrently(int count, IntPredicate check) {
+    AtomicInteger threadError = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(count);
+    Thread[] threads = new Thread[count];
+    for (int i = 0; i < count; i++) {
+      int finalI = i;
+      threads[i] = new Thread(() -> {
+        if (!check.test(finalI)) {
+          threadError.getAndIncrement();
+        }
+        done.countDown();
+      });
+    }
+
+    for (Thread t : threads) {
+      t.start();
+    }
+    try {
+      boolean doneOneTime = done.await(60, TimeUnit.SECONDS);
+      Assertions.assertTrue(doneOneTime);
+    } catch (InterruptedException e) {
+      Assertions.fail();
+    }
+    Assertions.assertEquals(0, threadError.get());
+  }
 }
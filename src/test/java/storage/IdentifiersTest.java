@@ -6,13 +6,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import model.lightchain.Identifier;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
 import storage.mapdb.IdentifierMapDb;
@@ -398,4 +401,157 @@ public class IdentifiersTest {
     db.closeDb();
     FileUtils.deleteDirectory(new File(tempdir.toString()));
   }
+
+  /**
+   * Evaluates that streaming the identifiers returns the same identifiers as All, that a bounded stream returns
+   * exactly the identifiers within its bounds, and that a short-circuited stream stops early.
+   */
+  @Test
+  void streamTest() throws IOException {
+    for (Identifier identifier : allIds) {
+      Assertions.assertTrue(db.add(identifier));
+    }
+    ArrayList<Identifier> sorted = new ArrayList<>(allIds);
+    sorted.sort(Identifier::comparedTo);
+
+    Assertions.assertEquals(new HashSet<>(allIds), db.stream().collect(Collectors.toSet()));
+    Assertions.assertEquals(new HashSet<>(sorted.subList(2, 7)),
+        db.stream(sorted.get(2), sorted.get(7)).collect(Collectors.toSet()));
+    Assertions.assertEquals(new HashSet<>(sorted.subList(0, 3)), db.stream(null, sorted.get(3))
+        .collect(Collectors.toSet()));
+    Assertions.assertEquals(new HashSet<>(sorted.subList(8, 10)), db.stream(sorted.get(8), null)
+        .collect(Collectors.toSet()));
+    Assertions.assertEquals(3, db.stream().limit(3).count());
+
+    db.closeDb();
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that batches of identifiers are added and removed like single identifiers, i.e., duplicates are not
+   * counted as added, absent identifiers are not counted as removed, and the batches survive reopening the database
+   * under every durability mode.
+   */
+  @Test
+  void addAllRemoveAllTest() throws IOException {
+    db.closeDb();
+    long[] commitIntervals = {IdentifierMapDb.COMMIT_ON_FLUSH, 0, 100};
+    for (long commitInterval : commitIntervals) {
+      for (int mode = 0; mode < 4; mode++) {
+        boolean memoryMapped = (mode & 1) != 0;
+        boolean transactional = (mode & 2) != 0;
+        String path = tempdir.toAbsolutePath() + "/batch-" + commitInterval + "-" + mode + ".db";
+        IdentifierMapDb batchDb = new IdentifierMapDb(path, memoryMapped, transactional, commitInterval);
+
+        Assertions.assertEquals(allIds.size(), batchDb.addAll(allIds));
+        Assertions.assertEquals(0, batchDb.addAll(allIds.subList(0, 5)));
+        Assertions.assertEquals(5, batchDb.removeAll(allIds.subList(0, 5)));
+        Assertions.assertEquals(0, batchDb.removeAll(allIds.subList(0, 5)));
+        batchDb.closeDb();
+
+        batchDb = new IdentifierMapDb(path, memoryMapped, transactional, commitInterval);
+        for (int i = 0; i < allIds.size(); i++) {
+          Assertions.assertEquals(i >= 5, batchDb.has(allIds.get(i)));
+        }
+        Assertions.assertEquals(new HashSet<>(allIds.subList(5, allIds.size())), new HashSet<>(batchDb.all()));
+        batchDb.closeDb();
+      }
+    }
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new IdentifierMapDb(tempdir.toAbsolutePath() + "/invalid.db", false, false, -2));
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that identifiers added one at a time and in batches are all held under every durability mode, both once
+   * flushed and after reopening the database.
+   */
+  @Test
+  void insertPerModeTest() throws IOException {
+    db.closeDb();
+    int identifiers = 20;
+    int batchSize = 10;
+    ArrayList<Identifier> inserted = this.newIdentifiers(identifiers);
+
+    long[] commitIntervals = {IdentifierMapDb.COMMIT_ON_FLUSH, 100, 0};
+    for (long commitInterval : commitIntervals) {
+      for (int mode = 0; mode < 4; mode++) {
+        for (boolean batched : new boolean[] {false, true}) {
+          String path = tempdir.toAbsolutePath() + "/insert-" + commitInterval + "-" + mode + "-" + batched + ".db";
+          IdentifierMapDb insertDb = new IdentifierMapDb(path, (mode & 1) != 0, (mode & 2) != 0, commitInterval);
+          this.insert(insertDb, inserted, batched ? batchSize : 1);
+          insertDb.flush();
+          Assertions.assertEquals(identifiers, insertDb.all().size());
+          insertDb.closeDb();
+
+          insertDb = new IdentifierMapDb(path, (mode & 1) != 0, (mode & 2) != 0, commitInterval);
+          Assertions.assertEquals(new HashSet<>(inserted), new HashSet<>(insertDb.all()));
+          insertDb.closeDb();
+        }
+      }
+    }
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Benchmarks inserts per second under each durability mode, adding identifiers one at a time and in batches of the
+   * size of a block. The figures are printed rather than asserted, as they depend on the machine running the tests;
+   * every identifier must however be held once flushed.
+   */
+  @Test
+  @Tag("benchmark")
+  void insertThroughputPerModeTest() throws IOException {
+    db.closeDb();
+    int identifiers = 10_000;
+    int batchSize = 100;
+    ArrayList<Identifier> inserted = this.newIdentifiers(identifiers);
+
+    String[] names = {"file, no wal", "mmap, no wal", "file, wal", "mmap, wal"};
+    long[] commitIntervals = {IdentifierMapDb.COMMIT_ON_FLUSH, 100, 0};
+    for (long commitInterval : commitIntervals) {
+      for (int mode = 0; mode < 4; mode++) {
+        for (boolean batched : new boolean[] {false, true}) {
+          String path = tempdir.toAbsolutePath() + "/bench-" + commitInterval + "-" + mode + "-" + batched + ".db";
+          IdentifierMapDb benchDb = new IdentifierMapDb(path, (mode & 1) != 0, (mode & 2) != 0, commitInterval);
+
+          long start = System.nanoTime();
+          this.insert(benchDb, inserted, batched ? batchSize : 1);
+          benchDb.flush();
+          double seconds = (System.nanoTime() - start) / 1e9;
+          System.out.printf("identifiers mapdb (%s, commit interval=%dms, %s): inserts/sec=%.0f%n", names[mode],
+              commitInterval, batched ? "addAll of " + batchSize : "add", identifiers / seconds);
+          Assertions.assertEquals(identifiers, benchDb.all().size());
+          benchDb.closeDb();
+        }
+      }
+    }
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Adds the given identifiers, which are all new, one at a time if the batch size is one, and in batches otherwise.
+   *
+   * @param insertDb    the database to add the identifiers to.
+   * @param identifiers the identifiers to add, a multiple of the batch size.
+   * @param batchSize   number of identifiers per batch.
+   */
+  private void insert(IdentifierMapDb insertDb, ArrayList<Identifier> identifiers, int batchSize) {
+    if (batchSize == 1) {
+      for (Identifier identifier : identifiers) {
+        Assertions.assertTrue(insertDb.add(identifier));
+      }
+      return;
+    }
+    for (int i = 0; i < identifiers.size(); i += batchSize) {
+      Assertions.assertEquals(batchSize, insertDb.addAll(identifiers.subList(i, i + batchSize)));
+    }
+  }
+
+  private ArrayList<Identifier> newIdentifiers(int count) {
+    ArrayList<Identifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      identifiers.add(IdentifierFixture.newIdentifier());
+    }
+    return identifiers;
+  }
 }
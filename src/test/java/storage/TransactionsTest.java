@@ -1,34 +1,365 @@
 package storage;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import model.lightchain.Identifier;
+import model.lightchain.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import storage.pool.TransactionPool;
+import unittest.fixtures.TransactionFixture;
+
 /**
- * Encapsulates tests for transactions database.
+ * Encapsulates tests for transactions database. Each test runs on a separate instance of database created on a
+ * temporary directory. A "new" transaction is one that does not exist in the database yet, and a "duplicate"
+ * transaction is one that already exists in the database.
  */
 public class TransactionsTest {
-  // TODO: implement a unit test for each of the following scenarios:
-  // IMPORTANT NOTE: each test must have a separate instance of database, and the database MUST only created on a
-  // temporary directory.
-  // In following tests by a "new" transaction, we mean transaction that already does not exist in the database,
-  // and by a "duplicate" transaction, we mean one that already exists in the database.
-  // 1. When adding 10 new transactions sequentially, the Add method must return true for all of them. Moreover, after
-  //    adding transactions is done, querying the Has method for each of the transaction should return true. Also, when
-  //    querying All method, list of all 10 transactions must be returned. Moreover, all transactions should be
-  //    retrievable through get method.
-  // 2. Repeat test case 1 for concurrently adding transactions as well as concurrently querying the database for has,
-  //    and get.
-  // 3. Add 10 new transactions, check that they are added correctly, i.e., while adding each transactions
-  //    Add must return true, Has returns true for each of them, and All returns list of all of them, and get must
-  //    return the transaction. Then Remove the first
-  //    5 transactions. While Removing each of them, the Remove should return true.
-  //    Then query all 10 transactions using Has. Has should return false for the first 5 transactions
-  //    that have been removed, and get should return null for them. But for the last 5 transactions has
-  //    should return true, and get should return the transaction. Also, All should return only the last 5 transactions.
-  // 4. Repeat test case 3 for concurrently adding and removing transactions as well as concurrently querying the
-  //    database for has and get.
-  // 5. Add 10 new transactions and check that all of them are added correctly, i.e., while adding each transaction
-  //    Add must return true, Has returns true for each of them, get should return the transaction,
-  //    and All returns list of all of them. Then try Adding all of them again, and
-  //    Add should return false for each of them,  while has should still return true, and get should be able to
-  //    able to retrieve the transaction.
-  // 6. Repeat test case 5 for concurrently adding transactions as well as concurrently querying the
-  //    database for has, and get.
+  private static final String TEMP_DIR = "tempdir";
+  private static final String TEMP_FILE = "tempfile.db";
+  private static final int TRANSACTIONS = 10;
+  private Path tempdir;
+  private ArrayList<Transaction> allTransactions;
+  private ArrayList<Identifier> allIds;
+  private TransactionPool db;
+
+  /**
+   * Set the tests up.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+    db = new TransactionPool(this.path());
+    allTransactions = new ArrayList<>();
+    allIds = new ArrayList<>();
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      Transaction transaction = TransactionFixture.newTransaction(i + 1);
+      allTransactions.add(transaction);
+      allIds.add(transaction.id());
+    }
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    db.closeDb();
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * When adding 10 new transactions sequentially, the Add method must return true for all of them. Moreover, after
+   * adding transactions is done, Has returns true and Get returns the transaction for each of them, and All returns
+   * all 10 transactions in the order they were added.
+   */
+  @Test
+  void sequentialAddTest() {
+    for (Transaction transaction : allTransactions) {
+      Assertions.assertTrue(db.add(transaction));
+    }
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    Assertions.assertEquals(TRANSACTIONS, db.size());
+    Assertions.assertEquals(allIds, this.storedIds());
+  }
+
+  /**
+   * Concurrent version of sequentialAddTest.
+   */
+  @Test
+  void concurrentAddTest() {
+    this.concurrently(TRANSACTIONS, i -> db.add(allTransactions.get(i)));
+    this.concurrently(TRANSACTIONS, this::isRetrievable);
+    Assertions.assertEquals(TRANSACTIONS, db.size());
+    Assertions.assertEquals(new HashSet<>(allIds), new HashSet<>(this.storedIds()));
+  }
+
+  /**
+   * Add 10 new transactions and check that they are added correctly, then remove the first 5 transactions. Remove
+   * must return true for each of them. Afterwards, Has returns false and Get returns null for the removed
+   * transactions, while the last 5 transactions are still retrievable, and All returns only them.
+   */
+  @Test
+  void removeFirstFiveTest() {
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      Assertions.assertTrue(db.add(allTransactions.get(i)));
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    Assertions.assertEquals(allIds, this.storedIds());
+
+    for (int i = 0; i < TRANSACTIONS / 2; i++) {
+      Assertions.assertTrue(db.remove(allIds.get(i)));
+    }
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      if (i < TRANSACTIONS / 2) {
+        Assertions.assertTrue(this.isRemoved(i));
+      } else {
+        Assertions.assertTrue(this.isRetrievable(i));
+      }
+    }
+    Assertions.assertEquals(TRANSACTIONS / 2, db.size());
+    Assertions.assertEquals(allIds.subList(TRANSACTIONS / 2, TRANSACTIONS), this.storedIds());
+  }
+
+  /**
+   * Concurrent version of removeFirstFiveTest.
+   */
+  @Test
+  void concurrentRemoveFirstFiveTest() {
+    this.concurrently(TRANSACTIONS, i -> db.add(allTransactions.get(i)));
+    this.concurrently(TRANSACTIONS, this::isRetrievable);
+
+    this.concurrently(TRANSACTIONS / 2, i -> db.remove(allIds.get(i)));
+    this.concurrently(TRANSACTIONS, i -> i < TRANSACTIONS / 2 ? this.isRemoved(i) : this.isRetrievable(i));
+    Assertions.assertEquals(TRANSACTIONS / 2, db.size());
+    Assertions.assertEquals(new HashSet<>(allIds.subList(TRANSACTIONS / 2, TRANSACTIONS)),
+        new HashSet<>(this.storedIds()));
+  }
+
+  /**
+   * Add 10 new transactions and check that they are added correctly, then try adding all of them again. Add must
+   * return false for each duplicate transaction, while each transaction is still retrievable.
+   */
+  @Test
+  void duplicationTest() {
+    for (Transaction transaction : allTransactions) {
+      Assertions.assertTrue(db.add(transaction));
+    }
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      Assertions.assertFalse(db.add(allTransactions.get(i)));
+      Assertions.assertTrue(this.isRetrievable(i));
+    }
+    Assertions.assertEquals(TRANSACTIONS, db.size());
+    Assertions.assertEquals(allIds, this.storedIds());
+  }
+
+  /**
+   * Concurrent version of duplicationTest.
+   */
+  @Test
+  void concurrentDuplicationTest() {
+    this.concurrently(TRANSACTIONS, i -> db.add(allTransactions.get(i)));
+    this.concurrently(TRANSACTIONS, this::isRetrievable);
+    this.concurrently(TRANSACTIONS, i -> !db.add(allTransactions.get(i)) && this.isRetrievable(i));
+    Assertions.assertEquals(TRANSACTIONS, db.size());
+  }
+
+  /**
+   * Evaluates that the pending transactions survive closing and reopening the pool in their arrival order, and that
+   * transactions added after the restart are ordered after them.
+   */
+  @Test
+  void survivesRestartTest() {
+    for (Transaction transaction : allTransactions) {
+      Assertions.assertTrue(db.add(transaction));
+    }
+    Assertions.assertTrue(db.remove(allIds.get(3)));
+    db.closeDb();
+
+    db = new TransactionPool(this.path());
+    ArrayList<Identifier> expected = new ArrayList<>(allIds);
+    expected.remove(3);
+    Assertions.assertEquals(expected, this.storedIds());
+    Assertions.assertTrue(this.isRemoved(3));
+
+    Transaction later = TransactionFixture.newTransaction(TRANSACTIONS + 1);
+    Assertions.assertTrue(db.add(later));
+    expected.add(later.id());
+    Assertions.assertEquals(expected, this.storedIds());
+  }
+
+  /**
+   * Evaluates that every add and remove is committed before it returns: a copy of the database files taken while the
+   * pool is still open, as a crash would leave them, reopens with the pending transactions in their arrival order.
+   */
+  @Test
+  void survivesCrashTest() throws IOException {
+    for (Transaction transaction : allTransactions) {
+      Assertions.assertTrue(db.add(transaction));
+    }
+    Assertions.assertTrue(db.remove(allIds.get(3)));
+    Path crashed = Files.createTempDirectory(Paths.get(""), TEMP_DIR);
+    FileUtils.copyDirectory(new File(tempdir.toString()), new File(crashed.toString()));
+
+    TransactionPool reopened = new TransactionPool(crashed.toAbsolutePath() + "/" + TEMP_FILE);
+    try {
+      ArrayList<Identifier> expected = new ArrayList<>(allIds);
+      expected.remove(3);
+      ArrayList<Identifier> reopenedIds = new ArrayList<>();
+      for (Transaction transaction : reopened) {
+        reopenedIds.add(transaction.id());
+      }
+      Assertions.assertEquals(expected, reopenedIds);
+      Assertions.assertFalse(reopened.has(allIds.get(3)));
+    } finally {
+      reopened.closeDb();
+      FileUtils.deleteDirectory(new File(crashed.toString()));
+    }
+  }
+
+  /**
+   * Stress test in which writers add and remove transactions while readers iterate the pool. Iterators never fail and
+   * observe every transaction at most once, and once all writers are done the pool holds exactly the transactions that
+   * were not removed, in their arrival order.
+   */
+  @Test
+  void concurrentStressTest() throws InterruptedException {
+    int writers = 4;
+    int perWriter = 200;
+    TransactionPool pool = new TransactionPool();
+    ArrayList<ArrayList<Transaction>> batches = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      ArrayList<Transaction> batch = new ArrayList<>();
+      for (int i = 0; i < perWriter; i++) {
+        batch.add(TransactionFixture.newTransaction(w * perWriter + i + 1));
+      }
+      batches.add(batch);
+    }
+
+    AtomicInteger threadError = new AtomicInteger();
+    CountDownLatch writersDone = new CountDownLatch(writers);
+    ArrayList<Thread> threads = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      ArrayList<Transaction> batch = batches.get(w);
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < batch.size(); i++) {
+          if (!pool.add(batch.get(i))) {
+            threadError.getAndIncrement();
+          }
+          // removes every other transaction of the batch shortly after adding it.
+          if (i % 2 == 1 && !pool.remove(batch.get(i - 1).id())) {
+            threadError.getAndIncrement();
+          }
+        }
+        writersDone.countDown();
+      }));
+    }
+    for (int r = 0; r < 2; r++) {
+      threads.add(new Thread(() -> {
+        while (writersDone.getCount() > 0) {
+          HashSet<Identifier> seen = new HashSet<>();
+          for (Transaction transaction : pool) {
+            if (!seen.add(transaction.id())) {
+              threadError.getAndIncrement();
+            }
+          }
+        }
+      }));
+    }
+
+    for (Thread t : threads) {
+      t.start();
+    }
+    Assertions.assertTrue(writersDone.await(60, TimeUnit.SECONDS));
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    Assertions.assertEquals(0, threadError.get());
+    Assertions.assertEquals(writers * perWriter / 2, pool.size());
+    HashSet<Identifier> remaining = new HashSet<>();
+    for (Transaction transaction : pool) {
+      remaining.add(transaction.id());
+    }
+    for (ArrayList<Transaction> batch : batches) {
+      for (int i = 0; i < batch.size(); i++) {
+        Assertions.assertEquals(i % 2 == 1, remaining.contains(batch.get(i).id()));
+        Assertions.assertEquals(i % 2 == 1, pool.has(batch.get(i).id()));
+      }
+    }
+    // each writer's surviving transactions are iterated in the order the writer added them.
+    for (ArrayList<Transaction> batch : batches) {
+      int previous = -1;
+      ArrayList<Transaction> all = pool.all();
+      for (int i = 1; i < batch.size(); i += 2) {
+        int position = all.indexOf(batch.get(i));
+        Assertions.assertTrue(position > previous);
+        previous = position;
+      }
+    }
+  }
+
+  private String path() {
+    return tempdir.toAbsolutePath() + "/" + TEMP_FILE;
+  }
+
+  /**
+   * Checks that the i-th transaction exists and is retrievable by its identifier.
+   *
+   * @param i index of the transaction.
+   * @return true if the transaction is retrievable, false otherwise.
+   */
+  private boolean isRetrievable(int i) {
+    Transaction transaction = db.get(allIds.get(i));
+    return db.has(allIds.get(i)) && transaction != null && transaction.id().equals(allIds.get(i));
+  }
+
+  /**
+   * Checks that the i-th transaction is not retrievable anymore.
+   *
+   * @param i index of the transaction.
+   * @return true if the transaction is removed, false otherwise.
+   */
+  private boolean isRemoved(int i) {
+    return !db.has(allIds.get(i)) && db.get(allIds.get(i)) == null;
+  }
+
+  private ArrayList<Identifier> storedIds() {
+    ArrayList<Identifier> ids = new ArrayList<>();
+    for (Transaction transaction : db.all()) {
+      ids.add(transaction.id());
+    }
+    return ids;
+  }
+
+  /**
+   * Runs the given check on a separate thread for each index, and asserts that all checks pass.
+   *
+   * @param count number of threads.
+   * @param check check run by the i-th thread.
+   */
+  private void concurrently(int count, IntPredicate check) {
+    AtomicInteger threadError = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(count);
+    Thread[] threads = new Thread[count];
+    for (int i = 0; i < count; i++) {
+      int finalI = i;
+      threads[i] = new Thread(() -> {
+        if (!check.test(finalI)) {
+          threadError.getAndIncrement();
+        }
+        done.countDown();
+      });
+    }
+
+    for (Thread t : threads) {
+      t.start();
+    }
+    try {
+      boolean doneOneTime = done.await(60, TimeUnit.SECONDS);
+      Assertions.assertTrue(doneOneTime);
+    } catch (InterruptedException e) {
+      Assertions.fail();
+    }
+    Assertions.assertEquals(0, threadError.get());
+  }
 }
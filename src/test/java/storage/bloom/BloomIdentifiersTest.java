@@ -0,0 +1,179 @@
+package storage.bloom;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import io.prometheus.client.CollectorRegistry;
+import metrics.Collector;
+import metrics.collectors.LightChainCollector;
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import storage.mapdb.IdentifierMapDb;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the Bloom filter front of identifiers storage.
+ */
+public class BloomIdentifiersTest {
+  private static final String TEMP_DIR = "tempdir";
+  private static final String TEMP_FILE = "tempfile.db";
+  private static final int INITIAL_CAPACITY = 1_000;
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+  private Path tempdir;
+  private IdentifierMapDb backing;
+
+  /**
+   * Set the tests up.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+    backing = new IdentifierMapDb(tempdir.toAbsolutePath() + "/" + TEMP_FILE);
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    backing.closeDb();
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that the decorator answers like the backing storage, and that lookups of new identifiers are mostly
+   * answered by the filter alone.
+   */
+  @Test
+  void testLookupsAreSaved() {
+    // Arrange
+    Identifier preexisting = IdentifierFixture.newIdentifier();
+    backing.add(preexisting);
+    BloomIdentifiers identifiers = new BloomIdentifiers(backing, INITIAL_CAPACITY, FALSE_POSITIVE_RATE, null,
+        BloomIdentifiers.DEFAULT_SUBSYSTEM);
+    ArrayList<Identifier> added = this.newIdentifiers(100);
+
+    // Act
+    for (Identifier identifier : added) {
+      Assertions.assertFalse(identifiers.has(identifier));
+      Assertions.assertTrue(identifiers.add(identifier));
+      Assertions.assertFalse(identifiers.add(identifier));
+    }
+
+    // Assert
+    Assertions.assertTrue(identifiers.has(preexisting));
+    for (Identifier identifier : added) {
+      Assertions.assertTrue(identifiers.has(identifier));
+    }
+    Assertions.assertEquals(added.size() + 1, identifiers.all().size());
+    Assertions.assertEquals(added.size(), identifiers.lookupsSaved() + identifiers.falsePositives());
+    Assertions.assertTrue(identifiers.lookupsSaved() > added.size() / 2);
+
+    // a removed identifier is a possible hit of the filter, which the backing storage resolves.
+    Assertions.assertTrue(identifiers.remove(added.get(0)));
+    Assertions.assertFalse(identifiers.has(added.get(0)));
+    Assertions.assertEquals(added.size() + 1, identifiers.lookupsSaved() + identifiers.falsePositives());
+  }
+
+  /**
+   * Evaluates that two filters report their metrics on the same collector under their own subsystems, and that a
+   * subsystem cannot be registered twice.
+   */
+  @Test
+  void testMetricsPerSubsystem() {
+    // Arrange
+    Collector collector = new LightChainCollector();
+    BloomIdentifiers first = new BloomIdentifiers(backing, INITIAL_CAPACITY, FALSE_POSITIVE_RATE, collector,
+        "bloom_test_first");
+    BloomIdentifiers second = new BloomIdentifiers(backing, INITIAL_CAPACITY, FALSE_POSITIVE_RATE, collector,
+        "bloom_test_second");
+
+    // Act
+    for (Identifier identifier : this.newIdentifiers(100)) {
+      first.has(identifier);
+    }
+
+    // Assert
+    CollectorRegistry registry = CollectorRegistry.defaultRegistry;
+    Assertions.assertEquals(first.lookupsSaved(),
+        registry.getSampleValue("storage_bloom_test_first_lookups_saved_total").longValue());
+    Assertions.assertEquals(0.0, registry.getSampleValue("storage_bloom_test_second_lookups_saved_total"));
+    Assertions.assertEquals(0, second.lookupsSaved());
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new BloomIdentifiers(backing, INITIAL_CAPACITY, FALSE_POSITIVE_RATE, collector, "bloom_test_first"));
+  }
+
+  /**
+   * Evaluates that the filter has no false negatives after it scales beyond its initial capacity, and that its
+   * false-positive rate stays within the configured bound.
+   */
+  @Test
+  void testFalsePositiveRateWhileScaling() {
+    // Arrange
+    ScalableBloomFilter filter = new ScalableBloomFilter(INITIAL_CAPACITY, FALSE_POSITIVE_RATE);
+    ArrayList<Identifier> added = this.newIdentifiers(10 * INITIAL_CAPACITY);
+
+    // Act
+    for (Identifier identifier : added) {
+      filter.put(identifier.getBytes());
+    }
+
+    // Assert
+    Assertions.assertTrue(filter.stages() > 1);
+    for (Identifier identifier : added) {
+      Assertions.assertTrue(filter.mightContain(identifier.getBytes()));
+    }
+    int probes = 20_000;
+    int falsePositives = 0;
+    for (Identifier identifier : this.newIdentifiers(probes)) {
+      if (filter.mightContain(identifier.getBytes())) {
+        falsePositives++;
+      }
+    }
+    double rate = (double) falsePositives / probes;
+    Assertions.assertTrue(rate <= FALSE_POSITIVE_RATE * 1.5, "false positive rate is too high: " + rate);
+    /// filters of 1000, 2000, 4000 and 8000 keys hold the added identifiers.
+    Assertions.assertEquals(4, filter.stages());
+  }
+
+  /**
+   * Evaluates that adding identifiers the filter already holds does not count towards its capacity, so the filter
+   * does not scale however often they are added again.
+   */
+  @Test
+  void testReAddingDoesNotScale() {
+    // Arrange
+    ScalableBloomFilter filter = new ScalableBloomFilter(INITIAL_CAPACITY, FALSE_POSITIVE_RATE);
+    ArrayList<Identifier> added = this.newIdentifiers(INITIAL_CAPACITY / 2);
+    for (Identifier identifier : added) {
+      filter.put(identifier.getBytes());
+    }
+    long bits = filter.bits();
+
+    // Act & Assert
+    for (int i = 0; i < 10; i++) {
+      for (Identifier identifier : added) {
+        Assertions.assertFalse(filter.put(identifier.getBytes()));
+      }
+    }
+    Assertions.assertEquals(1, filter.stages());
+    Assertions.assertEquals(bits, filter.bits());
+  }
+
+  private ArrayList<Identifier> newIdentifiers(int count) {
+    ArrayList<Identifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      identifiers.add(IdentifierFixture.newIdentifier());
+    }
+    return identifiers;
+  }
+}
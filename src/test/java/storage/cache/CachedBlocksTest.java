@@ -0,0 +1,172 @@
+package storage.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import io.prometheus.client.CollectorRegistry;
+import metrics.Collector;
+import metrics.collectors.LightChainCollector;
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import storage.mapdb.BlocksMapDb;
+import unittest.fixtures.BlockFixture;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the decoded-block cache in front of the blocks storage.
+ */
+public class CachedBlocksTest {
+  private static final String TEMP_DIR = "tempdir";
+  private static final String TEMP_FILE = "tempfile.db";
+  private static final int BLOCKS = 20;
+  private Path tempdir;
+  private BlocksMapDb backing;
+  private ArrayList<Block> chain;
+
+  /**
+   * Set the tests up with a chain of blocks.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+    backing = new BlocksMapDb(tempdir.toAbsolutePath() + "/" + TEMP_FILE);
+    chain = new ArrayList<>();
+    Identifier previousBlockId = IdentifierFixture.newIdentifier();
+    for (int height = 0; height < BLOCKS; height++) {
+      Block block = BlockFixture.newBlock(previousBlockId, height);
+      chain.add(block);
+      previousBlockId = block.id();
+    }
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    backing.closeDb();
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that repeated reads of recent blocks, by identifier and by height, are served by the cache, and that
+   * the cache answers like the backing storage.
+   */
+  @Test
+  void testRecentBlocksAreHits() {
+    // Arrange
+    CachedBlocks blocks = new CachedBlocks(backing);
+    for (Block block : chain) {
+      Assertions.assertTrue(blocks.add(block));
+      Assertions.assertFalse(blocks.add(block));
+    }
+
+    // Act
+    for (int i = 0; i < BLOCKS; i++) {
+      Assertions.assertEquals(chain.get(i).id(), blocks.byId(chain.get(i).id()).id());
+      Assertions.assertEquals(chain.get(i).id(), blocks.atHeight(i).id());
+      Assertions.assertEquals(chain.get(i).id(), blocks.atHeight(i).id());
+    }
+
+    // Assert
+    // the first read by height of each block misses, as heights are indexed once read.
+    Assertions.assertEquals(2 * BLOCKS, blocks.hits());
+    Assertions.assertEquals(BLOCKS, blocks.misses());
+    Assertions.assertEquals(2.0 / 3, blocks.hitRate(), 1e-9);
+    Assertions.assertNull(blocks.byId(IdentifierFixture.newIdentifier()));
+    Assertions.assertNull(blocks.atHeight(BLOCKS));
+    Assertions.assertEquals(BLOCKS, blocks.all().size());
+  }
+
+  /**
+   * Evaluates that the cache is bounded by the estimated size of its blocks rather than their number, evicting the
+   * least recently used blocks first.
+   */
+  @Test
+  void testBoundedByEstimatedBytes() {
+    // Arrange
+    long blockBytes = CachedBlocks.estimateBytes(chain.get(0));
+    CachedBlocks blocks = new CachedBlocks(backing, 3 * blockBytes + blockBytes / 2, null,
+        CachedBlocks.DEFAULT_SUBSYSTEM);
+
+    // Act
+    for (Block block : chain) {
+      blocks.add(block);
+    }
+
+    // Assert
+    Assertions.assertTrue(blockBytes > 0);
+    Assertions.assertTrue(blocks.cachedBytes() <= 3 * blockBytes + blockBytes / 2);
+    blocks.byId(chain.get(BLOCKS - 1).id());
+    Assertions.assertEquals(1, blocks.hits());
+    blocks.byId(chain.get(0).id());
+    Assertions.assertEquals(1, blocks.misses());
+
+    Assertions.assertTrue(blocks.shrinkTo(0) > 0);
+    Assertions.assertEquals(0, blocks.cachedBytes());
+  }
+
+  /**
+   * Evaluates that a removed block is not served from the cache anymore.
+   */
+  @Test
+  void testRemovedBlockIsInvalidated() {
+    // Arrange
+    CachedBlocks blocks = new CachedBlocks(backing);
+    for (Block block : chain) {
+      blocks.add(block);
+    }
+    Assertions.assertNotNull(blocks.atHeight(0));
+
+    // Act
+    Assertions.assertTrue(blocks.remove(chain.get(0).id()));
+
+    // Assert
+    Assertions.assertFalse(blocks.has(chain.get(0).id()));
+    Assertions.assertNull(blocks.byId(chain.get(0).id()));
+    Assertions.assertNull(blocks.atHeight(0));
+    Assertions.assertFalse(blocks.remove(chain.get(0).id()));
+  }
+
+  /**
+   * Evaluates that two caches report their metrics on the same collector under their own subsystems, and that a
+   * subsystem cannot be registered twice.
+   */
+  @Test
+  void testMetricsPerSubsystem() {
+    // Arrange
+    Collector collector = new LightChainCollector();
+    CachedBlocks first = new CachedBlocks(backing, CachedBlocks.DEFAULT_CAPACITY_BYTES, collector,
+        "block_cache_test_first");
+    CachedBlocks second = new CachedBlocks(backing, CachedBlocks.DEFAULT_CAPACITY_BYTES, collector,
+        "block_cache_test_second");
+    for (Block block : chain) {
+      first.add(block);
+    }
+
+    // Act
+    for (Block block : chain) {
+      first.byId(block.id());
+      second.byId(block.id());
+    }
+
+    // Assert
+    CollectorRegistry registry = CollectorRegistry.defaultRegistry;
+    Assertions.assertEquals((double) BLOCKS, registry.getSampleValue("storage_block_cache_test_first_hits_total"));
+    Assertions.assertEquals(0.0, registry.getSampleValue("storage_block_cache_test_first_misses_total"));
+    Assertions.assertEquals(0.0, registry.getSampleValue("storage_block_cache_test_second_hits_total"));
+    Assertions.assertEquals((double) BLOCKS, registry.getSampleValue("storage_block_cache_test_second_misses_total"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new CachedBlocks(backing,
+        CachedBlocks.DEFAULT_CAPACITY_BYTES, collector, "block_cache_test_first"));
+  }
+}
@@ -0,0 +1,104 @@
+package storage.generational;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import state.Snapshot;
+import state.State;
+import storage.offheap.OffHeapIdentifiers;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the expiring, generation-rotated identifiers set.
+ */
+public class GenerationalIdentifiersTest {
+  private static final long WINDOW = 16;
+  private static final int GENERATIONS = 4;
+  private AtomicLong height;
+  private GenerationalIdentifiers identifiers;
+
+  /**
+   * Set the tests up with a state whose last finalized height is driven by the test.
+   */
+  @BeforeEach
+  void setUp() {
+    height = new AtomicLong();
+    Snapshot last = mock(Snapshot.class);
+    when(last.getReferenceBlockHeight()).thenAnswer(invocation -> height.get());
+    State state = mock(State.class);
+    when(state.last()).thenReturn(last);
+    identifiers = new GenerationalIdentifiers(state, WINDOW, GENERATIONS, () -> new OffHeapIdentifiers(0));
+  }
+
+  /**
+   * Evaluates that identifiers are remembered across generations for as long as they are within the window, and that
+   * add, has, remove and all behave like a plain identifiers storage meanwhile.
+   */
+  @Test
+  void testRememberedWithinWindow() {
+    // Arrange
+    ArrayList<Identifier> added = new ArrayList<>();
+
+    // Act
+    for (int i = 0; i <= WINDOW; i++) {
+      height.set(i);
+      Identifier identifier = IdentifierFixture.newIdentifier();
+      Assertions.assertTrue(identifiers.add(identifier));
+      added.add(identifier);
+    }
+
+    // Assert
+    // the identifier added at height zero is exactly at the edge of the window.
+    for (Identifier identifier : added) {
+      Assertions.assertTrue(identifiers.has(identifier));
+      Assertions.assertFalse(identifiers.add(identifier));
+    }
+    Assertions.assertEquals(new HashSet<>(added), new HashSet<>(identifiers.all()));
+    Assertions.assertTrue(identifiers.remove(added.get(0)));
+    Assertions.assertFalse(identifiers.has(added.get(0)));
+    Assertions.assertFalse(identifiers.remove(added.get(0)));
+    Assertions.assertEquals(added.size() - 1, identifiers.all().size());
+  }
+
+  /**
+   * Evaluates that whole generations are dropped once they fall behind the window, so that the number of generations
+   * stays bounded while the height keeps advancing.
+   */
+  @Test
+  void testExpiredGenerationsAreDropped() {
+    // Arrange
+    ArrayList<Identifier> added = new ArrayList<>();
+
+    // Act
+    for (int i = 0; i < 10 * WINDOW; i++) {
+      height.set(i);
+      Identifier identifier = IdentifierFixture.newIdentifier();
+      identifiers.add(identifier);
+      added.add(identifier);
+      Assertions.assertTrue(identifiers.generations() <= GENERATIONS + 1);
+    }
+
+    // Assert
+    long last = 10 * WINDOW - 1;
+    for (int i = 0; i < added.size(); i++) {
+      if (last - i <= WINDOW) {
+        Assertions.assertTrue(identifiers.has(added.get(i)));
+      } else if (last - i > WINDOW + WINDOW / GENERATIONS) {
+        // beyond the window by more than a generation, so its generation must have been dropped.
+        Assertions.assertFalse(identifiers.has(added.get(i)));
+      }
+    }
+    Assertions.assertTrue(identifiers.all().size() <= WINDOW + WINDOW / GENERATIONS);
+
+    // an expired identifier is new again.
+    Assertions.assertTrue(identifiers.add(added.get(0)));
+  }
+}
@@ -0,0 +1,250 @@
+package storage.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import storage.Blocks;
+import storage.mapdb.BlocksMapDb;
+import unittest.fixtures.BlockFixture;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the segmented block log, and its benchmark against the MapDB-backed block store. The benchmark
+ * is tagged, so that it only runs along with the other benchmarks rather than the unit tests.
+ */
+public class BlockLogTest {
+  private static final String TEMP_DIR = "tempdir";
+  private static final int BLOCKS = 50;
+  private static final int SEGMENT_SIZE = 64 * 1024;
+  private static final int BENCHMARK_BLOCKS = 1_000;
+  private static final int BENCHMARK_READS = 10_000;
+  private final Random random = new Random();
+  private Path tempdir;
+  private ArrayList<Block> chain;
+
+  /**
+   * Set the tests up.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+    chain = this.chain(BLOCKS);
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that appended blocks span several segments, and are retrievable by identifier and height both before
+   * and after reopening the log, while removed blocks stay removed.
+   */
+  @Test
+  void testSurvivesRestartAcrossSegments() {
+    // Arrange
+    BlockLog log = new BlockLog(this.path(), SEGMENT_SIZE);
+    for (Block block : chain) {
+      Assertions.assertTrue(log.add(block));
+    }
+    Assertions.assertFalse(log.add(chain.get(0)));
+    Assertions.assertTrue(log.remove(chain.get(1).id()));
+    Assertions.assertFalse(log.remove(chain.get(1).id()));
+    Assertions.assertTrue(log.segmentCount() > 1);
+    log.closeDb();
+
+    // Act
+    BlockLog reopened = new BlockLog(this.path(), SEGMENT_SIZE);
+
+    // Assert
+    for (int height = 0; height < BLOCKS; height++) {
+      Identifier blockId = chain.get(height).id();
+      if (height == 1) {
+        Assertions.assertFalse(reopened.has(blockId));
+        Assertions.assertNull(reopened.byId(blockId));
+        Assertions.assertNull(reopened.atHeight(height));
+        continue;
+      }
+      Assertions.assertTrue(reopened.has(blockId));
+      Assertions.assertEquals(blockId, reopened.byId(blockId).id());
+      Assertions.assertEquals(blockId, reopened.atHeight(height).id());
+    }
+    Assertions.assertEquals(BLOCKS - 1, reopened.all().size());
+    Assertions.assertNull(reopened.atHeight(BLOCKS));
+    Assertions.assertNull(reopened.byId(IdentifierFixture.newIdentifier()));
+
+    // a block re-added after its removal is appended anew and found after another reopen.
+    Assertions.assertTrue(reopened.add(chain.get(1)));
+    reopened.closeDb();
+    BlockLog again = new BlockLog(this.path(), SEGMENT_SIZE);
+    Assertions.assertEquals(chain.get(1).id(), again.atHeight(1).id());
+    Assertions.assertEquals(BLOCKS, again.all().size());
+    again.closeDb();
+  }
+
+  /**
+   * Evaluates that compaction deletes the sealed segments made mostly of removed blocks, keeps their live blocks
+   * retrievable, and does not revive removed blocks on reopen.
+   */
+  @Test
+  void testCompaction() {
+    // Arrange
+    BlockLog log = new BlockLog(this.path(), SEGMENT_SIZE);
+    for (Block block : chain) {
+      log.add(block);
+    }
+    int segments = log.segmentCount();
+    HashSet<Identifier> removed = new HashSet<>();
+    for (int height = 0; height < BLOCKS - 10; height++) {
+      if (height % 4 != 0) {
+        log.remove(chain.get(height).id());
+        removed.add(chain.get(height).id());
+      }
+    }
+
+    // Act
+    int compacted = log.compact();
+
+    // Assert
+    Assertions.assertTrue(compacted > 0);
+    Assertions.assertTrue(log.segmentCount() < segments + 1);
+    this.assertContent(log, removed);
+    log.closeDb();
+
+    BlockLog reopened = new BlockLog(this.path(), SEGMENT_SIZE);
+    this.assertContent(reopened, removed);
+    reopened.closeDb();
+  }
+
+  /**
+   * Evaluates that replaying the log streams the blocks in height order from the given height.
+   */
+  @Test
+  void testReplay() {
+    // Arrange
+    BlockLog log = new BlockLog(this.path(), SEGMENT_SIZE);
+    for (Block block : chain) {
+      log.add(block);
+    }
+
+    // Act
+    ArrayList<Identifier> replayed = log.replay(10).map(Block::id).collect(Collectors.toCollection(ArrayList::new));
+
+    // Assert
+    Assertions.assertEquals(BLOCKS - 10, replayed.size());
+    for (int i = 0; i < replayed.size(); i++) {
+      Assertions.assertEquals(chain.get(10 + i).id(), replayed.get(i));
+    }
+    Assertions.assertEquals(0, log.replay(BLOCKS).count());
+    log.closeDb();
+  }
+
+  /**
+   * Evaluates that the block log serves the same blocks as the MapDB-backed store for the same chain, by identifier
+   * and by height, at random and once flushed.
+   */
+  @Test
+  void testMatchesMapDb() {
+    BlockLog log = new BlockLog(this.path());
+    BlocksMapDb mapDb = new BlocksMapDb(tempdir.toAbsolutePath() + "/blocks.db");
+    for (Block block : chain) {
+      Assertions.assertEquals(mapDb.add(block), log.add(block));
+    }
+    log.flush();
+
+    for (int i = 0; i < BLOCKS * 10; i++) {
+      Block block = chain.get(random.nextInt(BLOCKS));
+      Assertions.assertEquals(mapDb.byId(block.id()).id(), log.byId(block.id()).id());
+      Assertions.assertEquals(mapDb.atHeight(block.getHeight()).id(), log.atHeight(block.getHeight()).id());
+    }
+    Assertions.assertEquals(mapDb.all().size(), log.all().size());
+
+    log.closeDb();
+    mapDb.closeDb();
+  }
+
+  /**
+   * Measures sequential append throughput and random read latency of the block log against the MapDB-backed store.
+   * The figures are printed rather than asserted, as they depend on the machine running the tests; every read must
+   * however find its block.
+   */
+  @Test
+  @Tag("benchmark")
+  void testBenchmarkAgainstMapDb() {
+    ArrayList<Block> blocks = this.chain(BENCHMARK_BLOCKS);
+    BlockLog log = new BlockLog(this.path());
+    BlocksMapDb mapDb = new BlocksMapDb(tempdir.toAbsolutePath() + "/blocks.db");
+
+    this.benchmark("block log", log, blocks);
+    log.flush();
+    this.benchmark("mapdb", mapDb, blocks);
+
+    log.closeDb();
+    mapDb.closeDb();
+  }
+
+  private void benchmark(String name, Blocks store, ArrayList<Block> blocks) {
+    long start = System.nanoTime();
+    for (Block block : blocks) {
+      store.add(block);
+    }
+    double writeSeconds = (System.nanoTime() - start) / 1e9;
+
+    start = System.nanoTime();
+    for (int i = 0; i < BENCHMARK_READS; i++) {
+      Block block = blocks.get(random.nextInt(blocks.size()));
+      Assertions.assertNotNull(store.atHeight(block.getHeight()));
+    }
+    double readMicros = (System.nanoTime() - start) / 1e3 / BENCHMARK_READS;
+    System.out.printf("%s: sequential writes/sec=%.0f, random read latency=%.1fus%n", name,
+        blocks.size() / writeSeconds, readMicros);
+  }
+
+  private void assertContent(BlockLog log, HashSet<Identifier> removed) {
+    for (int height = 0; height < BLOCKS; height++) {
+      Identifier blockId = chain.get(height).id();
+      if (removed.contains(blockId)) {
+        Assertions.assertFalse(log.has(blockId));
+        Assertions.assertNull(log.atHeight(height));
+      } else {
+        Assertions.assertEquals(blockId, log.byId(blockId).id());
+        Assertions.assertEquals(blockId, log.atHeight(height).id());
+      }
+    }
+    Assertions.assertEquals(BLOCKS - removed.size(), log.all().size());
+  }
+
+  private String path() {
+    return tempdir.toAbsolutePath() + "/log";
+  }
+
+  private ArrayList<Block> chain(int length) {
+    ArrayList<Block> blocks = new ArrayList<>();
+    Identifier previousBlockId = IdentifierFixture.newIdentifier();
+    for (int height = 0; height < length; height++) {
+      Block block = BlockFixture.newBlock(previousBlockId, height);
+      blocks.add(block);
+      previousBlockId = block.id();
+    }
+    return blocks;
+  }
+}
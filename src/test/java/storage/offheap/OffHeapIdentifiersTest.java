@@ -0,0 +1,127 @@
+package storage.offheap;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the off-heap identifiers set.
+ */
+public class OffHeapIdentifiersTest {
+  private static final int IDENTIFIERS = 100_000;
+
+  /**
+   * Evaluates add, has, remove and all while the set grows well beyond its expected size, and that removed
+   * identifiers neither show up again nor break the probing of the identifiers stored past them.
+   */
+  @Test
+  void testGrowAndRemove() {
+    // Arrange
+    OffHeapIdentifiers set = new OffHeapIdentifiers(16);
+    ArrayList<Identifier> identifiers = this.newIdentifiers(IDENTIFIERS);
+
+    // Act
+    for (Identifier identifier : identifiers) {
+      Assertions.assertTrue(set.add(identifier));
+    }
+    for (int i = 0; i < IDENTIFIERS; i += 2) {
+      Assertions.assertTrue(set.remove(identifiers.get(i)));
+    }
+
+    // Assert
+    for (int i = 0; i < IDENTIFIERS; i++) {
+      Assertions.assertEquals(i % 2 == 1, set.has(identifiers.get(i)));
+      if (i % 2 == 1) {
+        Assertions.assertFalse(set.add(identifiers.get(i)));
+      } else {
+        // a removed identifier can be added again, and removed again right away.
+        Assertions.assertTrue(set.add(identifiers.get(i)));
+        Assertions.assertTrue(set.remove(identifiers.get(i)));
+      }
+    }
+    for (int i = 0; i < IDENTIFIERS; i += 2) {
+      Assertions.assertFalse(set.has(identifiers.get(i)));
+      Assertions.assertFalse(set.remove(identifiers.get(i)));
+    }
+    Assertions.assertEquals(IDENTIFIERS / 2, set.size());
+    HashSet<Identifier> all = new HashSet<>(set.all());
+    Assertions.assertEquals(IDENTIFIERS / 2, all.size());
+    for (int i = 1; i < IDENTIFIERS; i += 2) {
+      Assertions.assertTrue(all.contains(identifiers.get(i)));
+    }
+    Assertions.assertThrows(IllegalArgumentException.class, () -> set.add(new Identifier(new byte[8])));
+  }
+
+  /**
+   * Evaluates that the tables stay compact, i.e., that an identifier costs at most its slot divided by the lowest
+   * load a table has right after it grows.
+   */
+  @Test
+  void testOffHeapBytesPerIdentifier() {
+    // Arrange
+    OffHeapIdentifiers set = new OffHeapIdentifiers(IDENTIFIERS);
+
+    // Act
+    for (Identifier identifier : this.newIdentifiers(IDENTIFIERS)) {
+      set.add(identifier);
+    }
+
+    // Assert
+    double bytesPerIdentifier = (double) set.offHeapBytes() / set.size();
+    Assertions.assertEquals(IDENTIFIERS, set.size());
+    Assertions.assertTrue(bytesPerIdentifier <= (1 + Identifier.Size) / 0.4,
+        "too many off-heap bytes per identifier: " + bytesPerIdentifier);
+  }
+
+  /**
+   * Evaluates concurrent adds of overlapping identifiers together with concurrent lookups; every identifier is added
+   * exactly once, and no lookup misses an identifier added before it started.
+   */
+  @Test
+  void testConcurrentAddAndHas() throws InterruptedException {
+    // Arrange
+    int threads = 8;
+    OffHeapIdentifiers set = new OffHeapIdentifiers(16, 4);
+    ArrayList<Identifier> identifiers = this.newIdentifiers(IDENTIFIERS / 4);
+    AtomicInteger added = new AtomicInteger();
+    AtomicInteger threadError = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(threads);
+
+    // Act
+    for (int t = 0; t < threads; t++) {
+      new Thread(() -> {
+        for (Identifier identifier : identifiers) {
+          if (set.add(identifier)) {
+            added.getAndIncrement();
+          }
+          if (!set.has(identifier)) {
+            threadError.getAndIncrement();
+          }
+        }
+        done.countDown();
+      }).start();
+    }
+
+    // Assert
+    Assertions.assertTrue(done.await(60, TimeUnit.SECONDS));
+    Assertions.assertEquals(0, threadError.get());
+    Assertions.assertEquals(identifiers.size(), added.get());
+    Assertions.assertEquals(identifiers.size(), set.size());
+    Assertions.assertEquals(identifiers.size(), set.stream().count());
+  }
+
+  private ArrayList<Identifier> newIdentifiers(int count) {
+    ArrayList<Identifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      identifiers.add(IdentifierFixture.newIdentifier());
+    }
+    return identifiers;
+  }
+}
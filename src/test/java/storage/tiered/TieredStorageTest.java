@@ -0,0 +1,215 @@
+package storage.tiered;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import modules.cache.MemoryBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import state.Snapshot;
+import state.State;
+import storage.mapdb.BlocksMapDb;
+import storage.mapdb.IdentifierMapDb;
+import unittest.fixtures.BlockFixture;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the tiered hot/cold blocks and identifiers storage.
+ */
+public class TieredStorageTest {
+  private static final String TEMP_DIR = "tempdir";
+  private static final int WINDOW = 4;
+  private static final int HEIGHTS = 20;
+  private Path tempdir;
+
+  /**
+   * Set the tests up.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that only the blocks of the recent heights stay in memory, that older blocks migrate to the cold tier,
+   * and that every block is found through the combined read path and the streams that merge both tiers.
+   */
+  @Test
+  void testBlocksMigrateByHeight() {
+    // Arrange
+    BlocksMapDb cold = new BlocksMapDb(tempdir.toAbsolutePath() + "/blocks.db");
+    TieredBlocks blocks = new TieredBlocks(cold, WINDOW);
+    ArrayList<Block> chain = new ArrayList<>();
+    Identifier previousBlockId = IdentifierFixture.newIdentifier();
+    for (int height = 0; height < HEIGHTS; height++) {
+      Block block = BlockFixture.newBlock(previousBlockId, height);
+      chain.add(block);
+      previousBlockId = block.id();
+    }
+
+    // Act
+    for (Block block : chain) {
+      Assertions.assertTrue(blocks.add(block));
+      Assertions.assertFalse(blocks.add(block));
+      Assertions.assertTrue(blocks.hotSize() <= WINDOW);
+    }
+
+    // Assert
+    for (int height = 0; height < HEIGHTS; height++) {
+      Identifier blockId = chain.get(height).id();
+      Assertions.assertEquals(height < HEIGHTS - WINDOW, cold.has(blockId));
+      Assertions.assertTrue(blocks.has(blockId));
+      Assertions.assertEquals(blockId, blocks.byId(blockId).id());
+      Assertions.assertEquals(blockId, blocks.atHeight(height).id());
+    }
+    Assertions.assertEquals(HEIGHTS, blocks.all().size());
+    List<Identifier> chainIds = chain.stream().map(Block::id).collect(Collectors.toList());
+    Assertions.assertEquals(new HashSet<>(chainIds), blocks.stream().map(Block::id).collect(Collectors.toSet()));
+    Assertions.assertEquals(HEIGHTS, blocks.stream().count());
+    Assertions.assertEquals(chainIds, blocks.stream(-1, HEIGHTS + 1).map(Block::id).collect(Collectors.toList()));
+    /// the range spans both tiers, with the hot tier holding its upper part.
+    int from = HEIGHTS - 2 * WINDOW;
+    int to = HEIGHTS - WINDOW / 2;
+    Assertions.assertEquals(chainIds.subList(from, to),
+        blocks.stream(from, to).map(Block::id).collect(Collectors.toList()));
+    Assertions.assertEquals(0, blocks.stream(HEIGHTS, HEIGHTS + WINDOW).count());
+
+    // a block below the window goes to the cold tier directly, and removal covers both tiers.
+    Block old = BlockFixture.newBlock(IdentifierFixture.newIdentifier(), 0);
+    Assertions.assertTrue(blocks.add(old));
+    Assertions.assertTrue(cold.has(old.id()));
+    Assertions.assertTrue(blocks.remove(old.id()));
+    Assertions.assertTrue(blocks.remove(chain.get(HEIGHTS - 1).id()));
+    Assertions.assertFalse(blocks.has(chain.get(HEIGHTS - 1).id()));
+    Assertions.assertNull(blocks.atHeight(HEIGHTS - 1));
+    Assertions.assertFalse(blocks.remove(chain.get(HEIGHTS - 1).id()));
+    cold.closeDb();
+  }
+
+  /**
+   * Evaluates that identifiers migrate to the cold tier in groups once the height they were added at falls out of the
+   * window, and that every identifier is found through the combined read path and the streams that merge both tiers.
+   */
+  @Test
+  void testIdentifiersMigrateByHeight() {
+    // Arrange
+    AtomicLong height = new AtomicLong();
+    Snapshot last = mock(Snapshot.class);
+    when(last.getReferenceBlockHeight()).thenAnswer(invocation -> height.get());
+    State state = mock(State.class);
+    when(state.last()).thenReturn(last);
+    IdentifierMapDb cold = new IdentifierMapDb(tempdir.toAbsolutePath() + "/identifiers.db");
+    TieredIdentifiers identifiers = new TieredIdentifiers(cold, state, WINDOW);
+    ArrayList<Identifier> added = new ArrayList<>();
+
+    // Act
+    for (int h = 0; h < HEIGHTS; h++) {
+      height.set(h);
+      for (int i = 0; i < 3; i++) {
+        Identifier identifier = IdentifierFixture.newIdentifier();
+        Assertions.assertTrue(identifiers.add(identifier));
+        added.add(identifier);
+      }
+      Assertions.assertTrue(identifiers.hotSize() <= 3 * WINDOW);
+    }
+
+    // Assert
+    for (int i = 0; i < added.size(); i++) {
+      Assertions.assertEquals(i / 3 <= HEIGHTS - 1 - WINDOW, cold.has(added.get(i)));
+      Assertions.assertTrue(identifiers.has(added.get(i)));
+      Assertions.assertFalse(identifiers.add(added.get(i)));
+    }
+    Assertions.assertEquals(new HashSet<>(added), new HashSet<>(identifiers.all()));
+    Assertions.assertEquals(new HashSet<>(added), identifiers.stream().collect(Collectors.toSet()));
+    Assertions.assertEquals(added.size(), identifiers.stream().count());
+    Identifier lower = added.get(0).comparedTo(added.get(1)) < 0 ? added.get(0) : added.get(1);
+    Identifier upper = added.get(added.size() - 1);
+    Assertions.assertEquals(added.stream().filter(identifier -> identifier.isWithin(lower, upper))
+        .collect(Collectors.toSet()), identifiers.stream(lower, upper).collect(Collectors.toSet()));
+    Assertions.assertEquals(added.size(), identifiers.stream(null, null).count());
+    Assertions.assertTrue(identifiers.remove(added.get(0)));
+    Assertions.assertTrue(identifiers.remove(added.get(added.size() - 1)));
+    Assertions.assertFalse(identifiers.has(added.get(0)));
+    Assertions.assertFalse(identifiers.has(added.get(added.size() - 1)));
+    Assertions.assertEquals(added.size() - 2, identifiers.all().size());
+    cold.closeDb();
+  }
+
+  /**
+   * Evaluates that tiered stores registered with a memory budget migrate their oldest hot entries to the cold tier
+   * ahead of the window once they exceed the budget, and that every entry is still found on the cold tier.
+   */
+  @Test
+  void testStoresShrinkUnderBudget() {
+    // Arrange
+    AtomicLong height = new AtomicLong();
+    Snapshot last = mock(Snapshot.class);
+    when(last.getReferenceBlockHeight()).thenAnswer(invocation -> height.get());
+    State state = mock(State.class);
+    when(state.last()).thenReturn(last);
+    BlocksMapDb coldBlocks = new BlocksMapDb(tempdir.toAbsolutePath() + "/blocks.db");
+    IdentifierMapDb coldIdentifiers = new IdentifierMapDb(tempdir.toAbsolutePath() + "/identifiers.db");
+    TieredBlocks blocks = new TieredBlocks(coldBlocks, HEIGHTS);
+    TieredIdentifiers identifiers = new TieredIdentifiers(coldIdentifiers, state, HEIGHTS);
+    ArrayList<Block> chain = new ArrayList<>();
+    Identifier previousBlockId = IdentifierFixture.newIdentifier();
+    for (int h = 0; h < HEIGHTS; h++) {
+      height.set(h);
+      Block block = BlockFixture.newBlock(previousBlockId, h);
+      Assertions.assertTrue(blocks.add(block));
+      Assertions.assertTrue(identifiers.add(block.id()));
+      chain.add(block);
+      previousBlockId = block.id();
+    }
+    long used = blocks.estimatedBytes() + identifiers.estimatedBytes();
+    MemoryBudget budget = new MemoryBudget(used / 2, null, MemoryBudget.DEFAULT_SUBSYSTEM);
+    budget.register("hot_blocks", blocks);
+    budget.register("hot_identifiers", identifiers);
+
+    // Act
+    long evicted = budget.rebalance();
+
+    // Assert
+    Assertions.assertTrue(evicted > 0);
+    Assertions.assertTrue(budget.usedBytes() <= budget.budgetBytes());
+    Assertions.assertTrue(blocks.hotSize() < HEIGHTS);
+    Assertions.assertTrue(identifiers.hotSize() < HEIGHTS);
+    /// the oldest heights are migrated first, and every entry is found through the combined read path.
+    Assertions.assertTrue(coldBlocks.has(chain.get(0).id()));
+    Assertions.assertTrue(coldIdentifiers.has(chain.get(0).id()));
+    Assertions.assertFalse(coldBlocks.has(chain.get(HEIGHTS - 1).id()));
+    for (int h = 0; h < HEIGHTS; h++) {
+      Identifier blockId = chain.get(h).id();
+      Assertions.assertEquals(blockId, blocks.atHeight(h).id());
+      Assertions.assertTrue(identifiers.has(blockId));
+    }
+    Assertions.assertEquals(HEIGHTS, blocks.all().size());
+    coldBlocks.closeDb();
+    coldIdentifiers.closeDb();
+  }
+}
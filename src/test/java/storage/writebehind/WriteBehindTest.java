@@ -0,0 +1,248 @@
+package storage.writebehind;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import model.lightchain.Block;
+import model.lightchain.Identifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+import storage.Identifiers;
+import storage.mapdb.BlocksMapDb;
+import storage.mapdb.IdentifierMapDb;
+import unittest.fixtures.BlockFixture;
+import unittest.fixtures.IdentifierFixture;
+
+/**
+ * Encapsulates tests for the write-behind decorators of the storage interfaces. The latency benchmark is tagged, so
+ * that it only runs along with the other benchmarks rather than the unit tests.
+ */
+public class WriteBehindTest {
+  private static final String TEMP_DIR = "tempdir";
+  private static final long NEVER_MS = 3_600_000;
+  private static final int BLOCKS = 10;
+  private Path tempdir;
+
+  /**
+   * Set the tests up.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    Path currentRelativePath = Paths.get("");
+    tempdir = Files.createTempDirectory(currentRelativePath, TEMP_DIR);
+  }
+
+  /**
+   * Clean the tests up.
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    FileUtils.deleteDirectory(new File(tempdir.toString()));
+  }
+
+  /**
+   * Evaluates that added and removed blocks are served from memory before they reach the backing storage, and that a
+   * flush applies them in order.
+   */
+  @Test
+  void testBlocksServedBeforeFlush() {
+    // Arrange
+    BlocksMapDb backing = new BlocksMapDb(this.path("blocks.db"));
+    WriteBehindBlocks blocks = new WriteBehindBlocks(backing, NEVER_MS);
+    ArrayList<Block> added = new ArrayList<>();
+    Identifier previousBlockId = IdentifierFixture.newIdentifier();
+    for (int height = 0; height < BLOCKS; height++) {
+      Block block = BlockFixture.newBlock(previousBlockId, height);
+      added.add(block);
+      previousBlockId = block.id();
+    }
+
+    // Act
+    for (Block block : added) {
+      Assertions.assertTrue(blocks.add(block));
+      Assertions.assertFalse(blocks.add(block));
+    }
+    Assertions.assertTrue(blocks.remove(added.get(0).id()));
+    Assertions.assertFalse(blocks.remove(added.get(0).id()));
+
+    // Assert
+    Assertions.assertEquals(BLOCKS + 1, blocks.pendingWrites());
+    Assertions.assertTrue(backing.all().isEmpty());
+    Assertions.assertFalse(blocks.has(added.get(0).id()));
+    Assertions.assertNull(blocks.atHeight(0));
+    for (int i = 1; i < BLOCKS; i++) {
+      Assertions.assertTrue(blocks.has(added.get(i).id()));
+      Assertions.assertEquals(added.get(i).id(), blocks.byId(added.get(i).id()).id());
+      Assertions.assertEquals(added.get(i).id(), blocks.atHeight(i).id());
+    }
+    Assertions.assertEquals(BLOCKS - 1, blocks.all().size());
+
+    blocks.flush();
+    Assertions.assertEquals(0, blocks.pendingWrites());
+    Assertions.assertFalse(backing.has(added.get(0).id()));
+    for (int i = 1; i < BLOCKS; i++) {
+      Assertions.assertTrue(backing.has(added.get(i).id()));
+      Assertions.assertEquals(added.get(i).id(), blocks.atHeight(i).id());
+    }
+    Assertions.assertEquals(BLOCKS - 1, blocks.all().size());
+
+    blocks.close();
+    backing.closeDb();
+  }
+
+  /**
+   * Evaluates that a zero flush interval makes every write reach the backing storage before it returns, and that a
+   * positive one makes writes reach it within the interval without an explicit flush.
+   */
+  @Test
+  void testSynchronousAndBoundedLoss() throws InterruptedException {
+    // Arrange
+    IdentifierMapDb synchronousBacking = new IdentifierMapDb(this.path("sync.db"), false, true, 0);
+    IdentifierMapDb boundedBacking = new IdentifierMapDb(this.path("bounded.db"), false, true, 0);
+    WriteBehindIdentifiers synchronous = new WriteBehindIdentifiers(synchronousBacking, 0);
+    WriteBehindIdentifiers bounded = new WriteBehindIdentifiers(boundedBacking, 20);
+    Identifier identifier = IdentifierFixture.newIdentifier();
+
+    // Act
+    Assertions.assertTrue(synchronous.add(identifier));
+    Assertions.assertTrue(bounded.add(identifier));
+
+    // Assert
+    Assertions.assertTrue(synchronousBacking.has(identifier));
+    Assertions.assertEquals(0, synchronous.pendingWrites());
+    for (int i = 0; i < 500 && !boundedBacking.has(identifier); i++) {
+      Thread.sleep(10);
+    }
+    Assertions.assertTrue(boundedBacking.has(identifier));
+    Assertions.assertTrue(bounded.has(identifier));
+
+    synchronous.close();
+    bounded.close();
+    synchronousBacking.closeDb();
+    boundedBacking.closeDb();
+  }
+
+  /**
+   * Evaluates that interleaved additions and removals of identifiers reach the backing storage in their order of
+   * arrival, as batches of consecutive writes.
+   */
+  @Test
+  void testIdentifiersAppliedInOrder() {
+    // Arrange
+    IdentifierMapDb backing = new IdentifierMapDb(this.path("identifiers.db"));
+    WriteBehindIdentifiers identifiers = new WriteBehindIdentifiers(backing, NEVER_MS);
+    ArrayList<Identifier> added = this.newIdentifiers(100);
+
+    // Act
+    for (Identifier identifier : added) {
+      Assertions.assertTrue(identifiers.add(identifier));
+    }
+    for (int i = 0; i < added.size(); i += 2) {
+      Assertions.assertTrue(identifiers.remove(added.get(i)));
+    }
+    // removed and added again, so the last write wins.
+    Assertions.assertTrue(identifiers.add(added.get(0)));
+    identifiers.flush();
+
+    // Assert
+    HashSet<Identifier> expected = new HashSet<>();
+    expected.add(added.get(0));
+    for (int i = 1; i < added.size(); i += 2) {
+      expected.add(added.get(i));
+    }
+    Assertions.assertEquals(expected, new HashSet<>(backing.all()));
+    Assertions.assertEquals(expected, new HashSet<>(identifiers.all()));
+
+    identifiers.close();
+    backing.closeDb();
+  }
+
+  /**
+   * Evaluates that adds to a store that commits every write are grouped behind the decorator: none of them reaches
+   * the backing storage before the flush, each one is answered from memory meanwhile, and the flush applies all of
+   * them at once.
+   */
+  @Test
+  void testAddsGroupedUntilFlush() {
+    // Arrange
+    ArrayList<Identifier> added = this.newIdentifiers(1_000);
+    IdentifierMapDb backing = new IdentifierMapDb(this.path("grouped.db"), false, true, 0);
+    WriteBehindIdentifiers behind = new WriteBehindIdentifiers(backing, NEVER_MS);
+
+    // Act
+    for (Identifier identifier : added) {
+      Assertions.assertTrue(behind.add(identifier));
+      Assertions.assertFalse(behind.add(identifier));
+    }
+
+    // Assert
+    Assertions.assertEquals(added.size(), behind.pendingWrites());
+    Assertions.assertTrue(backing.all().isEmpty());
+    for (Identifier identifier : added) {
+      Assertions.assertTrue(behind.has(identifier));
+    }
+    behind.flush();
+    Assertions.assertEquals(0, behind.pendingWrites());
+    Assertions.assertEquals(new HashSet<>(added), new HashSet<>(backing.all()));
+
+    behind.close();
+    backing.closeDb();
+  }
+
+  /**
+   * Benchmarks the latency of adding identifiers to a store that commits every write, directly and behind the
+   * write-behind decorator.
+   */
+  @Test
+  @Tag("benchmark")
+  void testAddLatency() {
+    // Arrange
+    ArrayList<Identifier> added = this.newIdentifiers(5_000);
+    IdentifierMapDb direct = new IdentifierMapDb(this.path("direct.db"), false, true, 0);
+    IdentifierMapDb backing = new IdentifierMapDb(this.path("behind.db"), false, true, 0);
+    WriteBehindIdentifiers behind = new WriteBehindIdentifiers(backing);
+
+    // Act
+    double directMicros = this.addLatencyMicros(direct, added);
+    double behindMicros = this.addLatencyMicros(behind, added);
+    behind.flush();
+
+    // Assert
+    System.out.printf("write-behind identifiers: direct add latency=%.1fus, write-behind add latency=%.1fus%n",
+        directMicros, behindMicros);
+    Assertions.assertEquals(added.size(), backing.all().size());
+
+    behind.close();
+    direct.closeDb();
+    backing.closeDb();
+  }
+
+  private double addLatencyMicros(Identifiers identifiers, ArrayList<Identifier> added) {
+    long start = System.nanoTime();
+    for (Identifier identifier : added) {
+      identifiers.add(identifier);
+    }
+    return (System.nanoTime() - start) / 1e3 / added.size();
+  }
+
+  private ArrayList<Identifier> newIdentifiers(int count) {
+    ArrayList<Identifier> identifiers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      identifiers.add(IdentifierFixture.newIdentifier());
+    }
+    return identifiers;
+  }
+
+  private String path(String file) {
+    return tempdir.toAbsolutePath() + "/" + file;
+  }
+}